@@ -0,0 +1,44 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream;
+
+/**
+ * Callback API to confirm several messages at once.
+ *
+ * <p>The listener is called once per confirmation frame the broker sends, with the publishing IDs
+ * of the messages the frame confirms. This is cheaper than calling a {@link ConfirmationHandler}
+ * for each message when the publishing rate is high.
+ *
+ * <p>The publishing ID of a message is the one set with {@link MessageBuilder#publishingId(long)},
+ * or the one the producer assigns it. In the latter case, publishing IDs are assigned in sending
+ * order, starting from 0 (or the last publishing ID of the producer plus 1 for a named producer).
+ *
+ * @see ProducerBuilder#confirmationListener(ConfirmationListener)
+ * @since 1.10.0
+ */
+@FunctionalInterface
+public interface ConfirmationListener {
+
+  /**
+   * Callback to confirm messages.
+   *
+   * <p>Only the first <code>count</code> elements of the array are valid. The array is re-used
+   * between calls, so the listener must copy the publishing IDs it needs to keep.
+   *
+   * @param publishingIds the publishing IDs of the confirmed messages
+   * @param count the number of confirmed messages
+   */
+  void handle(long[] publishingIds, int count);
+}
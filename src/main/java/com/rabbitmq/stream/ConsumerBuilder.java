@@ -61,6 +61,27 @@ public interface ConsumerBuilder {
    */
   ConsumerBuilder messageHandler(MessageHandler messageHandler);
 
+  /**
+   * The callback for inbound messages, one chunk of messages at a time.
+   *
+   * <p>This is an alternative to {@link #messageHandler(MessageHandler)} for applications that
+   * process messages in bulk. The handler is called once per chunk with the messages of the chunk.
+   * It avoids the creation of a {@link MessageHandler.Context} for each message.
+   *
+   * <p>Message filtering and offset tracking apply as with a message handler. With automatic offset
+   * tracking, the messages of a batch are considered processed once the handler returns. With a
+   * super stream, {@link MessageBatchHandler.Batch#storeOffset()} stores the offset for the
+   * partition the batch comes from.
+   *
+   * <p>Only one of {@link #messageHandler(MessageHandler)} and this method can be used.
+   *
+   * @param messageBatchHandler the batch handler
+   * @return this builder instance
+   * @see MessageBatchHandler
+   * @since 1.10.0
+   */
+  ConsumerBuilder messageBatchHandler(MessageBatchHandler messageBatchHandler);
+
   /**
    * The logical name of the {@link Consumer}.
    *
@@ -324,6 +345,43 @@ public interface ConsumerBuilder {
      */
     FilterConfiguration postFilter(Predicate<Message> filter);
 
+    /**
+     * Client-side filtering on an application property, occurring after the server-side filtering.
+     *
+     * <p>The condition is evaluated on the AMQP 1.0 bytes of the message, before the message is
+     * decoded. A message that does not match is skipped: it is not decoded and does not go to the
+     * {@link MessageHandler}. This is cheaper than a {@link #postFilter(Predicate)} when many
+     * messages are filtered out.
+     *
+     * <p>The application property matches if its value is the given string. Call this method
+     * several times to add conditions, a message must match all of them.
+     *
+     * <p>The conditions can be combined with a {@link #postFilter(Predicate)}, which then receives
+     * only the messages that match the conditions. The conditions must be consistent with the
+     * requested filter {@link #values(String...)} and the {@link #matchUnfiltered()} flag.
+     *
+     * @param key the application property key
+     * @param value the expected value
+     * @return this filter configuration instance
+     * @see #messageAnnotation(String, String)
+     * @since 1.10.0
+     */
+    FilterConfiguration applicationProperty(String key, String value);
+
+    /**
+     * Client-side filtering on a message annotation, occurring after the server-side filtering.
+     *
+     * <p>The message annotation matches if its value is the given string (or symbol). It works the
+     * same way as {@link #applicationProperty(String, String)}.
+     *
+     * @param key the message annotation key
+     * @param value the expected value
+     * @return this filter configuration instance
+     * @see #applicationProperty(String, String)
+     * @since 1.10.0
+     */
+    FilterConfiguration messageAnnotation(String key, String value);
+
     /**
      * Whether messages without a filter value should be sent as well.
      *
@@ -473,6 +473,65 @@ public interface EnvironmentBuilder {
    */
   StreamEnvironmentBuilder locatorConnectionCount(int locatorConnectionCount);
 
+  /**
+   * Number of threads producers share to batch and send messages.
+   *
+   * <p>Each producer uses a dedicated thread to batch messages by default (when {@link
+   * ProducerBuilder#dynamicBatch(boolean)} is enabled). Set a positive value to make all the
+   * producers of the environment share this number of threads instead. This reduces the number of
+   * threads for applications that use many producers. Each producer is bound to a thread, so
+   * messages are still sent in order.
+   *
+   * <p>Threads are virtual threads if the <code>rabbitmq.stream.threads.virtual.enabled</code>
+   * system property is set to <code>true</code> and the JVM supports them.
+   *
+   * <p>Default is 0 (a dedicated thread for each producer).
+   *
+   * @param dynamicBatchThreads number of shared threads, 0 for a thread for each producer
+   * @return this builder instance
+   * @see ProducerBuilder#dynamicBatch(boolean)
+   * @since 1.10.0
+   */
+  EnvironmentBuilder dynamicBatchThreads(int dynamicBatchThreads);
+
+  /**
+   * Number of threads consumers share to decode and dispatch messages.
+   *
+   * <p>Each consumer connection uses a single thread to decode chunks (checksum, decompression,
+   * AMQP decoding) and to call the message handlers by default. This can be a bottleneck when many
+   * busy consumers share a connection. Set a positive value to decode chunks of the different
+   * consumers of a connection in parallel on this number of shared threads. Chunks of a given
+   * consumer are still handled one at a time and in order.
+   *
+   * <p>Default is 0 (a single dispatching thread for each consumer connection).
+   *
+   * @param consumerDecodingThreads number of shared threads, 0 for a thread for each connection
+   * @return this builder instance
+   * @see #maxConsumersByConnection(int)
+   * @since 1.10.0
+   */
+  EnvironmentBuilder consumerDecodingThreads(int consumerDecodingThreads);
+
+  /**
+   * Time to keep stream metadata in the environment cache.
+   *
+   * <p>Producers and consumers look up the metadata of their stream (leader and replica nodes) when
+   * they are created and when they recover. The environment caches this metadata, so that many
+   * producers and consumers created on the same stream at the same time share the same request. An
+   * entry is invalidated before it expires when the broker notifies the topology of the stream has
+   * changed.
+   *
+   * <p>Use {@link Duration#ZERO} to disable caching. Concurrent lookups for the same stream still
+   * share the same request then.
+   *
+   * <p>Default is 5 seconds.
+   *
+   * @param ttl time to keep stream metadata in the cache
+   * @return this builder instance
+   * @since 1.10.0
+   */
+  EnvironmentBuilder streamMetadataCacheTtl(Duration ttl);
+
   /**
    * Create the {@link Environment} instance.
    *
@@ -564,12 +623,58 @@ public interface EnvironmentBuilder {
      */
     NettyConfiguration bootstrapCustomizer(Consumer<Bootstrap> bootstrapCustomizer);
 
+    /**
+     * The Netty transport to use for connections.
+     *
+     * <p>The transport determines the event loop group the environment creates and the channel
+     * class of connections. {@link Transport#AUTO} uses the best native transport available: <a
+     * href="https://netty.io/wiki/native-transports.html">native transports</a> usually make fewer
+     * system calls than the Java NIO transport.
+     *
+     * <p>Native transports require Netty 4.2 and the native transport dependency for the platform
+     * (e.g. <code>io.netty:netty-transport-native-epoll</code> with the <code>linux-x86_64</code>
+     * classifier).
+     *
+     * <p>An event loop group provided with {@link #eventLoopGroup(EventLoopGroup)} must match the
+     * transport. A channel class set in the {@link #bootstrapCustomizer(Consumer)} takes precedence
+     * over the transport.
+     *
+     * <p>Default is {@link Transport#NIO}.
+     *
+     * @param transport the transport to use
+     * @return the Netty configuration helper
+     * @since 1.10.0
+     */
+    NettyConfiguration transport(Transport transport);
+
     /**
      * Go back to the environment builder
      *
      * @return the environment builder
      */
     EnvironmentBuilder environmentBuilder();
+
+    /**
+     * Netty transport.
+     *
+     * @since 1.10.0
+     */
+    enum Transport {
+
+      /** Java NIO transport, available on all platforms. */
+      NIO,
+
+      /** Linux native <code>epoll</code> transport. */
+      EPOLL,
+
+      /** Linux native <code>io_uring</code> transport. */
+      IO_URING,
+
+      /**
+       * Best available transport: <code>io_uring</code>, then <code>epoll</code>, then Java NIO.
+       */
+      AUTO
+    }
   }
 
   /**
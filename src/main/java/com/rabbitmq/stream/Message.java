@@ -14,6 +14,7 @@
 // info@rabbitmq.com.
 package com.rabbitmq.stream;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -62,6 +63,21 @@ public interface Message {
    */
   byte[] getBodyAsBinary();
 
+  /**
+   * Get the body of the message as a read-only {@link ByteBuffer}.
+   *
+   * <p>The buffer is a view on the body, no bytes are copied. This is convenient to hand over the
+   * body to APIs that accept {@link ByteBuffer}s.
+   *
+   * @return the message body, or null if the message has no body
+   * @throws IllegalStateException if the body cannot be returned as binary
+   * @since 1.10.0
+   */
+  default ByteBuffer getBodyAsByteBuffer() {
+    byte[] body = this.getBodyAsBinary();
+    return body == null ? null : ByteBuffer.wrap(body).asReadOnlyBuffer();
+  }
+
   /**
    * Get the message body.
    *
@@ -0,0 +1,111 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream;
+
+/**
+ * Callback API for inbound messages, one chunk at a time.
+ *
+ * <p>The handler is called once per chunk with all the messages of the chunk the consumer receives.
+ * This is an alternative to {@link MessageHandler} for applications that process messages in bulk
+ * (e.g. to write them to a database).
+ *
+ * @see ConsumerBuilder#messageBatchHandler(MessageBatchHandler)
+ * @since 1.10.0
+ */
+@FunctionalInterface
+public interface MessageBatchHandler {
+
+  /**
+   * Callback for the messages of a chunk.
+   *
+   * <p>The batch instance is reused for the next chunks, it must not be used after the method
+   * returns.
+   *
+   * @param batch the messages
+   */
+  void handle(Batch batch);
+
+  /** Messages of a chunk. */
+  interface Batch {
+
+    /**
+     * The number of messages in the batch.
+     *
+     * @return number of messages
+     */
+    int size();
+
+    /**
+     * The message at the given index.
+     *
+     * @param index index of the message, from 0 to {@link #size()} excluded
+     * @return the message
+     */
+    Message message(int index);
+
+    /**
+     * The offset in the stream of the message at the given index.
+     *
+     * @param index index of the message, from 0 to {@link #size()} excluded
+     * @return the offset of the message
+     */
+    long offset(int index);
+
+    /**
+     * The timestamp of the chunk.
+     *
+     * @return the timestamp of the chunk
+     */
+    long timestamp();
+
+    /**
+     * The ID (offset) of the committed chunk in the stream.
+     *
+     * @return committed chunk ID in this stream
+     * @see MessageHandler.Context#committedChunkId()
+     */
+    long committedChunkId();
+
+    /**
+     * The stream the messages come from.
+     *
+     * @return the stream the messages come from
+     */
+    String stream();
+
+    /**
+     * The consumer that receives the messages.
+     *
+     * @return the consumer instance
+     */
+    Consumer consumer();
+
+    /**
+     * Shortcut to send a store order for the offset of the last message of the batch.
+     *
+     * @see Consumer#store(long)
+     */
+    void storeOffset();
+
+    /**
+     * Mark all the messages of the batch as processed.
+     *
+     * <p>This is the same as calling {@link MessageHandler.Context#processed()} for each message.
+     *
+     * @see MessageHandler.Context#processed()
+     */
+    void processed();
+  }
+}
@@ -86,6 +86,25 @@ public interface MessageBuilder {
    */
   MessageBuilder addData(byte[] data);
 
+  /**
+   * Create a template from the message annotations, properties, and application properties of the
+   * builder.
+   *
+   * <p>Use a template to send many messages that share the same headers: codecs that support
+   * templates encode the headers only once. The builder cannot be used after the template is
+   * created, its body and publishing ID are not part of the template.
+   *
+   * <p>The default codec supports templates, the other codecs may throw an {@link
+   * UnsupportedOperationException}.
+   *
+   * @return the message template
+   * @see MessageTemplate
+   * @since 1.10.0
+   */
+  default MessageTemplate template() {
+    throw new UnsupportedOperationException("Message templates are not supported by this codec");
+  }
+
   /**
    * API to set application properties.
    *
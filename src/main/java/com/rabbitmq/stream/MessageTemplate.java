@@ -0,0 +1,81 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream;
+
+import java.util.UUID;
+
+/**
+ * Template to create messages that differ only by their body and possibly by their message ID.
+ *
+ * <p>A template is created from a {@link MessageBuilder} with {@link MessageBuilder#template()}.
+ * The message annotations, properties, and application properties of the builder apply to all the
+ * messages of the template. Codecs that support templates encode these sections only once, when the
+ * template is created, so the encoding of each message is limited to the body and the message ID.
+ *
+ * <p>Messages created from a template have no publishing ID. Their message annotations can still be
+ * modified (e.g. with {@link Message#annotate(String, Object)}), but they are then encoded like
+ * regular messages.
+ *
+ * <p>A template is thread-safe and is meant to be reused.
+ *
+ * @see MessageBuilder#template()
+ * @since 1.10.0
+ */
+public interface MessageTemplate {
+
+  /**
+   * Create a message with the given body.
+   *
+   * @param body the body of the message
+   * @return the message
+   */
+  Message newMessage(byte[] body);
+
+  /**
+   * Create a message with the given message ID and body.
+   *
+   * <p>The message ID overrides the one of the template if any.
+   *
+   * @param messageId the message ID
+   * @param body the body of the message
+   * @return the message
+   * @see Properties#getMessageId()
+   */
+  Message newMessage(String messageId, byte[] body);
+
+  /**
+   * Create a message with the given message ID and body.
+   *
+   * <p>The message ID overrides the one of the template if any.
+   *
+   * @param messageId the message ID
+   * @param body the body of the message
+   * @return the message
+   * @see Properties#getMessageId()
+   */
+  Message newMessage(long messageId, byte[] body);
+
+  /**
+   * Create a message with the given message ID and body.
+   *
+   * <p>The message ID overrides the one of the template if any.
+   *
+   * @param messageId the message ID
+   * @param body the body of the message
+   * @return the message
+   * @see Properties#getMessageId()
+   */
+  Message newMessage(UUID messageId, byte[] body);
+}
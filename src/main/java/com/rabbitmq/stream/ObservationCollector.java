@@ -81,4 +81,30 @@ public interface ObservationCollector<T> {
   default boolean isNoop() {
     return this == NO_OP;
   }
+
+  /**
+   * A {@link MessageHandler} that is notified of the boundaries of chunks.
+   *
+   * <p>{@link #subscribe(MessageHandler)} can return an instance of this interface to observe the
+   * processing of chunks instead of single messages. The consumer calls {@link #chunkStarted(long)}
+   * before dispatching the messages of a chunk and {@link #chunkCompleted()} once all the messages
+   * of the chunk are dispatched or skipped. The calls come from the thread that dispatches the
+   * messages.
+   *
+   * <p>Consumers with a {@link MessageBatchHandler} do not support observation.
+   *
+   * @since 1.10.0
+   */
+  interface ChunkMessageHandler extends MessageHandler {
+
+    /**
+     * Callback before the messages of a chunk are dispatched.
+     *
+     * @param messageCount the number of messages in the chunk
+     */
+    void chunkStarted(long messageCount);
+
+    /** Callback once the messages of the chunk are dispatched. */
+    void chunkCompleted();
+  }
 }
@@ -83,6 +83,29 @@ public interface ProducerBuilder {
    */
   ProducerBuilder compression(Compression compression);
 
+  /**
+   * Maximum number of sub-entry batches to compress in parallel.
+   *
+   * <p>Sub-entry batches are compressed in the thread that publishes them by default. With a
+   * parallelism greater than 1, the batches of a publishing frame are compressed concurrently with
+   * the help of a pool of threads shared by all the producers of the environment. Batches are still
+   * published in order.
+   *
+   * <p>Use this option when compression is the bottleneck, e.g. with large sub-entries and a
+   * demanding compression algorithm.
+   *
+   * <p>The setting applies only when sub-entry batching and compression are enabled.
+   *
+   * <p>Default is 1 (no parallel compression).
+   *
+   * @param compressionParallelism maximum number of batches to compress in parallel
+   * @return this builder instance
+   * @see #subEntrySize(int)
+   * @see #compression(Compression)
+   * @since 1.10.0
+   */
+  ProducerBuilder compressionParallelism(int compressionParallelism);
+
   /**
    * The maximum number of messages to accumulate before sending them to the broker.
    *
@@ -177,6 +200,50 @@ public interface ProducerBuilder {
    */
   ProducerBuilder retryOnRecovery(boolean retryOnRecovery);
 
+  /**
+   * Listener to confirm messages in bulk.
+   *
+   * <p>The listener is called once for each confirmation frame the broker sends, with the
+   * publishing IDs of the confirmed messages. The {@link ConfirmationHandler} passed in to {@link
+   * Producer#send(Message, ConfirmationHandler)} is then no longer called for confirmed messages,
+   * only for failed messages (e.g. timeout, publishing error).
+   *
+   * <p>Use this option to reduce the overhead of confirmations when the publishing rate is high.
+   *
+   * <p>The option is not supported with sub-entry batching and with super streams.
+   *
+   * <p>Default is <code>null</code> (confirmations go to the {@link ConfirmationHandler} of each
+   * message).
+   *
+   * @param confirmationListener the listener
+   * @return this builder instance
+   * @see ConfirmationListener
+   * @since 1.10.0
+   */
+  ProducerBuilder confirmationListener(ConfirmationListener confirmationListener);
+
+  /**
+   * Reuse the internal objects created for each outbound message.
+   *
+   * <p>The producer allocates a few objects to track each message until its confirmation. With
+   * object pooling, the producer recycles them once the message is confirmed or failed, which
+   * reduces the pressure on the garbage collector when the publishing rate is high.
+   *
+   * <p><b>The {@link ConfirmationStatus} instance passed in to the {@link ConfirmationHandler} is
+   * reused as well, so it is valid only during the call of the handler.</b> The application must
+   * not keep a reference to it, it must copy the information it needs instead.
+   *
+   * <p>The setting does not apply when sub-entry batching is enabled.
+   *
+   * <p>Default is <code>false</code>.
+   *
+   * @param objectPooling whether to reuse the objects created for outbound messages
+   * @return this builder instance
+   * @see #maxUnconfirmedMessages(int)
+   * @since 1.10.0
+   */
+  ProducerBuilder objectPooling(boolean objectPooling);
+
   /**
    * Logic to extract a filter value from a message.
    *
@@ -271,6 +338,38 @@ public interface ProducerBuilder {
      */
     RoutingConfiguration strategy(RoutingStrategy routingStrategy);
 
+    /**
+     * Interval to refresh the partitions of the super stream.
+     *
+     * <p>The producer looks up the partitions of the super stream when it is created. With a
+     * refresh interval, it looks them up periodically and starts routing messages to the partitions
+     * added in the meantime. Note the "hash" routing strategy may then route a given routing key to
+     * a different partition than before the refresh.
+     *
+     * <p>Default is {@link Duration#ZERO} (no refresh).
+     *
+     * @param interval the refresh interval
+     * @return the routing configuration instance
+     * @since 1.10.0
+     */
+    RoutingConfiguration partitionRefreshInterval(Duration interval);
+
+    /**
+     * Maximum number of routing keys to cache the hash of with the "hash" routing strategy.
+     *
+     * <p>The cache avoids hashing the routing key of each message. It makes sense when the number
+     * of distinct routing keys is bounded (e.g. country codes). Routing keys beyond the limit are
+     * hashed for each message.
+     *
+     * <p>Default is 0 (no cache).
+     *
+     * @param hashCacheSize maximum number of cached routing key hashes
+     * @return the routing configuration instance
+     * @see #hash()
+     * @since 1.10.0
+     */
+    RoutingConfiguration hashCacheSize(int hashCacheSize);
+
     /**
      * Go back to the producer builder.
      *
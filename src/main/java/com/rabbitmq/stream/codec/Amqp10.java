@@ -23,6 +23,7 @@ import com.rabbitmq.stream.amqp.UnsignedLong;
 import com.rabbitmq.stream.amqp.UnsignedShort;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -47,6 +48,9 @@ import java.util.UUID;
  * provides size-calculation methods that mirror the encoding logic, enabling callers to pre-compute
  * the exact encoded size of a message without materializing the bytes.
  *
+ * <p>The encoding does not compute the UTF-8 length of strings and the size of lists and maps again
+ * when possible: it writes placeholders and back-patches them once the content is written.
+ *
  * <p><strong>This class is experimental and subject to change in future releases.</strong>
  *
  * @see InternalCodec
@@ -212,11 +216,12 @@ final class Amqp10 {
   }
 
   static int sizeOfSymbol(String value) {
-    int utf8Length = ByteBufUtil.utf8Bytes(value);
-    if (utf8Length <= 255) {
-      return 2 + utf8Length; // SYM8 + length + data
+    // symbols are ASCII, one byte per character
+    int length = value.length();
+    if (length <= 255) {
+      return 2 + length; // SYM8 + length + data
     } else {
-      return 5 + utf8Length; // SYM32 + length + data
+      return 5 + length; // SYM32 + length + data
     }
   }
 
@@ -330,8 +335,7 @@ final class Amqp10 {
         String str = (String) value;
         return 4 + ByteBufUtil.utf8Bytes(str);
       case SYM32:
-        String symbol = value.toString();
-        return 4 + ByteBufUtil.utf8Bytes(symbol);
+        return 4 + value.toString().length();
       case UBYTE:
         return 1;
       case USHORT:
@@ -463,6 +467,15 @@ final class Amqp10 {
   }
 
   static void writeString(ByteBuf buf, String value) {
+    int maxLength = value.length() * 3;
+    if (maxLength <= 255 && buf.maxFastWritableBytes() >= maxLength + 2) {
+      // fits in str8 whatever the characters, the length is back-patched after the encoding
+      buf.writeByte(STR8);
+      int lengthIndex = buf.writerIndex();
+      buf.writeByte(0);
+      buf.setByte(lengthIndex, ByteBufUtil.reserveAndWriteUtf8(buf, value, maxLength));
+      return;
+    }
     int length = ByteBufUtil.utf8Bytes(value);
     if (length <= 255) {
       buf.writeByte(STR8);
@@ -471,11 +484,12 @@ final class Amqp10 {
       buf.writeByte(STR32);
       buf.writeInt(length);
     }
-    buf.writeCharSequence(value, StandardCharsets.UTF_8);
+    // reserves the exact length, not the worst case, buffers can have the exact message size
+    ByteBufUtil.reserveAndWriteUtf8(buf, value, length);
   }
 
   static void writeSymbol(ByteBuf buf, String value) {
-    int length = ByteBufUtil.utf8Bytes(value);
+    int length = value.length();
     if (length <= 255) {
       buf.writeByte(SYM8);
       buf.writeByte(length);
@@ -493,88 +507,158 @@ final class Amqp10 {
       buf.writeByte(LIST0);
       return;
     }
-    int elementSize = 0;
-    for (Object item : list) {
-      elementSize += sizeOfObject(item);
-    }
-    int count = list.size();
-    if (fitsInCompact8(elementSize, count)) {
-      buf.writeByte(LIST8);
-      buf.writeByte(elementSize + 1); // size = count(1) + elements
-      buf.writeByte(count);
-    } else {
-      buf.writeByte(LIST32);
-      buf.writeInt(elementSize + 4); // size = count(4) + elements
-      buf.writeInt(count);
-    }
+    boolean compact = isCompact(list);
+    int sizeIndex = writeCompositeHeader(buf, compact ? LIST8 : LIST32, compact, list.size());
     for (Object item : list) {
       writeObject(buf, item);
     }
+    writeCompositeSize(buf, sizeIndex, compact);
   }
 
   static void writeMap(ByteBuf buf, Map<?, ?> map) {
-    int elementSize = 0;
-    for (Map.Entry<?, ?> entry : map.entrySet()) {
-      elementSize += sizeOfObject(entry.getKey());
-      elementSize += sizeOfObject(entry.getValue());
-    }
-    int count = map.size();
-    if (mapFitsInCompact8(elementSize, count)) {
-      buf.writeByte(MAP8);
-      buf.writeByte(elementSize + 1); // size = count(1) + elements
-      buf.writeByte(count * 2);
-    } else {
-      buf.writeByte(MAP32);
-      buf.writeInt(elementSize + 4); // size = count(4) + elements
-      buf.writeInt(count * 2);
-    }
+    boolean compact = isCompact(map, false);
+    int sizeIndex = writeCompositeHeader(buf, compact ? MAP8 : MAP32, compact, map.size() * 2);
     for (Map.Entry<?, ?> entry : map.entrySet()) {
       writeObject(buf, entry.getKey());
       writeObject(buf, entry.getValue());
     }
+    writeCompositeSize(buf, sizeIndex, compact);
   }
 
   static void writeSymbolKeyMap(ByteBuf buf, Map<String, Object> map) {
-    int elementSize = 0;
-    for (Map.Entry<String, Object> entry : map.entrySet()) {
-      elementSize += sizeOfSymbol(entry.getKey());
-      elementSize += sizeOfObject(entry.getValue());
-    }
-    int count = map.size();
-    if (mapFitsInCompact8(elementSize, count)) {
-      buf.writeByte(MAP8);
-      buf.writeByte(elementSize + 1); // size = count(1) + elements
-      buf.writeByte(count * 2);
-    } else {
-      buf.writeByte(MAP32);
-      buf.writeInt(elementSize + 4); // size = count(4) + elements
-      buf.writeInt(count * 2);
-    }
+    boolean compact = isCompact(map, true);
+    int sizeIndex = writeCompositeHeader(buf, compact ? MAP8 : MAP32, compact, map.size() * 2);
     for (Map.Entry<String, Object> entry : map.entrySet()) {
       writeSymbol(buf, entry.getKey());
       writeObject(buf, entry.getValue());
     }
+    writeCompositeSize(buf, sizeIndex, compact);
   }
 
   static void writeStringKeyMap(ByteBuf buf, Map<String, Object> map) {
-    int elementSize = 0;
+    boolean compact = isCompact(map, false);
+    int sizeIndex = writeCompositeHeader(buf, compact ? MAP8 : MAP32, compact, map.size() * 2);
     for (Map.Entry<String, Object> entry : map.entrySet()) {
-      elementSize += sizeOfString(entry.getKey());
-      elementSize += sizeOfObject(entry.getValue());
+      writeString(buf, entry.getKey());
+      writeObject(buf, entry.getValue());
     }
-    int count = map.size();
-    if (mapFitsInCompact8(elementSize, count)) {
-      buf.writeByte(MAP8);
-      buf.writeByte(elementSize + 1); // size = count(1) + elements
-      buf.writeByte(count * 2);
+    writeCompositeSize(buf, sizeIndex, compact);
+  }
+
+  // Lists and maps are written with a placeholder for their size, which is back-patched once the
+  // elements are written. The width of the size depends on the size though, so it is decided with
+  // bounds of the size of the elements. The bounds do not need to scan the characters of strings.
+  // The elements are sized exactly only when the bounds are not enough to decide.
+
+  /** Write the constructor, the size placeholder, and the count, return the index of the size. */
+  private static int writeCompositeHeader(ByteBuf buf, byte code, boolean compact, int count) {
+    buf.writeByte(code);
+    int sizeIndex = buf.writerIndex();
+    if (compact) {
+      buf.writeByte(0);
+      buf.writeByte(count);
     } else {
-      buf.writeByte(MAP32);
-      buf.writeInt(elementSize + 4); // size = count(4) + elements
-      buf.writeInt(count * 2);
+      buf.writeInt(0);
+      buf.writeInt(count);
     }
-    for (Map.Entry<String, Object> entry : map.entrySet()) {
-      writeString(buf, entry.getKey());
-      writeObject(buf, entry.getValue());
+    return sizeIndex;
+  }
+
+  private static void writeCompositeSize(ByteBuf buf, int sizeIndex, boolean compact) {
+    // size = count + elements
+    if (compact) {
+      buf.setByte(sizeIndex, buf.writerIndex() - sizeIndex - 1);
+    } else {
+      buf.setInt(sizeIndex, buf.writerIndex() - sizeIndex - 4);
+    }
+  }
+
+  private static boolean isCompact(List<?> list) {
+    int count = list.size();
+    if (count > 255) {
+      return false;
+    }
+    long maxElementSize = 0;
+    for (Object item : list) {
+      maxElementSize += sizeBoundOfObject(item, true);
+    }
+    if (maxElementSize + 1 <= 255) {
+      return true;
+    }
+    long minElementSize = 0;
+    for (Object item : list) {
+      minElementSize += sizeBoundOfObject(item, false);
+    }
+    if (minElementSize + 1 > 255) {
+      return false;
+    }
+    int elementSize = 0;
+    for (Object item : list) {
+      elementSize += sizeOfObject(item);
+    }
+    return fitsInCompact8(elementSize, count);
+  }
+
+  /** Whether a map uses the compact encoding, symbolKeys is for string keys encoded as symbols. */
+  private static boolean isCompact(Map<?, ?> map, boolean symbolKeys) {
+    int count = map.size();
+    if (count * 2 > 255) {
+      return false;
+    }
+    long maxElementSize = 0;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      maxElementSize += sizeBoundOfKey(entry.getKey(), symbolKeys, true);
+      maxElementSize += sizeBoundOfObject(entry.getValue(), true);
+    }
+    if (maxElementSize + 1 <= 255) {
+      return true;
+    }
+    long minElementSize = 0;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      minElementSize += sizeBoundOfKey(entry.getKey(), symbolKeys, false);
+      minElementSize += sizeBoundOfObject(entry.getValue(), false);
+    }
+    if (minElementSize + 1 > 255) {
+      return false;
+    }
+    int elementSize = 0;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      elementSize +=
+          symbolKeys ? sizeOfSymbol((String) entry.getKey()) : sizeOfObject(entry.getKey());
+      elementSize += sizeOfObject(entry.getValue());
+    }
+    return mapFitsInCompact8(elementSize, count);
+  }
+
+  private static long sizeBoundOfKey(Object key, boolean symbolKey, boolean upper) {
+    return symbolKey ? sizeOfSymbol((String) key) : sizeBoundOfObject(key, upper);
+  }
+
+  /** Upper or lower bound of the encoded size of a value. */
+  private static long sizeBoundOfObject(Object value, boolean upper) {
+    if (value instanceof String) {
+      // 1 to 3 bytes per UTF-16 character
+      long length = upper ? 3L * ((String) value).length() : ((String) value).length();
+      return length <= 255 ? 2 + length : 5 + length;
+    } else if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      if (list.isEmpty()) {
+        return 1; // LIST0
+      }
+      long size = upper ? 9 : 3;
+      for (Object item : list) {
+        size += sizeBoundOfObject(item, upper);
+      }
+      return size;
+    } else if (value instanceof Map) {
+      long size = upper ? 9 : 3;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        size += sizeBoundOfObject(entry.getKey(), upper);
+        size += sizeBoundOfObject(entry.getValue(), upper);
+      }
+      return size;
+    } else {
+      return sizeOfObject(value);
     }
   }
 
@@ -702,14 +786,13 @@ final class Amqp10 {
           String str = (String) value;
           int length = ByteBufUtil.utf8Bytes(str);
           buf.writeInt(length);
-          buf.writeCharSequence(str, StandardCharsets.UTF_8);
+          ByteBufUtil.reserveAndWriteUtf8(buf, str, length);
         }
         break;
       case SYM32:
         {
           String symbol = value.toString();
-          int length = ByteBufUtil.utf8Bytes(symbol);
-          buf.writeInt(length);
+          buf.writeInt(symbol.length());
           buf.writeCharSequence(symbol, StandardCharsets.US_ASCII);
         }
         break;
@@ -994,23 +1077,75 @@ final class Amqp10 {
     }
 
     int count = lastNonNull + 1;
-    int elementSize = 0;
+    // content-type and content-encoding are symbols, their size is known
+    long maxElementSize = 0;
     for (int i = 0; i < count; i++) {
-      elementSize += sizeOfPropertyField(i, fields[i]);
+      maxElementSize +=
+          fields[i] instanceof String && i != 6 && i != 7
+              ? sizeBoundOfObject(fields[i], true)
+              : sizeOfPropertyField(i, fields[i]);
+    }
+    boolean compact = maxElementSize + 1 <= 255;
+    if (!compact) {
+      int elementSize = 0;
+      for (int i = 0; i < count; i++) {
+        elementSize += sizeOfPropertyField(i, fields[i]);
+      }
+      compact = fitsInCompact8(elementSize, count);
     }
+    int sizeIndex = writeCompositeHeader(buf, compact ? LIST8 : LIST32, compact, count);
+    for (int i = 0; i < count; i++) {
+      writePropertyField(buf, i, fields[i]);
+    }
+    writeCompositeSize(buf, sizeIndex, compact);
+  }
+
+  // --- Encoding: Properties with pre-encoded fields (message templates) ---
 
+  /** Number of fields of the properties list, including the message-id. */
+  static int propertiesFieldCount(Properties props) {
+    return Math.max(lastNonNullIndex(buildPropertyFields(props)) + 1, 1);
+  }
+
+  /** Encode the fields of the properties list that follow the message-id. */
+  static byte[] encodePropertiesFieldsAfterMessageId(Properties props, int count) {
+    Object[] fields = buildPropertyFields(props);
+    int size = 0;
+    for (int i = 1; i < count; i++) {
+      size += sizeOfPropertyField(i, fields[i]);
+    }
+    byte[] encoded = new byte[size];
+    ByteBuf buf = Unpooled.wrappedBuffer(encoded).writerIndex(0);
+    for (int i = 1; i < count; i++) {
+      writePropertyField(buf, i, fields[i]);
+    }
+    return encoded;
+  }
+
+  static int sizeOfProperties(Object messageId, byte[] otherFields, int count) {
+    int elementSize =
+        sizeOfPropertyField(0, encodeMessageIdOrCorrelationId(messageId)) + otherFields.length;
+    if (fitsInCompact8(elementSize, count)) {
+      return sizeOfDescriptor(PROPERTIES_DESCRIPTOR) + 1 + 1 + 1 + elementSize;
+    }
+    return sizeOfDescriptor(PROPERTIES_DESCRIPTOR) + 1 + 4 + 4 + elementSize;
+  }
+
+  static void writeProperties(ByteBuf buf, Object messageId, byte[] otherFields, int count) {
+    writeDescriptor(buf, PROPERTIES_DESCRIPTOR);
+    Object id = encodeMessageIdOrCorrelationId(messageId);
+    int elementSize = sizeOfPropertyField(0, id) + otherFields.length;
     if (fitsInCompact8(elementSize, count)) {
       buf.writeByte(LIST8);
-      buf.writeByte(elementSize + 1); // size = count(1) + elements
+      buf.writeByte(elementSize + 1);
       buf.writeByte(count);
     } else {
       buf.writeByte(LIST32);
-      buf.writeInt(elementSize + 4); // size = count(4) + elements
+      buf.writeInt(elementSize + 4);
       buf.writeInt(count);
     }
-    for (int i = 0; i < count; i++) {
-      writePropertyField(buf, i, fields[i]);
-    }
+    writePropertyField(buf, 0, id);
+    buf.writeBytes(otherFields);
   }
 
   private static Object[] buildPropertyFields(Properties props) {
@@ -1128,6 +1263,9 @@ final class Amqp10 {
   /** Maximum nesting depth of AMQP types. Real messages nest two or three levels deep. */
   private static final int MAX_NESTING_DEPTH = 64;
 
+  /** Canonical strings for symbols and map keys, which repeat across the messages of a stream. */
+  private static final TextCache TEXT_CACHE = new TextCache(512);
+
   /** Number of bytes still readable before the current region ends. */
   private static int remaining(ByteBuf buf, int limit) {
     return limit - buf.readerIndex();
@@ -1291,9 +1429,9 @@ final class Amqp10 {
       case STR32:
         return readText(buf, readSize32(buf, limit), StandardCharsets.UTF_8);
       case SYM8:
-        return readText(buf, readSize8(buf, limit), StandardCharsets.US_ASCII);
+        return readInternedText(buf, readSize8(buf, limit), StandardCharsets.US_ASCII);
       case SYM32:
-        return readText(buf, readSize32(buf, limit), StandardCharsets.US_ASCII);
+        return readInternedText(buf, readSize32(buf, limit), StandardCharsets.US_ASCII);
       case LIST0:
         return new ArrayList<>(0);
       case LIST8:
@@ -1377,6 +1515,28 @@ final class Amqp10 {
     return result;
   }
 
+  /** For texts likely to repeat across messages, e.g. symbols and map keys. */
+  private static String readInternedText(ByteBuf buf, int length, Charset charset) {
+    String result = TEXT_CACHE.get(buf, buf.readerIndex(), length);
+    if (result == null) {
+      return readText(buf, length, charset);
+    } else {
+      buf.skipBytes(length);
+      return result;
+    }
+  }
+
+  private static Object readMapKey(ByteBuf buf, int limit, int depth) {
+    byte code = readByteChecked(buf, limit);
+    if (code == STR8) {
+      return readInternedText(buf, readSize8(buf, limit), StandardCharsets.UTF_8);
+    } else if (code == STR32) {
+      return readInternedText(buf, readSize32(buf, limit), StandardCharsets.UTF_8);
+    } else {
+      return readObjectWithCode(buf, code, limit, depth);
+    }
+  }
+
   /**
    * Initial capacity for a decoded collection. The declared count is a hint from the peer, so it is
    * clamped to the largest number of elements the remaining bytes can hold: 1 byte minimum per list
@@ -1408,7 +1568,7 @@ final class Amqp10 {
     Map<Object, Object> map =
         new LinkedHashMap<>(sanitizedCapacity(declaredCount / 2, end - buf.readerIndex(), 2));
     while (buf.readerIndex() < end) {
-      Object key = readObject(buf, end, depth);
+      Object key = readMapKey(buf, end, depth);
       if (buf.readerIndex() >= end) {
         // "Map encodings MUST contain an even number of items" [1.6.23]
         throw new StreamException("Map with an odd number of elements");
@@ -1678,10 +1838,22 @@ final class Amqp10 {
         "Expected binary for the %s section, got %s", section, value.getClass().getSimpleName());
   }
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
   private static Map<String, Object> toStringKeyMap(Map<Object, Object> source) {
     if (source == null) {
       return null;
     }
+    boolean stringKeys = true;
+    for (Object key : source.keySet()) {
+      if (!(key instanceof String)) {
+        stringKeys = false;
+        break;
+      }
+    }
+    if (stringKeys) {
+      // the usual case, no need to copy the map
+      return (Map) source;
+    }
     Map<String, Object> result = new LinkedHashMap<>(source.size());
     for (Map.Entry<Object, Object> entry : source.entrySet()) {
       if (entry.getKey() == null) {
@@ -1699,6 +1871,197 @@ final class Amqp10 {
     return new DecodedProperties(fields);
   }
 
+  // --- Decoding: lazy message sections ---
+
+  /**
+   * Locate the sections of a message without decoding them.
+   *
+   * <p>The bytes of the message annotations, properties, and application properties sections are
+   * copied to decode them later, the data body is copied as is. Returns null and leaves the reader
+   * index untouched if the message layout requires eager decoding (e.g. {@code amqp-value} body,
+   * non-numeric descriptor).
+   *
+   * @param buf the buffer to read from
+   * @param length the size of the message
+   * @return the located sections, or null if the message must be decoded with {@link
+   *     #decodeMessage(ByteBuf, int)}
+   */
+  static MessageSections locateSections(ByteBuf buf, int length) {
+    if (length < 0 || length > buf.readableBytes()) {
+      throw new StreamException(
+          "Invalid message length %d, only %d byte(s) available", length, buf.readableBytes());
+    }
+    int startIndex = buf.readerIndex();
+    int endIndex = startIndex + length;
+    MessageSections sections = null;
+    boolean eager = false;
+    try {
+      sections = doLocateSections(buf, startIndex, endIndex);
+      eager = sections == null;
+      return sections;
+    } finally {
+      // same contract as decodeMessage, unless the caller has to decode the message eagerly
+      buf.readerIndex(eager ? startIndex : endIndex);
+    }
+  }
+
+  private static MessageSections doLocateSections(ByteBuf buf, int startIndex, int endIndex) {
+    int[] offsets = {-1, 0, -1, 0, -1, 0};
+    int sectionsEnd = startIndex;
+    boolean bodyFound = false;
+    int bodyIndex = -1;
+    int bodySize = 0;
+    int sections = 0;
+    while (buf.readerIndex() < endIndex) {
+      if (++sections > MAX_MSG_SECTIONS) {
+        throw new StreamException("Message has more than %d sections", MAX_MSG_SECTIONS);
+      }
+      if (readByteChecked(buf, endIndex) != DESCRIBED_TYPE_CONSTRUCTOR) {
+        return null;
+      }
+      long code;
+      byte descriptorType = readByteChecked(buf, endIndex);
+      if (descriptorType == SMALLULONG) {
+        code = readByteChecked(buf, endIndex) & 0xFFL;
+      } else if (descriptorType == ULONG) {
+        code = readLongChecked(buf, endIndex);
+      } else if (descriptorType == ULONG0) {
+        code = 0;
+      } else {
+        return null;
+      }
+      int valueIndex = buf.readerIndex();
+      byte type = readByteChecked(buf, endIndex);
+      if (code == DATA_DESCRIPTOR) {
+        if (type == VBIN8) {
+          bodySize = readSize8(buf, endIndex);
+        } else if (type == VBIN32) {
+          bodySize = readSize32(buf, endIndex);
+        } else {
+          return null;
+        }
+        bodyFound = true;
+        bodyIndex = buf.readerIndex();
+        buf.skipBytes(bodySize);
+      } else if (code == AMQP_SEQUENCE_DESCRIPTOR || code == AMQP_VALUE_DESCRIPTOR) {
+        return null;
+      } else if (!skipValue(buf, type, endIndex)) {
+        return null;
+      } else {
+        int slot;
+        if (code == MESSAGE_ANNOTATIONS_DESCRIPTOR) {
+          slot = 0;
+        } else if (code == PROPERTIES_DESCRIPTOR) {
+          slot = 2;
+        } else if (code == APPLICATION_PROPERTIES_DESCRIPTOR) {
+          slot = 4;
+        } else {
+          continue;
+        }
+        if (bodyFound) {
+          // unusual layout, the eager decoding deals with it
+          return null;
+        }
+        offsets[slot] = valueIndex - startIndex;
+        offsets[slot + 1] = buf.readerIndex() - valueIndex;
+        sectionsEnd = buf.readerIndex();
+      }
+    }
+    byte[] bytes = new byte[sectionsEnd - startIndex];
+    buf.getBytes(startIndex, bytes);
+    byte[] bodyData = null;
+    if (bodyFound) {
+      bodyData = new byte[bodySize];
+      buf.getBytes(bodyIndex, bodyData);
+    }
+    return new MessageSections(bytes, offsets, bodyData);
+  }
+
+  /**
+   * Skip a value using its constructor and size, without decoding it.
+   *
+   * @return false if the value is a described type, which cannot be skipped this way
+   */
+  private static boolean skipValue(ByteBuf buf, byte type, int limit) {
+    int size;
+    switch (type) {
+      case DESCRIBED_TYPE_CONSTRUCTOR:
+        return false;
+      case VBIN8:
+      case STR8:
+      case SYM8:
+      case LIST8:
+      case MAP8:
+      case ARRAY8:
+        size = readSize8(buf, limit);
+        break;
+      case VBIN32:
+      case STR32:
+      case SYM32:
+      case LIST32:
+      case MAP32:
+      case ARRAY32:
+        size = readSize32(buf, limit);
+        break;
+      default:
+        int t = type & 0xFF;
+        if (t < 0x40 || t > 0x9f) {
+          throw new StreamException("Unsupported AMQP 1.0 type code: 0x%02X", t);
+        }
+        // fixed-width types, the subcategory gives the width
+        size = t < 0x50 ? 0 : t < 0x90 ? 1 << ((t >> 4) - 5) : 16;
+    }
+    requireBytes(buf, limit, size);
+    buf.skipBytes(size);
+    return true;
+  }
+
+  static Map<String, Object> decodeStringKeyMapSection(
+      byte[] bytes, int offset, int length, String section) {
+    ByteBuf buf = Unpooled.wrappedBuffer(bytes, offset, length);
+    return toStringKeyMap(asMap(readObject(buf, buf.writerIndex(), 1), section));
+  }
+
+  static Properties decodePropertiesSection(byte[] bytes, int offset, int length) {
+    ByteBuf buf = Unpooled.wrappedBuffer(bytes, offset, length);
+    return decodeProperties(asList(readObject(buf, buf.writerIndex(), 1), "properties"));
+  }
+
+  /** Undecoded message sections, see {@link #locateSections(ByteBuf, int)}. */
+  static final class MessageSections {
+
+    private final byte[] bytes;
+    // offset and length of message annotations, properties, application properties values
+    private final int[] offsets;
+    final byte[] bodyData;
+
+    private MessageSections(byte[] bytes, int[] offsets, byte[] bodyData) {
+      this.bytes = bytes;
+      this.offsets = offsets;
+      this.bodyData = bodyData;
+    }
+
+    Map<String, Object> messageAnnotations() {
+      return this.offsets[0] < 0
+          ? null
+          : decodeStringKeyMapSection(
+              this.bytes, this.offsets[0], this.offsets[1], "message annotations");
+    }
+
+    Properties properties() {
+      return this.offsets[2] < 0
+          ? null
+          : decodePropertiesSection(this.bytes, this.offsets[2], this.offsets[3]);
+    }
+
+    Map<String, Object> applicationProperties() {
+      return this.offsets[4] < 0
+          ? null
+          : decodeStringKeyMapSection(
+              this.bytes, this.offsets[4], this.offsets[5], "application properties");
+    }
+  }
+
   static final class DecodedMessage {
     final Map<String, Object> messageAnnotations;
     final Properties properties;
@@ -0,0 +1,253 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.codec;
+
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageTemplate;
+import com.rabbitmq.stream.Properties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * {@link MessageTemplate} that encodes the message annotations, properties, and application
+ * properties sections once, when it is created.
+ *
+ * <p>{@link StreamingEncodedMessage} copies the encoded sections for each message of the template
+ * and encodes only the body. When the message has its own message ID, the properties list is
+ * re-assembled from the message ID and the other fields, which are encoded once as well.
+ *
+ * <p>A message whose annotations have been modified is encoded like any other message.
+ */
+final class EncodedMessageTemplate implements MessageTemplate {
+
+  private static final byte[] EMPTY_BODY = new byte[0];
+  private static final byte[] EMPTY = new byte[0];
+
+  private final Map<String, Object> messageAnnotations;
+  private final WrapperMessageBuilder.SimpleProperties properties;
+  private final Map<String, Object> applicationProperties;
+  // all the sections, for messages without their own message ID
+  private final byte[] sections;
+  private final byte[] messageAnnotationsSection;
+  private final byte[] propertiesFields;
+  private final int propertiesFieldCount;
+  private final byte[] applicationPropertiesSection;
+
+  EncodedMessageTemplate(
+      Map<String, Object> messageAnnotations,
+      WrapperMessageBuilder.SimpleProperties properties,
+      Map<String, Object> applicationProperties) {
+    this.messageAnnotations =
+        messageAnnotations == null
+            ? Collections.emptyMap()
+            : Collections.unmodifiableMap(new LinkedHashMap<>(messageAnnotations));
+    this.properties = properties;
+    this.applicationProperties =
+        applicationProperties == null
+            ? null
+            : Collections.unmodifiableMap(new LinkedHashMap<>(applicationProperties));
+
+    if (this.messageAnnotations.isEmpty()) {
+      this.messageAnnotationsSection = EMPTY;
+    } else {
+      this.messageAnnotationsSection =
+          encode(
+              Amqp10.sizeOfMessageAnnotations(this.messageAnnotations),
+              buf -> Amqp10.writeMessageAnnotations(buf, this.messageAnnotations));
+    }
+    byte[] propertiesSection;
+    if (properties == null) {
+      propertiesSection = EMPTY;
+      this.propertiesFields = EMPTY;
+      this.propertiesFieldCount = 1;
+    } else {
+      propertiesSection =
+          encode(
+              Amqp10.sizeOfProperties(properties), buf -> Amqp10.writeProperties(buf, properties));
+      this.propertiesFieldCount = Amqp10.propertiesFieldCount(properties);
+      this.propertiesFields =
+          Amqp10.encodePropertiesFieldsAfterMessageId(properties, this.propertiesFieldCount);
+    }
+    if (this.applicationProperties == null || this.applicationProperties.isEmpty()) {
+      this.applicationPropertiesSection = EMPTY;
+    } else {
+      this.applicationPropertiesSection =
+          encode(
+              Amqp10.sizeOfApplicationProperties(this.applicationProperties),
+              buf -> Amqp10.writeApplicationProperties(buf, this.applicationProperties));
+    }
+    this.sections =
+        new byte
+            [this.messageAnnotationsSection.length
+                + propertiesSection.length
+                + this.applicationPropertiesSection.length];
+    ByteBuf buf = Unpooled.wrappedBuffer(this.sections).writerIndex(0);
+    buf.writeBytes(this.messageAnnotationsSection);
+    buf.writeBytes(propertiesSection);
+    buf.writeBytes(this.applicationPropertiesSection);
+  }
+
+  private static byte[] encode(int size, Consumer<ByteBuf> encoder) {
+    byte[] encoded = new byte[size];
+    encoder.accept(Unpooled.wrappedBuffer(encoded).writerIndex(0));
+    return encoded;
+  }
+
+  @Override
+  public Message newMessage(byte[] body) {
+    return new TemplateMessage(this, null, body);
+  }
+
+  @Override
+  public Message newMessage(String messageId, byte[] body) {
+    return new TemplateMessage(this, messageId, body);
+  }
+
+  @Override
+  public Message newMessage(long messageId, byte[] body) {
+    return new TemplateMessage(this, messageId, body);
+  }
+
+  @Override
+  public Message newMessage(UUID messageId, byte[] body) {
+    return new TemplateMessage(this, messageId, body);
+  }
+
+  private int sectionsSize(Object messageId) {
+    if (messageId == null) {
+      return this.sections.length;
+    }
+    return this.messageAnnotationsSection.length
+        + Amqp10.sizeOfProperties(messageId, this.propertiesFields, this.propertiesFieldCount)
+        + this.applicationPropertiesSection.length;
+  }
+
+  private void writeSections(ByteBuf buf, Object messageId) {
+    if (messageId == null) {
+      buf.writeBytes(this.sections);
+    } else {
+      buf.writeBytes(this.messageAnnotationsSection);
+      Amqp10.writeProperties(buf, messageId, this.propertiesFields, this.propertiesFieldCount);
+      buf.writeBytes(this.applicationPropertiesSection);
+    }
+  }
+
+  static final class TemplateMessage implements Message {
+
+    private final EncodedMessageTemplate template;
+    private final Object messageId;
+    private final byte[] body;
+    // set when the annotations are modified, the message is then encoded like any other
+    private Map<String, Object> messageAnnotations;
+    private Properties properties;
+
+    private TemplateMessage(EncodedMessageTemplate template, Object messageId, byte[] body) {
+      this(template, messageId, body == null ? EMPTY_BODY : body, null);
+    }
+
+    private TemplateMessage(
+        EncodedMessageTemplate template,
+        Object messageId,
+        byte[] body,
+        Map<String, Object> messageAnnotations) {
+      this.template = template;
+      this.messageId = messageId;
+      this.body = body;
+      this.messageAnnotations = messageAnnotations;
+    }
+
+    boolean preEncoded() {
+      return this.messageAnnotations == null;
+    }
+
+    int encodedSize() {
+      return this.template.sectionsSize(this.messageId) + Amqp10.sizeOfData(this.body);
+    }
+
+    void writeTo(ByteBuf buf) {
+      this.template.writeSections(buf, this.messageId);
+      Amqp10.writeData(buf, this.body);
+    }
+
+    @Override
+    public boolean hasPublishingId() {
+      return false;
+    }
+
+    @Override
+    public long getPublishingId() {
+      return 0;
+    }
+
+    @Override
+    public byte[] getBodyAsBinary() {
+      return this.body;
+    }
+
+    @Override
+    public Object getBody() {
+      return this.body;
+    }
+
+    @Override
+    public Properties getProperties() {
+      if (this.messageId == null) {
+        return this.template.properties;
+      }
+      if (this.properties == null) {
+        this.properties =
+            this.template.properties == null
+                ? new WrapperMessageBuilder.SimpleProperties().withMessageId(this.messageId)
+                : this.template.properties.withMessageId(this.messageId);
+      }
+      return this.properties;
+    }
+
+    @Override
+    public Map<String, Object> getApplicationProperties() {
+      return this.template.applicationProperties;
+    }
+
+    @Override
+    public Map<String, Object> getMessageAnnotations() {
+      return this.messageAnnotations == null
+          ? this.template.messageAnnotations
+          : this.messageAnnotations;
+    }
+
+    @Override
+    public Message annotate(String key, Object value) {
+      if (this.messageAnnotations == null) {
+        this.messageAnnotations = new LinkedHashMap<>(this.template.messageAnnotations);
+      }
+      this.messageAnnotations.put(key, value);
+      return this;
+    }
+
+    @Override
+    public Message copy() {
+      return new TemplateMessage(
+          this.template,
+          this.messageId,
+          this.body,
+          this.messageAnnotations == null ? null : new LinkedHashMap<>(this.messageAnnotations));
+    }
+  }
+}
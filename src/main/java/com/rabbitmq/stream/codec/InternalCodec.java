@@ -42,12 +42,15 @@ import java.util.Map;
  * <h3>Decoding</h3>
  *
  * <p>{@link #decode(ByteBuf, int)} reads AMQP 1.0 described types from the given buffer region and
- * reconstructs an immutable {@code Message}. Decoded properties are backed by a positional {@code
- * List} (not a POJO), avoiding field-by-field allocation. Map sections (message annotations,
- * application properties) preserve insertion order via {@link LinkedHashMap}. AMQP {@code
- * timestamp} values are returned as raw {@code long} milliseconds, not {@link java.util.Date}
- * objects—this matches QPid Proton behavior but means a {@code Date} set on a property will round-
- * trip as a {@code Long}.
+ * reconstructs an immutable {@code Message}. When the body is made of {@code data} sections, the
+ * decoding only locates the message sections and copies them out of the buffer: message
+ * annotations, properties, and application properties are decoded on first access, so malformed
+ * sections are reported at that time. Other messages are decoded eagerly. Decoded properties are
+ * backed by a positional {@code List} (not a POJO), avoiding field-by-field allocation. Map
+ * sections (message annotations, application properties) preserve insertion order via {@link
+ * LinkedHashMap}. AMQP {@code timestamp} values are returned as raw {@code long} milliseconds, not
+ * {@link java.util.Date} objects—this matches QPid Proton behavior but means a {@code Date} set on
+ * a property will round-trip as a {@code Long}.
  *
  * @see Amqp10
  * @see StreamingEncodedMessage
@@ -83,6 +86,10 @@ public class InternalCodec implements Codec {
 
   @Override
   public Message decode(ByteBuf buf, int length) {
+    Amqp10.MessageSections sections = Amqp10.locateSections(buf, length);
+    if (sections != null) {
+      return new LazyMessage(sections);
+    }
     Amqp10.DecodedMessage decoded = Amqp10.decodeMessage(buf, length);
     return new InternalMessage(
         decoded.properties,
@@ -183,4 +190,85 @@ public class InternalCodec implements Codec {
           this.properties, this.applicationProperties, annotationsCopy, this.bodyData, this.body);
     }
   }
+
+  private static final class LazyMessage implements Message {
+
+    private final Amqp10.MessageSections sections;
+    private final byte[] bodyData;
+    private boolean propertiesDecoded, applicationPropertiesDecoded, messageAnnotationsDecoded;
+    private Properties properties;
+    private Map<String, Object> applicationProperties;
+    private Map<String, Object> messageAnnotations;
+
+    private LazyMessage(Amqp10.MessageSections sections) {
+      this.sections = sections;
+      this.bodyData = sections.bodyData;
+    }
+
+    @Override
+    public boolean hasPublishingId() {
+      return false;
+    }
+
+    @Override
+    public long getPublishingId() {
+      return 0;
+    }
+
+    @Override
+    public byte[] getBodyAsBinary() {
+      return this.bodyData;
+    }
+
+    @Override
+    public Object getBody() {
+      return this.bodyData;
+    }
+
+    @Override
+    public Properties getProperties() {
+      if (!this.propertiesDecoded) {
+        this.properties = this.sections.properties();
+        this.propertiesDecoded = true;
+      }
+      return this.properties;
+    }
+
+    @Override
+    public Map<String, Object> getApplicationProperties() {
+      if (!this.applicationPropertiesDecoded) {
+        this.applicationProperties = this.sections.applicationProperties();
+        this.applicationPropertiesDecoded = true;
+      }
+      return this.applicationProperties;
+    }
+
+    @Override
+    public Map<String, Object> getMessageAnnotations() {
+      if (!this.messageAnnotationsDecoded) {
+        this.messageAnnotations = this.sections.messageAnnotations();
+        this.messageAnnotationsDecoded = true;
+      }
+      if (this.messageAnnotations == null) {
+        this.messageAnnotations = new LinkedHashMap<>();
+      }
+      return this.messageAnnotations;
+    }
+
+    @Override
+    public Message annotate(String key, Object value) {
+      getMessageAnnotations().put(key, value);
+      return this;
+    }
+
+    @Override
+    public Message copy() {
+      return new InternalMessage(
+          this.getProperties(),
+          this.getApplicationProperties(),
+          new LinkedHashMap<>(this.getMessageAnnotations()),
+          this.bodyData,
+          this.bodyData);
+    }
+  }
 }
@@ -34,6 +34,9 @@ import java.io.OutputStream;
  * <p>The supported message sections are message annotations, properties, application properties,
  * and body (data, amqp-value, or empty data if no body is set).
  *
+ * <p>The size computation and the encoding skip the sections of messages created from an {@link
+ * EncodedMessageTemplate}: they copy the sections the template encoded once.
+ *
  * <p><strong>This class is experimental and subject to change in future releases.</strong>
  *
  * @see Amqp10
@@ -45,11 +48,20 @@ final class StreamingEncodedMessage implements Codec.EncodedMessage {
 
   private final ByteBufAllocator allocator;
   private final Message message;
+  private final EncodedMessageTemplate.TemplateMessage templateMessage;
   private final int size;
 
   public StreamingEncodedMessage(Message message, ByteBufAllocator allocator) {
     this.message = message;
-    this.size = Amqp10.calculateMessageSize(message);
+    if (message instanceof EncodedMessageTemplate.TemplateMessage
+        && ((EncodedMessageTemplate.TemplateMessage) message).preEncoded()) {
+      // the sections of the template are already encoded
+      this.templateMessage = (EncodedMessageTemplate.TemplateMessage) message;
+      this.size = this.templateMessage.encodedSize();
+    } else {
+      this.templateMessage = null;
+      this.size = Amqp10.calculateMessageSize(message);
+    }
     this.allocator = allocator;
   }
 
@@ -62,7 +74,7 @@ final class StreamingEncodedMessage implements Codec.EncodedMessage {
   public void writeTo(ByteBuf buf) {
     buf.writeInt(this.size);
     // Direct encoding to ByteBuf without intermediate storage
-    encodeMessageToBuf(buf, message);
+    encodeMessageToBuf(buf);
   }
 
   @Override
@@ -76,7 +88,7 @@ final class StreamingEncodedMessage implements Codec.EncodedMessage {
     // Encode directly to OutputStream via heap ByteBuf with exact size
     ByteBuf tempBuf = this.allocator.heapBuffer(size, size);
     try {
-      encodeMessageToBuf(tempBuf, message);
+      encodeMessageToBuf(tempBuf);
       // Direct access to underlying array for optimal performance
       if (tempBuf.hasArray() && tempBuf.arrayOffset() == 0 && tempBuf.readerIndex() == 0) {
         outputStream.write(tempBuf.array(), 0, tempBuf.readableBytes());
@@ -90,6 +102,14 @@ final class StreamingEncodedMessage implements Codec.EncodedMessage {
     }
   }
 
+  private void encodeMessageToBuf(ByteBuf buf) {
+    if (this.templateMessage != null) {
+      this.templateMessage.writeTo(buf);
+    } else {
+      encodeMessageToBuf(buf, this.message);
+    }
+  }
+
   private static void encodeMessageToBuf(ByteBuf buf, Message message) {
     if (message.getMessageAnnotations() != null && !message.getMessageAnnotations().isEmpty()) {
       Amqp10.writeMessageAnnotations(buf, message.getMessageAnnotations());
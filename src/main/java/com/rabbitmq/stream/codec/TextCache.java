@@ -0,0 +1,101 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.codec;
+
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded cache of the strings decoded from short ASCII texts.
+ *
+ * <p>Most messages of a stream share the same map keys and symbols (e.g. application property
+ * names, <code>x-stream-filter-value</code>). The cache returns the same {@link String} instance
+ * for the same bytes, without decoding them.
+ *
+ * <p>The cache is direct-mapped: a new entry replaces the entry of its slot. Entries are immutable,
+ * so the cache can be shared between threads without locking.
+ */
+final class TextCache {
+
+  static final int MAX_LENGTH = 64;
+
+  private final Entry[] entries;
+  private final int mask;
+
+  TextCache(int size) {
+    int capacity = Integer.highestOneBit(Math.max(1, size));
+    capacity = capacity == size ? capacity : capacity << 1;
+    this.entries = new Entry[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Get the string for the bytes, from the cache if possible.
+   *
+   * @param buf the buffer
+   * @param index the index of the first byte
+   * @param length the number of bytes
+   * @return the string, <code>null</code> if the text is too long or not ASCII
+   */
+  String get(ByteBuf buf, int index, int length) {
+    if (length > MAX_LENGTH) {
+      return null;
+    }
+    // FNV-1a
+    int hash = 0x811c9dc5;
+    for (int i = 0; i < length; i++) {
+      byte b = buf.getByte(index + i);
+      if (b < 0) {
+        return null;
+      }
+      hash = (hash ^ b) * 0x01000193;
+    }
+    int slot = (hash ^ (hash >>> 16)) & this.mask;
+    Entry entry = this.entries[slot];
+    if (entry != null && entry.hash == hash && entry.matches(buf, index, length)) {
+      return entry.value;
+    }
+    byte[] bytes = new byte[length];
+    buf.getBytes(index, bytes);
+    String value = new String(bytes, StandardCharsets.US_ASCII);
+    this.entries[slot] = new Entry(hash, bytes, value);
+    return value;
+  }
+
+  private static final class Entry {
+
+    private final int hash;
+    private final byte[] bytes;
+    private final String value;
+
+    private Entry(int hash, byte[] bytes, String value) {
+      this.hash = hash;
+      this.bytes = bytes;
+      this.value = value;
+    }
+
+    private boolean matches(ByteBuf buf, int index, int length) {
+      if (this.bytes.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (this.bytes[i] != buf.getByte(index + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
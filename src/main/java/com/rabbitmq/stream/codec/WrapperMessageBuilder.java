@@ -16,6 +16,7 @@ package com.rabbitmq.stream.codec;
 
 import com.rabbitmq.stream.Message;
 import com.rabbitmq.stream.MessageBuilder;
+import com.rabbitmq.stream.MessageTemplate;
 import com.rabbitmq.stream.Properties;
 import com.rabbitmq.stream.amqp.Symbol;
 import com.rabbitmq.stream.amqp.UnsignedByte;
@@ -99,6 +100,22 @@ public class WrapperMessageBuilder implements MessageBuilder {
     return this;
   }
 
+  @Override
+  public MessageTemplate template() {
+    if (built.compareAndSet(false, true)) {
+      return new EncodedMessageTemplate(
+          this.messageAnnotationsBuilder == null
+              ? null
+              : this.messageAnnotationsBuilder.messageAnnotations,
+          this.propertiesBuilder == null ? null : this.propertiesBuilder.properties,
+          this.applicationPropertiesBuilder == null
+              ? null
+              : this.applicationPropertiesBuilder.applicationProperties);
+    } else {
+      throw new IllegalStateException("A message builder can build only one message");
+    }
+  }
+
   private static class WrapperMessageAnnotationsBuilder implements MessageAnnotationsBuilder {
 
     private final MessageBuilder messageBuilder;
@@ -594,7 +611,7 @@ public class WrapperMessageBuilder implements MessageBuilder {
     }
   }
 
-  private static class SimpleProperties implements Properties {
+  static class SimpleProperties implements Properties {
 
     private Object messageId;
     private byte[] userId;
@@ -720,5 +737,23 @@ public class WrapperMessageBuilder implements MessageBuilder {
     public String getReplyToGroupId() {
       return replyToGroupId;
     }
+
+    SimpleProperties withMessageId(Object messageId) {
+      SimpleProperties copy = new SimpleProperties();
+      copy.messageId = messageId;
+      copy.userId = this.userId;
+      copy.to = this.to;
+      copy.subject = this.subject;
+      copy.replyTo = this.replyTo;
+      copy.correlationId = this.correlationId;
+      copy.contentType = this.contentType;
+      copy.contentEncoding = this.contentEncoding;
+      copy.absoluteExpiryTime = this.absoluteExpiryTime;
+      copy.creationTime = this.creationTime;
+      copy.groupId = this.groupId;
+      copy.groupSequence = this.groupSequence;
+      copy.replyToGroupId = this.replyToGroupId;
+      return copy;
+    }
   }
 }
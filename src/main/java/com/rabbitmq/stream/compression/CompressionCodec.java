@@ -16,6 +16,7 @@ package com.rabbitmq.stream.compression;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /** Codec to compress and decompress sub-entries. */
 public interface CompressionCodec {
@@ -44,6 +45,59 @@ public interface CompressionCodec {
    */
   InputStream decompress(InputStream source);
 
+  /**
+   * Whether the codec can compress and decompress a whole block of data between {@link
+   * ByteBuffer}s.
+   *
+   * <p>The library uses {@link #compress(ByteBuffer, ByteBuffer)} and {@link
+   * #decompress(ByteBuffer, ByteBuffer)} instead of the stream-based methods when this returns
+   * <code>true</code>. This avoids intermediate copies. The block methods must produce and accept
+   * the same format as the stream-based methods.
+   *
+   * <p>Default is <code>false</code>.
+   *
+   * @return true if the block methods are supported
+   * @since 1.10.0
+   */
+  default boolean supportsBlocks() {
+    return false;
+  }
+
+  /**
+   * Compresses the remaining bytes of the source buffer into the target buffer.
+   *
+   * <p>The source and target buffers are either both direct buffers or both heap buffers. Their
+   * positions and limits are not modified.
+   *
+   * @param source the plain data
+   * @param target the buffer to write compressed data to, from its position
+   * @return the number of bytes written to the target buffer
+   * @throws CompressionException if the compression fails, e.g. if the target buffer is too small
+   * @see #supportsBlocks()
+   * @see #maxCompressedLength(int)
+   * @since 1.10.0
+   */
+  default int compress(ByteBuffer source, ByteBuffer target) {
+    throw new UnsupportedOperationException("Block compression is not supported by " + this);
+  }
+
+  /**
+   * Decompresses the remaining bytes of the source buffer into the target buffer.
+   *
+   * <p>The source and target buffers are either both direct buffers or both heap buffers. Their
+   * positions and limits are not modified.
+   *
+   * @param source the compressed data
+   * @param target the buffer to write plain data to, from its position
+   * @return the number of bytes written to the target buffer
+   * @throws CompressionException if the decompression fails, e.g. if the target buffer is too small
+   * @see #supportsBlocks()
+   * @since 1.10.0
+   */
+  default int decompress(ByteBuffer source, ByteBuffer target) {
+    throw new UnsupportedOperationException("Block decompression is not supported by " + this);
+  }
+
   /**
    * Return the code for this type of codec.
    *
@@ -15,11 +15,23 @@
 package com.rabbitmq.stream.compression;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdException;
 import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
 import com.github.luben.zstd.ZstdOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import net.jpountz.lz4.LZ4FrameInputStream;
@@ -107,6 +119,85 @@ public final class CompressionUtils {
       }
     }
 
+    @Override
+    public boolean supportsBlocks() {
+      return true;
+    }
+
+    @Override
+    public int compress(ByteBuffer source, ByteBuffer target) {
+      long result;
+      try {
+        if (source.isDirect() && target.isDirect()) {
+          result =
+              Zstd.compressDirectByteBuffer(
+                  target,
+                  target.position(),
+                  target.remaining(),
+                  source,
+                  source.position(),
+                  source.remaining(),
+                  Zstd.defaultCompressionLevel());
+        } else if (source.hasArray() && target.hasArray()) {
+          result =
+              Zstd.compressByteArray(
+                  target.array(),
+                  target.arrayOffset() + target.position(),
+                  target.remaining(),
+                  source.array(),
+                  source.arrayOffset() + source.position(),
+                  source.remaining(),
+                  Zstd.defaultCompressionLevel());
+        } else {
+          throw new CompressionException(
+              "Source and target must be both direct buffers or both heap buffers");
+        }
+      } catch (ZstdException e) {
+        throw new CompressionException("Error during Zstd compression", e);
+      }
+      return checkZstdResult(result, "compression");
+    }
+
+    @Override
+    public int decompress(ByteBuffer source, ByteBuffer target) {
+      long result;
+      try {
+        if (source.isDirect() && target.isDirect()) {
+          result =
+              Zstd.decompressDirectByteBuffer(
+                  target,
+                  target.position(),
+                  target.remaining(),
+                  source,
+                  source.position(),
+                  source.remaining());
+        } else if (source.hasArray() && target.hasArray()) {
+          result =
+              Zstd.decompressByteArray(
+                  target.array(),
+                  target.arrayOffset() + target.position(),
+                  target.remaining(),
+                  source.array(),
+                  source.arrayOffset() + source.position(),
+                  source.remaining());
+        } else {
+          throw new CompressionException(
+              "Source and target must be both direct buffers or both heap buffers");
+        }
+      } catch (ZstdException e) {
+        throw new CompressionException("Error during Zstd decompression", e);
+      }
+      return checkZstdResult(result, "decompression");
+    }
+
+    private static int checkZstdResult(long result, String operation) {
+      if (Zstd.isError(result)) {
+        throw new CompressionException(
+            "Error during Zstd " + operation + ": " + Zstd.getErrorName(result));
+      }
+      return (int) result;
+    }
+
     @Override
     public byte code() {
       return Compression.ZSTD.code;
@@ -118,6 +209,251 @@ public final class CompressionUtils {
     }
   }
 
+  /**
+   * zstd codec with trained dictionaries.
+   *
+   * <p>The codec compresses with one dictionary and decompresses with the dictionary whose ID is in
+   * the compressed frame. Frames compressed without dictionary are decompressed as well.
+   *
+   * <p>The codec holds native resources (dictionaries, compression contexts), close it once it is
+   * no longer used.
+   *
+   * @see ZstdDictionary
+   * @since 1.10.0
+   */
+  public static class ZstdJniDictionaryCompressionCodec implements CompressionCodec, AutoCloseable {
+
+    // max size of a zstd frame header
+    private static final int FRAME_HEADER_MAX_SIZE = 18;
+
+    private final ZstdDictCompress compressionDictionary;
+    private final Map<Long, ZstdDictDecompress> decompressionDictionaries;
+    // contexts are expensive to create, they are pooled and used by one thread at a time
+    private final Queue<ZstdCompressCtx> compressionContexts = new ConcurrentLinkedQueue<>();
+    private final Queue<ZstdDecompressCtx> decompressionContexts = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Create the codec.
+     *
+     * @param compressionDictionary the dictionary to compress with, can be <code>null</code> to
+     *     compress without dictionary
+     * @param dictionaries the dictionaries to decompress with, the compression dictionary is
+     *     included automatically
+     */
+    public ZstdJniDictionaryCompressionCodec(
+        ZstdDictionary compressionDictionary, Collection<ZstdDictionary> dictionaries) {
+      Map<Long, ZstdDictDecompress> decompressionDictionaries = new HashMap<>();
+      if (compressionDictionary == null) {
+        this.compressionDictionary = null;
+      } else {
+        this.compressionDictionary =
+            new ZstdDictCompress(
+                compressionDictionary.rawContent(), Zstd.defaultCompressionLevel());
+        decompressionDictionaries.put(
+            compressionDictionary.id(), new ZstdDictDecompress(compressionDictionary.rawContent()));
+      }
+      for (ZstdDictionary dictionary : dictionaries) {
+        decompressionDictionaries.computeIfAbsent(
+            dictionary.id(), id -> new ZstdDictDecompress(dictionary.rawContent()));
+      }
+      this.decompressionDictionaries = Map.copyOf(decompressionDictionaries);
+    }
+
+    @Override
+    public int maxCompressedLength(int sourceLength) {
+      return (int) Zstd.compressBound(sourceLength);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream) {
+      try {
+        ZstdOutputStream compressionStream = new ZstdOutputStream(outputStream);
+        if (this.compressionDictionary != null) {
+          compressionStream.setDict(this.compressionDictionary);
+        }
+        return compressionStream;
+      } catch (IOException e) {
+        throw new CompressionException("Error while creating Zstd compression output stream", e);
+      }
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream) {
+      try {
+        ZstdInputStreamNoFinalizer decompressionStream =
+            new ZstdInputStreamNoFinalizer(inputStream);
+        if (!this.decompressionDictionaries.isEmpty()) {
+          // zstd picks the dictionary of each frame from the referenced dictionaries
+          decompressionStream.setRefMultipleDDicts(true);
+          for (ZstdDictDecompress dictionary : this.decompressionDictionaries.values()) {
+            decompressionStream.setDict(dictionary);
+          }
+        }
+        return decompressionStream;
+      } catch (IOException e) {
+        throw new CompressionException("Error while creating Zstd compression input stream", e);
+      }
+    }
+
+    @Override
+    public boolean supportsBlocks() {
+      return true;
+    }
+
+    @Override
+    public int compress(ByteBuffer source, ByteBuffer target) {
+      ZstdCompressCtx context = this.compressionContext();
+      try {
+        if (source.isDirect() && target.isDirect()) {
+          return context.compressDirectByteBuffer(
+              target,
+              target.position(),
+              target.remaining(),
+              source,
+              source.position(),
+              source.remaining());
+        } else if (source.hasArray() && target.hasArray()) {
+          return context.compressByteArray(
+              target.array(),
+              target.arrayOffset() + target.position(),
+              target.remaining(),
+              source.array(),
+              source.arrayOffset() + source.position(),
+              source.remaining());
+        } else {
+          throw new CompressionException(
+              "Source and target must be both direct buffers or both heap buffers");
+        }
+      } catch (ZstdException e) {
+        throw new CompressionException("Error during Zstd compression", e);
+      } finally {
+        this.release(this.compressionContexts, context, ZstdCompressCtx::close);
+      }
+    }
+
+    @Override
+    public int decompress(ByteBuffer source, ByteBuffer target) {
+      ZstdDecompressCtx context = this.decompressionContext();
+      try {
+        long dictionaryId = dictionaryId(source);
+        if (dictionaryId == 0) {
+          // the dictionary of a previous frame is sticky
+          context.reset();
+        } else {
+          ZstdDictDecompress dictionary = this.decompressionDictionaries.get(dictionaryId);
+          if (dictionary == null) {
+            throw new CompressionException(
+                "No Zstd dictionary registered for dictionary ID " + dictionaryId);
+          }
+          context.loadDict(dictionary);
+        }
+        if (source.isDirect() && target.isDirect()) {
+          return context.decompressDirectByteBuffer(
+              target,
+              target.position(),
+              target.remaining(),
+              source,
+              source.position(),
+              source.remaining());
+        } else if (source.hasArray() && target.hasArray()) {
+          return context.decompressByteArray(
+              target.array(),
+              target.arrayOffset() + target.position(),
+              target.remaining(),
+              source.array(),
+              source.arrayOffset() + source.position(),
+              source.remaining());
+        } else {
+          throw new CompressionException(
+              "Source and target must be both direct buffers or both heap buffers");
+        }
+      } catch (ZstdException e) {
+        throw new CompressionException("Error during Zstd decompression", e);
+      } finally {
+        this.release(this.decompressionContexts, context, ZstdDecompressCtx::close);
+      }
+    }
+
+    private ZstdCompressCtx compressionContext() {
+      ZstdCompressCtx context = this.compressionContexts.poll();
+      if (context == null) {
+        this.checkNotClosed();
+        // the level and the dictionary stick to the context for all the next compressions
+        context = new ZstdCompressCtx();
+        context.setLevel(Zstd.defaultCompressionLevel());
+        if (this.compressionDictionary != null) {
+          context.loadDict(this.compressionDictionary);
+        }
+      }
+      return context;
+    }
+
+    private ZstdDecompressCtx decompressionContext() {
+      ZstdDecompressCtx context = this.decompressionContexts.poll();
+      if (context == null) {
+        this.checkNotClosed();
+        context = new ZstdDecompressCtx();
+      }
+      return context;
+    }
+
+    private <T> void release(Queue<T> contexts, T context, Consumer<T> closeCallback) {
+      contexts.offer(context);
+      if (this.closed) {
+        // the codec got closed while the context was in use
+        closeAll(contexts, closeCallback);
+      }
+    }
+
+    private void checkNotClosed() {
+      if (this.closed) {
+        throw new CompressionException("Zstd codec is closed");
+      }
+    }
+
+    private static <T> void closeAll(Queue<T> contexts, Consumer<T> closeCallback) {
+      T context;
+      while ((context = contexts.poll()) != null) {
+        closeCallback.accept(context);
+      }
+    }
+
+    /**
+     * Release the native resources of the codec.
+     *
+     * <p>The codec must not be used after it is closed.
+     */
+    @Override
+    public void close() {
+      if (!this.closed) {
+        this.closed = true;
+        closeAll(this.compressionContexts, ZstdCompressCtx::close);
+        closeAll(this.decompressionContexts, ZstdDecompressCtx::close);
+        if (this.compressionDictionary != null) {
+          this.compressionDictionary.close();
+        }
+        this.decompressionDictionaries.values().forEach(ZstdDictDecompress::close);
+      }
+    }
+
+    private static long dictionaryId(ByteBuffer frame) {
+      byte[] header = new byte[Math.min(FRAME_HEADER_MAX_SIZE, frame.remaining())];
+      frame.duplicate().get(header);
+      return Zstd.getDictIdFromFrame(header);
+    }
+
+    @Override
+    public byte code() {
+      return Compression.ZSTD.code;
+    }
+
+    @Override
+    public String toString() {
+      return "Zstd codec with dictionaries (JNI)";
+    }
+  }
+
   public static class Lz4JavaCompressionCodec implements CompressionCodec {
 
     private static final FLG.Bits[] DEFAULT_FEATURES = new FLG.Bits[] {FLG.Bits.BLOCK_INDEPENDENCE};
@@ -18,6 +18,8 @@ import com.rabbitmq.stream.compression.CompressionUtils.GzipCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.Lz4JavaCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.XerialSnappyCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.ZstdJniCompressionCodec;
+import com.rabbitmq.stream.compression.CompressionUtils.ZstdJniDictionaryCompressionCodec;
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 /**
@@ -28,15 +30,15 @@ import java.util.function.Supplier;
  * href="https://github.com/lz4/lz4-java">LZ4 Java</a> (framed), the ZSTD codec uses <a
  * href="https://github.com/luben/zstd-jni/">zstd-jni</a>.
  *
- * This factory gracefully handles missing native libraries. If a native compression library is
+ * <p>This factory gracefully handles missing native libraries. If a native compression library is
  * not available (e.g., on Android or when dependencies are excluded), the corresponding codec will
  * be unavailable and requesting it will throw a {@link CompressionException}.
  *
- * gzip is always available since it is a part of the JDK.
+ * <p>gzip is always available since it is a part of the JDK.
  *
  * @see PortableCompressionCodecFactory
  */
-public class DefaultCompressionCodecFactory implements CompressionCodecFactory {
+public class DefaultCompressionCodecFactory implements CompressionCodecFactory, AutoCloseable {
 
   private final CompressionCodec[] codecs = new CompressionCodec[5];
   private final String[] loadErrors = new String[5];
@@ -48,6 +50,53 @@ public class DefaultCompressionCodecFactory implements CompressionCodecFactory {
     codecs[Compression.ZSTD.code()] = tryLoad("Zstd", ZstdJniCompressionCodec::new);
   }
 
+  /**
+   * Create a factory that uses trained dictionaries for zstd.
+   *
+   * <p>Producers compress zstd sub-entries with the compression dictionary. Consumers decompress
+   * sub-entries with the dictionary whose ID is in the compressed data, it can be the compression
+   * dictionary or one of the other dictionaries. Sub-entries compressed without dictionary are
+   * decompressed as well.
+   *
+   * <p>Provide previous dictionaries in the other dictionaries to keep consuming old messages after
+   * rolling out a new compression dictionary.
+   *
+   * <p>The dictionaries use native resources, {@link #close()} the factory once the environments
+   * using it are closed.
+   *
+   * @param compressionDictionary the dictionary to compress with, can be <code>null</code> to use
+   *     dictionaries only for decompression
+   * @param dictionaries other dictionaries to decompress with
+   * @see ZstdDictionary
+   * @since 1.10.0
+   */
+  public DefaultCompressionCodecFactory(
+      ZstdDictionary compressionDictionary, ZstdDictionary... dictionaries) {
+    this();
+    codecs[Compression.ZSTD.code()] =
+        tryLoad(
+            "Zstd",
+            () ->
+                new ZstdJniDictionaryCompressionCodec(
+                    compressionDictionary, Arrays.asList(dictionaries)));
+  }
+
+  /**
+   * Release the native resources of the codecs, e.g. zstd dictionaries.
+   *
+   * <p>Close the factory only once the environments using it are closed.
+   *
+   * @since 1.10.0
+   */
+  @Override
+  public void close() {
+    for (CompressionCodec codec : this.codecs) {
+      if (codec instanceof ZstdJniDictionaryCompressionCodec) {
+        ((ZstdJniDictionaryCompressionCodec) codec).close();
+      }
+    }
+  }
+
   private CompressionCodec tryLoad(String name, Supplier<CompressionCodec> supplier) {
     try {
       return supplier.get();
@@ -0,0 +1,117 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Trained dictionary for zstd compression.
+ *
+ * <p>A dictionary improves the compression ratio of small sub-entries with similar content (e.g.
+ * JSON documents with the same structure). It is trained from sample messages and identified by the
+ * ID zstd writes in it. Compressed sub-entries contain the ID of the dictionary used to compress
+ * them, so consumers can find the dictionary to decompress them.
+ *
+ * <p>Producers and consumers must use the same dictionary content, which means a trained dictionary
+ * must be stored and distributed (e.g. as a file) with {@link #content()} and {@link #of(byte[])}.
+ *
+ * @see DefaultCompressionCodecFactory#DefaultCompressionCodecFactory(ZstdDictionary,
+ *     ZstdDictionary...)
+ * @since 1.10.0
+ */
+public final class ZstdDictionary {
+
+  private final long id;
+  private final byte[] content;
+
+  private ZstdDictionary(byte[] content) {
+    long dictionaryId = Zstd.getDictIdFromDict(content);
+    if (dictionaryId == 0) {
+      throw new CompressionException("Zstd dictionary has no ID, it must be a trained dictionary");
+    }
+    this.id = dictionaryId;
+    this.content = content;
+  }
+
+  /**
+   * Train a dictionary from sample messages.
+   *
+   * <p>Samples should be representative of the messages to compress. Training needs a reasonable
+   * number of samples, typically thousands of them and about 100 times the size of the dictionary.
+   *
+   * @param samples the sample messages
+   * @param dictionarySize the maximum size of the dictionary, e.g. 16 KB
+   * @return the trained dictionary
+   * @throws CompressionException if the training fails, e.g. not enough samples
+   */
+  public static ZstdDictionary train(Collection<byte[]> samples, int dictionarySize) {
+    int samplesSize = 0;
+    for (byte[] sample : samples) {
+      samplesSize += sample.length;
+    }
+    ZstdDictTrainer trainer = new ZstdDictTrainer(samplesSize, dictionarySize);
+    for (byte[] sample : samples) {
+      trainer.addSample(sample);
+    }
+    try {
+      return new ZstdDictionary(trainer.trainSamples());
+    } catch (ZstdException e) {
+      throw new CompressionException("Error while training Zstd dictionary", e);
+    }
+  }
+
+  /**
+   * Load a previously trained dictionary.
+   *
+   * @param content the content of the dictionary
+   * @return the dictionary
+   * @throws CompressionException if the content is not a trained dictionary
+   * @see #content()
+   */
+  public static ZstdDictionary of(byte[] content) {
+    return new ZstdDictionary(Arrays.copyOf(content, content.length));
+  }
+
+  /**
+   * The ID of the dictionary.
+   *
+   * @return the dictionary ID
+   */
+  public long id() {
+    return this.id;
+  }
+
+  /**
+   * The content of the dictionary, to store it.
+   *
+   * @return a copy of the dictionary content
+   */
+  public byte[] content() {
+    return Arrays.copyOf(this.content, this.content.length);
+  }
+
+  byte[] rawContent() {
+    return this.content;
+  }
+
+  @Override
+  public String toString() {
+    return "ZstdDictionary{id=" + this.id + ", size=" + this.content.length + '}';
+  }
+}
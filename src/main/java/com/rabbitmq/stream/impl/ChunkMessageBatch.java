@@ -0,0 +1,132 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import com.rabbitmq.stream.Consumer;
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageBatchHandler;
+import com.rabbitmq.stream.MessageHandler;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Collects the messages of a chunk and hands them over to a {@link MessageBatchHandler}.
+ *
+ * <p>This is the last {@link MessageHandler} of the consumer handler chain, so messages go through
+ * the same filtering and state checks as with a regular message handler. The consumer dispatches
+ * the batch once all the messages of the chunk have been handled. The same instance is used for all
+ * the chunks, it is accessed only from the connection dispatching thread.
+ */
+final class ChunkMessageBatch implements MessageHandler, MessageBatchHandler.Batch {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final MessageBatchHandler delegate;
+  private Message[] messages = new Message[INITIAL_CAPACITY];
+  private long[] offsets = new long[INITIAL_CAPACITY];
+  private int size = 0;
+  private Context context;
+  private java.util.function.Consumer<Context> postProcessingCallback;
+
+  ChunkMessageBatch(MessageBatchHandler delegate) {
+    this.delegate = delegate;
+  }
+
+  void postProcessingCallback(java.util.function.Consumer<Context> postProcessingCallback) {
+    this.postProcessingCallback = postProcessingCallback;
+  }
+
+  @Override
+  public void handle(Context context, Message message) {
+    if (this.size == this.messages.length) {
+      int capacity = this.size << 1;
+      this.messages = Arrays.copyOf(this.messages, capacity);
+      this.offsets = Arrays.copyOf(this.offsets, capacity);
+    }
+    this.messages[this.size] = message;
+    this.offsets[this.size] = context.offset();
+    this.size++;
+    this.context = context;
+  }
+
+  void dispatch() {
+    if (this.size == 0) {
+      return;
+    }
+    try {
+      this.delegate.handle(this);
+      if (this.postProcessingCallback != null) {
+        for (int i = 0; i < this.size; i++) {
+          this.postProcessingCallback.accept(this.context);
+        }
+      }
+    } finally {
+      this.clear();
+    }
+  }
+
+  void clear() {
+    Arrays.fill(this.messages, 0, this.size, null);
+    this.size = 0;
+    this.context = null;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public Message message(int index) {
+    return this.messages[Objects.checkIndex(index, this.size)];
+  }
+
+  @Override
+  public long offset(int index) {
+    return this.offsets[Objects.checkIndex(index, this.size)];
+  }
+
+  @Override
+  public long timestamp() {
+    return this.context.timestamp();
+  }
+
+  @Override
+  public long committedChunkId() {
+    return this.context.committedChunkId();
+  }
+
+  @Override
+  public String stream() {
+    return this.context.stream();
+  }
+
+  @Override
+  public Consumer consumer() {
+    return this.context.consumer();
+  }
+
+  @Override
+  public void storeOffset() {
+    this.context.consumer().store(this.offsets[this.size - 1]);
+  }
+
+  @Override
+  public void processed() {
+    for (int i = 0; i < this.size; i++) {
+      this.context.processed();
+    }
+  }
+}
@@ -105,7 +105,6 @@ import io.netty.channel.ChannelPromise;
 import io.netty.channel.ConnectTimeoutException;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.DecoderException;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.flush.FlushConsolidationHandler;
@@ -116,6 +115,7 @@ import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
 import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
@@ -132,11 +132,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -198,10 +200,13 @@ public class Client implements AutoCloseable {
   private static final Logger LOGGER = LoggerFactory.getLogger(Client.class);
 
   final PublishConfirmListener publishConfirmListener;
+  // re-used for all the confirm frames, frames are handled sequentially
+  long[] publishingIdsBuffer = new long[0];
   final PublishErrorListener publishErrorListener;
   final ChunkListener chunkListener;
   final MessageListener messageListener;
   final MessageIgnoredListener messageIgnoredListener;
+  final EntryFilter entryFilter;
   final CreditNotification creditNotification;
   final ConsumerUpdateListener consumerUpdateListener;
   final MetadataListener metadataListener;
@@ -219,6 +224,8 @@ public class Client implements AutoCloseable {
   // dispatches delivery frames only
   final ExecutorService dispatchingExecutorService;
   private final Consumer<ExecutorService> closeDispatchingExecutorService;
+  // dispatches delivery frames to a shared executor, instead of the dispatching executor service
+  private final DeliveryDispatcher deliveryDispatcher;
   final TuneState tuneState;
   final AtomicBoolean closing = new AtomicBoolean(false);
   final AtomicBoolean shuttingDownDispatching = new AtomicBoolean(false);
@@ -270,6 +277,7 @@ public class Client implements AutoCloseable {
     this.chunkListener = parameters.chunkListener;
     this.messageListener = parameters.messageListener;
     this.messageIgnoredListener = parameters.messageIgnoredListener;
+    this.entryFilter = parameters.entryFilter;
     this.creditNotification = parameters.creditNotification;
     this.codec = parameters.codec == null ? Codecs.DEFAULT : parameters.codec;
     this.saslConfiguration = parameters.saslConfiguration;
@@ -307,7 +315,7 @@ public class Client implements AutoCloseable {
     if (b.config().group() == null) {
       EventLoopGroup eventLoopGroup;
       if (parameters.eventLoopGroup == null) {
-        this.eventLoopGroup = Utils.eventLoopGroup();
+        this.eventLoopGroup = parameters.nettyTransport.eventLoopGroup();
         eventLoopGroup = this.eventLoopGroup;
       } else {
         this.eventLoopGroup = null;
@@ -318,7 +326,7 @@ public class Client implements AutoCloseable {
       this.eventLoopGroup = null;
     }
     if (b.config().channelFactory() == null) {
-      b.channel(NioSocketChannel.class);
+      b.channel(parameters.nettyTransport.channelClass());
     }
     if (!b.config().options().containsKey(ChannelOption.SO_KEEPALIVE)) {
       b.option(ChannelOption.SO_KEEPALIVE, true);
@@ -387,7 +395,11 @@ public class Client implements AutoCloseable {
     }
     ExecutorServiceFactory dispatchingExecutorServiceFactory =
         parameters.dispatchingExecutorServiceFactory;
-    if (dispatchingExecutorServiceFactory == null) {
+    if (parameters.deliveryExecutor != null) {
+      // deliveries go to the delivery dispatcher, no need for a dispatching executor
+      this.closeDispatchingExecutorService = null;
+      this.dispatchingExecutorService = null;
+    } else if (dispatchingExecutorServiceFactory == null) {
       this.closeDispatchingExecutorService =
           Utils.makeIdempotent(
               es -> {
@@ -418,6 +430,10 @@ public class Client implements AutoCloseable {
               });
       this.dispatchingExecutorService = dispatchingExecutorServiceFactory.get();
     }
+    this.deliveryDispatcher =
+        parameters.deliveryExecutor == null
+            ? null
+            : new DeliveryDispatcher(parameters.deliveryExecutor);
 
     ChannelFuture f;
     try {
@@ -633,6 +649,42 @@ public class Client implements AutoCloseable {
     }
   }
 
+  /**
+   * Send an RPC request without waiting for the response.
+   *
+   * <p>Several requests can be in flight on the connection at the same time, the returned future
+   * completes when the response arrives, when the connection closes, or after the RPC timeout.
+   * Errors are always {@link StreamException}s.
+   */
+  private <T> CompletableFuture<T> sendRpcAsync(
+      short command, short version, int length, Consumer<ByteBuf> bodyWriter, String errorContext) {
+    int correlationId = nextCorrelationId();
+    OutstandingRequest<T> request =
+        new OutstandingRequest<>(this.rpcTimeout, this.host + ":" + this.port, errorContext);
+    try {
+      ByteBuf bb = allocate(length + 4);
+      bb.writeInt(length);
+      bb.writeShort(encodeRequestCode(command));
+      bb.writeShort(version);
+      bb.writeInt(correlationId);
+      bodyWriter.accept(bb);
+      outstandingRequests.put(correlationId, request);
+      ScheduledFuture<?> timeoutTask =
+          channel
+              .eventLoop()
+              .schedule(
+                  () -> this.handleRpcError(correlationId, request.timeoutException()),
+                  this.rpcTimeout.toMillis(),
+                  TimeUnit.MILLISECONDS);
+      request.future().whenComplete((r, ex) -> timeoutTask.cancel(false));
+      channel.writeAndFlush(bb).addListener(maybeFailRpc(correlationId));
+    } catch (RuntimeException e) {
+      this.outstandingRequests.remove(correlationId);
+      request.completeExceptionally(e);
+    }
+    return request.future();
+  }
+
   private Map<String, String> peerProperties() {
     int clientPropertiesSize = mapSize(this.clientProperties);
     int length = 2 + 2 + 4 + clientPropertiesSize;
@@ -921,19 +973,51 @@ public class Client implements AutoCloseable {
   }
 
   public Map<String, StreamMetadata> metadata(String... streams) {
+    return this.<Map<String, StreamMetadata>>metadataRequest(streams).send();
+  }
+
+  /**
+   * Asynchronous version of {@link #metadata(String...)}.
+   *
+   * @param streams the streams
+   * @return the metadata of the streams
+   */
+  public CompletableFuture<Map<String, StreamMetadata>> metadataAsync(String... streams) {
+    return this.<Map<String, StreamMetadata>>metadataRequest(streams).sendAsync();
+  }
+
+  private <T> RpcRequest<T> metadataRequest(String... streams) {
     if (streams == null || streams.length == 0) {
       throw new IllegalArgumentException("At least one stream must be specified");
     }
     int length = 2 + 2 + 4 + arraySize(streams); // API code, version, correlation ID, array size
-    return sendRpc(
+    return new RpcRequest<>(
         COMMAND_METADATA,
-        VERSION_1,
         length,
         bb -> writeArray(bb, streams),
         format("Error while getting metadata for stream(s) '%s'", join(",", streams)));
   }
 
   public Response declarePublisher(byte publisherId, String publisherReference, String stream) {
+    return this.<Response>declarePublisherRequest(publisherId, publisherReference, stream).send();
+  }
+
+  /**
+   * Asynchronous version of {@link #declarePublisher(byte, String, String)}.
+   *
+   * @param publisherId the publisher ID
+   * @param publisherReference the publisher reference, can be null
+   * @param stream the stream
+   * @return the declaration response
+   */
+  public CompletableFuture<Response> declarePublisherAsync(
+      byte publisherId, String publisherReference, String stream) {
+    return this.<Response>declarePublisherRequest(publisherId, publisherReference, stream)
+        .sendAsync();
+  }
+
+  private <T> RpcRequest<T> declarePublisherRequest(
+      byte publisherId, String publisherReference, String stream) {
     int publisherReferenceSize =
         (publisherReference == null || publisherReference.isEmpty()
             ? 0
@@ -943,9 +1027,8 @@ public class Client implements AutoCloseable {
           "If specified, publisher reference must be less than 256 bytes when encoded as UTF-8");
     }
     int length = 2 + 2 + 4 + 1 + 2 + publisherReferenceSize + 2 + stringByteSize(stream);
-    return sendRpc(
+    return new RpcRequest<>(
         COMMAND_DECLARE_PUBLISHER,
-        VERSION_1,
         length,
         bb -> {
           bb.writeByte(publisherId);
@@ -960,10 +1043,23 @@ public class Client implements AutoCloseable {
   }
 
   public Response deletePublisher(byte publisherId) {
+    return this.<Response>deletePublisherRequest(publisherId).send();
+  }
+
+  /**
+   * Asynchronous version of {@link #deletePublisher(byte)}.
+   *
+   * @param publisherId the publisher ID
+   * @return the deletion response
+   */
+  public CompletableFuture<Response> deletePublisherAsync(byte publisherId) {
+    return this.<Response>deletePublisherRequest(publisherId).sendAsync();
+  }
+
+  private <T> RpcRequest<T> deletePublisherRequest(byte publisherId) {
     int length = 2 + 2 + 4 + 1;
-    return sendRpc(
+    return new RpcRequest<>(
         COMMAND_DELETE_PUBLISHER,
-        VERSION_1,
         length,
         bb -> bb.writeByte(publisherId),
         "Error while deleting publisher");
@@ -1177,7 +1273,10 @@ public class Client implements AutoCloseable {
       List<Long> sequences,
       ToLongFunction<Object> publishSequenceFunction) {
     // no check because it's been done already
-    ByteBuf out = allocateNoCheck(ch.alloc(), frameLength + 4);
+    ByteBuf out =
+        callback.zeroCopy()
+            ? new PublishFrameBuffer(ch.alloc(), frameLength + 4)
+            : allocateNoCheck(ch.alloc(), frameLength + 4);
     out.writeInt(frameLength);
     out.writeShort(encodeRequestCode(COMMAND_PUBLISH));
     out.writeShort(version);
@@ -1259,43 +1358,12 @@ public class Client implements AutoCloseable {
       OffsetSpecification offsetSpecification,
       int initialCredits,
       Map<String, String> properties) {
-    if (initialCredits < 0 || initialCredits > Short.MAX_VALUE) {
-      throw new IllegalArgumentException("Credit value must be between 0 and " + Short.MAX_VALUE);
-    }
-    int length = 2 + 2 + 4 + 1 + 2 + stringByteSize(stream) + 2 + 2; // misses the offset
-    if (offsetSpecification.isOffset() || offsetSpecification.isTimestamp()) {
-      length += 8;
-    }
-    int propertiesSize = 0;
-    if (properties != null && !properties.isEmpty()) {
-      propertiesSize = mapSize(properties);
-    }
-    length += propertiesSize;
     boolean[] offsetAdded = {false};
+    RpcRequest<Response> request =
+        subscribeRequest(
+            subscriptionId, stream, offsetSpecification, initialCredits, properties, offsetAdded);
     try {
-      Response response =
-          sendRpc(
-              COMMAND_SUBSCRIBE,
-              VERSION_1,
-              length,
-              bb -> {
-                bb.writeByte(subscriptionId);
-                writeString(bb, stream);
-                bb.writeShort(offsetSpecification.getType());
-                if (offsetSpecification.isOffset() || offsetSpecification.isTimestamp()) {
-                  bb.writeLong(offsetSpecification.getOffset());
-                }
-                bb.writeShort(initialCredits);
-                if (properties != null && !properties.isEmpty()) {
-                  writeMap(bb, properties);
-                }
-                if (offsetSpecification.isOffset()) {
-                  this.addSubscriptionToList(
-                      new SubscriptionOffset(subscriptionId, offsetSpecification.getOffset()));
-                  offsetAdded[0] = true;
-                }
-              },
-              format("Error while trying to subscribe to stream '%s'", stream));
+      Response response = request.send();
       // Clean up subscription offset if subscribe failed
       if (offsetAdded[0] && response.getResponseCode() != RESPONSE_CODE_OK) {
         this.removeSubscriptionFromList(subscriptionId);
@@ -1308,7 +1376,84 @@ public class Client implements AutoCloseable {
     }
   }
 
+  /**
+   * Asynchronous version of {@link #subscribe(byte, String, OffsetSpecification, int, Map)}.
+   *
+   * @param subscriptionId identifier to correlate inbound messages to this subscription
+   * @param stream the stream to consume from
+   * @param offsetSpecification the specification of the offset to consume from
+   * @param initialCredits the initial number of credits
+   * @param properties some optional properties to describe the subscription
+   * @return the subscription confirmation
+   */
+  public CompletableFuture<Response> subscribeAsync(
+      byte subscriptionId,
+      String stream,
+      OffsetSpecification offsetSpecification,
+      int initialCredits,
+      Map<String, String> properties) {
+    boolean[] offsetAdded = {false};
+    RpcRequest<Response> request =
+        subscribeRequest(
+            subscriptionId, stream, offsetSpecification, initialCredits, properties, offsetAdded);
+    return request
+        .sendAsync()
+        .whenComplete(
+            (response, ex) -> {
+              if (ex != null
+                  || (offsetAdded[0] && response.getResponseCode() != RESPONSE_CODE_OK)) {
+                this.removeSubscriptionFromList(subscriptionId);
+              }
+            });
+  }
+
+  private <T> RpcRequest<T> subscribeRequest(
+      byte subscriptionId,
+      String stream,
+      OffsetSpecification offsetSpecification,
+      int initialCredits,
+      Map<String, String> properties,
+      boolean[] offsetAdded) {
+    if (initialCredits < 0 || initialCredits > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Credit value must be between 0 and " + Short.MAX_VALUE);
+    }
+    int length = 2 + 2 + 4 + 1 + 2 + stringByteSize(stream) + 2 + 2; // misses the offset
+    if (offsetSpecification.isOffset() || offsetSpecification.isTimestamp()) {
+      length += 8;
+    }
+    int propertiesSize = 0;
+    if (properties != null && !properties.isEmpty()) {
+      propertiesSize = mapSize(properties);
+    }
+    length += propertiesSize;
+    return new RpcRequest<>(
+        COMMAND_SUBSCRIBE,
+        length,
+        bb -> {
+          bb.writeByte(subscriptionId);
+          writeString(bb, stream);
+          bb.writeShort(offsetSpecification.getType());
+          if (offsetSpecification.isOffset() || offsetSpecification.isTimestamp()) {
+            bb.writeLong(offsetSpecification.getOffset());
+          }
+          bb.writeShort(initialCredits);
+          if (properties != null && !properties.isEmpty()) {
+            writeMap(bb, properties);
+          }
+          if (offsetSpecification.isOffset()) {
+            this.addSubscriptionToList(
+                new SubscriptionOffset(subscriptionId, offsetSpecification.getOffset()));
+            offsetAdded[0] = true;
+          }
+        },
+        format("Error while trying to subscribe to stream '%s'", stream));
+  }
+
   public void storeOffset(String reference, String stream, long offset) {
+    storeOffset(reference, stream, offset, true);
+  }
+
+  void storeOffset(String reference, String stream, long offset, boolean flush) {
     if (reference == null
         || reference.isEmpty()
         || stringByteSize(reference) >= MAX_REFERENCE_SIZE) {
@@ -1326,10 +1471,34 @@ public class Client implements AutoCloseable {
     writeString(bb, reference);
     writeString(bb, stream);
     bb.writeLong(offset);
-    channel.writeAndFlush(bb, channel.voidPromise());
+    if (flush) {
+      channel.writeAndFlush(bb, channel.voidPromise());
+    } else {
+      channel.write(bb, channel.voidPromise());
+    }
+  }
+
+  /** Flush the requests written without flushing, e.g. offset storage requests. */
+  void flush() {
+    channel.flush();
   }
 
   public QueryOffsetResponse queryOffset(String reference, String stream) {
+    return this.<QueryOffsetResponse>queryOffsetRequest(reference, stream).send();
+  }
+
+  /**
+   * Asynchronous version of {@link #queryOffset(String, String)}.
+   *
+   * @param reference the reference
+   * @param stream the stream
+   * @return the query offset response
+   */
+  public CompletableFuture<QueryOffsetResponse> queryOffsetAsync(String reference, String stream) {
+    return this.<QueryOffsetResponse>queryOffsetRequest(reference, stream).sendAsync();
+  }
+
+  private <T> RpcRequest<T> queryOffsetRequest(String reference, String stream) {
     if (reference == null || reference.isEmpty() || stringByteSize(reference) > 256) {
       throw new IllegalArgumentException(
           "Reference must be a non-empty string of less than 256 bytes when encoded as UTF-8");
@@ -1339,9 +1508,8 @@ public class Client implements AutoCloseable {
     }
 
     int length = 2 + 2 + 4 + 2 + stringByteSize(reference) + 2 + stringByteSize(stream);
-    return sendRpc(
+    return new RpcRequest<>(
         COMMAND_QUERY_OFFSET,
-        VERSION_1,
         length,
         bb -> {
           writeString(bb, reference);
@@ -1414,6 +1582,42 @@ public class Client implements AutoCloseable {
   }
 
   public long queryPublisherSequence(String publisherReference, String stream) {
+    QueryPublisherSequenceResponse response =
+        this.<QueryPublisherSequenceResponse>queryPublisherSequenceRequest(
+                publisherReference, stream)
+            .send();
+    return publisherSequence(response);
+  }
+
+  /**
+   * Asynchronous version of {@link #queryPublisherSequence(String, String)}.
+   *
+   * <p>Useful to query the sequences of the same publisher on several streams with only one round
+   * trip.
+   *
+   * @param publisherReference the publisher reference
+   * @param stream the stream
+   * @return the last publishing ID of the publisher on the stream
+   */
+  public CompletableFuture<Long> queryPublisherSequenceAsync(
+      String publisherReference, String stream) {
+    return this.<QueryPublisherSequenceResponse>queryPublisherSequenceRequest(
+            publisherReference, stream)
+        .sendAsync()
+        .thenApply(Client::publisherSequence);
+  }
+
+  private static long publisherSequence(QueryPublisherSequenceResponse response) {
+    if (!response.isOk()) {
+      LOGGER.info(
+          "Query publisher sequence failed with code {}",
+          formatConstant(response.getResponseCode()));
+    }
+    return response.getSequence();
+  }
+
+  private <T> RpcRequest<T> queryPublisherSequenceRequest(
+      String publisherReference, String stream) {
     if (publisherReference == null
         || publisherReference.isEmpty()
         || stringByteSize(publisherReference) > 256) {
@@ -1425,32 +1629,37 @@ public class Client implements AutoCloseable {
     }
 
     int length = 2 + 2 + 4 + 2 + stringByteSize(publisherReference) + 2 + stringByteSize(stream);
-    QueryPublisherSequenceResponse response =
-        sendRpc(
-            COMMAND_QUERY_PUBLISHER_SEQUENCE,
-            VERSION_1,
-            length,
-            bb -> {
-              writeString(bb, publisherReference);
-              writeString(bb, stream);
-            },
-            format(
-                "Error while querying publisher sequence for '%s' on stream '%s'",
-                publisherReference, stream));
-    if (!response.isOk()) {
-      LOGGER.info(
-          "Query publisher sequence failed with code {}",
-          formatConstant(response.getResponseCode()));
-    }
-    return response.getSequence();
+    return new RpcRequest<>(
+        COMMAND_QUERY_PUBLISHER_SEQUENCE,
+        length,
+        bb -> {
+          writeString(bb, publisherReference);
+          writeString(bb, stream);
+        },
+        format(
+            "Error while querying publisher sequence for '%s' on stream '%s'",
+            publisherReference, stream));
   }
 
   public Response unsubscribe(byte subscriptionId) {
+    return this.<Response>unsubscribeRequest(subscriptionId).send();
+  }
+
+  /**
+   * Asynchronous version of {@link #unsubscribe(byte)}.
+   *
+   * @param subscriptionId the subscription ID
+   * @return the unsubscription response
+   */
+  public CompletableFuture<Response> unsubscribeAsync(byte subscriptionId) {
+    return this.<Response>unsubscribeRequest(subscriptionId).sendAsync();
+  }
+
+  private <T> RpcRequest<T> unsubscribeRequest(byte subscriptionId) {
     int length = 2 + 2 + 4 + 1;
     this.removeSubscriptionFromList(subscriptionId);
-    return sendRpc(
+    return new RpcRequest<>(
         COMMAND_UNSUBSCRIBE,
-        VERSION_1,
         length,
         bb -> bb.writeByte(subscriptionId),
         "Error while unsubscribing");
@@ -1493,6 +1702,11 @@ public class Client implements AutoCloseable {
     }
     this.nettyClosing.run();
     this.failOutstandingRequests();
+    if (this.deliveryDispatcher != null) {
+      // the pending delivery frames are released, not handled
+      this.shuttingDownDispatching.set(true);
+      this.deliveryDispatcher.close();
+    }
     if (this.closeDispatchingExecutorService != null) {
       this.closeDispatchingExecutorService.accept(this.dispatchingExecutorService);
     }
@@ -1763,11 +1977,34 @@ public class Client implements AutoCloseable {
     int write(ByteBuf bb, Object entity, long publishingId);
 
     int fragmentLength(Object entity);
+
+    /**
+     * Whether entities can contain large buffers worth adding to frames without copying them
+     * (compressed sub-entry batches).
+     */
+    default boolean zeroCopy() {
+      return false;
+    }
   }
 
   public interface PublishConfirmListener {
 
     void handle(byte publisherId, long publishingId);
+
+    /**
+     * Handle all the publishing IDs of a confirm frame at once.
+     *
+     * <p>The default implementation calls {@link #handle(byte, long)} for each publishing ID.
+     *
+     * @param publisherId the publisher ID
+     * @param publishingIds the confirmed publishing IDs
+     * @param count the number of confirmed publishing IDs
+     */
+    default void handle(byte publisherId, long[] publishingIds, int count) {
+      for (int i = 0; i < count; i++) {
+        handle(publisherId, publishingIds[i]);
+      }
+    }
   }
 
   public interface PublishErrorListener {
@@ -1821,6 +2058,21 @@ public class Client implements AutoCloseable {
         Object chunkContext);
   }
 
+  interface EntryFilter {
+
+    /**
+     * Whether to decode and dispatch a message.
+     *
+     * <p>A message that does not pass is skipped and goes to the {@link MessageIgnoredListener}.
+     *
+     * @param subscriptionId the subscription ID
+     * @param bb the buffer, with the reader index at the beginning of the message
+     * @param size the size of the message
+     * @return true to decode and dispatch the message, false to skip it
+     */
+    boolean test(byte subscriptionId, ByteBuf bb, int size);
+  }
+
   public interface CreditNotification {
 
     void handle(byte subscriptionId, short responseCode);
@@ -1899,6 +2151,11 @@ public class Client implements AutoCloseable {
       OriginalAndEncodedOutboundEntity wrapper = (OriginalAndEncodedOutboundEntity) entity;
       return delegate.fragmentLength(wrapper.encoded);
     }
+
+    @Override
+    public boolean zeroCopy() {
+      return delegate.zeroCopy();
+    }
   }
 
   private static class PlainEncodedMessageBatch implements EncodedMessageBatch {
@@ -1982,6 +2239,10 @@ public class Client implements AutoCloseable {
     @Override
     public void close() {
       int maxCompressedLength = codec.maxCompressedLength(this.uncompressedByteSize);
+      if (this.codec.supportsBlocks()) {
+        this.compressBlock(maxCompressedLength);
+        return;
+      }
       this.buffer = allocator.buffer(maxCompressedLength);
       try (OutputStream outputStream = this.codec.compress(new ByteBufOutputStream(buffer))) {
         for (int i = 0; i < messages.size(); i++) {
@@ -1996,8 +2257,32 @@ public class Client implements AutoCloseable {
       }
     }
 
+    private void compressBlock(int maxCompressedLength) {
+      ByteBuf plain = allocator.directBuffer(this.uncompressedByteSize);
+      try {
+        for (int i = 0; i < messages.size(); i++) {
+          messages.get(i).writeTo(plain);
+        }
+        this.buffer = allocator.directBuffer(maxCompressedLength);
+        int compressedLength =
+            this.codec.compress(
+                plain.nioBuffer(0, plain.writerIndex()),
+                this.buffer.nioBuffer(0, maxCompressedLength));
+        this.buffer.writerIndex(compressedLength);
+      } catch (Throwable e) {
+        if (this.buffer != null) {
+          this.buffer.release();
+          this.buffer = null;
+        }
+        throw new StreamException("Error while compressing sub-entry batch", e);
+      } finally {
+        plain.release();
+      }
+    }
+
     @Override
     public void write(ByteBuf bb) {
+      // publish frame buffers retain the compressed data instead of copying it
       bb.writeBytes(this.buffer, 0, this.buffer.writerIndex());
       this.buffer.release();
     }
@@ -2065,6 +2350,11 @@ public class Client implements AutoCloseable {
               .sizeInBytes()); // publish ID + info byte + message count + uncompressed data size +
       // data size
     }
+
+    @Override
+    public boolean zeroCopy() {
+      return true;
+    }
   }
 
   public static class ShutdownContext {
@@ -2407,6 +2697,7 @@ public class Client implements AutoCloseable {
         (correlationId, offset, chunkTimestamp, committedOffset, chunkContext, message) -> {};
     private MessageIgnoredListener messageIgnoredListener =
         (subscriptionId, offset, chunkTimestamp, committedChunkId, chunkContext) -> {};
+    private EntryFilter entryFilter;
     private MetadataListener metadataListener = (stream, code) -> {};
     private CreditNotification creditNotification =
         (subscriptionId, responseCode) ->
@@ -2428,10 +2719,13 @@ public class Client implements AutoCloseable {
     private Duration rpcTimeout;
     private Consumer<Channel> channelCustomizer = noOpConsumer();
     private Consumer<Bootstrap> bootstrapCustomizer = noOpConsumer();
+    NettyTransport nettyTransport = NettyTransport.NIO;
     // for messages
     private ExecutorServiceFactory dispatchingExecutorServiceFactory;
     // for other server frames
     private ExecutorServiceFactory executorServiceFactory;
+    // for messages, overrides the dispatching executor service
+    private Executor deliveryExecutor;
 
     public ClientParameters() {}
 
@@ -2456,6 +2750,7 @@ public class Client implements AutoCloseable {
       this.chunkListener = other.chunkListener;
       this.messageListener = other.messageListener;
       this.messageIgnoredListener = other.messageIgnoredListener;
+      this.entryFilter = other.entryFilter;
       this.metadataListener = other.metadataListener;
       this.creditNotification = other.creditNotification;
       this.consumerUpdateListener = other.consumerUpdateListener;
@@ -2470,8 +2765,10 @@ public class Client implements AutoCloseable {
       this.rpcTimeout = other.rpcTimeout;
       this.channelCustomizer = other.channelCustomizer;
       this.bootstrapCustomizer = other.bootstrapCustomizer;
+      this.nettyTransport = other.nettyTransport;
       this.dispatchingExecutorServiceFactory = other.dispatchingExecutorServiceFactory;
       this.executorServiceFactory = other.executorServiceFactory;
+      this.deliveryExecutor = other.deliveryExecutor;
     }
 
     public ClientParameters host(String host) {
@@ -2509,6 +2806,11 @@ public class Client implements AutoCloseable {
       return this;
     }
 
+    ClientParameters entryFilter(EntryFilter entryFilter) {
+      this.entryFilter = entryFilter;
+      return this;
+    }
+
     public ClientParameters creditNotification(CreditNotification creditNotification) {
       this.creditNotification = creditNotification;
       return this;
@@ -2670,6 +2972,11 @@ public class Client implements AutoCloseable {
       return this;
     }
 
+    public ClientParameters deliveryExecutor(Executor deliveryExecutor) {
+      this.deliveryExecutor = deliveryExecutor;
+      return this;
+    }
+
     String host() {
       return this.host;
     }
@@ -2700,15 +3007,49 @@ public class Client implements AutoCloseable {
       return this;
     }
 
+    ClientParameters nettyTransport(NettyTransport nettyTransport) {
+      this.nettyTransport = nettyTransport;
+      return this;
+    }
+
     Duration rpcTimeout() {
       return this.rpcTimeout;
     }
 
+    MetricsCollector metricsCollector() {
+      return this.metricsCollector;
+    }
+
     public ClientParameters duplicate() {
       return new ClientParameters(this);
     }
   }
 
+  /** Version 1 RPC request that can be sent synchronously or asynchronously. */
+  private final class RpcRequest<T> {
+
+    private final short command;
+    private final int length;
+    private final Consumer<ByteBuf> bodyWriter;
+    private final String errorContext;
+
+    private RpcRequest(
+        short command, int length, Consumer<ByteBuf> bodyWriter, String errorContext) {
+      this.command = command;
+      this.length = length;
+      this.bodyWriter = bodyWriter;
+      this.errorContext = errorContext;
+    }
+
+    private T send() {
+      return sendRpc(this.command, VERSION_1, this.length, this.bodyWriter, this.errorContext);
+    }
+
+    private CompletableFuture<T> sendAsync() {
+      return sendRpcAsync(this.command, VERSION_1, this.length, this.bodyWriter, this.errorContext);
+    }
+  }
+
   static class OutstandingRequest<T> {
 
     private final CountDownLatch latch = new CountDownLatch(1);
@@ -2721,9 +3062,22 @@ public class Client implements AutoCloseable {
 
     private final AtomicReference<Throwable> error = new AtomicReference<>();
 
+    // for asynchronous requests only
+    private final CompletableFuture<T> future;
+    private final String errorContext;
+
     private OutstandingRequest(Duration timeout, String node) {
       this.timeout = timeout;
       this.node = node;
+      this.future = null;
+      this.errorContext = null;
+    }
+
+    private OutstandingRequest(Duration timeout, String node, String errorContext) {
+      this.timeout = timeout;
+      this.node = node;
+      this.future = new CompletableFuture<>();
+      this.errorContext = errorContext;
     }
 
     void block() {
@@ -2735,14 +3089,28 @@ public class Client implements AutoCloseable {
         throw new StreamException("Interrupted while waiting for response");
       }
       if (!completed) {
-        throw new TimeoutStreamException(
-            format("Could not get response in %d ms from node %s", timeout.toMillis(), node));
+        throw timeoutException();
       }
     }
 
+    private TimeoutStreamException timeoutException() {
+      return new TimeoutStreamException(
+          format("Could not get response in %d ms from node %s", timeout.toMillis(), node));
+    }
+
     void completeExceptionally(Throwable cause) {
       error.set(cause);
       latch.countDown();
+      if (this.future != null) {
+        this.future.completeExceptionally(
+            cause instanceof StreamException
+                ? cause
+                : new StreamException(this.errorContext, cause));
+      }
+    }
+
+    private CompletableFuture<T> future() {
+      return this.future;
     }
 
     Throwable error() {
@@ -2755,6 +3123,15 @@ public class Client implements AutoCloseable {
 
     void countDown() {
       this.latch.countDown();
+      if (this.future != null) {
+        T r = this.response.get();
+        if (r == null) {
+          this.future.completeExceptionally(
+              new StreamException(this.errorContext + ", no response"));
+        } else {
+          this.future.complete(r);
+        }
+      }
     }
 
     T blockAndGet() {
@@ -2929,7 +3306,12 @@ public class Client implements AutoCloseable {
       if (task != null) {
         try {
           if (commandId == Constants.COMMAND_DELIVER) {
-            dispatchingExecutorService.execute(task);
+            if (deliveryDispatcher == null) {
+              dispatchingExecutorService.execute(task);
+            } else {
+              // the subscription ID is the first field of all the deliver versions
+              deliveryDispatcher.dispatch(m.getByte(m.readerIndex()), task);
+            }
           } else {
             executorService.execute(task);
           }
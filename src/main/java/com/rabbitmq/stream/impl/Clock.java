@@ -16,6 +16,18 @@ package com.rabbitmq.stream.impl;
 
 class Clock {
 
+  /** Clock that reads the system time on each call, for the rare cases it is worth the cost. */
+  static final Clock SYSTEM =
+      new Clock() {
+        @Override
+        long time() {
+          return System.nanoTime();
+        }
+
+        @Override
+        void refresh() {}
+      };
+
   private volatile long time;
 
   Clock() {
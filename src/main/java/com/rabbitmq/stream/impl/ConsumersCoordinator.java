@@ -14,6 +14,8 @@
 // info@rabbitmq.com.
 package com.rabbitmq.stream.impl;
 
+import static com.rabbitmq.stream.Constants.RESPONSE_CODE_STREAM_DOES_NOT_EXIST;
+import static com.rabbitmq.stream.Constants.RESPONSE_CODE_STREAM_NOT_AVAILABLE;
 import static com.rabbitmq.stream.Constants.RESPONSE_CODE_SUBSCRIPTION_ID_ALREADY_EXISTS;
 import static com.rabbitmq.stream.impl.CoordinatorUtils.shouldRefreshCandidates;
 import static com.rabbitmq.stream.impl.Utils.AVAILABLE_PROCESSORS;
@@ -24,7 +26,6 @@ import static com.rabbitmq.stream.impl.Utils.isSac;
 import static com.rabbitmq.stream.impl.Utils.jsonField;
 import static com.rabbitmq.stream.impl.Utils.keyForNode;
 import static com.rabbitmq.stream.impl.Utils.lock;
-import static com.rabbitmq.stream.impl.Utils.namedFunction;
 import static com.rabbitmq.stream.impl.Utils.namedRunnable;
 import static com.rabbitmq.stream.impl.Utils.quote;
 import static java.lang.String.format;
@@ -36,6 +37,7 @@ import com.rabbitmq.stream.Consumer;
 import com.rabbitmq.stream.ConsumerFlowStrategy;
 import com.rabbitmq.stream.MessageHandler;
 import com.rabbitmq.stream.MessageHandler.Context;
+import com.rabbitmq.stream.ObservationCollector;
 import com.rabbitmq.stream.OffsetSpecification;
 import com.rabbitmq.stream.StreamDoesNotExistException;
 import com.rabbitmq.stream.StreamException;
@@ -46,6 +48,7 @@ import com.rabbitmq.stream.impl.Client.ChunkListener;
 import com.rabbitmq.stream.impl.Client.ClientParameters;
 import com.rabbitmq.stream.impl.Client.ConsumerUpdateListener;
 import com.rabbitmq.stream.impl.Client.CreditNotification;
+import com.rabbitmq.stream.impl.Client.EntryFilter;
 import com.rabbitmq.stream.impl.Client.MessageIgnoredListener;
 import com.rabbitmq.stream.impl.Client.MessageListener;
 import com.rabbitmq.stream.impl.Client.MetadataListener;
@@ -67,6 +70,7 @@ import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -199,6 +203,7 @@ final class ConsumersCoordinator implements AutoCloseable {
         environment
             .clientParametersCopy()
             .executorServiceFactory(this.executorServiceFactory)
+            .deliveryExecutor(environment.consumerDecodingExecutorService())
             .host(node.getHost())
             .port(node.getPort());
     ClientSubscriptionsManager pickedManager = null;
@@ -239,6 +244,8 @@ final class ConsumersCoordinator implements AutoCloseable {
         pickedManager = null;
       } catch (RuntimeException e) {
         if (shouldRefreshCandidates(e)) {
+          // the cached metadata may point to a node that is no longer a candidate
+          ConsumersCoordinator.this.environment.invalidateStreamMetadata(tracker.stream);
           // manager connection is dead or stream not available
           // scheduling manager closing if necessary in another thread to avoid blocking this one
           if (pickedManager.isEmpty()) {
@@ -264,16 +271,12 @@ final class ConsumersCoordinator implements AutoCloseable {
   List<BrokerWrapper> findCandidateNodes(String stream, boolean forceReplica) {
     LOGGER.debug(
         "Candidate lookup to consumer from '{}', forcing replica? {}", stream, forceReplica);
-    Map<String, Client.StreamMetadata> metadata =
-        this.environment.locatorOperation(
-            namedFunction(
-                c -> c.metadata(stream), "Candidate lookup to consume from '%s'", stream));
-    if (metadata.isEmpty() || metadata.get(stream) == null) {
+    Client.StreamMetadata streamMetadata = this.environment.streamMetadata(stream);
+    if (streamMetadata == null) {
       // this is not supposed to happen
       throw new StreamDoesNotExistException(stream);
     }
 
-    Client.StreamMetadata streamMetadata = metadata.get(stream);
     if (!streamMetadata.isResponseOk()) {
       if (streamMetadata.getResponseCode() == Constants.RESPONSE_CODE_STREAM_DOES_NOT_EXIST) {
         throw new StreamDoesNotExistException(stream);
@@ -287,12 +290,15 @@ final class ConsumersCoordinator implements AutoCloseable {
     Broker leader = streamMetadata.getLeader();
     List<Broker> replicas = streamMetadata.getReplicas();
     if ((replicas == null || replicas.isEmpty()) && leader == null) {
+      this.environment.invalidateStreamMetadata(stream);
       throw new IllegalStateException("No node available to consume from stream " + stream);
     }
 
     List<BrokerWrapper> brokers;
     if (replicas == null || replicas.isEmpty()) {
       if (forceReplica) {
+        // replicas may come up soon
+        this.environment.invalidateStreamMetadata(stream);
         throw new IllegalStateException(
             format(
                 "Only the leader node is available for consuming from %s and "
@@ -442,6 +448,7 @@ final class ConsumersCoordinator implements AutoCloseable {
     private final OffsetSpecification initialOffsetSpecification;
     private final String offsetTrackingReference;
     private final MessageHandler messageHandler;
+    private final HeaderFilter headerFilter;
     private final StreamConsumer consumer;
     private final SubscriptionListener subscriptionListener;
     private final Runnable trackingClosingCallback;
@@ -454,6 +461,11 @@ final class ConsumersCoordinator implements AutoCloseable {
         new AtomicReference<>(SubscriptionState.OPENING);
     private final ConsumerFlowStrategy flowStrategy;
     private final Lock subscriptionTrackerLock = new ReentrantLock();
+    // batch handler only, used from the connection dispatching thread
+    private final MessageHandlerContext batchContext;
+    // chunk-level observation only
+    private final ObservationCollector.ChunkMessageHandler chunkMessageHandler;
+    private long chunkRemainingMessages;
 
     private SubscriptionTracker(
         long id,
@@ -474,7 +486,13 @@ final class ConsumersCoordinator implements AutoCloseable {
       this.subscriptionListener = subscriptionListener;
       this.trackingClosingCallback = trackingClosingCallback;
       this.messageHandler = messageHandler;
+      this.headerFilter = consumer == null ? null : consumer.headerFilter();
       this.flowStrategy = flowStrategy;
+      this.batchContext =
+          consumer != null && consumer.batchMode()
+              ? new MessageHandlerContext(0, 0, 0, consumer, null)
+              : null;
+      this.chunkMessageHandler = consumer != null ? consumer.chunkMessageHandler() : null;
       if (this.offsetTrackingReference == null) {
         this.subscriptionProperties = subscriptionProperties;
       } else {
@@ -486,6 +504,27 @@ final class ConsumersCoordinator implements AutoCloseable {
       }
     }
 
+    private boolean countsChunkMessages() {
+      return this.batchContext != null || this.chunkMessageHandler != null;
+    }
+
+    private void chunkStarted(long messageCount) {
+      this.chunkRemainingMessages = messageCount;
+      if (this.chunkMessageHandler != null) {
+        this.chunkMessageHandler.chunkStarted(messageCount);
+      }
+    }
+
+    private void chunkMessageDone() {
+      if (--this.chunkRemainingMessages <= 0) {
+        if (this.batchContext != null) {
+          this.consumer.chunkHandled();
+        } else {
+          this.chunkMessageHandler.chunkCompleted();
+        }
+      }
+    }
+
     void cancel() {
       lock(
           this.subscriptionTrackerLock,
@@ -571,11 +610,12 @@ final class ConsumersCoordinator implements AutoCloseable {
 
   private static final class MessageHandlerContext implements Context {
 
-    private final long offset;
-    private final long timestamp;
-    private final long committedOffset;
+    // not final, instances are reused for batch handlers
+    private long offset;
+    private long timestamp;
+    private long committedOffset;
     private final StreamConsumer consumer;
-    private final ConsumerFlowStrategy.MessageProcessedCallback processedCallback;
+    private ConsumerFlowStrategy.MessageProcessedCallback processedCallback;
 
     private MessageHandlerContext(
         long offset,
@@ -590,6 +630,18 @@ final class ConsumersCoordinator implements AutoCloseable {
       this.processedCallback = processedCallback;
     }
 
+    private MessageHandlerContext update(
+        long offset,
+        long timestamp,
+        long committedOffset,
+        ConsumerFlowStrategy.MessageProcessedCallback processedCallback) {
+      this.offset = offset;
+      this.timestamp = timestamp;
+      this.committedOffset = committedOffset;
+      this.processedCallback = processedCallback;
+      return this;
+    }
+
     @Override
     public long offset() {
       return this.offset;
@@ -663,6 +715,9 @@ final class ConsumersCoordinator implements AutoCloseable {
             SubscriptionTracker subscriptionTracker =
                 subscriptionTrackers.get(subscriptionId & 0xFF);
             ConsumerFlowStrategy.MessageProcessedCallback processCallback;
+            if (subscriptionTracker != null && subscriptionTracker.countsChunkMessages()) {
+              subscriptionTracker.chunkStarted(messageCount);
+            }
             if (subscriptionTracker != null && subscriptionTracker.consumer.isOpen()) {
               processCallback =
                   subscriptionTracker.flowStrategy.start(
@@ -696,14 +751,28 @@ final class ConsumersCoordinator implements AutoCloseable {
             if (subscriptionTracker != null) {
               subscriptionTracker.offset = offset;
               subscriptionTracker.hasReceivedSomething = true;
-              subscriptionTracker.messageHandler.handle(
-                  new MessageHandlerContext(
-                      offset,
-                      chunkTimestamp,
-                      committedChunkId,
-                      subscriptionTracker.consumer,
-                      (ConsumerFlowStrategy.MessageProcessedCallback) chunkContext),
-                  message);
+              if (subscriptionTracker.batchContext == null) {
+                subscriptionTracker.messageHandler.handle(
+                    new MessageHandlerContext(
+                        offset,
+                        chunkTimestamp,
+                        committedChunkId,
+                        subscriptionTracker.consumer,
+                        (ConsumerFlowStrategy.MessageProcessedCallback) chunkContext),
+                    message);
+                if (subscriptionTracker.chunkMessageHandler != null) {
+                  subscriptionTracker.chunkMessageDone();
+                }
+              } else {
+                subscriptionTracker.messageHandler.handle(
+                    subscriptionTracker.batchContext.update(
+                        offset,
+                        chunkTimestamp,
+                        committedChunkId,
+                        (ConsumerFlowStrategy.MessageProcessedCallback) chunkContext),
+                    message);
+                subscriptionTracker.chunkMessageDone();
+              }
             } else {
               LOGGER.debug(
                   "Could not find stream subscription {} in manager {}, node {} for message listener",
@@ -712,6 +781,14 @@ final class ConsumersCoordinator implements AutoCloseable {
                   nameReference.get());
             }
           };
+      EntryFilter entryFilter =
+          (subscriptionId, bb, size) -> {
+            SubscriptionTracker subscriptionTracker =
+                subscriptionTrackers.get(subscriptionId & 0xFF);
+            return subscriptionTracker == null
+                || subscriptionTracker.headerFilter == null
+                || subscriptionTracker.headerFilter.test(bb, size);
+          };
       MessageIgnoredListener messageIgnoredListener =
           (subscriptionId, offset, chunkTimestamp, committedChunkId, chunkContext) -> {
             SubscriptionTracker subscriptionTracker =
@@ -721,15 +798,24 @@ final class ConsumersCoordinator implements AutoCloseable {
               // we "simulate" the processing if possible
               if (chunkContext != null) {
                 MessageHandlerContext messageHandlerContext =
-                    new MessageHandlerContext(
-                        offset,
-                        chunkTimestamp,
-                        committedChunkId,
-                        subscriptionTracker.consumer,
-                        (ConsumerFlowStrategy.MessageProcessedCallback) chunkContext);
+                    subscriptionTracker.batchContext == null
+                        ? new MessageHandlerContext(
+                            offset,
+                            chunkTimestamp,
+                            committedChunkId,
+                            subscriptionTracker.consumer,
+                            (ConsumerFlowStrategy.MessageProcessedCallback) chunkContext)
+                        : subscriptionTracker.batchContext.update(
+                            offset,
+                            chunkTimestamp,
+                            committedChunkId,
+                            (ConsumerFlowStrategy.MessageProcessedCallback) chunkContext);
                 ((ConsumerFlowStrategy.MessageProcessedCallback) chunkContext)
                     .processed(messageHandlerContext);
               }
+              if (subscriptionTracker.countsChunkMessages()) {
+                subscriptionTracker.chunkMessageDone();
+              }
             } else {
               LOGGER.debug(
                   "Could not find stream subscription {} in manager {}, node {} for message ignored listener",
@@ -753,6 +839,9 @@ final class ConsumersCoordinator implements AutoCloseable {
                   this.subscriptionTrackers.stream().filter(Objects::nonNull).count(),
                   this.streamToStreamSubscriptions.size());
               iterate(this.subscriptionTrackers, SubscriptionTracker::markRecovering);
+              this.streamToStreamSubscriptions
+                  .keySet()
+                  .forEach(environment::invalidateStreamMetadata);
               environment
                   .scheduledExecutorService()
                   .execute(
@@ -799,6 +888,7 @@ final class ConsumersCoordinator implements AutoCloseable {
             LOGGER.debug(
                 "Received metadata notification for '{}', stream is likely to have become unavailable",
                 stream);
+            environment.invalidateStreamMetadata(stream);
             Set<SubscriptionTracker> affectedSubscriptions;
 
             this.subscriptionManagerLock.lock();
@@ -879,6 +969,7 @@ final class ConsumersCoordinator implements AutoCloseable {
                   .creditNotification(creditNotification)
                   .messageListener(messageListener)
                   .messageIgnoredListener(messageIgnoredListener)
+                  .entryFilter(entryFilter)
                   .shutdownListener(shutdownListener)
                   .metadataListener(metadataListener)
                   .consumerUpdateListener(consumerUpdateListener),
@@ -1019,6 +1110,7 @@ final class ConsumersCoordinator implements AutoCloseable {
                 tracker.consumer.id(),
                 tracker.stream);
             // maybe not a good candidate, let's refresh and retry for this one
+            environment.invalidateStreamMetadata(tracker.stream);
             candidates =
                 Utils.callAndMaybeRetry(
                     findCandidateNodes(tracker.stream),
@@ -1191,7 +1283,10 @@ final class ConsumersCoordinator implements AutoCloseable {
                     + " failed with code "
                     + formatConstant(subscribeResponse.getResponseCode());
             LOGGER.debug(message);
-            if (subscribeResponse.getResponseCode()
+            if (subscribeResponse.getResponseCode() == RESPONSE_CODE_STREAM_NOT_AVAILABLE
+                || subscribeResponse.getResponseCode() == RESPONSE_CODE_STREAM_DOES_NOT_EXIST) {
+              environment.invalidateStreamMetadata(tracker.stream);
+            } else if (subscribeResponse.getResponseCode()
                 == RESPONSE_CODE_SUBSCRIPTION_ID_ALREADY_EXISTS) {
               if (LOGGER.isDebugEnabled()) {
                 SubscriptionTracker initialTracker = previousSubscriptions.get(subscriptionId);
@@ -1345,13 +1440,26 @@ final class ConsumersCoordinator implements AutoCloseable {
               LOGGER.debug(
                   "Closing consumer subscription manager on {}, id {}", this.name, this.id);
               if (this.client != null && this.client.isOpen()) {
+                // unsubscription requests are pipelined, we wait for all the responses afterwards
+                List<CompletableFuture<?>> unsubscriptions = new ArrayList<>();
                 for (int i = 0; i < this.subscriptionTrackers.size(); i++) {
                   SubscriptionTracker tracker = this.subscriptionTrackers.get(i);
                   if (tracker != null) {
                     byte subId = tracker.subscriptionIdInClient;
                     try {
                       if (this.client.isOpen() && tracker.consumer.isOpen()) {
-                        this.client.unsubscribe(subId);
+                        unsubscriptions.add(
+                            this.client
+                                .unsubscribeAsync(subId)
+                                .exceptionally(
+                                    ex -> {
+                                      // OK, moving on
+                                      LOGGER.debug(
+                                          "Error while unsubscribing from {}, registration {}",
+                                          tracker.stream,
+                                          subId);
+                                      return null;
+                                    }));
                       }
                     } catch (Exception e) {
                       // OK, moving on
@@ -1362,6 +1470,13 @@ final class ConsumersCoordinator implements AutoCloseable {
                     }
                   }
                 }
+                try {
+                  Utils.getRpcResult(
+                      CompletableFuture.allOf(
+                          unsubscriptions.toArray(new CompletableFuture<?>[0])));
+                } catch (Exception e) {
+                  LOGGER.debug("Error while waiting for unsubscription responses", e);
+                }
                 this.setSubscriptionTrackers(createSubscriptionTrackerList());
 
                 streamToStreamSubscriptions.clear();
@@ -0,0 +1,151 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches delivery frames of a connection to a shared executor.
+ *
+ * <p>Frames of different subscriptions can be handled in parallel, frames of a given subscription
+ * are handled one at a time and in order. Each subscription has its own queue of tasks, a queue is
+ * submitted to the executor when it gets tasks and runs a bounded number of tasks before being
+ * submitted again, to give a chance to the other subscriptions.
+ *
+ * <p>{@link #dispatch(byte, Runnable)} must be called from one thread at a time (the event loop
+ * thread of the connection).
+ *
+ * <p>Pending tasks are run in the calling thread when the dispatcher is closed or when the executor
+ * rejects them. The owner must make them release their resources (e.g. frame buffers) instead of
+ * handling frames at this point.
+ */
+final class DeliveryDispatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeliveryDispatcher.class);
+
+  static final int MAX_TASKS_PER_RUN = 16;
+
+  private final Executor executor;
+  // subscription IDs are bytes
+  private final AtomicReferenceArray<SubscriptionQueue> queues = new AtomicReferenceArray<>(256);
+  private volatile boolean closed = false;
+
+  DeliveryDispatcher(Executor executor) {
+    this.executor = executor;
+  }
+
+  void dispatch(byte subscriptionId, Runnable task) {
+    if (this.closed) {
+      runPendingTask(task);
+      return;
+    }
+    int index = subscriptionId & 0xFF;
+    SubscriptionQueue queue = this.queues.get(index);
+    if (queue == null) {
+      queue = new SubscriptionQueue();
+      this.queues.set(index, queue);
+    }
+    queue.add(task);
+  }
+
+  /** Run the pending tasks of all the subscriptions in the calling thread. */
+  void close() {
+    if (!this.closed) {
+      this.closed = true;
+      for (int i = 0; i < this.queues.length(); i++) {
+        SubscriptionQueue queue = this.queues.get(i);
+        if (queue != null) {
+          queue.drain();
+        }
+      }
+    }
+  }
+
+  private static void runPendingTask(Runnable task) {
+    try {
+      task.run();
+    } catch (Exception e) {
+      LOGGER.info("Error while releasing pending delivery frame: {}", e.getMessage());
+    }
+  }
+
+  private final class SubscriptionQueue implements Runnable {
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private void add(Runnable task) {
+      this.tasks.offer(task);
+      try {
+        this.schedule();
+      } catch (RejectedExecutionException e) {
+        this.tasks.remove(task);
+        throw e;
+      }
+    }
+
+    private void schedule() {
+      if (this.scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          this.scheduled.set(false);
+          throw e;
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        int count = 0;
+        Runnable task;
+        while (count < MAX_TASKS_PER_RUN && (task = this.tasks.poll()) != null) {
+          try {
+            task.run();
+          } catch (Exception e) {
+            LOGGER.warn("Error while dispatching delivery frame", e);
+          }
+          count++;
+        }
+      } finally {
+        this.scheduled.set(false);
+      }
+      // tasks added while the queue was still flagged as scheduled
+      if (!this.tasks.isEmpty()) {
+        try {
+          this.schedule();
+        } catch (RejectedExecutionException e) {
+          LOGGER.debug("Delivery dispatching rejected, executor is likely closed");
+          this.drain();
+        }
+      }
+    }
+
+    private void drain() {
+      Runnable task;
+      while ((task = this.tasks.poll()) != null) {
+        runPendingTask(task);
+      }
+    }
+  }
+}
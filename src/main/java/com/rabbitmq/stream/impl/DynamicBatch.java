@@ -19,9 +19,10 @@ import static java.lang.Math.min;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,18 +35,32 @@ final class DynamicBatch<T> implements AutoCloseable {
   private static final double MULTIPLICATIVE_DECREASE_FACTOR = 0.5;
   private static final int ADDITIVE_INCREASE_STEP_DIVISOR = 10; // configuredBatchSize / 10
 
-  private static final long RETRY_DELAY_MS = 50;
+  static final long RETRY_DELAY_MS = 50;
 
-  private final BlockingQueue<T> requests;
+  private final MpscArrayQueue<T> requests;
   private final BatchConsumer<T> consumer;
   private final int configuredBatchSize, minBatchSize, maxBatchSize;
   private final int additiveIncreaseStep;
+  private final State<T> state;
   private final Thread thread;
+  // when running on a shared engine
+  private final DynamicBatchEngine.Worker worker;
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final Lock lock = new ReentrantLock();
   private volatile boolean running = true;
 
   DynamicBatch(BatchConsumer<T> consumer, int batchSize, int maxUnconfirmed, String id) {
+    this(consumer, batchSize, maxUnconfirmed, id, null);
+  }
+
+  DynamicBatch(
+      BatchConsumer<T> consumer,
+      int batchSize,
+      int maxUnconfirmed,
+      String id,
+      DynamicBatchEngine engine) {
     this.consumer = consumer;
-    this.requests = new LinkedBlockingQueue<>(max(1, maxUnconfirmed));
+    this.requests = new MpscArrayQueue<>(max(1, maxUnconfirmed));
     if (batchSize < maxUnconfirmed) {
       this.minBatchSize = min(MIN_BATCH_SIZE, batchSize / 2);
     } else {
@@ -57,9 +72,19 @@ final class DynamicBatch<T> implements AutoCloseable {
     // Calculate additive increase step: 10% of configured size, minimum 1
     this.additiveIncreaseStep = max(1, batchSize / ADDITIVE_INCREASE_STEP_DIVISOR);
 
-    this.thread = ThreadUtils.newInternalThread(id, this::loop);
-    this.thread.setDaemon(true);
-    this.thread.start();
+    // Initial allocation based on maxBatchSize to avoid resizing if it grows
+    this.state = new State<>(new ArrayList<>(this.maxBatchSize));
+    this.state.batchSize = this.configuredBatchSize;
+
+    if (engine == null) {
+      this.worker = null;
+      this.thread = ThreadUtils.newInternalThread(id, this::loop);
+      this.thread.setDaemon(true);
+      this.thread.start();
+    } else {
+      this.worker = engine.register();
+      this.thread = null;
+    }
   }
 
   void add(T item) {
@@ -69,12 +94,52 @@ final class DynamicBatch<T> implements AutoCloseable {
       Thread.currentThread().interrupt();
       throw new RuntimeException(e);
     }
+    if (this.worker != null && !this.scheduled.get() && this.scheduled.compareAndSet(false, true)) {
+      this.worker.schedule(this);
+    }
+  }
+
+  void reschedule() {
+    if (this.scheduled.compareAndSet(false, true)) {
+      this.worker.schedule(this);
+    }
+  }
+
+  /**
+   * Process available items, from the engine worker thread.
+   *
+   * @return what the worker should do with this batch next
+   */
+  Outcome processScheduled() {
+    this.lock.lock();
+    try {
+      this.scheduled.set(false);
+      if (!this.running) {
+        return Outcome.DONE;
+      }
+      State<T> state = this.state;
+      int remaining = state.batchSize - state.items.size();
+      if (remaining > 0) {
+        this.requests.drainTo(state.items, remaining);
+      }
+      if (this.completeBatch(state, state.items.size() >= state.batchSize)) {
+        return this.requests.isEmpty() ? Outcome.DONE : Outcome.MORE;
+      } else {
+        return Outcome.RETRY;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  enum Outcome {
+    DONE,
+    MORE,
+    RETRY
   }
 
   private void loop() {
-    // Initial allocation based on maxBatchSize to avoid resizing if it grows
-    State<T> state = new State<>(new ArrayList<>(this.maxBatchSize));
-    state.batchSize = this.configuredBatchSize;
+    State<T> state = this.state;
     Thread currentThread = Thread.currentThread();
     T item;
     while (running && !currentThread.isInterrupted()) {
@@ -108,8 +173,18 @@ final class DynamicBatch<T> implements AutoCloseable {
   }
 
   private void maybeCompleteBatch(State<T> state, boolean increaseIfCompleted) {
+    if (!this.completeBatch(state, increaseIfCompleted)) {
+      try {
+        Thread.sleep(RETRY_DELAY_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private boolean completeBatch(State<T> state, boolean increaseIfCompleted) {
     if (state.items.isEmpty()) {
-      return;
+      return true;
     }
 
     try {
@@ -126,7 +201,7 @@ final class DynamicBatch<T> implements AutoCloseable {
               max((int) (state.batchSize * MULTIPLICATIVE_DECREASE_FACTOR), this.minBatchSize);
         }
         state.items.clear();
-        return;
+        return true;
       }
     } catch (Exception e) {
       LOGGER.warn(
@@ -135,25 +210,27 @@ final class DynamicBatch<T> implements AutoCloseable {
           state.items.size(),
           e);
     }
-    try {
-      Thread.sleep(RETRY_DELAY_MS);
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-    }
+    return false;
   }
 
   @Override
   public void close() {
     this.running = false;
-    this.thread.interrupt();
-    try {
-      this.thread.join(TimeUnit.SECONDS.toMillis(5));
-      if (this.thread.isAlive()) {
-        LOGGER.warn("Dynamic batch thread did not terminate within timeout");
+    if (this.thread == null) {
+      // waiting for the engine worker to be done with this batch
+      this.lock.lock();
+      this.lock.unlock();
+    } else {
+      this.thread.interrupt();
+      try {
+        this.thread.join(TimeUnit.SECONDS.toMillis(5));
+        if (this.thread.isAlive()) {
+          LOGGER.warn("Dynamic batch thread did not terminate within timeout");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOGGER.warn("Interrupted while waiting for dynamic batch thread to terminate");
       }
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      LOGGER.warn("Interrupted while waiting for dynamic batch thread to terminate");
     }
     // Process any remaining items in the queue
     if (!this.requests.isEmpty()) {
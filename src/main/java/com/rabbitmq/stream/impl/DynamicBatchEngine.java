@@ -0,0 +1,162 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed set of threads that run {@link DynamicBatch} instances.
+ *
+ * <p>Each batch is bound to a worker thread when it is created, so its items are always processed
+ * by the same thread, in order. A worker thread parks when none of its batches has items and
+ * producers wake it up when they add items.
+ */
+final class DynamicBatchEngine implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DynamicBatchEngine.class);
+
+  private final Worker[] workers;
+  private final AtomicInteger workerIndex = new AtomicInteger(0);
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  DynamicBatchEngine(int threads, String prefix) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("The number of threads must be greater than 0");
+    }
+    ThreadFactory threadFactory = ThreadUtils.internalThreadFactory(prefix);
+    this.workers = new Worker[threads];
+    for (int i = 0; i < threads; i++) {
+      Worker worker = new Worker();
+      Thread thread = threadFactory.newThread(worker);
+      thread.setDaemon(true);
+      worker.thread = thread;
+      this.workers[i] = worker;
+    }
+    for (Worker worker : this.workers) {
+      worker.thread.start();
+    }
+  }
+
+  Worker register() {
+    if (this.closed.get()) {
+      throw new IllegalStateException("Dynamic batch engine is closed");
+    }
+    return this.workers[Math.floorMod(this.workerIndex.getAndIncrement(), this.workers.length)];
+  }
+
+  @Override
+  public void close() {
+    if (this.closed.compareAndSet(false, true)) {
+      for (Worker worker : this.workers) {
+        worker.running = false;
+        LockSupport.unpark(worker.thread);
+      }
+      for (Worker worker : this.workers) {
+        try {
+          worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+          if (worker.thread.isAlive()) {
+            LOGGER.warn("Dynamic batch engine thread did not terminate within timeout");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          LOGGER.warn("Interrupted while waiting for dynamic batch engine thread to terminate");
+        }
+      }
+    }
+  }
+
+  static final class Worker implements Runnable {
+
+    private static final long RETRY_DELAY_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(DynamicBatch.RETRY_DELAY_MS);
+
+    private final Queue<DynamicBatch<?>> ready = new ConcurrentLinkedQueue<>();
+    // batches that could not complete, processed by the worker thread only
+    private final List<DynamicBatch<?>> delayed = new ArrayList<>();
+    private long retryTime;
+    private final AtomicBoolean waiting = new AtomicBoolean(false);
+    private volatile boolean running = true;
+    private Thread thread;
+
+    private Worker() {}
+
+    void schedule(DynamicBatch<?> batch) {
+      this.ready.offer(batch);
+      if (this.waiting.get() && this.waiting.compareAndSet(true, false)) {
+        LockSupport.unpark(this.thread);
+      }
+    }
+
+    @Override
+    public void run() {
+      while (this.running && !Thread.currentThread().isInterrupted()) {
+        if (!this.delayed.isEmpty() && System.nanoTime() - this.retryTime >= 0) {
+          retryDelayed();
+        }
+        DynamicBatch<?> batch = this.ready.poll();
+        if (batch == null) {
+          long parkNanos = this.delayed.isEmpty() ? 0 : this.retryTime - System.nanoTime();
+          if (this.delayed.isEmpty() || parkNanos > 0) {
+            this.waiting.set(true);
+            if (this.ready.isEmpty() && this.running) {
+              if (parkNanos > 0) {
+                LockSupport.parkNanos(this, parkNanos);
+              } else {
+                LockSupport.park(this);
+              }
+            }
+            this.waiting.set(false);
+          }
+        } else {
+          process(batch);
+        }
+      }
+    }
+
+    private void process(DynamicBatch<?> batch) {
+      try {
+        DynamicBatch.Outcome outcome = batch.processScheduled();
+        if (outcome == DynamicBatch.Outcome.MORE) {
+          batch.reschedule();
+        } else if (outcome == DynamicBatch.Outcome.RETRY && !this.delayed.contains(batch)) {
+          if (this.delayed.isEmpty()) {
+            this.retryTime = System.nanoTime() + RETRY_DELAY_NANOS;
+          }
+          this.delayed.add(batch);
+        }
+      } catch (Exception e) {
+        LOGGER.warn("Error while processing dynamic batch", e);
+      }
+    }
+
+    private void retryDelayed() {
+      List<DynamicBatch<?>> batches = new ArrayList<>(this.delayed);
+      this.delayed.clear();
+      for (DynamicBatch<?> batch : batches) {
+        process(batch);
+      }
+    }
+  }
+}
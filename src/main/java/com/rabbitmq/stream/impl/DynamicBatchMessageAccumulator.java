@@ -55,7 +55,10 @@ final class DynamicBatchMessageAccumulator implements MessageAccumulator {
       ByteBufAllocator byteBufAllocator,
       ObservationCollector<?> observationCollector,
       StreamProducer producer,
-      long producerId) {
+      long producerId,
+      DynamicBatchEngine dynamicBatchEngine,
+      SubEntryCompressor compressor,
+      ProducerUtils.AccumulatedEntityPool entityPool) {
     this.helper =
         new ProducerUtils.MessageAccumulatorHelper(
             codec,
@@ -64,7 +67,8 @@ final class DynamicBatchMessageAccumulator implements MessageAccumulator {
             filterValueExtractor,
             clock,
             stream,
-            observationCollector);
+            observationCollector,
+            entityPool);
     this.producer = producer;
     this.observationCollector = (ObservationCollector<Object>) observationCollector;
     boolean shouldObserve = !this.observationCollector.isNoop();
@@ -73,20 +77,17 @@ final class DynamicBatchMessageAccumulator implements MessageAccumulator {
       this.dynamicBatch =
           new DynamicBatch<>(
               items -> {
+                Runnable observation = shouldObserve ? this.observation(items) : null;
                 boolean result = this.publish(items);
-                if (result && shouldObserve) {
-                  items.forEach(
-                      i -> {
-                        AccumulatedEntity entity = (AccumulatedEntity) i;
-                        this.observationCollector.published(
-                            entity.observationContext(), entity.confirmationCallback().message());
-                      });
+                if (result && observation != null) {
+                  observation.run();
                 }
                 return result;
               },
               batchSize,
               maxUnconfirmedMessages,
-              batchId);
+              batchId,
+              dynamicBatchEngine);
     } else {
       byte compressionCode =
           compressionCodec == null ? Compression.NONE.code() : compressionCodec.code();
@@ -109,15 +110,6 @@ final class DynamicBatchMessageAccumulator implements MessageAccumulator {
                   if (count == subEntrySize) {
                     batch.time = lastMessageInBatch.time();
                     batch.publishingId = lastMessageInBatch.publishingId();
-                    try {
-                      batch.encodedMessageBatch.close();
-                    } catch (Exception e) {
-                      LOGGER.warn(
-                          "Error while closing message sub-entry batch: {}", e.getMessage());
-                      this.producer.errorBeforePublish(
-                          items, Constants.CODE_MESSAGE_ENQUEUEING_FAILED);
-                      return true;
-                    }
                     subBatches.add(batch);
                     lastMessageInBatch = null;
                     batch =
@@ -130,29 +122,26 @@ final class DynamicBatchMessageAccumulator implements MessageAccumulator {
                 if (!batch.isEmpty() && count < subEntrySize) {
                   batch.time = lastMessageInBatch.time();
                   batch.publishingId = lastMessageInBatch.publishingId();
-                  try {
-                    batch.encodedMessageBatch.close();
-                  } catch (Exception e) {
-                    LOGGER.warn("Error while closing message sub-entry batch: {}", e.getMessage());
-                    this.producer.errorBeforePublish(
-                        items, Constants.CODE_MESSAGE_ENQUEUEING_FAILED);
-                    return true;
-                  }
                   subBatches.add(batch);
                 }
+                try {
+                  compressor.compress(subBatches);
+                } catch (Exception e) {
+                  LOGGER.warn("Error while closing message sub-entry batch: {}", e.getMessage());
+                  this.producer.errorBeforePublish(items, Constants.CODE_MESSAGE_ENQUEUEING_FAILED);
+                  return true;
+                }
+                Runnable observation = shouldObserve ? this.observation(items) : null;
                 boolean result = this.publish(subBatches);
-                if (result && shouldObserve) {
-                  for (Object msg : items) {
-                    AccumulatedEntity message = (AccumulatedEntity) msg;
-                    this.observationCollector.published(
-                        message.observationContext(), message.confirmationCallback().message());
-                  }
+                if (result && observation != null) {
+                  observation.run();
                 }
                 return result;
               },
               batchSize * subEntrySize,
               maxUnconfirmedMessages,
-              batchId);
+              batchId,
+              dynamicBatchEngine);
     }
   }
 
@@ -170,6 +159,23 @@ final class DynamicBatchMessageAccumulator implements MessageAccumulator {
   @Override
   public void flush(boolean force) {}
 
+  // captured before publishing: a confirm can recycle a pooled entity as soon as it is sent
+  private Runnable observation(List<Object> items) {
+    int size = items.size();
+    Object[] contexts = new Object[size];
+    Message[] messages = new Message[size];
+    for (int i = 0; i < size; i++) {
+      AccumulatedEntity entity = (AccumulatedEntity) items.get(i);
+      contexts[i] = entity.observationContext();
+      messages[i] = entity.confirmationCallback().message();
+    }
+    return () -> {
+      for (int i = 0; i < size; i++) {
+        this.observationCollector.published(contexts[i], messages[i]);
+      }
+    };
+  }
+
   private boolean publish(List<Object> entities) {
     if (this.producer.canSend()) {
       this.producer.publishInternal(entities);
@@ -16,8 +16,11 @@ package com.rabbitmq.stream.impl;
 
 import com.rabbitmq.stream.Message;
 import com.rabbitmq.stream.RoutingStrategy;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
 
@@ -27,9 +30,24 @@ class HashRoutingStrategy implements RoutingStrategy {
 
   private final ToIntFunction<String> hash;
 
+  private final Map<String, Integer> hashCache;
+
+  private final int hashCacheSize;
+
+  private volatile Routes routes = new Routes(Collections.emptyList());
+
   HashRoutingStrategy(Function<Message, String> routingKeyExtractor, ToIntFunction<String> hash) {
+    this(routingKeyExtractor, hash, 0);
+  }
+
+  HashRoutingStrategy(
+      Function<Message, String> routingKeyExtractor,
+      ToIntFunction<String> hash,
+      int hashCacheSize) {
     this.routingKeyExtractor = routingKeyExtractor;
     this.hash = hash;
+    this.hashCacheSize = hashCacheSize;
+    this.hashCache = hashCacheSize > 0 ? new ConcurrentHashMap<>() : null;
   }
 
   @Override
@@ -38,10 +56,47 @@ class HashRoutingStrategy implements RoutingStrategy {
     if (partitions.isEmpty()) {
       return Collections.emptyList();
     } else {
+      Routes r = this.routes;
+      if (r.partitions != partitions) {
+        // new partition list, e.g. after a refresh
+        r = new Routes(partitions);
+        this.routes = r;
+      }
       String routingKey = routingKeyExtractor.apply(message);
-      int hashValue = hash.applyAsInt(routingKey);
-      return Collections.singletonList(
-          partitions.get(Integer.remainderUnsigned(hashValue, partitions.size())));
+      int hashValue = hash(routingKey);
+      return r.singletons.get(Integer.remainderUnsigned(hashValue, r.singletons.size()));
+    }
+  }
+
+  private int hash(String routingKey) {
+    if (this.hashCache == null) {
+      return this.hash.applyAsInt(routingKey);
+    } else {
+      Integer hashValue = this.hashCache.get(routingKey);
+      if (hashValue == null) {
+        hashValue = this.hash.applyAsInt(routingKey);
+        // no eviction, keys beyond the limit are hashed every time
+        if (this.hashCache.size() < this.hashCacheSize) {
+          this.hashCache.put(routingKey, hashValue);
+        }
+      }
+      return hashValue;
+    }
+  }
+
+  private static final class Routes {
+
+    private final List<String> partitions;
+    // one pre-allocated single-element list per partition
+    private final List<List<String>> singletons;
+
+    private Routes(List<String> partitions) {
+      this.partitions = partitions;
+      List<List<String>> singletons = new ArrayList<>(partitions.size());
+      for (String partition : partitions) {
+        singletons.add(Collections.singletonList(partition));
+      }
+      this.singletons = singletons;
     }
   }
 }
@@ -0,0 +1,244 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Filter on message annotations and application properties, evaluated on the AMQP 1.0 bytes of a
+ * message.
+ *
+ * <p>The filter walks the sections of the message, reads only the entries of the annotations and
+ * application properties maps, and compares keys and string values byte by byte. It does not
+ * allocate and does not decode the message. All the conditions must match.
+ *
+ * <p>A message that does not look like a well-formed AMQP 1.0 message passes the filter, so that
+ * the decoding reports the error.
+ */
+final class HeaderFilter {
+
+  static final long MESSAGE_ANNOTATIONS = 0x72L;
+  static final long APPLICATION_PROPERTIES = 0x74L;
+  private static final long DATA = 0x75L;
+
+  private static final int MALFORMED = -1;
+  private static final int MAX_NESTING_DEPTH = 16;
+
+  private final Condition[] conditions;
+
+  HeaderFilter(List<Condition> conditions) {
+    if (conditions == null || conditions.isEmpty()) {
+      throw new IllegalArgumentException("At least one condition must be specified");
+    }
+    // a key appears once in a map, so counting the matching conditions is enough
+    Set<Condition> distinctConditions = new LinkedHashSet<>(conditions);
+    this.conditions = distinctConditions.toArray(new Condition[0]);
+  }
+
+  boolean test(ByteBuf bb, int size) {
+    int index = bb.readerIndex();
+    int end = index + size;
+    if (end > bb.writerIndex()) {
+      return true;
+    }
+    int matched = 0;
+    while (index < end) {
+      if (bb.getByte(index++) != 0x00 || index >= end) {
+        // not a described section
+        return true;
+      }
+      byte descriptorType = bb.getByte(index++);
+      long code;
+      if (descriptorType == 0x53 && index < end) {
+        code = bb.getByte(index++) & 0xFF;
+      } else if (descriptorType == (byte) 0x80 && index + 8 <= end) {
+        code = bb.getLong(index);
+        index += 8;
+      } else if (descriptorType == 0x44) {
+        code = 0;
+      } else {
+        return true;
+      }
+      if (code >= DATA) {
+        // the body and the footer come after the annotations and application properties
+        return false;
+      }
+      if (index >= end) {
+        return true;
+      }
+      if (code == MESSAGE_ANNOTATIONS || code == APPLICATION_PROPERTIES) {
+        int sectionMatched = match(bb, index, end, code);
+        if (sectionMatched < 0) {
+          return true;
+        }
+        matched += sectionMatched;
+        if (matched == this.conditions.length) {
+          return true;
+        }
+      }
+      index = skip(bb, index, end, 0);
+      if (index == MALFORMED) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int match(ByteBuf bb, int index, int end, long section) {
+    byte type = bb.getByte(index++);
+    long count;
+    if (type == (byte) 0xc1 && index + 2 <= end) {
+      count = bb.getUnsignedByte(index + 1);
+      index += 2;
+    } else if (type == (byte) 0xd1 && index + 8 <= end) {
+      count = bb.getUnsignedInt(index + 4);
+      index += 8;
+    } else {
+      // e.g. null section
+      return 0;
+    }
+    int matched = 0;
+    for (long i = 0; i < count / 2; i++) {
+      int keyIndex = index;
+      index = skip(bb, index, end, 0);
+      if (index == MALFORMED || index >= end) {
+        return MALFORMED;
+      }
+      int valueIndex = index;
+      index = skip(bb, index, end, 0);
+      if (index == MALFORMED) {
+        return MALFORMED;
+      }
+      for (Condition condition : this.conditions) {
+        if (condition.section == section
+            && textEquals(bb, keyIndex, condition.key)
+            && textEquals(bb, valueIndex, condition.value)) {
+          matched++;
+        }
+      }
+    }
+    return matched;
+  }
+
+  /** Compare a string or symbol value with the expected UTF-8 bytes. */
+  private static boolean textEquals(ByteBuf bb, int index, byte[] expected) {
+    byte type = bb.getByte(index);
+    int length;
+    if (type == (byte) 0xa1 || type == (byte) 0xa3) {
+      length = bb.getUnsignedByte(index + 1);
+      index += 2;
+    } else if (type == (byte) 0xb1 || type == (byte) 0xb3) {
+      length = bb.getInt(index + 1);
+      index += 5;
+    } else {
+      return false;
+    }
+    if (length != expected.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (bb.getByte(index + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Skip a value using its constructor, without decoding it.
+   *
+   * @return the index after the value, or {@link #MALFORMED}
+   */
+  private static int skip(ByteBuf bb, int index, int end, int depth) {
+    if (index >= end || depth > MAX_NESTING_DEPTH) {
+      return MALFORMED;
+    }
+    int type = bb.getUnsignedByte(index++);
+    long size;
+    if (type == 0x00) {
+      // described type, the descriptor and then the value
+      index = skip(bb, index, end, depth + 1);
+      return index == MALFORMED ? MALFORMED : skip(bb, index, end, depth + 1);
+    } else if (type >= 0x40 && type <= 0x4f) {
+      size = 0;
+    } else if (type >= 0x50 && type <= 0x8f) {
+      size = 1 << ((type >> 4) - 5);
+    } else if (type >= 0x90 && type <= 0x9f) {
+      size = 16;
+    } else if ((type & 0x10) == 0 && type >= 0xa0) {
+      // 0xa0, 0xc0, 0xe0 categories, 1-byte size
+      if (index >= end) {
+        return MALFORMED;
+      }
+      size = bb.getUnsignedByte(index++);
+    } else if (type >= 0xb0) {
+      // 0xb0, 0xd0, 0xf0 categories, 4-byte size
+      if (index + 4 > end) {
+        return MALFORMED;
+      }
+      size = bb.getUnsignedInt(index);
+      index += 4;
+    } else {
+      return MALFORMED;
+    }
+    long next = index + size;
+    return next > end ? MALFORMED : (int) next;
+  }
+
+  static final class Condition {
+
+    private final long section;
+    private final byte[] key;
+    private final byte[] value;
+
+    Condition(long section, String key, String value) {
+      if (key == null || value == null) {
+        throw new IllegalArgumentException("Key and value of filter condition cannot be null");
+      }
+      this.section = section;
+      this.key = key.getBytes(UTF_8);
+      this.value = value.getBytes(UTF_8);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Condition that = (Condition) o;
+      return section == that.section
+          && Arrays.equals(key, that.key)
+          && Arrays.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(section);
+      result = 31 * result + Arrays.hashCode(key);
+      result = 31 * result + Arrays.hashCode(value);
+      return result;
+    }
+  }
+}
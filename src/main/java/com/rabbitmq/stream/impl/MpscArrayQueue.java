@@ -0,0 +1,226 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer/single-consumer queue backed by an array.
+ *
+ * <p>Producers claim a slot with a CAS on the producer index and then store the element, there is
+ * no lock and no allocation. Only one thread at a time can consume from the queue (e.g. by holding
+ * a lock around the consuming operations).
+ *
+ * <p>A consumer waiting for elements parks and the next producer unparks it. A producer waiting for
+ * space parks with a backoff, as the queue is expected to be drained regularly.
+ *
+ * @param <E> type of elements
+ */
+final class MpscArrayQueue<E> {
+
+  private static final long MAX_PRODUCER_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  // indices are 128 bytes apart to avoid false sharing between producers and consumer
+  private static final int PRODUCER_INDEX = 16;
+  private static final int CONSUMER_INDEX = 32;
+
+  private final AtomicReferenceArray<E> buffer;
+  private final int mask;
+  private final int capacity;
+  private final AtomicLongArray indices = new AtomicLongArray(48);
+  // lower bound of the producer index limit, avoids reading the consumer index on each offer
+  private volatile long producerLimit;
+  private volatile Thread waitingConsumer;
+
+  MpscArrayQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be greater than 0");
+    }
+    int bufferSize = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    if (bufferSize < 0) {
+      throw new IllegalArgumentException("Capacity is too large: " + capacity);
+    }
+    this.buffer = new AtomicReferenceArray<>(bufferSize);
+    this.mask = bufferSize - 1;
+    this.capacity = capacity;
+    this.producerLimit = capacity;
+  }
+
+  boolean offer(E element) {
+    if (element == null) {
+      throw new NullPointerException();
+    }
+    long index;
+    do {
+      index = this.indices.get(PRODUCER_INDEX);
+      if (index >= this.producerLimit) {
+        long limit = this.indices.get(CONSUMER_INDEX) + this.capacity;
+        if (index >= limit) {
+          return false;
+        }
+        this.producerLimit = limit;
+      }
+    } while (!this.indices.compareAndSet(PRODUCER_INDEX, index, index + 1));
+    this.buffer.lazySet(offset(index), element);
+    Thread consumer = this.waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    return true;
+  }
+
+  boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+    if (offer(element)) {
+      return true;
+    }
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    long backoff = 1_000;
+    while (true) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      LockSupport.parkNanos(this, Math.min(backoff, remaining));
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      if (offer(element)) {
+        return true;
+      }
+      backoff = Math.min(backoff << 1, MAX_PRODUCER_BACKOFF_NANOS);
+    }
+  }
+
+  void put(E element) throws InterruptedException {
+    long backoff = 1_000;
+    while (!offer(element)) {
+      LockSupport.parkNanos(this, backoff);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      backoff = Math.min(backoff << 1, MAX_PRODUCER_BACKOFF_NANOS);
+    }
+  }
+
+  /**
+   * Retrieve and remove the head of the queue.
+   *
+   * <p>Must be called from one thread at a time.
+   *
+   * @return the head of the queue, or null if the queue is empty
+   */
+  E poll() {
+    long index = this.indices.get(CONSUMER_INDEX);
+    int offset = offset(index);
+    E element = this.buffer.get(offset);
+    if (element == null) {
+      if (index == this.indices.get(PRODUCER_INDEX)) {
+        return null;
+      }
+      // a producer claimed the slot but has not stored the element yet
+      do {
+        Thread.onSpinWait();
+        element = this.buffer.get(offset);
+      } while (element == null);
+    }
+    this.buffer.lazySet(offset, null);
+    this.indices.lazySet(CONSUMER_INDEX, index + 1);
+    return element;
+  }
+
+  /**
+   * Retrieve and remove the head of the queue, waiting if necessary.
+   *
+   * <p>Must be called from one thread at a time.
+   *
+   * @param timeout how long to wait
+   * @param unit time unit of the timeout
+   * @return the head of the queue, or null if the timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    E element = poll();
+    if (element != null) {
+      return element;
+    }
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    this.waitingConsumer = Thread.currentThread();
+    try {
+      while (true) {
+        // the producer index is read after the waiting consumer is published,
+        // so a producer that does not see the consumer is seen by it
+        element = poll();
+        if (element != null) {
+          return element;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return null;
+        }
+        LockSupport.parkNanos(this, remaining);
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+      }
+    } finally {
+      this.waitingConsumer = null;
+    }
+  }
+
+  /**
+   * Remove up to the given number of elements and add them to the collection.
+   *
+   * <p>Must be called from one thread at a time.
+   *
+   * @param collection the collection to add the elements to
+   * @param maxElements maximum number of elements to transfer
+   * @return the number of transferred elements
+   */
+  int drainTo(Collection<? super E> collection, int maxElements) {
+    int count = 0;
+    E element;
+    while (count < maxElements && (element = poll()) != null) {
+      collection.add(element);
+      count++;
+    }
+    return count;
+  }
+
+  int drainTo(Collection<? super E> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  int size() {
+    // consumer index first, it cannot go past the producer index
+    long consumer = this.indices.get(CONSUMER_INDEX);
+    long producer = this.indices.get(PRODUCER_INDEX);
+    return (int) Math.min(Math.max(producer - consumer, 0), this.capacity);
+  }
+
+  boolean isEmpty() {
+    return this.indices.get(CONSUMER_INDEX) == this.indices.get(PRODUCER_INDEX);
+  }
+
+  int capacity() {
+    return this.capacity;
+  }
+
+  private int offset(long index) {
+    return (int) (index & this.mask);
+  }
+}
@@ -0,0 +1,152 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import com.rabbitmq.stream.EnvironmentBuilder.NettyConfiguration.Transport;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.IoHandlerFactory;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Netty transport: event loop group and channel class.
+ *
+ * <p>Native transports are loaded with reflection, they are optional dependencies and require Netty
+ * 4.2.
+ */
+final class NettyTransport {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NettyTransport.class);
+
+  static final NettyTransport NIO =
+      new NettyTransport(Transport.NIO, Utils::eventLoopGroup, NioSocketChannel.class);
+
+  private final Transport transport;
+  private final Supplier<EventLoopGroup> eventLoopGroupFactory;
+  private final Class<? extends Channel> channelClass;
+
+  private NettyTransport(
+      Transport transport,
+      Supplier<EventLoopGroup> eventLoopGroupFactory,
+      Class<? extends Channel> channelClass) {
+    this.transport = transport;
+    this.eventLoopGroupFactory = eventLoopGroupFactory;
+    this.channelClass = channelClass;
+  }
+
+  static NettyTransport of(Transport transport) {
+    NettyTransport result;
+    switch (transport) {
+      case NIO:
+        result = NIO;
+        break;
+      case EPOLL:
+      case IO_URING:
+        result = load(transport);
+        if (result == null) {
+          throw new IllegalStateException(
+              "Netty transport "
+                  + transport
+                  + " is not available, make sure Netty 4.2 and the native transport "
+                  + "dependency for the platform are on the classpath");
+        }
+        break;
+      case AUTO:
+        result = load(Transport.IO_URING);
+        if (result == null) {
+          result = load(Transport.EPOLL);
+        }
+        if (result == null) {
+          result = NIO;
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown Netty transport: " + transport);
+    }
+    LOGGER.debug("Using Netty transport {} (requested {})", result.transport, transport);
+    return result;
+  }
+
+  private static NettyTransport load(Transport transport) {
+    if (transport == Transport.EPOLL) {
+      return load(
+          transport,
+          "io.netty.channel.epoll.Epoll",
+          "io.netty.channel.epoll.EpollIoHandler",
+          "io.netty.channel.epoll.EpollSocketChannel");
+    } else {
+      return load(
+          transport,
+          "io.netty.channel.uring.IoUring",
+          "io.netty.channel.uring.IoUringIoHandler",
+          "io.netty.channel.uring.IoUringSocketChannel");
+    }
+  }
+
+  private static NettyTransport load(
+      Transport transport, String availabilityClass, String ioHandlerClass, String channelClass) {
+    if (!Utils.IS_NETTY_4_2) {
+      LOGGER.debug("Netty transport {} requires Netty 4.2", transport);
+      return null;
+    }
+    try {
+      Class<?> availability = Class.forName(availabilityClass);
+      if (!(Boolean) availability.getMethod("isAvailable").invoke(null)) {
+        LOGGER.debug(
+            "Netty transport {} is not available: {}",
+            transport,
+            availability.getMethod("unavailabilityCause").invoke(null));
+        return null;
+      }
+      IoHandlerFactory ioHandlerFactory =
+          (IoHandlerFactory) Class.forName(ioHandlerClass).getMethod("newFactory").invoke(null);
+      return new NettyTransport(
+          transport,
+          () -> new MultiThreadIoEventLoopGroup(ioHandlerFactory),
+          Class.forName(channelClass).asSubclass(Channel.class));
+    } catch (ClassNotFoundException e) {
+      LOGGER.debug("Netty transport {} is not on the classpath", transport);
+      return null;
+    } catch (NoSuchMethodException
+        | IllegalAccessException
+        | InvocationTargetException
+        | LinkageError e) {
+      LOGGER.debug("Error while loading Netty transport {}: {}", transport, e.getMessage());
+      return null;
+    }
+  }
+
+  EventLoopGroup eventLoopGroup() {
+    return this.eventLoopGroupFactory.get();
+  }
+
+  Class<? extends Channel> channelClass() {
+    return this.channelClass;
+  }
+
+  Transport transport() {
+    return this.transport;
+  }
+
+  @Override
+  public String toString() {
+    return this.transport.toString();
+  }
+}
@@ -22,11 +22,13 @@ import com.rabbitmq.stream.NoOffsetException;
 import com.rabbitmq.stream.impl.StreamConsumerBuilder.TrackingConfiguration;
 import java.time.Duration;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -38,27 +40,34 @@ class OffsetTrackingCoordinator {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OffsetTrackingCoordinator.class);
 
-  private final StreamEnvironment streamEnvironment;
-
-  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final TimerWheel timerWheel;
+  private final ScheduledExecutorService executorService;
 
   private final Collection<Tracker> trackers = ConcurrentHashMap.newKeySet();
 
   private final LocalClock clock = new LocalClock();
 
-  private final AtomicBoolean flushingOnGoing = new AtomicBoolean(false);
+  // checks can block (stored offset lookup), so they run in the scheduled executor, not in the
+  // timer wheel thread
+  private final Queue<Tracker> dueTrackers = new ConcurrentLinkedQueue<>();
+  // one check task at a time, which also publishes the state of the checks to the next task
+  private final AtomicBoolean checking = new AtomicBoolean(false);
 
-  private final Duration checkInterval;
+  // storage requests are flushed once per connection after each batch of checks
+  private final Collection<Client> clientsToFlush =
+      Collections.newSetFromMap(new IdentityHashMap<>());
 
-  private volatile Future<?> checkFuture;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
 
   OffsetTrackingCoordinator(StreamEnvironment streamEnvironment) {
-    this(streamEnvironment, Duration.ofSeconds(1));
-  }
-
-  OffsetTrackingCoordinator(StreamEnvironment streamEnvironment, Duration checkInterval) {
-    this.streamEnvironment = streamEnvironment;
-    this.checkInterval = checkInterval;
+    this.timerWheel = streamEnvironment.timerWheel();
+    this.executorService = streamEnvironment.scheduledExecutorService();
+    this.clock.setTime(System.nanoTime());
+    this.timerWheel.addTickListener(
+        () -> {
+          this.clock.setTime(System.nanoTime());
+          this.dispatchChecks();
+        });
   }
 
   Registration registerTrackingConsumer(
@@ -79,58 +88,73 @@ class OffsetTrackingCoordinator {
       tracker = new ManualTrackingTracker(consumer, configuration, clock);
     }
     trackers.add(tracker);
+    this.schedule(tracker, tracker.checkInterval());
 
-    if (started.compareAndSet(false, true)) {
-      this.clock.setTime(System.nanoTime());
-      this.checkFuture =
-          this.executor()
-              .scheduleAtFixedRate(
-                  namedRunnable(
-                      () -> {
-                        if (flushingOnGoing.compareAndSet(false, true)) {
-                          try {
-                            this.clock.setTime(System.nanoTime());
-                            LOGGER.debug(
-                                "Background offset tracking flushing, {} tracker(s) to check",
-                                this.trackers.size());
-                            Iterator<Tracker> iterator = trackers.iterator();
-                            while (iterator.hasNext()) {
-                              if (Thread.currentThread().isInterrupted()) {
-                                Thread.currentThread().interrupt();
-                                break;
-                              }
-                              Tracker t = iterator.next();
-                              if (t.consumer().isOpen()) {
-                                try {
-                                  t.flushIfNecessary();
-                                } catch (Exception e) {
-                                  LOGGER.info("Error while flushing tracker: {}", e.getMessage());
-                                }
-                              } else {
-                                iterator.remove();
-                              }
-                            }
-                          } finally {
-                            flushingOnGoing.set(false);
-                          }
-
-                          // TODO consider cancelling the task if there are no more consumers to
-                          // track
-                          // it should then be restarted on demand.
-
-                        }
-                      },
-                      "Offset tracking background task"),
-                  this.checkInterval.toMillis(),
-                  this.checkInterval.toMillis(),
-                  TimeUnit.MILLISECONDS);
+    return new Registration(tracker);
+  }
+
+  private void schedule(Tracker tracker, long delayInNs) {
+    tracker.timeout(
+        this.timerWheel.schedule(
+            () -> this.dueTrackers.add(tracker), delayInNs, System.nanoTime()));
+  }
+
+  // runs in the timer wheel thread, after the due trackers of the tick have been queued
+  private void dispatchChecks() {
+    if (!this.dueTrackers.isEmpty() && this.checking.compareAndSet(false, true)) {
+      try {
+        this.executorService.execute(
+            namedRunnable(this::checkDueTrackers, "Offset tracking background checks"));
+      } catch (RejectedExecutionException e) {
+        this.checking.set(false);
+        LOGGER.debug("Could not dispatch offset tracking checks: {}", e.getMessage());
+      }
     }
+  }
 
-    return new Registration(tracker);
+  // runs in the scheduled executor, one task at a time
+  private void checkDueTrackers() {
+    try {
+      Tracker tracker;
+      while ((tracker = this.dueTrackers.poll()) != null) {
+        this.check(tracker);
+      }
+      this.flushClients();
+    } finally {
+      this.checking.set(false);
+    }
   }
 
-  private ScheduledExecutorService executor() {
-    return this.streamEnvironment.scheduledExecutorService();
+  private void check(Tracker tracker) {
+    if (this.closed.get()) {
+      return;
+    }
+    if (tracker.consumer().isOpen()) {
+      this.clock.setTime(System.nanoTime());
+      long nextCheck;
+      try {
+        nextCheck = tracker.flushIfNecessary(this.clientsToFlush);
+      } catch (Exception e) {
+        LOGGER.info("Error while flushing tracker: {}", e.getMessage());
+        nextCheck = tracker.checkInterval();
+      }
+      this.schedule(tracker, nextCheck);
+    } else {
+      this.trackers.remove(tracker);
+    }
+  }
+
+  private void flushClients() {
+    if (!this.clientsToFlush.isEmpty()) {
+      for (Client client : this.clientsToFlush) {
+        try {
+          client.flush();
+        } catch (Exception e) {
+          LOGGER.info("Error while flushing offset storage requests: {}", e.getMessage());
+        }
+      }
+      this.clientsToFlush.clear();
+    }
   }
 
   public boolean needTrackingRegistration(TrackingConfiguration trackingConfiguration) {
@@ -140,8 +164,8 @@ class OffsetTrackingCoordinator {
   }
 
   void close() {
-    if (this.checkFuture != null) {
-      checkFuture.cancel(true);
+    if (this.closed.compareAndSet(false, true)) {
+      this.trackers.forEach(Tracker::cancel);
     }
   }
 
@@ -149,7 +173,19 @@ class OffsetTrackingCoordinator {
 
     Consumer<Context> postProcessingCallback();
 
-    void flushIfNecessary();
+    /**
+     * Store the offset if necessary.
+     *
+     * @param clientsToFlush clients to flush after the storage requests
+     * @return the delay before the next check, in nanoseconds
+     */
+    long flushIfNecessary(Collection<Client> clientsToFlush);
+
+    long checkInterval();
+
+    void timeout(TimerWheel.Timeout timeout);
+
+    void cancel();
 
     long flush();
 
@@ -194,6 +230,7 @@ class OffsetTrackingCoordinator {
     private volatile long count = 0;
     private volatile AtomicLong lastProcessedOffset = null;
     private volatile long lastTrackingActivity = 0;
+    private volatile TimerWheel.Timeout timeout;
 
     private AutoTrackingTracker(
         StreamConsumer consumer, TrackingConfiguration configuration, LocalClock clock) {
@@ -219,28 +256,51 @@ class OffsetTrackingCoordinator {
     }
 
     @Override
-    public void flushIfNecessary() {
+    public long flushIfNecessary(Collection<Client> clientsToFlush) {
       if (this.count > 0) {
-        if (this.clock.time() - this.lastTrackingActivity > this.flushIntervalInNs) {
-          this.flush();
+        long inactivity = this.clock.time() - this.lastTrackingActivity;
+        if (inactivity > this.flushIntervalInNs) {
+          this.flush(clientsToFlush);
+        } else {
+          return this.flushIntervalInNs - inactivity;
         }
       }
+      return this.flushIntervalInNs;
+    }
+
+    @Override
+    public long checkInterval() {
+      return this.flushIntervalInNs;
+    }
+
+    @Override
+    public void timeout(TimerWheel.Timeout timeout) {
+      this.timeout = timeout;
+    }
+
+    @Override
+    public void cancel() {
+      cancelTimeout(this.timeout);
     }
 
     @Override
     public long flush() {
+      return this.flush(null);
+    }
+
+    private long flush(Collection<Client> clientsToFlush) {
       if (lastProcessedOffset == null) {
         return 0;
       } else {
         long result;
         try {
-          long lastStoredOffset = consumer.storedOffset();
+          long lastStoredOffset = consumer.cachedStoredOffset();
           if (offsetBefore(lastStoredOffset, lastProcessedOffset.get())) {
-            this.consumer.store(this.lastProcessedOffset.get());
+            store(this.consumer, this.lastProcessedOffset.get(), clientsToFlush);
           }
           result = lastProcessedOffset.get();
         } catch (NoOffsetException e) {
-          this.consumer.store(this.lastProcessedOffset.get());
+          store(this.consumer, this.lastProcessedOffset.get(), clientsToFlush);
           result = lastProcessedOffset.get();
         }
         this.lastTrackingActivity = clock.time();
@@ -277,7 +337,7 @@ class OffsetTrackingCoordinator {
                   }
                 };
             try {
-              long lastStoredOffset = consumer.storedOffset();
+              long lastStoredOffset = consumer.cachedStoredOffset();
               if (offsetBefore(lastStoredOffset, lastProcessedOffset.get())) {
                 LOGGER.debug("Storing {} offset before closing", this.lastProcessedOffset);
                 storageOperation.run();
@@ -300,6 +360,7 @@ class OffsetTrackingCoordinator {
     private final long checkIntervalInNs;
     private volatile long lastRequestedOffset = 0;
     private volatile long lastTrackingActivity = 0;
+    private volatile TimerWheel.Timeout timeout;
 
     private ManualTrackingTracker(
         StreamConsumer consumer, TrackingConfiguration configuration, LocalClock clock) {
@@ -314,21 +375,40 @@ class OffsetTrackingCoordinator {
     }
 
     @Override
-    public void flushIfNecessary() {
-      if (this.clock.time() - this.lastTrackingActivity > this.checkIntervalInNs) {
+    public long flushIfNecessary(Collection<Client> clientsToFlush) {
+      long inactivity = this.clock.time() - this.lastTrackingActivity;
+      if (inactivity <= this.checkIntervalInNs) {
+        return this.checkIntervalInNs - inactivity;
+      } else {
         try {
-          long lastStoredOffset = consumer.storedOffset();
+          long lastStoredOffset = consumer.cachedStoredOffset();
           if (offsetBefore(lastStoredOffset, lastRequestedOffset)) {
-            this.consumer.store(this.lastRequestedOffset);
+            store(this.consumer, this.lastRequestedOffset, clientsToFlush);
             this.lastTrackingActivity = clock.time();
           }
         } catch (NoOffsetException e) {
-          this.consumer.store(this.lastRequestedOffset);
+          store(this.consumer, this.lastRequestedOffset, clientsToFlush);
           this.lastTrackingActivity = clock.time();
         }
+        return this.checkIntervalInNs;
       }
     }
 
+    @Override
+    public long checkInterval() {
+      return this.checkIntervalInNs;
+    }
+
+    @Override
+    public void timeout(TimerWheel.Timeout timeout) {
+      this.timeout = timeout;
+    }
+
+    @Override
+    public void cancel() {
+      cancelTimeout(this.timeout);
+    }
+
     @Override
     public long flush() {
       throw new UnsupportedOperationException();
@@ -353,6 +433,24 @@ class OffsetTrackingCoordinator {
     }
   }
 
+  private static void store(
+      StreamConsumer consumer, long offset, Collection<Client> clientsToFlush) {
+    if (clientsToFlush == null) {
+      consumer.store(offset);
+    } else {
+      Client client = consumer.store(offset, false);
+      if (client != null) {
+        clientsToFlush.add(client);
+      }
+    }
+  }
+
+  private static void cancelTimeout(TimerWheel.Timeout timeout) {
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
   private static class LocalClock {
 
     private volatile long time;
@@ -23,6 +23,8 @@ import com.rabbitmq.stream.compression.CompressionCodec;
 import io.netty.buffer.ByteBufAllocator;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
 
@@ -45,7 +47,10 @@ final class ProducerUtils {
       String stream,
       ObservationCollector<?> observationCollector,
       StreamProducer producer,
-      long producerId) {
+      long producerId,
+      DynamicBatchEngine dynamicBatchEngine,
+      SubEntryCompressor compressor,
+      AccumulatedEntityPool entityPool) {
     if (dynamicBatch) {
       return new DynamicBatchMessageAccumulator(
           subEntrySize,
@@ -61,7 +66,10 @@ final class ProducerUtils {
           byteBufAllocator,
           observationCollector,
           producer,
-          producerId);
+          producerId,
+          dynamicBatchEngine,
+          compressor,
+          entityPool);
     } else {
       if (subEntrySize <= 1) {
         return new SimpleMessageAccumulator(
@@ -73,7 +81,8 @@ final class ProducerUtils {
             clock,
             stream,
             observationCollector,
-            producer);
+            producer,
+            entityPool);
       } else {
         return new SubEntryMessageAccumulator(
             subEntrySize,
@@ -86,7 +95,8 @@ final class ProducerUtils {
             clock,
             stream,
             observationCollector,
-            producer);
+            producer,
+            compressor);
       }
     }
   }
@@ -111,6 +121,9 @@ final class ProducerUtils {
     ConfirmationCallback confirmationCallback();
 
     Object observationContext();
+
+    /** Give the entity back to its pool, if any, once the producer is done with it. */
+    default void recycle() {}
   }
 
   static final class SimpleConfirmationCallback implements ConfirmationCallback {
@@ -190,6 +203,185 @@ final class ProducerUtils {
     }
   }
 
+  /**
+   * Reusable entity, which is also its own confirmation callback.
+   *
+   * <p>The confirmation status passed in to the confirmation handler is reused as well, so it is
+   * valid only during the call of the handler.
+   */
+  static final class PooledAccumulatedEntity implements AccumulatedEntity, ConfirmationCallback {
+
+    private final AccumulatedEntityPool pool;
+    private final ReusableConfirmationStatus confirmationStatus = new ReusableConfirmationStatus();
+    private long time;
+    private long publishingId;
+    private String filterValue;
+    private Codec.EncodedMessage encodedMessage;
+    private Message message;
+    private ConfirmationHandler confirmationHandler;
+    private Object observationContext;
+
+    private PooledAccumulatedEntity(AccumulatedEntityPool pool) {
+      this.pool = pool;
+    }
+
+    private PooledAccumulatedEntity init(
+        long time,
+        long publishingId,
+        String filterValue,
+        Codec.EncodedMessage encodedMessage,
+        Message message,
+        ConfirmationHandler confirmationHandler,
+        Object observationContext) {
+      this.time = time;
+      this.publishingId = publishingId;
+      this.filterValue = filterValue;
+      this.encodedMessage = encodedMessage;
+      this.message = message;
+      this.confirmationHandler = confirmationHandler;
+      this.observationContext = observationContext;
+      return this;
+    }
+
+    @Override
+    public int handle(boolean confirmed, short code) {
+      this.confirmationStatus.set(this.message, confirmed, code);
+      try {
+        this.confirmationHandler.handle(this.confirmationStatus);
+      } finally {
+        this.confirmationStatus.set(null, false, (short) 0);
+      }
+      return 1;
+    }
+
+    @Override
+    public Message message() {
+      return this.message;
+    }
+
+    @Override
+    public long time() {
+      return this.time;
+    }
+
+    @Override
+    public long publishingId() {
+      return this.publishingId;
+    }
+
+    @Override
+    public String filterValue() {
+      return this.filterValue;
+    }
+
+    @Override
+    public Object encodedEntity() {
+      return this.encodedMessage;
+    }
+
+    @Override
+    public ConfirmationCallback confirmationCallback() {
+      return this;
+    }
+
+    @Override
+    public Object observationContext() {
+      return this.observationContext;
+    }
+
+    @Override
+    public void recycle() {
+      // references are cleared to not retain messages while in the pool
+      this.init(0, 0, null, null, null, null, null);
+      this.pool.release(this);
+    }
+  }
+
+  private static final class ReusableConfirmationStatus extends ConfirmationStatus {
+
+    private Message message;
+    private boolean confirmed;
+    private short code;
+
+    private ReusableConfirmationStatus() {
+      super(null, false, (short) 0);
+    }
+
+    private void set(Message message, boolean confirmed, short code) {
+      this.message = message;
+      this.confirmed = confirmed;
+      this.code = code;
+    }
+
+    @Override
+    public Message getMessage() {
+      return this.message;
+    }
+
+    @Override
+    public boolean isConfirmed() {
+      return this.confirmed;
+    }
+
+    @Override
+    public short getCode() {
+      return this.code;
+    }
+  }
+
+  /**
+   * Pool of entities for a producer.
+   *
+   * <p>The number of entities in use is bounded by the maximum number of unconfirmed messages, so
+   * the pool uses the same capacity. Entities are created on demand, the pool keeps them when they
+   * are recycled and hands out the most recently recycled first.
+   */
+  static final class AccumulatedEntityPool {
+
+    private final PooledAccumulatedEntity[] entities;
+    private final Lock lock = new ReentrantLock();
+    private int size = 0;
+
+    AccumulatedEntityPool(int capacity) {
+      this.entities = new PooledAccumulatedEntity[capacity];
+    }
+
+    PooledAccumulatedEntity acquire() {
+      this.lock.lock();
+      try {
+        if (this.size > 0) {
+          PooledAccumulatedEntity entity = this.entities[--this.size];
+          this.entities[this.size] = null;
+          return entity;
+        }
+      } finally {
+        this.lock.unlock();
+      }
+      return new PooledAccumulatedEntity(this);
+    }
+
+    private void release(PooledAccumulatedEntity entity) {
+      this.lock.lock();
+      try {
+        if (this.size < this.entities.length) {
+          this.entities[this.size++] = entity;
+        }
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    // for testing
+    int size() {
+      this.lock.lock();
+      try {
+        return this.size;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
   static final class CompositeConfirmationCallback implements ConfirmationCallback {
 
     private final List<ConfirmationCallback> callbacks;
@@ -283,6 +475,7 @@ final class ProducerUtils {
     private final int maxFrameSize;
     private final Clock clock;
     private final Function<Message, String> filterValueExtractor;
+    private final AccumulatedEntityPool entityPool;
 
     @SuppressWarnings("unchecked")
     MessageAccumulatorHelper(
@@ -292,7 +485,8 @@ final class ProducerUtils {
         Function<Message, String> filterValueExtractor,
         Clock clock,
         String stream,
-        ObservationCollector<?> observationCollector) {
+        ObservationCollector<?> observationCollector,
+        AccumulatedEntityPool entityPool) {
       this.publishSequenceFunction = publishSequenceFunction;
       this.codec = codec;
       this.clock = clock;
@@ -301,6 +495,7 @@ final class ProducerUtils {
           filterValueExtractor == null ? NULL_FILTER_VALUE_EXTRACTOR : filterValueExtractor;
       this.observationCollector = (ObservationCollector<Object>) observationCollector;
       this.stream = stream;
+      this.entityPool = entityPool;
     }
 
     AccumulatedEntity entity(Message message, ConfirmationHandler confirmationHandler) {
@@ -308,13 +503,26 @@ final class ProducerUtils {
       Codec.EncodedMessage encodedMessage = this.codec.encode(message);
       Client.checkMessageFitsInFrame(this.maxFrameSize, encodedMessage);
       long publishingId = this.publishSequenceFunction.applyAsLong(message);
-      return new ProducerUtils.SimpleAccumulatedEntity(
-          this.clock.time(),
-          publishingId,
-          this.filterValueExtractor.apply(message),
-          this.codec.encode(message),
-          new ProducerUtils.SimpleConfirmationCallback(message, confirmationHandler),
-          observationContext);
+      if (this.entityPool == null) {
+        return new ProducerUtils.SimpleAccumulatedEntity(
+            this.clock.time(),
+            publishingId,
+            this.filterValueExtractor.apply(message),
+            encodedMessage,
+            new ProducerUtils.SimpleConfirmationCallback(message, confirmationHandler),
+            observationContext);
+      } else {
+        return this.entityPool
+            .acquire()
+            .init(
+                this.clock.time(),
+                publishingId,
+                this.filterValueExtractor.apply(message),
+                encodedMessage,
+                message,
+                confirmationHandler,
+                observationContext);
+      }
     }
 
     Batch batch(
@@ -23,7 +23,6 @@ import static com.rabbitmq.stream.impl.Utils.formatConstant;
 import static com.rabbitmq.stream.impl.Utils.jsonField;
 import static com.rabbitmq.stream.impl.Utils.keyForNode;
 import static com.rabbitmq.stream.impl.Utils.lock;
-import static com.rabbitmq.stream.impl.Utils.namedFunction;
 import static com.rabbitmq.stream.impl.Utils.namedRunnable;
 import static com.rabbitmq.stream.impl.Utils.quote;
 import static java.util.stream.Collectors.toList;
@@ -196,6 +195,8 @@ final class ProducersCoordinator implements AutoCloseable {
         pickedManager = null;
       } catch (RuntimeException e) {
         if (shouldRefreshCandidates(e)) {
+          // the cached metadata may point to a node that is no longer a candidate
+          this.environment.invalidateStreamMetadata(tracker.stream());
           // manager connection is dead or stream not available
           // scheduling manager closing if necessary in another thread to avoid blocking this one
           if (pickedManager.isEmpty()) {
@@ -215,14 +216,11 @@ final class ProducersCoordinator implements AutoCloseable {
 
   // package protected for testing
   List<BrokerWrapper> findCandidateNodes(String stream, boolean forceLeader) {
-    Map<String, Client.StreamMetadata> metadata =
-        this.environment.locatorOperation(
-            namedFunction(c -> c.metadata(stream), "Candidate lookup to publish to '%s'", stream));
-    if (metadata.isEmpty() || metadata.get(stream) == null) {
+    Client.StreamMetadata streamMetadata = this.environment.streamMetadata(stream);
+    if (streamMetadata == null) {
       throw new StreamDoesNotExistException(stream);
     }
 
-    Client.StreamMetadata streamMetadata = metadata.get(stream);
     if (!streamMetadata.isResponseOk()) {
       if (streamMetadata.getResponseCode() == Constants.RESPONSE_CODE_STREAM_DOES_NOT_EXIST) {
         throw new StreamDoesNotExistException(stream);
@@ -236,6 +234,7 @@ final class ProducersCoordinator implements AutoCloseable {
     Client.Broker leader = streamMetadata.getLeader();
     if (leader == null) {
       if (forceLeader) {
+        this.environment.invalidateStreamMetadata(stream);
         throw new IllegalStateException("Not leader available for stream " + stream);
       }
     } else {
@@ -250,6 +249,7 @@ final class ProducersCoordinator implements AutoCloseable {
     }
 
     if (candidates.isEmpty()) {
+      this.environment.invalidateStreamMetadata(stream);
       throw new IllegalStateException("No stream member available to publish for stream " + stream);
     } else {
       LOGGER.debug("Candidates to publish to {}: {}", stream, candidates);
@@ -634,12 +634,25 @@ final class ProducersCoordinator implements AutoCloseable {
       AtomicReference<Client> ref = new AtomicReference<>();
       AtomicBoolean clientInitializedInManager = new AtomicBoolean(false);
       PublishConfirmListener publishConfirmListener =
-          (publisherId, publishingId) -> {
-            ProducerTracker producerTracker = producers.get(publisherId);
-            if (producerTracker == null) {
-              LOGGER.info("Received publish confirm for unknown producer: {}", publisherId);
-            } else {
-              producerTracker.producer.confirm(publishingId);
+          new PublishConfirmListener() {
+            @Override
+            public void handle(byte publisherId, long publishingId) {
+              ProducerTracker producerTracker = producers.get(publisherId);
+              if (producerTracker == null) {
+                LOGGER.info("Received publish confirm for unknown producer: {}", publisherId);
+              } else {
+                producerTracker.producer.confirm(publishingId);
+              }
+            }
+
+            @Override
+            public void handle(byte publisherId, long[] publishingIds, int count) {
+              ProducerTracker producerTracker = producers.get(publisherId);
+              if (producerTracker == null) {
+                LOGGER.info("Received publish confirm for unknown producer: {}", publisherId);
+              } else {
+                producerTracker.producer.confirm(publishingIds, count);
+              }
             }
           };
       PublishErrorListener publishErrorListener =
@@ -667,6 +680,7 @@ final class ProducersCoordinator implements AutoCloseable {
                   trackingConsumerTrackers.size());
               producers.forEach((publishingId, tracker) -> tracker.unavailable());
               trackingConsumerTrackers.forEach(AgentTracker::unavailable);
+              streamToTrackers.keySet().forEach(environment::invalidateStreamMetadata);
               // execute in thread pool to free the IO thread
               environment
                   .scheduledExecutorService()
@@ -693,6 +707,7 @@ final class ProducersCoordinator implements AutoCloseable {
             LOGGER.debug(
                 "Received metadata notification for '{}', stream is likely to have become unavailable",
                 stream);
+            environment.invalidateStreamMetadata(stream);
             Set<AgentTracker> affectedTrackers;
             this.managerLock.lock();
             try {
@@ -848,6 +863,7 @@ final class ProducersCoordinator implements AutoCloseable {
                 tracker.identifiable() ? tracker.id() : "N/A",
                 tracker.stream());
             // maybe not a good candidate, let's refresh and retry for this one
+            environment.invalidateStreamMetadata(tracker.stream());
             Pair<Broker, List<BrokerWrapper>> brokerAndCandidates =
                 callAndMaybeRetry(
                     () -> {
@@ -904,6 +920,11 @@ final class ProducersCoordinator implements AutoCloseable {
                         + formatConstant(response.getResponseCode())
                         + ". Could not assign producer to client.";
                 LOGGER.info(message);
+                if (response.getResponseCode() == Constants.RESPONSE_CODE_STREAM_NOT_AVAILABLE
+                    || response.getResponseCode()
+                        == Constants.RESPONSE_CODE_STREAM_DOES_NOT_EXIST) {
+                  environment.invalidateStreamMetadata(tracker.stream());
+                }
                 throw new StreamException(message, response.getResponseCode());
               }
               producers.put(tracker.id(), producerTracker);
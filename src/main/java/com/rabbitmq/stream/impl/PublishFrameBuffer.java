@@ -0,0 +1,188 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+
+/**
+ * Composite buffer to assemble publish frames without copying large payloads.
+ *
+ * <p>Large direct buffers written to the frame (e.g. compressed sub-entry batches) are retained and
+ * added as components. The other writes (frame header, publishing IDs, small entities) go to direct
+ * buffers allocated on demand, in small increments, and never beyond the size of the frame.
+ *
+ * <p>Heap buffers and arrays are always copied: the transport would copy them to direct memory
+ * anyway before writing them to the socket.
+ */
+final class PublishFrameBuffer extends CompositeByteBuf {
+
+  static final int ZERO_COPY_THRESHOLD = 1024;
+  private static final int GROWTH_INCREMENT = 256;
+
+  PublishFrameBuffer(ByteBufAllocator allocator, int frameSize) {
+    super(new FrameSizeAllocator(allocator, frameSize), true, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public CompositeByteBuf writeBytes(ByteBuf src, int srcIndex, int length) {
+    if (length < ZERO_COPY_THRESHOLD || !src.isDirect()) {
+      return super.writeBytes(src, srcIndex, length);
+    }
+    ByteBuf unused = this.retainedUnusedSpace();
+    // the added component must start right after the written bytes
+    super.capacity(writerIndex());
+    addComponent(true, src.retainedSlice(srcIndex, length));
+    if (unused != null) {
+      // the space already allocated is still used for the next writes
+      addComponent(false, unused);
+    }
+    return this;
+  }
+
+  private ByteBuf retainedUnusedSpace() {
+    int unusedLength = capacity() - writerIndex();
+    if (unusedLength == 0) {
+      return null;
+    }
+    int lastIndex = numComponents() - 1;
+    int lastStart = toByteIndex(lastIndex);
+    if (writerIndex() < lastStart) {
+      // unused space spans several components, should not happen, dropping it
+      return null;
+    }
+    ByteBuf last = component(lastIndex);
+    return last.retainedSlice(last.readerIndex() + writerIndex() - lastStart, unusedLength);
+  }
+
+  /**
+   * Delegating allocator that grows the frame in small increments, up to the frame size.
+   *
+   * <p>The default allocator rounds the capacity up to the next power of 2, which can be much more
+   * than needed once large buffers have been added as components.
+   */
+  private static final class FrameSizeAllocator implements ByteBufAllocator {
+
+    private final ByteBufAllocator delegate;
+    private final int frameSize;
+
+    private FrameSizeAllocator(ByteBufAllocator delegate, int frameSize) {
+      this.delegate = delegate;
+      this.frameSize = frameSize;
+    }
+
+    @Override
+    public int calculateNewCapacity(int minNewCapacity, int maxCapacity) {
+      int newCapacity = Math.min(minNewCapacity + GROWTH_INCREMENT, this.frameSize);
+      return Math.min(Math.max(minNewCapacity, newCapacity), maxCapacity);
+    }
+
+    @Override
+    public ByteBuf buffer() {
+      return this.delegate.buffer();
+    }
+
+    @Override
+    public ByteBuf buffer(int initialCapacity) {
+      return this.delegate.buffer(initialCapacity);
+    }
+
+    @Override
+    public ByteBuf buffer(int initialCapacity, int maxCapacity) {
+      return this.delegate.buffer(initialCapacity, maxCapacity);
+    }
+
+    @Override
+    public ByteBuf ioBuffer() {
+      return this.delegate.ioBuffer();
+    }
+
+    @Override
+    public ByteBuf ioBuffer(int initialCapacity) {
+      return this.delegate.ioBuffer(initialCapacity);
+    }
+
+    @Override
+    public ByteBuf ioBuffer(int initialCapacity, int maxCapacity) {
+      return this.delegate.ioBuffer(initialCapacity, maxCapacity);
+    }
+
+    @Override
+    public ByteBuf heapBuffer() {
+      return this.delegate.heapBuffer();
+    }
+
+    @Override
+    public ByteBuf heapBuffer(int initialCapacity) {
+      return this.delegate.heapBuffer(initialCapacity);
+    }
+
+    @Override
+    public ByteBuf heapBuffer(int initialCapacity, int maxCapacity) {
+      return this.delegate.heapBuffer(initialCapacity, maxCapacity);
+    }
+
+    @Override
+    public ByteBuf directBuffer() {
+      return this.delegate.directBuffer();
+    }
+
+    @Override
+    public ByteBuf directBuffer(int initialCapacity) {
+      return this.delegate.directBuffer(initialCapacity);
+    }
+
+    @Override
+    public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
+      return this.delegate.directBuffer(initialCapacity, maxCapacity);
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer() {
+      return this.delegate.compositeBuffer();
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer(int maxNumComponents) {
+      return this.delegate.compositeBuffer(maxNumComponents);
+    }
+
+    @Override
+    public CompositeByteBuf compositeHeapBuffer() {
+      return this.delegate.compositeHeapBuffer();
+    }
+
+    @Override
+    public CompositeByteBuf compositeHeapBuffer(int maxNumComponents) {
+      return this.delegate.compositeHeapBuffer(maxNumComponents);
+    }
+
+    @Override
+    public CompositeByteBuf compositeDirectBuffer() {
+      return this.delegate.compositeDirectBuffer();
+    }
+
+    @Override
+    public CompositeByteBuf compositeDirectBuffer(int maxNumComponents) {
+      return this.delegate.compositeDirectBuffer(maxNumComponents);
+    }
+
+    @Override
+    public boolean isDirectBufferPooled() {
+      return this.delegate.isDirectBufferPooled();
+    }
+  }
+}
@@ -61,6 +61,7 @@ import com.rabbitmq.stream.compression.Compression;
 import com.rabbitmq.stream.compression.CompressionCodec;
 import com.rabbitmq.stream.impl.Client.Broker;
 import com.rabbitmq.stream.impl.Client.ChunkListener;
+import com.rabbitmq.stream.impl.Client.EntryFilter;
 import com.rabbitmq.stream.impl.Client.MessageIgnoredListener;
 import com.rabbitmq.stream.impl.Client.MessageListener;
 import com.rabbitmq.stream.impl.Client.OpenResponse;
@@ -359,14 +360,18 @@ class ServerFrameHandler {
       int read = 1;
       int publishingIdCount = message.readInt();
       read += 4;
+      checkCount(publishingIdCount, 8, message);
       client.metricsCollector.publishConfirm(publishingIdCount);
-      long publishingId;
-      while (publishingIdCount != 0) {
-        publishingId = message.readLong();
-        read += 8;
-        client.publishConfirmListener.handle(publisherId, publishingId);
-        publishingIdCount--;
+      long[] publishingIds = client.publishingIdsBuffer;
+      if (publishingIds.length < publishingIdCount) {
+        publishingIds = new long[publishingIdCount];
+        client.publishingIdsBuffer = publishingIds;
       }
+      for (int i = 0; i < publishingIdCount; i++) {
+        publishingIds[i] = message.readLong();
+      }
+      read += 8 * publishingIdCount;
+      client.publishConfirmListener.handle(publisherId, publishingIds, publishingIdCount);
       return read;
     }
   }
@@ -411,6 +416,7 @@ class ServerFrameHandler {
         long chunkTimestamp,
         long committedChunkId,
         Codec codec,
+        EntryFilter entryFilter,
         MessageListener messageListener,
         byte subscriptionId,
         Object chunkContext) {
@@ -419,7 +425,8 @@ class ServerFrameHandler {
       checkSize(entrySize, bb);
       read += entrySize;
 
-      if (ignore && Long.compareUnsigned(offset, offsetLimit) < 0) {
+      if ((ignore && Long.compareUnsigned(offset, offsetLimit) < 0)
+          || (entryFilter != null && !entryFilter.test(subscriptionId, bb, entrySize))) {
         bb.skipBytes(entrySize);
         messageIgnored.set(true);
       } else {
@@ -525,6 +532,7 @@ class ServerFrameHandler {
       long offsetLimit = client.extractInitialSubscriptionOffset(subscriptionId);
 
       final boolean ignore = offsetLimit != -1;
+      final EntryFilter entryFilter = client.entryFilter;
 
       try {
         chunkChecksum.checksum(message, dataLength, crc);
@@ -565,6 +573,7 @@ class ServerFrameHandler {
                   chunkTimestamp,
                   committedOffset,
                   codec,
+                  entryFilter,
                   messageListener,
                   subscriptionId,
                   chunkContext);
@@ -638,37 +647,54 @@ class ServerFrameHandler {
           try {
             if (comp.code() != Compression.NONE.code()) {
               CompressionCodec compressionCodec = client.compressionCodecFactory.get(comp);
-              int initialCapacity =
-                  Math.min(uncompressedDataSize, INITIAL_DECOMPRESSION_BUFFER_SIZE);
-              // bounding maxCapacity makes the declared uncompressed size a hard limit: a
-              // stream producing more than it declared fails instead of growing without limit
-              outBb = ctx.alloc().heapBuffer(initialCapacity, uncompressedDataSize);
-              // shrink the transfer buffer for small declared sizes, but never to zero:
-              // read(byte[0]) returns 0 forever, not -1
-              byte[] inBuffer =
-                  new byte
-                      [uncompressedDataSize > 0
-                          ? Math.min(uncompressedDataSize, DECOMPRESSION_TRANSFER_BUFFER_SIZE)
-                          : DECOMPRESSION_TRANSFER_BUFFER_SIZE];
-              int n;
-              ByteBuf slice = message.slice(message.readerIndex(), dataSize);
-              InputStream inputStream = null;
-              try {
-                inputStream = compressionCodec.decompress(new ByteBufInputStream(slice));
-                while (-1 != (n = inputStream.read(inBuffer))) {
-                  outBb.writeBytes(inBuffer, 0, n);
+              if (compressionCodec.supportsBlocks() && message.nioBufferCount() == 1) {
+                // decompresses straight from the frame, the declared size is already bounded
+                outBb =
+                    message.isDirect()
+                        ? ctx.alloc().directBuffer(uncompressedDataSize, uncompressedDataSize)
+                        : ctx.alloc().heapBuffer(uncompressedDataSize, uncompressedDataSize);
+                try {
+                  int n =
+                      compressionCodec.decompress(
+                          message.nioBuffer(message.readerIndex(), dataSize),
+                          outBb.nioBuffer(0, uncompressedDataSize));
+                  outBb.writerIndex(n);
+                } catch (Throwable e) {
+                  throw new StreamException("Error while uncompressing sub-entry", e);
                 }
-              } catch (Throwable e) {
-                // compression codecs may use native libraries, so we can end up
-                // with throwables or errors
-                throw new StreamException("Error while uncompressing sub-entry", e);
-              } finally {
-                if (inputStream != null) {
-                  try {
-                    inputStream.close();
-                  } catch (IOException e) {
-                    throw new StreamException(
-                        "Error while closing sub-entry compressed input stream", e);
+              } else {
+                int initialCapacity =
+                    Math.min(uncompressedDataSize, INITIAL_DECOMPRESSION_BUFFER_SIZE);
+                // bounding maxCapacity makes the declared uncompressed size a hard limit: a
+                // stream producing more than it declared fails instead of growing without limit
+                outBb = ctx.alloc().heapBuffer(initialCapacity, uncompressedDataSize);
+                // shrink the transfer buffer for small declared sizes, but never to zero:
+                // read(byte[0]) returns 0 forever, not -1
+                byte[] inBuffer =
+                    new byte
+                        [uncompressedDataSize > 0
+                            ? Math.min(uncompressedDataSize, DECOMPRESSION_TRANSFER_BUFFER_SIZE)
+                            : DECOMPRESSION_TRANSFER_BUFFER_SIZE];
+                int n;
+                ByteBuf slice = message.slice(message.readerIndex(), dataSize);
+                InputStream inputStream = null;
+                try {
+                  inputStream = compressionCodec.decompress(new ByteBufInputStream(slice));
+                  while (-1 != (n = inputStream.read(inBuffer))) {
+                    outBb.writeBytes(inBuffer, 0, n);
+                  }
+                } catch (Throwable e) {
+                  // compression codecs may use native libraries, so we can end up
+                  // with throwables or errors
+                  throw new StreamException("Error while uncompressing sub-entry", e);
+                } finally {
+                  if (inputStream != null) {
+                    try {
+                      inputStream.close();
+                    } catch (IOException e) {
+                      throw new StreamException(
+                          "Error while closing sub-entry compressed input stream", e);
+                    }
                   }
                 }
               }
@@ -693,6 +719,7 @@ class ServerFrameHandler {
                       chunkTimestamp,
                       committedOffset,
                       codec,
+                      entryFilter,
                       messageListener,
                       subscriptionId,
                       chunkContext);
@@ -22,15 +22,13 @@ import com.rabbitmq.stream.StreamException;
 import com.rabbitmq.stream.impl.ProducerUtils.AccumulatedEntity;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
 
 class SimpleMessageAccumulator implements MessageAccumulator {
 
-  protected final BlockingQueue<AccumulatedEntity> messages;
+  protected final MpscArrayQueue<AccumulatedEntity> messages;
   private final int capacity;
   final ObservationCollector<Object> observationCollector;
   private final StreamProducer producer;
@@ -46,7 +44,8 @@ class SimpleMessageAccumulator implements MessageAccumulator {
       Clock clock,
       String stream,
       ObservationCollector<?> observationCollector,
-      StreamProducer producer) {
+      StreamProducer producer,
+      ProducerUtils.AccumulatedEntityPool entityPool) {
     this.helper =
         new ProducerUtils.MessageAccumulatorHelper(
             codec,
@@ -55,9 +54,10 @@ class SimpleMessageAccumulator implements MessageAccumulator {
             filterValueExtractor,
             clock,
             stream,
-            observationCollector);
+            observationCollector,
+            entityPool);
     this.capacity = capacity;
-    this.messages = new LinkedBlockingQueue<>(this.capacity);
+    this.messages = new MpscArrayQueue<>(this.capacity);
     this.observationCollector = (ObservationCollector<Object>) observationCollector;
     this.producer = producer;
   }
@@ -86,6 +86,8 @@ class SimpleMessageAccumulator implements MessageAccumulator {
     return entity;
   }
 
+  void beforePublish(List<Object> entities) {}
+
   @Override
   public int size() {
     return messages.size();
@@ -111,6 +113,7 @@ class SimpleMessageAccumulator implements MessageAccumulator {
           entities.add(entity);
           batchCount++;
         }
+        this.beforePublish(entities);
         producer.publishInternal(entities);
       }
     } finally {
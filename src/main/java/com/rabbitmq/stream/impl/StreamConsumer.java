@@ -29,6 +29,7 @@ import com.rabbitmq.stream.ConsumerFlowStrategy;
 import com.rabbitmq.stream.ConsumerUpdateListener;
 import com.rabbitmq.stream.MessageHandler;
 import com.rabbitmq.stream.NoOffsetException;
+import com.rabbitmq.stream.ObservationCollector;
 import com.rabbitmq.stream.OffsetSpecification;
 import com.rabbitmq.stream.StreamException;
 import com.rabbitmq.stream.SubscriptionListener;
@@ -63,6 +64,9 @@ final class StreamConsumer extends ResourceBase implements Consumer {
   private static final Logger LOGGER = LoggerFactory.getLogger(StreamConsumer.class);
   private final long id;
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final ChunkMessageBatch messageBatch;
+  private final ObservationCollector.ChunkMessageHandler chunkMessageHandler;
+  private final HeaderFilter headerFilter;
   private final String name;
   private final String stream;
   private final StreamEnvironment environment;
@@ -77,12 +81,17 @@ final class StreamConsumer extends ResourceBase implements Consumer {
   private volatile Client trackingClient;
   private volatile Client subscriptionClient;
   private volatile long lastRequestedStoredOffset = 0;
+  // last offset known to be stored, to avoid querying the broker, invalid after a recovery
+  private volatile long cachedStoredOffset = 0;
+  private volatile boolean storedOffsetCached = false;
   private volatile boolean sacActive;
 
   StreamConsumer(
       String stream,
       OffsetSpecification offsetSpecification,
       MessageHandler messageHandler,
+      ChunkMessageBatch messageBatch,
+      HeaderFilter headerFilter,
       String name,
       StreamEnvironment environment,
       TrackingConfiguration trackingConfiguration,
@@ -99,6 +108,12 @@ final class StreamConsumer extends ResourceBase implements Consumer {
               + "(requires RabbitMQ 3.13+ and stream_filtering feature flag activated");
     }
     this.id = ID_SEQUENCE.getAndIncrement();
+    this.messageBatch = messageBatch;
+    this.chunkMessageHandler =
+        messageHandler instanceof ObservationCollector.ChunkMessageHandler
+            ? (ObservationCollector.ChunkMessageHandler) messageHandler
+            : null;
+    this.headerFilter = headerFilter;
     Runnable trackingClosingCallback;
     try {
       this.name = name;
@@ -122,6 +137,10 @@ final class StreamConsumer extends ResourceBase implements Consumer {
         if (postMessageProcessingCallback == null) {
           // no callback, no need to decorate
           decoratedMessageHandler.set(messageHandler);
+        } else if (messageBatch != null) {
+          // messages are tracked once the batch has been handled
+          messageBatch.postProcessingCallback(postMessageProcessingCallback);
+          decoratedMessageHandler.set(messageHandler);
         } else {
           decoratedMessageHandler.set(
               (context, message) -> {
@@ -371,15 +390,33 @@ final class StreamConsumer extends ResourceBase implements Consumer {
 
   @Override
   public void store(long offset) {
+    store(offset, true);
+  }
+
+  /**
+   * Store the offset, flushing the connection or not.
+   *
+   * <p>The caller must flush the returned client when <code>flush</code> is <code>false</code>.
+   *
+   * @param offset the offset to store
+   * @param flush whether to flush the connection
+   * @return the client the request has been written to, <code>null</code> if nothing written
+   */
+  Client store(long offset, boolean flush) {
     checkNotClosed();
     trackingCallback.accept(offset);
+    Client client = null;
     if (canTrack()) {
       if (offsetBefore(this.lastRequestedStoredOffset, offset)
           || nothingStoredYet.compareAndSet(true, false)) {
         try {
-          this.trackingClient.storeOffset(this.name, this.stream, offset);
+          client = this.trackingClient;
+          client.storeOffset(this.name, this.stream, offset, flush);
           this.lastRequestedStoredOffset = offset;
+          this.cachedStoredOffset = offset;
+          this.storedOffsetCached = true;
         } catch (Exception e) {
+          client = null;
           LOGGER.debug("Error while trying to store offset: {}", e.getMessage());
         }
       }
@@ -387,6 +424,7 @@ final class StreamConsumer extends ResourceBase implements Consumer {
     // nothing special to do if tracking is not possible or errors, e.g. because of a network
     // failure
     // the tracking strategy will stack the storage request and apply it as soon as it can
+    return client;
   }
 
   OffsetSpecification consumerUpdate(boolean active) {
@@ -404,6 +442,8 @@ final class StreamConsumer extends ResourceBase implements Consumer {
     }
 
     this.sacActive = active;
+    // another consumer may have stored offsets in the meantime
+    this.storedOffsetCached = false;
 
     ConsumerUpdateListener.Context context = new DefaultConsumerUpdateContext(this, active);
 
@@ -440,6 +480,26 @@ final class StreamConsumer extends ResourceBase implements Consumer {
     return this.sacActive;
   }
 
+  boolean batchMode() {
+    return this.messageBatch != null;
+  }
+
+  ObservationCollector.ChunkMessageHandler chunkMessageHandler() {
+    return this.chunkMessageHandler;
+  }
+
+  HeaderFilter headerFilter() {
+    return this.headerFilter;
+  }
+
+  void chunkHandled() {
+    if (this.closed.get()) {
+      this.messageBatch.clear();
+    } else {
+      this.messageBatch.dispatch();
+    }
+  }
+
   boolean canTrack() {
     // closing is OK e.g. when flushing on closing
     return (this.state() == OPENING || this.state() == OPEN || this.state() == CLOSING)
@@ -506,6 +566,7 @@ final class StreamConsumer extends ResourceBase implements Consumer {
         this.lock,
         () -> {
           this.trackingClient = null;
+          this.storedOffsetCached = false;
           componentUnavailable(COMPONENT_TRACKING);
         });
   }
@@ -542,6 +603,27 @@ final class StreamConsumer extends ResourceBase implements Consumer {
     return storedOffset(() -> this.trackingClient);
   }
 
+  /**
+   * The last stored offset, from a local cache if possible.
+   *
+   * <p>The cache contains the last offset this instance stored or the last offset returned by the
+   * broker. It is invalidated when the consumer loses its connection or when its single active
+   * consumer status changes, the broker is queried in this case.
+   *
+   * @return the last stored offset
+   * @throws NoOffsetException if no offset has been stored yet
+   */
+  long cachedStoredOffset() {
+    if (this.storedOffsetCached) {
+      return this.cachedStoredOffset;
+    } else {
+      long storedOffset = storedOffset();
+      this.cachedStoredOffset = storedOffset;
+      this.storedOffsetCached = true;
+      return storedOffset;
+    }
+  }
+
   String stream() {
     return this.stream;
   }
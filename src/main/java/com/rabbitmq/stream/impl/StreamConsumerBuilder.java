@@ -22,6 +22,7 @@ import com.rabbitmq.stream.ConsumerBuilder;
 import com.rabbitmq.stream.ConsumerFlowStrategy;
 import com.rabbitmq.stream.ConsumerUpdateListener;
 import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageBatchHandler;
 import com.rabbitmq.stream.MessageHandler;
 import com.rabbitmq.stream.OffsetSpecification;
 import com.rabbitmq.stream.Resource;
@@ -46,6 +47,7 @@ class StreamConsumerBuilder implements ConsumerBuilder {
   private String stream, superStream;
   private OffsetSpecification offsetSpecification = null;
   private MessageHandler messageHandler;
+  private MessageBatchHandler messageBatchHandler;
   private String name;
   private DefaultAutoTrackingStrategy autoTrackingStrategy;
   private DefaultManualTrackingStrategy manualTrackingStrategy;
@@ -73,6 +75,7 @@ class StreamConsumerBuilder implements ConsumerBuilder {
     this.superStream = other.superStream;
     this.offsetSpecification = other.offsetSpecification;
     this.messageHandler = other.messageHandler;
+    this.messageBatchHandler = other.messageBatchHandler;
     this.name = other.name;
     this.autoTrackingStrategy = other.autoTrackingStrategy;
     this.manualTrackingStrategy = other.manualTrackingStrategy;
@@ -114,6 +117,16 @@ class StreamConsumerBuilder implements ConsumerBuilder {
     return this.messageHandler;
   }
 
+  @Override
+  public ConsumerBuilder messageBatchHandler(MessageBatchHandler messageBatchHandler) {
+    this.messageBatchHandler = messageBatchHandler;
+    return this;
+  }
+
+  MessageBatchHandler messageBatchHandler() {
+    return this.messageBatchHandler;
+  }
+
   @Override
   public ConsumerBuilder name(String name) {
     if (name == null || name.length() >= NAME_MAX_SIZE) {
@@ -209,9 +222,13 @@ class StreamConsumerBuilder implements ConsumerBuilder {
     if (this.stream != null && this.superStream != null) {
       throw new IllegalArgumentException("Stream and superStream cannot be set at the same time");
     }
-    if (this.messageHandler == null) {
+    if (this.messageHandler == null && this.messageBatchHandler == null) {
       throw new IllegalArgumentException("A message handler must be set");
     }
+    if (this.messageHandler != null && this.messageBatchHandler != null) {
+      throw new IllegalArgumentException(
+          "A message handler and a message batch handler cannot be set at the same time");
+    }
     if (this.name == null
         && !this.noTrackingStrategy
         && (this.autoTrackingStrategy != null || this.manualTrackingStrategy != null)) {
@@ -245,9 +262,15 @@ class StreamConsumerBuilder implements ConsumerBuilder {
       trackingConfiguration = DISABLED_TRACKING_CONFIGURATION;
     }
 
+    ChunkMessageBatch messageBatch =
+        this.messageBatchHandler == null || this.stream == null
+            ? null
+            : new ChunkMessageBatch(this.messageBatchHandler);
+    MessageHandler messageHandler = messageBatch == null ? this.messageHandler : messageBatch;
     MessageHandler handler;
+    HeaderFilter headerFilter = null;
     if (this.filterConfiguration == null) {
-      handler = this.messageHandler;
+      handler = messageHandler;
     } else {
       this.filterConfiguration.validate();
       AtomicInteger i = new AtomicInteger(0);
@@ -258,17 +281,27 @@ class StreamConsumerBuilder implements ConsumerBuilder {
       this.subscriptionProperties.put(
           SUBSCRIPTION_PROPERTY_MATCH_UNFILTERED,
           this.filterConfiguration.matchUnfiltered ? "true" : "false");
+      if (!this.filterConfiguration.headerConditions.isEmpty()) {
+        headerFilter = new HeaderFilter(this.filterConfiguration.headerConditions);
+      }
       final Predicate<Message> filter = this.filterConfiguration.filter;
-      final MessageHandler delegate = this.messageHandler;
-      handler =
-          (context, message) -> {
-            if (filter.test(message)) {
-              delegate.handle(context, message);
-            }
-          };
+      if (filter == null) {
+        handler = messageHandler;
+      } else {
+        final MessageHandler delegate = messageHandler;
+        handler =
+            (context, message) -> {
+              if (filter.test(message)) {
+                delegate.handle(context, message);
+              }
+            };
+      }
     }
 
-    handler = this.environment.observationCollector().subscribe(handler);
+    if (messageBatch == null) {
+      // no observation of single messages in batch mode
+      handler = this.environment.observationCollector().subscribe(handler);
+    }
 
     Consumer consumer;
     if (this.stream != null) {
@@ -277,6 +310,8 @@ class StreamConsumerBuilder implements ConsumerBuilder {
               this.stream,
               this.offsetSpecification,
               handler,
+              messageBatch,
+              headerFilter,
               this.name,
               this.environment,
               trackingConfiguration,
@@ -412,6 +447,7 @@ class StreamConsumerBuilder implements ConsumerBuilder {
     private final StreamConsumerBuilder builder;
     private List<String> filterValues;
     private Predicate<Message> filter;
+    private final List<HeaderFilter.Condition> headerConditions = new ArrayList<>();
     private boolean matchUnfiltered = false;
 
     private DefaultFilterConfiguration(StreamConsumerBuilder builder) {
@@ -433,6 +469,20 @@ class StreamConsumerBuilder implements ConsumerBuilder {
       return this;
     }
 
+    @Override
+    public FilterConfiguration applicationProperty(String key, String value) {
+      this.headerConditions.add(
+          new HeaderFilter.Condition(HeaderFilter.APPLICATION_PROPERTIES, key, value));
+      return this;
+    }
+
+    @Override
+    public FilterConfiguration messageAnnotation(String key, String value) {
+      this.headerConditions.add(
+          new HeaderFilter.Condition(HeaderFilter.MESSAGE_ANNOTATIONS, key, value));
+      return this;
+    }
+
     @Override
     public FilterConfiguration matchUnfiltered() {
       this.matchUnfiltered = true;
@@ -451,7 +501,7 @@ class StreamConsumerBuilder implements ConsumerBuilder {
     }
 
     private void validate() {
-      if (this.filterValues == null || this.filter == null) {
+      if (this.filterValues == null || (this.filter == null && this.headerConditions.isEmpty())) {
         throw new IllegalArgumentException("Both filter values and the filter logic must be set");
       }
     }
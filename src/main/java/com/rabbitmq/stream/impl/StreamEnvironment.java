@@ -59,6 +59,7 @@ import com.rabbitmq.stream.impl.StreamConsumerBuilder.TrackingConfiguration;
 import com.rabbitmq.stream.impl.StreamEnvironmentBuilder.DefaultOAuth2Configuration;
 import com.rabbitmq.stream.impl.StreamEnvironmentBuilder.DefaultTlsConfiguration;
 import com.rabbitmq.stream.impl.Utils.ClientConnectionType;
+import com.rabbitmq.stream.metrics.MetricsCollector;
 import com.rabbitmq.stream.oauth2.CredentialsManager;
 import com.rabbitmq.stream.sasl.CredentialsProvider;
 import com.rabbitmq.stream.sasl.UsernamePasswordCredentialsProvider;
@@ -77,6 +78,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -84,6 +86,8 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
@@ -101,6 +105,9 @@ final class StreamEnvironment implements Environment {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(StreamEnvironment.class);
 
+  private static final Duration TIMER_WHEEL_TICK_DURATION = Duration.ofMillis(100);
+  private static final int TIMER_WHEEL_SIZE = 512;
+
   private final EventLoopGroup eventLoopGroup;
   private final boolean privateEventLoopGroup;
   private final ScheduledExecutorService scheduledExecutorService;
@@ -116,6 +123,7 @@ final class StreamEnvironment implements Environment {
   private final ConsumersCoordinator consumersCoordinator;
   private final ProducersCoordinator producersCoordinator;
   private final OffsetTrackingCoordinator offsetTrackingCoordinator;
+  private final TimerWheel timerWheel;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final AddressResolver addressResolver;
   private final Clock clock = new Clock();
@@ -126,7 +134,13 @@ final class StreamEnvironment implements Environment {
   private final List<Locator> locators;
   private final ExecutorServiceFactory executorServiceFactory;
   private final ObservationCollector<?> observationCollector;
+  private final MetricsCollector metricsCollector;
   private final Duration rpcTimeout;
+  private final DynamicBatchEngine dynamicBatchEngine;
+  private final ExecutorService consumerDecodingExecutorService;
+  private final StreamMetadataCache streamMetadataCache;
+  private volatile ExecutorService compressionExecutorService;
+  private final Lock compressionExecutorLock = new ReentrantLock();
 
   StreamEnvironment(
       ScheduledExecutorService scheduledExecutorService,
@@ -149,7 +163,10 @@ final class StreamEnvironment implements Environment {
       boolean forceLeaderForProducers,
       Duration producerNodeRetryDelay,
       Duration consumerNodeRetryDelay,
-      int expectedLocatorCount) {
+      int expectedLocatorCount,
+      int dynamicBatchThreads,
+      int consumerDecodingThreads,
+      Duration streamMetadataCacheTtl) {
     this.recoveryBackOffDelayPolicy = recoveryBackOffDelayPolicy;
     this.topologyUpdateBackOffDelayPolicy = topologyBackOffDelayPolicy;
     this.byteBufAllocator = byteBufAllocator;
@@ -159,6 +176,7 @@ final class StreamEnvironment implements Environment {
     clientParametersPrototype = maybeSetUpClientParametersFromUris(uris, clientParametersPrototype);
 
     this.observationCollector = observationCollector;
+    this.metricsCollector = clientParametersPrototype.metricsCollector();
 
     boolean tls;
     if (tlsConfiguration != null && tlsConfiguration.enabled()) {
@@ -263,6 +281,10 @@ final class StreamEnvironment implements Environment {
       }
       this.scheduledExecutorService = executorService;
 
+      this.timerWheel = new TimerWheel(TIMER_WHEEL_TICK_DURATION, TIMER_WHEEL_SIZE);
+      this.timerWheel.start(this.scheduledExecutorService);
+      shutdownService.wrap(this.timerWheel::close);
+
       CredentialsManager credentialsManager =
           CredentialsManagerFactory.get(oauth, this.scheduledExecutorService);
 
@@ -270,7 +292,7 @@ final class StreamEnvironment implements Environment {
           clientParametersPrototype.duplicate().credentialsManager(credentialsManager);
 
       if (clientParametersPrototype.eventLoopGroup == null) {
-        this.eventLoopGroup = Utils.eventLoopGroup();
+        this.eventLoopGroup = clientParametersPrototype.nettyTransport.eventLoopGroup();
         this.privateEventLoopGroup = true;
         shutdownService.wrap(() -> closeEventLoopGroup(this.eventLoopGroup));
       } else {
@@ -281,6 +303,15 @@ final class StreamEnvironment implements Environment {
       this.clientParametersPrototype =
           clientParametersPrototype.duplicate().eventLoopGroup(this.eventLoopGroup);
 
+      this.streamMetadataCache =
+          new StreamMetadataCache(
+              stream ->
+                  locatorOperation(
+                          Utils.namedFunction(
+                              c -> c.metadata(stream), "Metadata lookup for stream '%s'", stream))
+                      .get(stream),
+              streamMetadataCacheTtl);
+
       this.producersCoordinator =
           new ProducersCoordinator(
               this,
@@ -302,6 +333,26 @@ final class StreamEnvironment implements Environment {
       this.offsetTrackingCoordinator = new OffsetTrackingCoordinator(this);
       shutdownService.wrap(this.offsetTrackingCoordinator::close);
 
+      if (dynamicBatchThreads > 0) {
+        LOGGER.debug("Creating dynamic batch engine with {} thread(s)", dynamicBatchThreads);
+        this.dynamicBatchEngine =
+            new DynamicBatchEngine(dynamicBatchThreads, "rabbitmq-stream-dynamic-batch-");
+        shutdownService.wrap(this.dynamicBatchEngine::close);
+      } else {
+        this.dynamicBatchEngine = null;
+      }
+
+      if (consumerDecodingThreads > 0) {
+        LOGGER.debug(
+            "Creating consumer decoding executor with {} thread(s)", consumerDecodingThreads);
+        this.consumerDecodingExecutorService =
+            Executors.newFixedThreadPool(
+                consumerDecodingThreads, threadFactory("rabbitmq-stream-consumer-decoding-"));
+        shutdownService.wrap(this.consumerDecodingExecutorService::shutdownNow);
+      } else {
+        this.consumerDecodingExecutorService = null;
+      }
+
       ThreadFactory threadFactory = threadFactory("rabbitmq-stream-environment-locator-scheduler-");
       this.locatorReconnectionScheduledExecutorService =
           Executors.newScheduledThreadPool(this.locators.size(), threadFactory);
@@ -501,6 +552,7 @@ final class StreamEnvironment implements Environment {
     checkNotClosed();
     this.maybeInitializeLocator();
     Client.Response response = this.locator().client().delete(stream);
+    this.streamMetadataCache.invalidate(stream);
     if (!response.isOk()) {
       throw new StreamException(
           "Error while deleting stream "
@@ -517,6 +569,8 @@ final class StreamEnvironment implements Environment {
     checkNotClosed();
     this.maybeInitializeLocator();
     Client.Response response = this.locator().client().deleteSuperStream(superStream);
+    // partitions are unknown here
+    this.streamMetadataCache.clear();
     if (!response.isOk()) {
       throw new StreamException(
           "Error while deleting super stream "
@@ -724,6 +778,20 @@ final class StreamEnvironment implements Environment {
       this.producersCoordinator.close();
       this.consumersCoordinator.close();
       this.offsetTrackingCoordinator.close();
+      this.timerWheel.close();
+
+      if (this.dynamicBatchEngine != null) {
+        this.dynamicBatchEngine.close();
+      }
+
+      this.compressionExecutorLock.lock();
+      try {
+        if (this.compressionExecutorService != null) {
+          this.compressionExecutorService.shutdownNow();
+        }
+      } finally {
+        this.compressionExecutorLock.unlock();
+      }
 
       for (Locator locator : this.locators) {
         try {
@@ -736,6 +804,11 @@ final class StreamEnvironment implements Environment {
         }
       }
 
+      // after the clients, they release their pending delivery frames when they close
+      if (this.consumerDecodingExecutorService != null) {
+        this.consumerDecodingExecutorService.shutdownNow();
+      }
+
       try {
         this.executorServiceFactory.close();
       } catch (Exception e) {
@@ -779,10 +852,50 @@ final class StreamEnvironment implements Environment {
     return this.scheduledExecutorService;
   }
 
+  TimerWheel timerWheel() {
+    return this.timerWheel;
+  }
+
   Duration rpcTimeout() {
     return this.rpcTimeout;
   }
 
+  DynamicBatchEngine dynamicBatchEngine() {
+    return this.dynamicBatchEngine;
+  }
+
+  ExecutorService consumerDecodingExecutorService() {
+    return this.consumerDecodingExecutorService;
+  }
+
+  ExecutorService compressionExecutorService() {
+    ExecutorService executorService = this.compressionExecutorService;
+    if (executorService == null) {
+      this.compressionExecutorLock.lock();
+      try {
+        if (this.compressionExecutorService == null) {
+          int threads = Runtime.getRuntime().availableProcessors();
+          LOGGER.debug("Creating sub-entry compression executor with {} thread(s)", threads);
+          this.compressionExecutorService =
+              Executors.newFixedThreadPool(
+                  threads, threadFactory("rabbitmq-stream-producer-compression-"));
+        }
+        executorService = this.compressionExecutorService;
+      } finally {
+        this.compressionExecutorLock.unlock();
+      }
+    }
+    return executorService;
+  }
+
+  Client.StreamMetadata streamMetadata(String stream) {
+    return this.streamMetadataCache.get(stream);
+  }
+
+  void invalidateStreamMetadata(String stream) {
+    this.streamMetadataCache.invalidate(stream);
+  }
+
   void execute(Runnable task, String description, Object... args) {
     this.scheduledExecutorService().execute(namedRunnable(task, description, args));
   }
@@ -918,6 +1031,10 @@ final class StreamEnvironment implements Environment {
     return this.clock;
   }
 
+  MetricsCollector metricsCollector() {
+    return this.metricsCollector;
+  }
+
   AddressResolver addressResolver() {
     return this.addressResolver;
   }
@@ -23,6 +23,7 @@ import com.rabbitmq.stream.ChunkChecksum;
 import com.rabbitmq.stream.Codec;
 import com.rabbitmq.stream.Environment;
 import com.rabbitmq.stream.EnvironmentBuilder;
+import com.rabbitmq.stream.EnvironmentBuilder.NettyConfiguration.Transport;
 import com.rabbitmq.stream.ObservationCollector;
 import com.rabbitmq.stream.StreamException;
 import com.rabbitmq.stream.compression.CompressionCodecFactory;
@@ -84,6 +85,9 @@ public class StreamEnvironmentBuilder implements EnvironmentBuilder {
   private Duration producerNodeRetryDelay = Duration.ofMillis(500);
   private Duration consumerNodeRetryDelay = Duration.ofMillis(1000);
   private int locatorConnectionCount = -1;
+  private int dynamicBatchThreads = 0;
+  private int consumerDecodingThreads = 0;
+  private Duration streamMetadataCacheTtl = Duration.ofSeconds(5);
 
   public StreamEnvironmentBuilder() {}
 
@@ -357,6 +361,34 @@ public class StreamEnvironmentBuilder implements EnvironmentBuilder {
     return this;
   }
 
+  @Override
+  public EnvironmentBuilder dynamicBatchThreads(int dynamicBatchThreads) {
+    if (dynamicBatchThreads < 0) {
+      throw new IllegalArgumentException("dynamicBatchThreads must be greater than or equal to 0");
+    }
+    this.dynamicBatchThreads = dynamicBatchThreads;
+    return this;
+  }
+
+  @Override
+  public EnvironmentBuilder consumerDecodingThreads(int consumerDecodingThreads) {
+    if (consumerDecodingThreads < 0) {
+      throw new IllegalArgumentException(
+          "consumerDecodingThreads must be greater than or equal to 0");
+    }
+    this.consumerDecodingThreads = consumerDecodingThreads;
+    return this;
+  }
+
+  @Override
+  public EnvironmentBuilder streamMetadataCacheTtl(Duration ttl) {
+    if (ttl == null || ttl.isNegative()) {
+      throw new IllegalArgumentException("The stream metadata cache TTL must be positive or zero");
+    }
+    this.streamMetadataCacheTtl = ttl;
+    return this;
+  }
+
   @Override
   public Environment build() {
     if (this.compressionCodecFactory == null) {
@@ -371,6 +403,7 @@ public class StreamEnvironmentBuilder implements EnvironmentBuilder {
     this.clientParameters.byteBufAllocator(this.netty.byteBufAllocator);
     this.clientParameters.channelCustomizer(this.netty.channelCustomizer);
     this.clientParameters.bootstrapCustomizer(this.netty.bootstrapCustomizer);
+    this.clientParameters.nettyTransport(NettyTransport.of(this.netty.transport));
 
     return new StreamEnvironment(
         scheduledExecutorService,
@@ -393,7 +426,10 @@ public class StreamEnvironmentBuilder implements EnvironmentBuilder {
         this.forceLeaderForProducers,
         this.producerNodeRetryDelay,
         this.consumerNodeRetryDelay,
-        this.locatorConnectionCount);
+        this.locatorConnectionCount,
+        this.dynamicBatchThreads,
+        this.consumerDecodingThreads,
+        this.streamMetadataCacheTtl);
   }
 
   static final class DefaultTlsConfiguration implements TlsConfiguration {
@@ -456,6 +492,7 @@ public class StreamEnvironmentBuilder implements EnvironmentBuilder {
     private ByteBufAllocator byteBufAllocator = Utils.byteBufAllocator();
     private Consumer<Channel> channelCustomizer = noOpConsumer();
     private Consumer<Bootstrap> bootstrapCustomizer = noOpConsumer();
+    private Transport transport = Transport.NIO;
 
     private DefaultNettyConfiguration(EnvironmentBuilder environmentBuilder) {
       this.environmentBuilder = environmentBuilder;
@@ -485,6 +522,15 @@ public class StreamEnvironmentBuilder implements EnvironmentBuilder {
       return this;
     }
 
+    @Override
+    public NettyConfiguration transport(Transport transport) {
+      if (transport == null) {
+        throw new IllegalArgumentException("The Netty transport cannot be null");
+      }
+      this.transport = transport;
+      return this;
+    }
+
     @Override
     public EnvironmentBuilder environmentBuilder() {
       return this.environmentBuilder;
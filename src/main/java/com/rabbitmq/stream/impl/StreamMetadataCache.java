@@ -0,0 +1,132 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of stream metadata.
+ *
+ * <p>Successful metadata responses are kept for a given time. Concurrent lookups for the same
+ * stream share the same request: the first caller queries the broker, the other callers wait for
+ * its result. Entries must be invalidated when the topology of a stream is likely to have changed
+ * (e.g. metadata update notification from the broker).
+ */
+final class StreamMetadataCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamMetadataCache.class);
+
+  private final Function<String, Client.StreamMetadata> loader;
+  private final long ttlInNanos;
+  private final LongSupplier clock;
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  StreamMetadataCache(Function<String, Client.StreamMetadata> loader, Duration ttl) {
+    this(loader, ttl, System::nanoTime);
+  }
+
+  StreamMetadataCache(
+      Function<String, Client.StreamMetadata> loader, Duration ttl, LongSupplier clock) {
+    this.loader = loader;
+    this.ttlInNanos = ttl.toNanos();
+    this.clock = clock;
+  }
+
+  /**
+   * Metadata of the stream, from the cache or from the broker.
+   *
+   * @param stream the stream
+   * @return the metadata, can be null if the broker did not return any metadata for the stream
+   */
+  Client.StreamMetadata get(String stream) {
+    while (true) {
+      Entry entry = this.entries.get(stream);
+      if (entry != null && !entry.hasExpired(this.clock.getAsLong())) {
+        return entry.await();
+      }
+      Entry newEntry = new Entry();
+      boolean owner =
+          entry == null
+              ? this.entries.putIfAbsent(stream, newEntry) == null
+              : this.entries.replace(stream, entry, newEntry);
+      if (owner) {
+        return this.load(stream, newEntry);
+      }
+    }
+  }
+
+  private Client.StreamMetadata load(String stream, Entry entry) {
+    Client.StreamMetadata metadata;
+    try {
+      metadata = this.loader.apply(stream);
+    } catch (RuntimeException e) {
+      this.entries.remove(stream, entry);
+      entry.future.completeExceptionally(e);
+      throw e;
+    }
+    if (metadata != null && metadata.isResponseOk() && this.ttlInNanos > 0) {
+      entry.expiration = this.clock.getAsLong() + this.ttlInNanos;
+    } else {
+      // not cached, but callers waiting for the request get the result
+      this.entries.remove(stream, entry);
+    }
+    entry.future.complete(metadata);
+    return metadata;
+  }
+
+  void invalidate(String stream) {
+    if (this.entries.remove(stream) != null) {
+      LOGGER.debug("Invalidated metadata of stream '{}'", stream);
+    }
+  }
+
+  void clear() {
+    this.entries.clear();
+  }
+
+  int size() {
+    return this.entries.size();
+  }
+
+  private static final class Entry {
+
+    private final CompletableFuture<Client.StreamMetadata> future = new CompletableFuture<>();
+    // no expiration while the request is in flight
+    private volatile long expiration = Long.MAX_VALUE;
+
+    private boolean hasExpired(long now) {
+      return this.future.isDone() && now - this.expiration >= 0;
+    }
+
+    private Client.StreamMetadata await() {
+      try {
+        return this.future.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+  }
+}
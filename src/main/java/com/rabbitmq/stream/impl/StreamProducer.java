@@ -29,6 +29,7 @@ import static com.rabbitmq.stream.impl.Utils.namedRunnable;
 
 import com.rabbitmq.stream.Codec;
 import com.rabbitmq.stream.ConfirmationHandler;
+import com.rabbitmq.stream.ConfirmationListener;
 import com.rabbitmq.stream.ConfirmationStatus;
 import com.rabbitmq.stream.Constants;
 import com.rabbitmq.stream.Message;
@@ -39,19 +40,13 @@ import com.rabbitmq.stream.compression.Compression;
 import com.rabbitmq.stream.compression.CompressionCodec;
 import com.rabbitmq.stream.impl.Client.Response;
 import com.rabbitmq.stream.impl.ProducerUtils.AccumulatedEntity;
+import com.rabbitmq.stream.metrics.MetricsCollector;
 import io.netty.buffer.ByteBuf;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -59,6 +54,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
 import org.slf4j.Logger;
@@ -72,8 +68,7 @@ final class StreamProducer extends ResourceBase implements Producer {
   private static final ConfirmationHandler NO_OP_CONFIRMATION_HANDLER = confirmationStatus -> {};
   private final long id;
   private final MessageAccumulator accumulator;
-  // FIXME investigate a more optimized data structure to handle pending messages
-  private final ConcurrentMap<Long, AccumulatedEntity> unconfirmedMessages;
+  private final UnconfirmedMessages unconfirmedMessages;
   private final int batchSize;
   private final String name;
   private final String stream;
@@ -89,9 +84,13 @@ final class StreamProducer extends ResourceBase implements Producer {
   private final long enqueueTimeoutMs;
   private final boolean blockOnMaxUnconfirmed;
   private final boolean retryOnRecovery;
+  private final ConfirmationListener confirmationListener;
+  private final MetricsCollector metricsCollector;
+  // opt-in, latencies require the precise time of accumulation of each message
+  private final boolean latencyMetrics;
   private volatile Client client;
   private volatile byte publisherId;
-  private volatile ScheduledFuture<?> confirmTimeoutFuture;
+  private volatile TimerWheel.Timeout confirmTimeoutTimeout;
   private final short publishVersion;
   private final Lock lock = new ReentrantLock();
 
@@ -108,6 +107,9 @@ final class StreamProducer extends ResourceBase implements Producer {
       Duration enqueueTimeout,
       boolean retryOnRecovery,
       Function<Message, String> filterValueExtractor,
+      ConfirmationListener confirmationListener,
+      int compressionParallelism,
+      boolean objectPooling,
       List<StateListener> listeners,
       StreamEnvironment environment) {
     super(listeners);
@@ -122,6 +124,9 @@ final class StreamProducer extends ResourceBase implements Producer {
     this.stream = stream;
     this.enqueueTimeoutMs = enqueueTimeout.toMillis();
     this.retryOnRecovery = retryOnRecovery;
+    this.confirmationListener = confirmationListener;
+    this.metricsCollector = environment.metricsCollector();
+    this.latencyMetrics = this.metricsCollector.publishLatencyEnabled();
     this.blockOnMaxUnconfirmed = enqueueTimeout.isZero();
     this.closingCallback = environment.registerProducer(this, name, this.stream);
     final Client.OutboundEntityWriteCallback delegateWriteCallback;
@@ -147,7 +152,7 @@ final class StreamProducer extends ResourceBase implements Producer {
 
     this.maxUnconfirmedMessages = maxUnconfirmedMessages;
     this.unconfirmedMessagesSemaphore = new Semaphore(maxUnconfirmedMessages, true);
-    this.unconfirmedMessages = new ConcurrentHashMap<>(this.maxUnconfirmedMessages, 0.75f, 2);
+    this.unconfirmedMessages = new UnconfirmedMessages(this.maxUnconfirmedMessages);
 
     if (filterValueExtractor == null) {
       this.publishVersion = VERSION_1;
@@ -156,7 +161,7 @@ final class StreamProducer extends ResourceBase implements Producer {
             @Override
             public int write(ByteBuf bb, Object entity, long publishingId) {
               AccumulatedEntity accumulatedEntity = (AccumulatedEntity) entity;
-              unconfirmedMessages.put(publishingId, accumulatedEntity);
+              unconfirmedMessages.put(accumulatedEntity);
               return delegateWriteCallback.write(
                   bb, accumulatedEntity.encodedEntity(), publishingId);
             }
@@ -166,6 +171,11 @@ final class StreamProducer extends ResourceBase implements Producer {
               return delegateWriteCallback.fragmentLength(
                   ((AccumulatedEntity) entity).encodedEntity());
             }
+
+            @Override
+            public boolean zeroCopy() {
+              return delegateWriteCallback.zeroCopy();
+            }
           };
     } else {
       this.publishVersion = VERSION_2;
@@ -174,7 +184,7 @@ final class StreamProducer extends ResourceBase implements Producer {
             @Override
             public int write(ByteBuf bb, Object entity, long publishingId) {
               AccumulatedEntity accumulatedEntity = (AccumulatedEntity) entity;
-              unconfirmedMessages.put(publishingId, accumulatedEntity);
+              unconfirmedMessages.put(accumulatedEntity);
               return delegateWriteCallback.write(bb, accumulatedEntity, publishingId);
             }
 
@@ -182,6 +192,11 @@ final class StreamProducer extends ResourceBase implements Producer {
             public int fragmentLength(Object entity) {
               return delegateWriteCallback.fragmentLength(entity);
             }
+
+            @Override
+            public boolean zeroCopy() {
+              return delegateWriteCallback.zeroCopy();
+            }
           };
     }
 
@@ -189,6 +204,14 @@ final class StreamProducer extends ResourceBase implements Producer {
     if (compression != null) {
       compressionCodec = environment.compressionCodecFactory().get(compression);
     }
+    SubEntryCompressor compressor = SubEntryCompressor.INLINE;
+    if (subEntrySize > 1
+        && compressionParallelism > 1
+        && compression != null
+        && compression != Compression.NONE) {
+      compressor =
+          new SubEntryCompressor(environment.compressionExecutorService(), compressionParallelism);
+    }
     this.accumulator =
         ProducerUtils.createMessageAccumulator(
             dynamicBatch,
@@ -201,11 +224,16 @@ final class StreamProducer extends ResourceBase implements Producer {
             client.maxFrameSize(),
             accumulatorPublishSequenceFunction,
             filterValueExtractor,
-            environment.clock(),
+            this.latencyMetrics ? Clock.SYSTEM : environment.clock(),
             stream,
             environment.observationCollector(),
             this,
-            this.id);
+            this.id,
+            environment.dynamicBatchEngine(),
+            compressor,
+            objectPooling && subEntrySize <= 1
+                ? new ProducerUtils.AccumulatedEntityPool(maxUnconfirmedMessages)
+                : null);
 
     boolean backgroundBatchPublishingTaskRequired =
         !dynamicBatch && batchPublishingDelay.toMillis() > 0;
@@ -257,53 +285,38 @@ final class StreamProducer extends ResourceBase implements Producer {
             }
 
             if (this.state() != CLOSED) {
-              this.confirmTimeoutFuture =
-                  this.environment
-                      .scheduledExecutorService()
-                      .schedule(
-                          namedRunnable(
-                              taskReference.get(),
-                              "Background confirm timeout task for producer %d on stream %s",
-                              this.id,
-                              this.stream),
-                          confirmTimeout.toMillis(),
-                          TimeUnit.MILLISECONDS);
+              this.confirmTimeoutTimeout =
+                  this.environment.timerWheel().schedule(taskReference.get(), confirmTimeout);
             }
           };
-      taskReference.set(wrapperTask);
-      this.confirmTimeoutFuture =
-          this.environment
-              .scheduledExecutorService()
-              .schedule(
-                  namedRunnable(
-                      taskReference.get(),
-                      "Background confirm timeout task for producer %d on stream %s",
-                      this.id,
-                      this.stream),
-                  confirmTimeout.toMillis(),
-                  TimeUnit.MILLISECONDS);
+      // the timer wheel only dispatches the check, confirmation callbacks may block
+      taskReference.set(
+          () ->
+              this.environment
+                  .scheduledExecutorService()
+                  .execute(
+                      namedRunnable(
+                          wrapperTask,
+                          "Background confirm timeout task for producer %d on stream %s",
+                          this.id,
+                          this.stream)));
+      this.confirmTimeoutTimeout =
+          this.environment.timerWheel().schedule(taskReference.get(), confirmTimeout);
     }
     this.state(State.OPEN);
   }
 
   private Runnable confirmTimeoutTask(Duration confirmTimeout) {
+    // expired entities are not recycled, a late confirmation for them may still be looking them up
+    Consumer<AccumulatedEntity> expiredHandler =
+        entity -> {
+          int nackedCount =
+              entity.confirmationCallback().handle(false, Constants.CODE_PUBLISH_CONFIRM_TIMEOUT);
+          this.unconfirmedMessagesSemaphore.release(nackedCount);
+        };
     return () -> {
       long limit = this.environment.clock().time() - confirmTimeout.toNanos();
-      SortedMap<Long, AccumulatedEntity> unconfirmedSnapshot =
-          new TreeMap<>(this.unconfirmedMessages);
-      int count = 0;
-      for (Entry<Long, AccumulatedEntity> unconfirmedEntry : unconfirmedSnapshot.entrySet()) {
-        if (unconfirmedEntry.getValue().time() < limit) {
-          if (Thread.currentThread().isInterrupted()) {
-            return;
-          }
-          error(unconfirmedEntry.getKey(), Constants.CODE_PUBLISH_CONFIRM_TIMEOUT);
-          count++;
-        } else {
-          // everything else is after, we can stop
-          break;
-        }
-      }
+      int count = this.unconfirmedMessages.expire(limit, expiredHandler);
       if (count > 0) {
         LOGGER.debug(
             "{} outbound message(s) had reached the confirm timeout (limit {}) "
@@ -334,14 +347,61 @@ final class StreamProducer extends ResourceBase implements Producer {
     AccumulatedEntity accumulatedEntity = this.unconfirmedMessages.remove(publishingId);
 
     if (accumulatedEntity != null) {
+      if (this.latencyMetrics) {
+        this.metricsCollector.publishConfirmLatency(
+            this.stream, System.nanoTime() - accumulatedEntity.time());
+      }
       int confirmedCount =
           accumulatedEntity.confirmationCallback().handle(true, Constants.RESPONSE_CODE_OK);
+      accumulatedEntity.recycle();
       this.unconfirmedMessagesSemaphore.release(confirmedCount);
     } else {
       this.unconfirmedMessagesSemaphore.release();
     }
   }
 
+  void confirm(long[] publishingIds, int count) {
+    int confirmedCount = 0;
+    // one clock read for all the messages of the frame
+    long now = this.latencyMetrics ? System.nanoTime() : 0;
+    if (this.confirmationListener == null) {
+      for (int i = 0; i < count; i++) {
+        AccumulatedEntity accumulatedEntity = this.unconfirmedMessages.remove(publishingIds[i]);
+        if (accumulatedEntity == null) {
+          confirmedCount++;
+        } else {
+          if (this.latencyMetrics) {
+            this.metricsCollector.publishConfirmLatency(
+                this.stream, now - accumulatedEntity.time());
+          }
+          confirmedCount +=
+              accumulatedEntity.confirmationCallback().handle(true, Constants.RESPONSE_CODE_OK);
+          accumulatedEntity.recycle();
+        }
+      }
+    } else {
+      // no sub-entry batching with the listener, one permit per publishing ID
+      confirmedCount = count;
+      // messages already failed (e.g. timeout) are not passed to the listener
+      int pendingCount = 0;
+      for (int i = 0; i < count; i++) {
+        AccumulatedEntity accumulatedEntity = this.unconfirmedMessages.remove(publishingIds[i]);
+        if (accumulatedEntity != null) {
+          if (this.latencyMetrics) {
+            this.metricsCollector.publishConfirmLatency(
+                this.stream, now - accumulatedEntity.time());
+          }
+          accumulatedEntity.recycle();
+          publishingIds[pendingCount++] = publishingIds[i];
+        }
+      }
+      if (pendingCount > 0) {
+        this.confirmationListener.handle(publishingIds, pendingCount);
+      }
+    }
+    this.unconfirmedMessagesSemaphore.release(confirmedCount);
+  }
+
   // for testing
   int unconfirmedCount() {
     return this.unconfirmedMessages.size();
@@ -351,6 +411,7 @@ final class StreamProducer extends ResourceBase implements Producer {
     AccumulatedEntity accumulatedEntity = unconfirmedMessages.remove(publishingId);
     if (accumulatedEntity != null) {
       int nackedCount = accumulatedEntity.confirmationCallback().handle(false, errorCode);
+      accumulatedEntity.recycle();
       this.unconfirmedMessagesSemaphore.release(nackedCount);
     } else {
       unconfirmedMessagesSemaphore.release();
@@ -361,6 +422,7 @@ final class StreamProducer extends ResourceBase implements Producer {
     for (Object msg : items) {
       AccumulatedEntity entity = (AccumulatedEntity) msg;
       int count = entity.confirmationCallback().handle(false, errorCode);
+      entity.recycle();
       this.unconfirmedMessagesSemaphore.release(count);
     }
   }
@@ -478,15 +540,10 @@ final class StreamProducer extends ResourceBase implements Producer {
 
   void closeAfterStreamDeletion(short code) {
     if (closed.compareAndSet(false, true)) {
-      if (!this.unconfirmedMessages.isEmpty()) {
-        Iterator<Entry<Long, AccumulatedEntity>> iterator =
-            unconfirmedMessages.entrySet().iterator();
-        while (iterator.hasNext()) {
-          AccumulatedEntity entry = iterator.next().getValue();
-          int confirmedCount = entry.confirmationCallback().handle(false, code);
-          this.unconfirmedMessagesSemaphore.release(confirmedCount);
-          iterator.remove();
-        }
+      for (AccumulatedEntity entity : this.unconfirmedMessages.drain()) {
+        int confirmedCount = entity.confirmationCallback().handle(false, code);
+        entity.recycle();
+        this.unconfirmedMessagesSemaphore.release(confirmedCount);
       }
       cancelConfirmTimeoutTask();
       this.environment.removeProducer(this);
@@ -495,12 +552,19 @@ final class StreamProducer extends ResourceBase implements Producer {
   }
 
   private void cancelConfirmTimeoutTask() {
-    if (this.confirmTimeoutFuture != null) {
-      this.confirmTimeoutFuture.cancel(true);
+    if (this.confirmTimeoutTimeout != null) {
+      this.confirmTimeoutTimeout.cancel();
     }
   }
 
   void publishInternal(List<Object> messages) {
+    if (this.latencyMetrics) {
+      long now = System.nanoTime();
+      for (Object message : messages) {
+        this.metricsCollector.publishQueueingTime(
+            this.stream, now - ((AccumulatedEntity) message).time());
+      }
+    }
     client.publishInternal(
         this.publishVersion,
         this.publisherId,
@@ -528,17 +592,13 @@ final class StreamProducer extends ResourceBase implements Producer {
             LOGGER.debug(
                 "Re-publishing {} unconfirmed message(s)", this.unconfirmedMessages.size());
             if (!this.unconfirmedMessages.isEmpty()) {
-              Map<Long, AccumulatedEntity> messagesToResend =
-                  new TreeMap<>(this.unconfirmedMessages);
-              this.unconfirmedMessages.clear();
-              Iterator<Entry<Long, AccumulatedEntity>> resendIterator =
-                  messagesToResend.entrySet().iterator();
+              List<AccumulatedEntity> messagesToResend = this.unconfirmedMessages.drain();
+              Iterator<AccumulatedEntity> resendIterator = messagesToResend.iterator();
               while (resendIterator.hasNext()) {
                 List<Object> messages = new ArrayList<>(this.batchSize);
                 int batchCount = 0;
                 while (batchCount != this.batchSize) {
-                  Object accMessage =
-                      resendIterator.hasNext() ? resendIterator.next().getValue() : null;
+                  Object accMessage = resendIterator.hasNext() ? resendIterator.next() : null;
                   if (accMessage == null) {
                     break;
                   }
@@ -557,14 +617,14 @@ final class StreamProducer extends ResourceBase implements Producer {
             LOGGER.debug(
                 "Skipping republishing of {} unconfirmed messages",
                 this.unconfirmedMessages.size());
-            Map<Long, AccumulatedEntity> messagesToFail = new TreeMap<>(this.unconfirmedMessages);
-            this.unconfirmedMessages.clear();
-            for (AccumulatedEntity accumulatedEntity : messagesToFail.values()) {
+            List<AccumulatedEntity> messagesToFail = this.unconfirmedMessages.drain();
+            for (AccumulatedEntity accumulatedEntity : messagesToFail) {
               try {
                 int permits =
                     accumulatedEntity
                         .confirmationCallback()
                         .handle(false, CODE_PUBLISH_CONFIRM_TIMEOUT);
+                accumulatedEntity.recycle();
                 this.unconfirmedMessagesSemaphore.release(permits);
               } catch (Exception e) {
                 LOGGER.debug("Error while nack-ing outbound message: {}", e.getMessage());
@@ -14,6 +14,7 @@
 // info@rabbitmq.com.
 package com.rabbitmq.stream.impl;
 
+import com.rabbitmq.stream.ConfirmationListener;
 import com.rabbitmq.stream.Message;
 import com.rabbitmq.stream.Producer;
 import com.rabbitmq.stream.ProducerBuilder;
@@ -41,6 +42,8 @@ class StreamProducerBuilder implements ProducerBuilder {
 
   private Compression compression;
 
+  private int compressionParallelism = 1;
+
   private int batchSize = 100;
 
   private Duration batchPublishingDelay = Duration.ofMillis(100);
@@ -59,6 +62,10 @@ class StreamProducerBuilder implements ProducerBuilder {
 
   private boolean dynamicBatch = true;
 
+  private ConfirmationListener confirmationListener;
+
+  private boolean objectPooling = false;
+
   private final List<Resource.StateListener> listeners = new ArrayList<>();
 
   StreamProducerBuilder(StreamEnvironment environment) {
@@ -105,6 +112,15 @@ class StreamProducerBuilder implements ProducerBuilder {
     return this;
   }
 
+  @Override
+  public ProducerBuilder compressionParallelism(int compressionParallelism) {
+    if (compressionParallelism <= 0) {
+      throw new IllegalArgumentException("the compression parallelism must be greater than 0");
+    }
+    this.compressionParallelism = compressionParallelism;
+    return this;
+  }
+
   @Override
   public StreamProducerBuilder batchPublishingDelay(Duration batchPublishingDelay) {
     this.batchPublishingDelay = batchPublishingDelay;
@@ -155,6 +171,18 @@ class StreamProducerBuilder implements ProducerBuilder {
     return this;
   }
 
+  @Override
+  public ProducerBuilder confirmationListener(ConfirmationListener confirmationListener) {
+    this.confirmationListener = confirmationListener;
+    return this;
+  }
+
+  @Override
+  public ProducerBuilder objectPooling(boolean objectPooling) {
+    this.objectPooling = objectPooling;
+    return this;
+  }
+
   @Override
   public ProducerBuilder filterValue(Function<Message, String> filterValueExtractor) {
     this.filterValueExtractor = filterValueExtractor;
@@ -196,6 +224,14 @@ class StreamProducerBuilder implements ProducerBuilder {
     if (subEntrySize > 1 && filterValueExtractor != null) {
       throw new IllegalArgumentException("Filtering is not supported with sub-entry batching");
     }
+    if (subEntrySize > 1 && confirmationListener != null) {
+      throw new IllegalArgumentException(
+          "A confirmation listener is not supported with sub-entry batching");
+    }
+    if (superStream != null && confirmationListener != null) {
+      throw new IllegalArgumentException(
+          "A confirmation listener is not supported with super streams");
+    }
     if (subEntrySize > 1 && compression == null) {
       compression = Compression.NONE;
     }
@@ -232,6 +268,9 @@ class StreamProducerBuilder implements ProducerBuilder {
               enqueueTimeout,
               retryOnRecovery,
               filterValueExtractor,
+              confirmationListener,
+              compressionParallelism,
+              objectPooling,
               listeners,
               environment);
       this.environment.addProducer((StreamProducer) producer);
@@ -244,12 +283,19 @@ class StreamProducerBuilder implements ProducerBuilder {
         } else {
           routingStrategy =
               new HashRoutingStrategy(
-                  this.routingConfiguration.routingKeyExtractor, this.routingConfiguration.hash);
+                  this.routingConfiguration.routingKeyExtractor,
+                  this.routingConfiguration.hash,
+                  this.routingConfiguration.hashCacheSize);
         }
       }
       producer =
           new SuperStreamProducer(
-              this, this.name, this.superStream, routingStrategy, this.environment);
+              this,
+              this.name,
+              this.superStream,
+              routingStrategy,
+              this.routingConfiguration.partitionRefreshInterval,
+              this.environment);
     }
     return producer;
   }
@@ -279,6 +325,10 @@ class StreamProducerBuilder implements ProducerBuilder {
 
     private ToIntFunction<String> hash = HashUtils.MURMUR3;
 
+    private Duration partitionRefreshInterval = Duration.ZERO;
+
+    private int hashCacheSize = 0;
+
     DefaultRoutingConfiguration(StreamProducerBuilder producerBuilder) {
       this.producerBuilder = producerBuilder;
     }
@@ -312,6 +362,24 @@ class StreamProducerBuilder implements ProducerBuilder {
       return this;
     }
 
+    @Override
+    public RoutingConfiguration partitionRefreshInterval(Duration interval) {
+      if (interval == null || interval.isNegative()) {
+        throw new IllegalArgumentException("the partition refresh interval cannot be negative");
+      }
+      this.partitionRefreshInterval = interval;
+      return this;
+    }
+
+    @Override
+    public RoutingConfiguration hashCacheSize(int hashCacheSize) {
+      if (hashCacheSize < 0) {
+        throw new IllegalArgumentException("the hash cache size cannot be negative");
+      }
+      this.hashCacheSize = hashCacheSize;
+      return this;
+    }
+
     @Override
     public ProducerBuilder producerBuilder() {
       return this.producerBuilder;
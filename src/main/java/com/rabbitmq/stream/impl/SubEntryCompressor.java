@@ -0,0 +1,98 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import com.rabbitmq.stream.StreamException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Closes (compresses) sub-entry batches before they are published.
+ *
+ * <p>With a parallelism greater than 1, batches are compressed concurrently by the calling thread
+ * and by tasks submitted to the executor. The calling thread waits for all the batches to be
+ * compressed, so the batches are still published in the order of the list (publishing ID order).
+ */
+final class SubEntryCompressor {
+
+  static final SubEntryCompressor INLINE = new SubEntryCompressor(null, 1);
+
+  private final Executor executor;
+  private final int parallelism;
+
+  SubEntryCompressor(Executor executor, int parallelism) {
+    this.executor = executor;
+    this.parallelism = executor == null ? 1 : parallelism;
+  }
+
+  /**
+   * Compress the batches.
+   *
+   * @param batches the {@link ProducerUtils.Batch} instances to compress
+   * @throws StreamException if the compression of a batch fails
+   */
+  void compress(List<?> batches) {
+    int batchCount = batches.size();
+    int taskCount = Math.min(this.parallelism, batchCount) - 1;
+    if (taskCount <= 0) {
+      for (int i = 0; i < batchCount; i++) {
+        ((ProducerUtils.Batch) batches.get(i)).encodedMessageBatch.close();
+      }
+      return;
+    }
+    AtomicInteger index = new AtomicInteger(0);
+    CountDownLatch compressedLatch = new CountDownLatch(batchCount);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Runnable worker =
+        () -> {
+          int i;
+          while ((i = index.getAndIncrement()) < batchCount) {
+            try {
+              ((ProducerUtils.Batch) batches.get(i)).encodedMessageBatch.close();
+            } catch (Throwable e) {
+              error.compareAndSet(null, e);
+            } finally {
+              compressedLatch.countDown();
+            }
+          }
+        };
+    for (int i = 0; i < taskCount; i++) {
+      try {
+        this.executor.execute(worker);
+      } catch (RejectedExecutionException e) {
+        // the calling thread compresses the remaining batches
+        break;
+      }
+    }
+    worker.run();
+    try {
+      // tasks that start after all the batches are compressed just return
+      compressedLatch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StreamException("Interrupted while waiting for sub-entry batch compression", e);
+    }
+    Throwable e = error.get();
+    if (e instanceof StreamException) {
+      throw (StreamException) e;
+    } else if (e != null) {
+      throw new StreamException("Error while compressing sub-entry batch", e);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import com.rabbitmq.stream.ObservationCollector;
 import com.rabbitmq.stream.compression.Compression;
 import com.rabbitmq.stream.compression.CompressionCodec;
 import io.netty.buffer.ByteBufAllocator;
+import java.util.List;
 import java.util.function.ToLongFunction;
 
 final class SubEntryMessageAccumulator extends SimpleMessageAccumulator {
@@ -29,6 +30,7 @@ final class SubEntryMessageAccumulator extends SimpleMessageAccumulator {
   private final CompressionCodec compressionCodec;
   private final ByteBufAllocator byteBufAllocator;
   private final byte compressionCode;
+  private final SubEntryCompressor compressor;
 
   public SubEntryMessageAccumulator(
       int subEntrySize,
@@ -41,7 +43,8 @@ final class SubEntryMessageAccumulator extends SimpleMessageAccumulator {
       Clock clock,
       String stream,
       ObservationCollector<?> observationCollector,
-      StreamProducer producer) {
+      StreamProducer producer,
+      SubEntryCompressor compressor) {
     super(
         subEntrySize * batchSize,
         codec,
@@ -51,12 +54,14 @@ final class SubEntryMessageAccumulator extends SimpleMessageAccumulator {
         clock,
         stream,
         observationCollector,
-        producer);
+        producer,
+        null);
     this.subEntrySize = subEntrySize;
     this.compressionCodec = compressionCodec;
     this.compressionCode =
         compressionCodec == null ? Compression.NONE.code() : compressionCodec.code();
     this.byteBufAllocator = byteBufAllocator;
+    this.compressor = compressor;
   }
 
   private ProducerUtils.Batch createBatch() {
@@ -88,8 +93,12 @@ final class SubEntryMessageAccumulator extends SimpleMessageAccumulator {
     } else {
       batch.time = lastMessageInBatch.time();
       batch.publishingId = lastMessageInBatch.publishingId();
-      batch.encodedMessageBatch.close();
       return batch;
     }
   }
+
+  @Override
+  void beforePublish(List<Object> entities) {
+    this.compressor.compress(entities);
+  }
 }
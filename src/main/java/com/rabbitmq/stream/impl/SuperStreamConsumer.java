@@ -61,7 +61,10 @@ class SuperStreamConsumer implements Consumer {
     for (String partition : partitions) {
       ConsumerState state = partitionToStates.get(partition);
       MessageHandler messageHandler;
-      if (trackingConfiguration.enabled() && trackingConfiguration.manual()) {
+      if (builder.messageBatchHandler() != null) {
+        // each partition consumer gets its own batch
+        messageHandler = null;
+      } else if (trackingConfiguration.enabled() && trackingConfiguration.manual()) {
         messageHandler =
             new ManualOffsetTrackingMessageHandler(builder.messageHandler(), states, state);
       } else {
@@ -25,11 +25,14 @@ import com.rabbitmq.stream.MessageBuilder;
 import com.rabbitmq.stream.Producer;
 import com.rabbitmq.stream.RoutingStrategy;
 import com.rabbitmq.stream.RoutingStrategy.Metadata;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,7 +48,7 @@ class SuperStreamProducer implements Producer {
   private final StreamProducerBuilder producerBuilder;
   private final StreamEnvironment environment;
   private final String name;
-  private final Metadata superStreamMetadata;
+  private final DefaultSuperStreamMetadata superStreamMetadata;
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
   /**
@@ -60,13 +63,16 @@ class SuperStreamProducer implements Producer {
       String name,
       String superStream,
       RoutingStrategy routingStrategy,
+      Duration partitionRefreshInterval,
       StreamEnvironment streamEnvironment) {
     this.routingStrategy = routingStrategy;
     this.codec = streamEnvironment.codec();
     this.name = name;
     this.superStream = superStream;
     this.environment = streamEnvironment;
-    this.superStreamMetadata = new DefaultSuperStreamMetadata(this.superStream, this.environment);
+    this.superStreamMetadata =
+        new DefaultSuperStreamMetadata(
+            this.superStream, this.environment, partitionRefreshInterval);
     this.producerBuilder = producerBuilder.duplicate();
     this.producerBuilder.stream(null);
     this.producerBuilder.resetRouting();
@@ -90,17 +96,27 @@ class SuperStreamProducer implements Producer {
                   c -> c.partitions(superStream),
                   "Partition lookup for super stream '%s'",
                   this.superStream));
+      // queries for all the partitions are sent at once, to have only one round trip
+      List<Long> publishingIds =
+          this.environment.locatorOperation(
+              namedFunction(
+                  c -> {
+                    List<CompletableFuture<Long>> requests = new ArrayList<>(streams.size());
+                    for (String partition : streams) {
+                      requests.add(c.queryPublisherSequenceAsync(this.name, partition));
+                    }
+                    List<Long> result = new ArrayList<>(requests.size());
+                    for (CompletableFuture<Long> request : requests) {
+                      result.add(Utils.getRpcResult(request));
+                    }
+                    return result;
+                  },
+                  "Publisher sequence query on partitions of super stream '%s', publisher name '%s'",
+                  this.superStream,
+                  this.name));
       long publishingId = 0;
       boolean first = true;
-      for (String partition : streams) {
-        long pubId =
-            this.environment.locatorOperation(
-                namedFunction(
-                    c -> c.queryPublisherSequence(this.name, partition),
-                    "Publisher sequence query for on partition '%s' of super stream '%s', publisher name '%s'",
-                    partition,
-                    this.superStream,
-                    this.name));
+      for (long pubId : publishingIds) {
         if (first) {
           publishingId = pubId;
           first = false;
@@ -152,6 +168,7 @@ class SuperStreamProducer implements Producer {
   @Override
   public void close() {
     if (this.closed.compareAndSet(false, true)) {
+      this.superStreamMetadata.close();
       for (Entry<String, Producer> entry : producers.entrySet()) {
         try {
           entry.getValue().close();
@@ -170,22 +187,81 @@ class SuperStreamProducer implements Producer {
 
     private final String superStream;
     private final StreamEnvironment environment;
-    private final List<String> partitions;
+    private final Duration refreshInterval;
     private final Map<String, List<String>> routes = new ConcurrentHashMap<>();
+    // immutable, replaced when the partitions change
+    private volatile List<String> partitions;
+    private volatile TimerWheel.Timeout refreshTimeout;
+    private volatile boolean closed = false;
 
-    private DefaultSuperStreamMetadata(String superStream, StreamEnvironment environment) {
+    private DefaultSuperStreamMetadata(
+        String superStream, StreamEnvironment environment, Duration refreshInterval) {
       this.superStream = superStream;
       this.environment = environment;
-      List<String> ps =
-          environment.locatorOperation(
-              namedFunction(
-                  c -> c.partitions(superStream),
-                  "Partition lookup for super stream '%s'",
-                  superStream));
+      this.refreshInterval = refreshInterval;
+      List<String> ps = this.lookupPartitions();
       if (ps.isEmpty()) {
         throw new IllegalArgumentException("Super stream '" + superStream + "' has no partition");
       }
-      this.partitions = new CopyOnWriteArrayList<>(ps);
+      this.partitions = Collections.unmodifiableList(new ArrayList<>(ps));
+      this.scheduleRefresh();
+    }
+
+    private List<String> lookupPartitions() {
+      return environment.locatorOperation(
+          namedFunction(
+              c -> c.partitions(superStream),
+              "Partition lookup for super stream '%s'",
+              superStream));
+    }
+
+    private void scheduleRefresh() {
+      if (!this.refreshInterval.isZero() && !this.closed) {
+        // the lookup is a blocking call, the timer wheel only dispatches it
+        this.refreshTimeout =
+            this.environment
+                .timerWheel()
+                .schedule(
+                    () ->
+                        this.environment.execute(
+                            this::refresh,
+                            "Partition refresh for super stream '%s'",
+                            this.superStream),
+                    this.refreshInterval);
+      }
+    }
+
+    private void refresh() {
+      if (this.closed) {
+        return;
+      }
+      try {
+        List<String> ps = this.lookupPartitions();
+        if (!ps.isEmpty() && !ps.equals(this.partitions)) {
+          LOGGER.debug(
+              "Partitions of super stream '{}' changed from {} to {}",
+              this.superStream,
+              this.partitions,
+              ps);
+          this.partitions = Collections.unmodifiableList(new ArrayList<>(ps));
+          // bindings may have changed as well
+          this.routes.clear();
+        }
+      } catch (Exception e) {
+        LOGGER.debug(
+            "Error while refreshing partitions of super stream '{}': {}",
+            this.superStream,
+            e.getMessage());
+      }
+      this.scheduleRefresh();
+    }
+
+    private void close() {
+      this.closed = true;
+      TimerWheel.Timeout timeout = this.refreshTimeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
     }
 
     @Override
@@ -0,0 +1,228 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static com.rabbitmq.stream.impl.Utils.namedRunnable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timer wheel to run tasks after a delay.
+ *
+ * <p>Deadlines are rounded up to the next tick and tasks go to the bucket of their deadline. A tick
+ * visits only the tasks of its bucket, so its cost does not depend on the total number of scheduled
+ * tasks. Tasks with a deadline more than a revolution away stay in their bucket for several
+ * revolutions.
+ *
+ * <p>Tasks run in the thread that advances the wheel: they must be short and should dispatch any
+ * blocking work.
+ */
+final class TimerWheel implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimerWheel.class);
+
+  private final long tickDurationInNs;
+  private final Timeout[] buckets;
+  private final int mask;
+  private final long startTime;
+  private final Lock lock = new ReentrantLock();
+  private final List<Runnable> tickListeners = new CopyOnWriteArrayList<>();
+  // last processed tick, guarded by the lock
+  private long tick = 0;
+  private volatile Future<?> tickFuture;
+
+  TimerWheel(Duration tickDuration, int wheelSize) {
+    this(tickDuration, wheelSize, System.nanoTime());
+  }
+
+  TimerWheel(Duration tickDuration, int wheelSize, long startTime) {
+    if (tickDuration.toNanos() <= 0) {
+      throw new IllegalArgumentException("The tick duration must be positive");
+    }
+    if (wheelSize <= 0) {
+      throw new IllegalArgumentException("The wheel size must be positive");
+    }
+    this.tickDurationInNs = tickDuration.toNanos();
+    int size = Integer.highestOneBit(wheelSize);
+    size = size == wheelSize ? size : size << 1;
+    this.buckets = new Timeout[size];
+    this.mask = size - 1;
+    this.startTime = startTime;
+  }
+
+  /**
+   * Advance the wheel periodically with the passed-in executor.
+   *
+   * @param executorService the executor to schedule ticks with
+   */
+  void start(ScheduledExecutorService executorService) {
+    long tickDurationInMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(this.tickDurationInNs));
+    this.tickFuture =
+        executorService.scheduleAtFixedRate(
+            namedRunnable(() -> this.advance(System.nanoTime()), "Timer wheel tick"),
+            tickDurationInMs,
+            tickDurationInMs,
+            TimeUnit.MILLISECONDS);
+  }
+
+  Timeout schedule(Runnable task, Duration delay) {
+    return this.schedule(task, delay.toNanos(), System.nanoTime());
+  }
+
+  Timeout schedule(Runnable task, long delayInNs, long now) {
+    long elapsed = Math.max(0, now - this.startTime) + Math.max(0, delayInNs);
+    // rounding up, a task never runs before its deadline
+    long deadlineTick = (elapsed + this.tickDurationInNs - 1) / this.tickDurationInNs;
+    Timeout timeout = new Timeout(task);
+    this.lock.lock();
+    try {
+      // a deadline in the past goes to the next tick
+      timeout.deadlineTick = Math.max(deadlineTick, this.tick + 1);
+      int index = (int) (timeout.deadlineTick & this.mask);
+      Timeout head = this.buckets[index];
+      timeout.next = head;
+      if (head != null) {
+        head.previous = timeout;
+      }
+      this.buckets[index] = timeout;
+      timeout.scheduled = true;
+    } finally {
+      this.lock.unlock();
+    }
+    return timeout;
+  }
+
+  /**
+   * Run listeners after each tick, e.g. to complete work the tasks of the tick started.
+   *
+   * @param listener the listener
+   */
+  void addTickListener(Runnable listener) {
+    this.tickListeners.add(listener);
+  }
+
+  void advance(long now) {
+    long targetTick = Math.max(0, now - this.startTime) / this.tickDurationInNs;
+    List<Timeout> due = null;
+    this.lock.lock();
+    try {
+      while (this.tick < targetTick) {
+        this.tick++;
+        Timeout timeout = this.buckets[(int) (this.tick & this.mask)];
+        while (timeout != null) {
+          Timeout next = timeout.next;
+          if (timeout.deadlineTick <= this.tick) {
+            this.remove(timeout);
+            if (due == null) {
+              due = new ArrayList<>();
+            }
+            due.add(timeout);
+          }
+          timeout = next;
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    if (due != null) {
+      for (Timeout timeout : due) {
+        try {
+          timeout.task.run();
+        } catch (Exception e) {
+          LOGGER.info("Error while running timer wheel task: {}", e.getMessage());
+        }
+      }
+    }
+    for (Runnable listener : this.tickListeners) {
+      try {
+        listener.run();
+      } catch (Exception e) {
+        LOGGER.info("Error while running timer wheel tick listener: {}", e.getMessage());
+      }
+    }
+  }
+
+  // must be called with the lock
+  private void remove(Timeout timeout) {
+    if (timeout.previous == null) {
+      this.buckets[(int) (timeout.deadlineTick & this.mask)] = timeout.next;
+    } else {
+      timeout.previous.next = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.previous = timeout.previous;
+    }
+    timeout.previous = null;
+    timeout.next = null;
+    timeout.scheduled = false;
+  }
+
+  int size() {
+    this.lock.lock();
+    try {
+      int size = 0;
+      for (Timeout head : this.buckets) {
+        for (Timeout timeout = head; timeout != null; timeout = timeout.next) {
+          size++;
+        }
+      }
+      return size;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (this.tickFuture != null) {
+      this.tickFuture.cancel(false);
+    }
+  }
+
+  final class Timeout {
+
+    private final Runnable task;
+    // guarded by the lock of the wheel
+    private long deadlineTick;
+    private Timeout previous, next;
+    private boolean scheduled;
+
+    private Timeout(Runnable task) {
+      this.task = task;
+    }
+
+    /** Cancel the task if it has not run yet. */
+    void cancel() {
+      lock.lock();
+      try {
+        if (this.scheduled) {
+          remove(this);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,224 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import com.rabbitmq.stream.impl.ProducerUtils.AccumulatedEntity;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Pending outbound entities of a producer, indexed by publishing ID.
+ *
+ * <p>Publishing IDs are monotonic for a given producer, so entities are stored in a preallocated
+ * ring, in the slot at <code>publishingId % capacity</code>. Storing and removing an entity does
+ * not allocate. An entity that cannot get its slot (e.g. a user-provided publishing ID collides
+ * with an older pending one) goes to an overflow map.
+ *
+ * <p>Expiration walks publishing IDs in order from a cursor and stops at the first entity still
+ * within the limit, so each run visits only the entities published since the previous run, plus the
+ * ones that expire. An entity stored behind the cursor moves it back.
+ */
+final class UnconfirmedMessages {
+
+  static final int MAX_CAPACITY = 1 << 20;
+
+  private static final Comparator<AccumulatedEntity> PUBLISHING_ID_COMPARATOR =
+      Comparator.comparingLong(AccumulatedEntity::publishingId);
+
+  private final AtomicReferenceArray<AccumulatedEntity> slots;
+  private final int mask;
+  // CHM allocates its table lazily, so no overhead if there is no collision
+  private final ConcurrentMap<Long, AccumulatedEntity> overflow = new ConcurrentHashMap<>();
+  // maintained on each operation, scanning the ring to count is too expensive
+  private final AtomicInteger size = new AtomicInteger(0);
+  private final AtomicLong highestPublishingId = new AtomicLong(-1);
+  private final AtomicLong rewind = new AtomicLong(Long.MAX_VALUE);
+  // next publishing ID to check for expiration, moved forward only by the expiration task
+  private volatile long cursor = 0;
+
+  UnconfirmedMessages(int maxUnconfirmedMessages) {
+    int capacity = capacity(maxUnconfirmedMessages);
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+  }
+
+  static int capacity(int maxUnconfirmedMessages) {
+    if (maxUnconfirmedMessages >= MAX_CAPACITY) {
+      return MAX_CAPACITY;
+    } else if (maxUnconfirmedMessages <= 1) {
+      return 1;
+    } else {
+      return Integer.highestOneBit(maxUnconfirmedMessages - 1) << 1;
+    }
+  }
+
+  void put(AccumulatedEntity entity) {
+    long publishingId = entity.publishingId();
+    // incremented first, a concurrent removal must not make the size negative
+    this.size.incrementAndGet();
+    if (!this.slots.compareAndSet(slot(publishingId), null, entity)
+        && this.overflow.put(publishingId, entity) != null) {
+      // replaced an entity with the same publishing ID
+      this.size.decrementAndGet();
+    }
+    if (publishingId > this.highestPublishingId.get()) {
+      this.highestPublishingId.accumulateAndGet(publishingId, Math::max);
+    }
+    // the entity is visible before we read the cursor, the expiration task moves the cursor
+    // before checking a slot, so at least one of us sees the other
+    if (publishingId < this.cursor) {
+      this.rewind.accumulateAndGet(publishingId, Math::min);
+    }
+  }
+
+  /**
+   * Remove the entities accumulated before the limit, in publishing ID order.
+   *
+   * <p>Stops at the first entity accumulated after the limit. Must be called from one thread at a
+   * time.
+   *
+   * @param limit the accumulation time limit
+   * @param expiredHandler callback for each removed entity
+   * @return the number of removed entities
+   */
+  int expire(long limit, Consumer<AccumulatedEntity> expiredHandler) {
+    long publishingId = Math.min(this.cursor, this.rewind.getAndSet(Long.MAX_VALUE));
+    long highest = this.highestPublishingId.get();
+    int misses = 0;
+    int count = 0;
+    while (publishingId <= highest) {
+      AccumulatedEntity entity = get(publishingId);
+      if (entity == null) {
+        this.cursor = publishingId + 1;
+        entity = get(publishingId);
+      }
+      if (entity == null) {
+        publishingId++;
+        if (++misses > this.slots.length()) {
+          // gap in publishing IDs, jumping to the next pending entity
+          this.cursor = highest + 1;
+          publishingId = lowestPublishingId(publishingId);
+          misses = 0;
+        }
+      } else if (entity.time() < limit) {
+        if (Thread.currentThread().isInterrupted()) {
+          break;
+        }
+        entity = remove(publishingId);
+        if (entity != null) {
+          expiredHandler.accept(entity);
+          count++;
+        }
+        misses = 0;
+      } else {
+        // everything else is after, we can stop
+        break;
+      }
+    }
+    this.cursor = Math.min(publishingId, highest + 1);
+    return count;
+  }
+
+  private AccumulatedEntity get(long publishingId) {
+    AccumulatedEntity entity = this.slots.get(slot(publishingId));
+    if (entity != null && entity.publishingId() == publishingId) {
+      return entity;
+    }
+    return this.overflow.isEmpty() ? null : this.overflow.get(publishingId);
+  }
+
+  private long lowestPublishingId(long from) {
+    long lowest = Long.MAX_VALUE;
+    for (int i = 0; i < this.slots.length(); i++) {
+      AccumulatedEntity entity = this.slots.get(i);
+      if (entity != null && entity.publishingId() >= from && entity.publishingId() < lowest) {
+        lowest = entity.publishingId();
+      }
+    }
+    for (Long publishingId : this.overflow.keySet()) {
+      if (publishingId >= from && publishingId < lowest) {
+        lowest = publishingId;
+      }
+    }
+    return lowest;
+  }
+
+  AccumulatedEntity remove(long publishingId) {
+    int slot = slot(publishingId);
+    AccumulatedEntity entity = this.slots.get(slot);
+    if (entity != null
+        && entity.publishingId() == publishingId
+        && this.slots.compareAndSet(slot, entity, null)) {
+      this.size.decrementAndGet();
+      return entity;
+    }
+    entity = this.overflow.isEmpty() ? null : this.overflow.remove(publishingId);
+    if (entity != null) {
+      this.size.decrementAndGet();
+    }
+    return entity;
+  }
+
+  /**
+   * Remove all the pending entities.
+   *
+   * @return the removed entities, ordered by publishing ID
+   */
+  List<AccumulatedEntity> drain() {
+    List<AccumulatedEntity> entities = new ArrayList<>();
+    for (int i = 0; i < this.slots.length(); i++) {
+      AccumulatedEntity entity = this.slots.getAndSet(i, null);
+      if (entity != null) {
+        this.size.decrementAndGet();
+        entities.add(entity);
+      }
+    }
+    for (Long publishingId : this.overflow.keySet()) {
+      AccumulatedEntity entity = this.overflow.remove(publishingId);
+      if (entity != null) {
+        this.size.decrementAndGet();
+        entities.add(entity);
+      }
+    }
+    entities.sort(PUBLISHING_ID_COMPARATOR);
+    return entities;
+  }
+
+  /**
+   * Number of pending entities.
+   *
+   * <p>The value can be temporarily off by the operations in progress in other threads.
+   *
+   * @return number of pending entities
+   */
+  int size() {
+    return this.size.get();
+  }
+
+  boolean isEmpty() {
+    return this.size.get() == 0;
+  }
+
+  private int slot(long publishingId) {
+    return (int) (publishingId & this.mask);
+  }
+}
@@ -49,8 +49,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -775,6 +777,27 @@ final class Utils {
     }
   }
 
+  /**
+   * Wait for the result of an asynchronous RPC.
+   *
+   * <p>Asynchronous RPCs always complete (at worst with a timeout error), so there is no need for a
+   * timeout here. The cause of the failure is re-thrown as-is if it is a runtime exception.
+   */
+  static <T> T getRpcResult(CompletableFuture<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StreamException("Interrupted while waiting for response");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else {
+        throw new StreamException(e.getCause());
+      }
+    }
+  }
+
   static class BrokerWrapper {
 
     private final Client.Broker broker;
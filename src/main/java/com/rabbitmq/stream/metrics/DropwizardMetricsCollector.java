@@ -18,6 +18,10 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class DropwizardMetricsCollector implements MetricsCollector {
 
@@ -34,6 +38,12 @@ public class DropwizardMetricsCollector implements MetricsCollector {
   private final Counter outstandingPublishConfirm;
   private final Histogram chunkSize;
 
+  private final MetricRegistry registry;
+  private final String metricsPrefix;
+  private final Map<String, Timer> publishConfirmLatencies = new ConcurrentHashMap<>();
+  private final Map<String, Timer> publishQueueingTimes = new ConcurrentHashMap<>();
+  private volatile boolean publishLatency = false;
+
   public DropwizardMetricsCollector(MetricRegistry registry, String metricsPrefix) {
     this.connections = registry.counter(metricsPrefix + ".connections");
     this.publish = registry.meter(metricsPrefix + ".published");
@@ -46,6 +56,8 @@ public class DropwizardMetricsCollector implements MetricsCollector {
     this.readBytes = registry.meter(metricsPrefix + ".read_bytes");
     this.outstandingPublishConfirm =
         registry.counter(metricsPrefix + ".outstanding_publish_confirm");
+    this.registry = registry;
+    this.metricsPrefix = metricsPrefix;
   }
 
   public DropwizardMetricsCollector() {
@@ -56,6 +68,24 @@ public class DropwizardMetricsCollector implements MetricsCollector {
     this(metricRegistry, "rabbitmq.stream");
   }
 
+  /**
+   * Enable the publish-confirm latency and publish queueing time metrics.
+   *
+   * <p>Producers then read the system clock for each message they send, which has a cost at high
+   * publishing rates. The setting applies to the producers created afterwards.
+   *
+   * <p>Default is <code>false</code>.
+   *
+   * @param publishLatency whether to record publish latencies
+   * @return this metrics collector
+   * @see MetricsCollector#publishLatencyEnabled()
+   * @since 1.10.0
+   */
+  public DropwizardMetricsCollector publishLatency(boolean publishLatency) {
+    this.publishLatency = publishLatency;
+    return this;
+  }
+
   @Override
   public void openConnection() {
     this.connections.inc();
@@ -104,4 +134,30 @@ public class DropwizardMetricsCollector implements MetricsCollector {
   public void readBytes(int readBytes) {
     this.readBytes.mark(readBytes);
   }
+
+  @Override
+  public boolean publishLatencyEnabled() {
+    return this.publishLatency;
+  }
+
+  @Override
+  public void publishConfirmLatency(String stream, long latencyInNanos) {
+    timer(this.publishConfirmLatencies, ".publish_confirm_latency.", stream)
+        .update(latencyInNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void publishQueueingTime(String stream, long queueingTimeInNanos) {
+    timer(this.publishQueueingTimes, ".publish_queueing_time.", stream)
+        .update(queueingTimeInNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private Timer timer(Map<String, Timer> timers, String name, String stream) {
+    Timer timer = timers.get(stream);
+    if (timer == null) {
+      timer =
+          timers.computeIfAbsent(stream, s -> this.registry.timer(this.metricsPrefix + name + s));
+    }
+    return timer;
+  }
 }
@@ -33,4 +33,49 @@ public interface MetricsCollector {
   void writtenBytes(int writtenBytes);
 
   void readBytes(int readBytes);
+
+  /**
+   * Whether the collector records publish latencies.
+   *
+   * <p>Producers read the system clock for each sent message to compute latencies, so they do it
+   * only if this method returns <code>true</code>. It is called once, when a producer is created.
+   *
+   * <p>Default is <code>false</code>.
+   *
+   * @return true to record publish latencies
+   * @see #publishConfirmLatency(String, long)
+   * @see #publishQueueingTime(String, long)
+   * @since 1.10.0
+   */
+  default boolean publishLatencyEnabled() {
+    return false;
+  }
+
+  /**
+   * Record the time between the sending of a message and its confirmation.
+   *
+   * <p>The time is recorded for each confirmed entity. With sub-entry batching, this is a
+   * batch-level metric: it is recorded once per sub-entry batch, from the time the last message of
+   * the batch was sent. The method is called in the thread that dispatches confirmations,
+   * implementations must be fast.
+   *
+   * @param stream the stream the message was published to
+   * @param latencyInNanos the publish-confirm latency in nanoseconds
+   * @since 1.10.0
+   */
+  default void publishConfirmLatency(String stream, long latencyInNanos) {}
+
+  /**
+   * Record the time a message spent in the producer accumulator before being written to the
+   * network.
+   *
+   * <p>The time is recorded for each written entity. With sub-entry batching, this is a batch-level
+   * metric: it is recorded once per sub-entry batch, from the time the last message of the batch
+   * was sent, so it is lower than the queueing time of the other messages of the batch.
+   *
+   * @param stream the stream the message is published to
+   * @param queueingTimeInNanos the queueing time in nanoseconds
+   * @since 1.10.0
+   */
+  default void publishQueueingTime(String stream, long queueingTimeInNanos) {}
 }
@@ -19,7 +19,12 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class MicrometerMetricsCollector implements MetricsCollector {
@@ -36,6 +41,13 @@ public class MicrometerMetricsCollector implements MetricsCollector {
   private final AtomicLong outstandingPublishConfirm;
   protected final DistributionSummary chunkSize;
 
+  private final MeterRegistry registry;
+  private final String prefix;
+  private final Iterable<Tag> tags;
+  private final Map<String, Timer> publishConfirmLatencies = new ConcurrentHashMap<>();
+  private final Map<String, Timer> publishQueueingTimes = new ConcurrentHashMap<>();
+  private volatile boolean publishLatency = false;
+
   public MicrometerMetricsCollector(MeterRegistry registry) {
     this(registry, "rabbitmq.stream");
   }
@@ -62,6 +74,9 @@ public class MicrometerMetricsCollector implements MetricsCollector {
     this.readBytes = registry.counter(prefix + ".read_bytes", tags);
     this.outstandingPublishConfirm =
         registry.gauge(prefix + ".outstanding_publish_confirm", tags, new AtomicLong(0));
+    this.registry = registry;
+    this.prefix = prefix;
+    this.tags = tags;
   }
 
   protected Counter createChunkCounter(MeterRegistry registry, String prefix, Iterable<Tag> tags) {
@@ -73,6 +88,70 @@ public class MicrometerMetricsCollector implements MetricsCollector {
     return DistributionSummary.builder(prefix + ".chunk_size").tags(tags).register(registry);
   }
 
+  /**
+   * Enable the publish-confirm latency and publish queueing time metrics.
+   *
+   * <p>Producers then read the system clock for each message they send, which has a cost at high
+   * publishing rates. The setting applies to the producers created afterwards.
+   *
+   * <p>Default is <code>false</code>.
+   *
+   * @param publishLatency whether to record publish latencies
+   * @return this metrics collector
+   * @see MetricsCollector#publishLatencyEnabled()
+   * @since 1.10.0
+   */
+  public MicrometerMetricsCollector publishLatency(boolean publishLatency) {
+    this.publishLatency = publishLatency;
+    return this;
+  }
+
+  /**
+   * Create the timer for the publish-confirm latency of a stream.
+   *
+   * <p>The default timer publishes a percentile histogram. Override this method to use another
+   * configuration, e.g. client-side percentiles.
+   *
+   * @param registry the meter registry
+   * @param prefix the prefix of the metrics
+   * @param tags the tags of the metrics
+   * @param stream the stream
+   * @return the timer
+   * @since 1.10.0
+   */
+  protected Timer createPublishConfirmLatencyTimer(
+      MeterRegistry registry, String prefix, Iterable<Tag> tags, String stream) {
+    return Timer.builder(prefix + ".publish_confirm_latency")
+        .tags(tags)
+        .tag("stream", stream)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(Duration.ofNanos(100_000))
+        .register(registry);
+  }
+
+  /**
+   * Create the timer for the time messages of a stream spend in the producer accumulator.
+   *
+   * <p>The default timer publishes a percentile histogram. Override this method to use another
+   * configuration, e.g. client-side percentiles.
+   *
+   * @param registry the meter registry
+   * @param prefix the prefix of the metrics
+   * @param tags the tags of the metrics
+   * @param stream the stream
+   * @return the timer
+   * @since 1.10.0
+   */
+  protected Timer createPublishQueueingTimeTimer(
+      MeterRegistry registry, String prefix, Iterable<Tag> tags, String stream) {
+    return Timer.builder(prefix + ".publish_queueing_time")
+        .tags(tags)
+        .tag("stream", stream)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(Duration.ofNanos(10_000))
+        .register(registry);
+  }
+
   @Override
   public void openConnection() {
     this.connections.incrementAndGet();
@@ -121,4 +200,33 @@ public class MicrometerMetricsCollector implements MetricsCollector {
   public void readBytes(int readBytes) {
     this.readBytes.increment(readBytes);
   }
+
+  @Override
+  public boolean publishLatencyEnabled() {
+    return this.publishLatency;
+  }
+
+  @Override
+  public void publishConfirmLatency(String stream, long latencyInNanos) {
+    Timer timer = this.publishConfirmLatencies.get(stream);
+    if (timer == null) {
+      timer =
+          this.publishConfirmLatencies.computeIfAbsent(
+              stream,
+              s -> createPublishConfirmLatencyTimer(this.registry, this.prefix, this.tags, s));
+    }
+    timer.record(latencyInNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void publishQueueingTime(String stream, long queueingTimeInNanos) {
+    Timer timer = this.publishQueueingTimes.get(stream);
+    if (timer == null) {
+      timer =
+          this.publishQueueingTimes.computeIfAbsent(
+              stream,
+              s -> createPublishQueueingTimeTimer(this.registry, this.prefix, this.tags, s));
+    }
+    timer.record(queueingTimeInNanos, TimeUnit.NANOSECONDS);
+  }
 }
@@ -46,4 +46,10 @@ public final class NoOpMetricsCollector implements MetricsCollector {
 
   @Override
   public void readBytes(int readBytes) {}
+
+  @Override
+  public void publishConfirmLatency(String stream, long latencyInNanos) {}
+
+  @Override
+  public void publishQueueingTime(String stream, long queueingTimeInNanos) {}
 }
@@ -14,6 +14,7 @@
 // info@rabbitmq.com.
 package com.rabbitmq.stream.observation.micrometer;
 
+import static com.rabbitmq.stream.observation.micrometer.StreamObservationDocumentation.HighCardinalityTags.MESSAGING_BATCH_MESSAGE_COUNT;
 import static com.rabbitmq.stream.observation.micrometer.StreamObservationDocumentation.HighCardinalityTags.MESSAGING_DESTINATION_NAME;
 import static com.rabbitmq.stream.observation.micrometer.StreamObservationDocumentation.HighCardinalityTags.MESSAGING_MESSAGE_PAYLOAD_SIZE_BYTES;
 import static com.rabbitmq.stream.observation.micrometer.StreamObservationDocumentation.HighCardinalityTags.MESSAGING_SOURCE_NAME;
@@ -53,10 +54,17 @@ public class DefaultProcessObservationConvention implements ProcessObservationCo
   @Override
   public KeyValues getHighCardinalityKeyValues(ProcessContext context) {
     // FIXME extract AMQP exchange and routing if present?
-    return KeyValues.of(
-        MESSAGING_DESTINATION_NAME.withValue(context.getStream()),
-        MESSAGING_SOURCE_NAME.withValue(context.getStream()),
-        MESSAGING_MESSAGE_PAYLOAD_SIZE_BYTES.withValue(
-            String.valueOf(context.getPayloadSizeBytes())));
+    KeyValues keyValues =
+        KeyValues.of(
+            MESSAGING_DESTINATION_NAME.withValue(context.getStream()),
+            MESSAGING_SOURCE_NAME.withValue(context.getStream()),
+            MESSAGING_MESSAGE_PAYLOAD_SIZE_BYTES.withValue(
+                String.valueOf(context.getPayloadSizeBytes())));
+    if (context.isChunk()) {
+      keyValues =
+          keyValues.and(
+              MESSAGING_BATCH_MESSAGE_COUNT.withValue(String.valueOf(context.getMessageCount())));
+    }
+    return keyValues;
   }
 }
@@ -35,22 +35,34 @@ class MicrometerObservationCollector implements ObservationCollector<Observation
   private final ObservationRegistry registry;
   private final PublishObservationConvention customPublishConvention, defaultPublishConvention;
   private final ProcessObservationConvention customProcessConvention, defaultProcessConvention;
+  private final ObservationSampler publishSampler, processSampler;
+  private final boolean chunkLevelProcessObservation;
 
   MicrometerObservationCollector(
       ObservationRegistry registry,
       PublishObservationConvention customPublishConvention,
       PublishObservationConvention defaultPublishConvention,
       ProcessObservationConvention customProcessConvention,
-      ProcessObservationConvention defaultProcessConvention) {
+      ProcessObservationConvention defaultProcessConvention,
+      ObservationSampler publishSampler,
+      ObservationSampler processSampler,
+      boolean chunkLevelProcessObservation) {
     this.registry = registry;
     this.customPublishConvention = customPublishConvention;
     this.defaultPublishConvention = defaultPublishConvention;
     this.customProcessConvention = customProcessConvention;
     this.defaultProcessConvention = defaultProcessConvention;
+    this.publishSampler = publishSampler;
+    this.processSampler = processSampler;
+    this.chunkLevelProcessObservation = chunkLevelProcessObservation;
   }
 
   @Override
   public void published(Observation observation, Message message) {
+    if (observation == null) {
+      // not sampled
+      return;
+    }
     try {
       observation.stop();
     } catch (Exception e) {
@@ -60,6 +72,9 @@ class MicrometerObservationCollector implements ObservationCollector<Observation
 
   @Override
   public Observation prePublish(String stream, Message message) {
+    if (!this.publishSampler.sample(this.registry, stream, message)) {
+      return null;
+    }
     PublishContext context = new PublishContext(stream, message);
     Observation observation =
         StreamObservationDocumentation.PUBLISH_OBSERVATION.observation(
@@ -70,8 +85,13 @@ class MicrometerObservationCollector implements ObservationCollector<Observation
 
   @Override
   public MessageHandler subscribe(MessageHandler handler) {
-    return new ObservationMessageHandler(
-        handler, registry, customProcessConvention, defaultProcessConvention);
+    if (this.chunkLevelProcessObservation) {
+      return new ChunkObservationMessageHandler(
+          handler, registry, customProcessConvention, defaultProcessConvention, processSampler);
+    } else {
+      return new ObservationMessageHandler(
+          handler, registry, customProcessConvention, defaultProcessConvention, processSampler);
+    }
   }
 
   private static class ObservationMessageHandler implements MessageHandler {
@@ -79,20 +99,27 @@ class MicrometerObservationCollector implements ObservationCollector<Observation
     private final MessageHandler delegate;
     private final ObservationRegistry registry;
     private final ProcessObservationConvention customProcessConvention, defaultProcessConvention;
+    private final ObservationSampler sampler;
 
     private ObservationMessageHandler(
         MessageHandler delegate,
         ObservationRegistry registry,
         ProcessObservationConvention customProcessConvention,
-        ProcessObservationConvention defaultProcessConvention) {
+        ProcessObservationConvention defaultProcessConvention,
+        ObservationSampler sampler) {
       this.delegate = delegate;
       this.registry = registry;
       this.customProcessConvention = customProcessConvention;
       this.defaultProcessConvention = defaultProcessConvention;
+      this.sampler = sampler;
     }
 
     @Override
     public void handle(Context context, Message message) {
+      if (!this.sampler.sample(this.registry, context.stream(), message)) {
+        delegate.handle(context, message);
+        return;
+      }
       ProcessContext processContext = new ProcessContext(context.stream(), message);
       Observation observation =
           StreamObservationDocumentation.PROCESS_OBSERVATION.observation(
@@ -103,4 +130,92 @@ class MicrometerObservationCollector implements ObservationCollector<Observation
       observation.observeChecked(() -> delegate.handle(context, message));
     }
   }
+
+  /**
+   * Creates one observation per chunk instead of one per message.
+   *
+   * <p>The observation starts with the first message of the chunk (it uses the trace context of
+   * this message) and stops when the consumer signals the end of the chunk. All the calls come from
+   * the dispatching thread of the consumer, so the state does not need to be thread-safe.
+   */
+  private static class ChunkObservationMessageHandler
+      implements ObservationCollector.ChunkMessageHandler {
+
+    private final MessageHandler delegate;
+    private final ObservationRegistry registry;
+    private final ProcessObservationConvention customProcessConvention, defaultProcessConvention;
+    private final ObservationSampler sampler;
+    private long messageCount;
+    private boolean firstMessage;
+    private Observation observation;
+
+    private ChunkObservationMessageHandler(
+        MessageHandler delegate,
+        ObservationRegistry registry,
+        ProcessObservationConvention customProcessConvention,
+        ProcessObservationConvention defaultProcessConvention,
+        ObservationSampler sampler) {
+      this.delegate = delegate;
+      this.registry = registry;
+      this.customProcessConvention = customProcessConvention;
+      this.defaultProcessConvention = defaultProcessConvention;
+      this.sampler = sampler;
+    }
+
+    @Override
+    public void chunkStarted(long messageCount) {
+      // in case the previous chunk did not complete (e.g. consumer recovery)
+      stopObservation();
+      this.messageCount = messageCount;
+      this.firstMessage = true;
+    }
+
+    @Override
+    public void handle(Context context, Message message) {
+      if (this.firstMessage) {
+        this.firstMessage = false;
+        if (this.sampler.sample(this.registry, context.stream(), message)) {
+          ProcessContext processContext =
+              new ProcessContext(context.stream(), message, this.messageCount);
+          this.observation =
+              StreamObservationDocumentation.PROCESS_OBSERVATION
+                  .observation(
+                      this.customProcessConvention,
+                      this.defaultProcessConvention,
+                      () -> processContext,
+                      this.registry)
+                  .start();
+        }
+      }
+      Observation current = this.observation;
+      if (current == null) {
+        delegate.handle(context, message);
+      } else {
+        try (Observation.Scope ignored = current.openScope()) {
+          delegate.handle(context, message);
+        } catch (RuntimeException e) {
+          current.error(e);
+          stopObservation();
+          throw e;
+        }
+      }
+    }
+
+    @Override
+    public void chunkCompleted() {
+      stopObservation();
+    }
+
+    private void stopObservation() {
+      Observation current = this.observation;
+      if (current != null) {
+        this.observation = null;
+        try {
+          current.stop();
+        } catch (Exception e) {
+          LOGGER.warn("Error while stopping Micrometer observation: {}", e.getMessage());
+        }
+      }
+    }
+  }
 }
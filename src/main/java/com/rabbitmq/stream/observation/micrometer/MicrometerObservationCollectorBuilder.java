@@ -36,6 +36,9 @@ public class MicrometerObservationCollectorBuilder {
   private ProcessObservationConvention customProcessObservationConvention;
   private ProcessObservationConvention defaultProcessObservationConvention =
       new DefaultProcessObservationConvention();
+  private ObservationSampler publishSampler = ObservationSampler.always();
+  private ObservationSampler processSampler = ObservationSampler.always();
+  private boolean chunkLevelProcessObservation = false;
 
   /**
    * Set the {@link ObservationRegistry} to use.
@@ -126,6 +129,68 @@ public class MicrometerObservationCollectorBuilder {
     return this;
   }
 
+  /**
+   * Sampler to decide whether the publishing of a message is observed.
+   *
+   * <p>Messages that are not sampled are published without any instrumentation.
+   *
+   * <p>Default is {@link ObservationSampler#always()}.
+   *
+   * @param publishSampler the sampler
+   * @return this builder instance
+   * @see ObservationSampler
+   * @since 1.10.0
+   */
+  public MicrometerObservationCollectorBuilder publishSampler(ObservationSampler publishSampler) {
+    if (publishSampler == null) {
+      throw new IllegalArgumentException("The publish sampler cannot be null");
+    }
+    this.publishSampler = publishSampler;
+    return this;
+  }
+
+  /**
+   * Sampler to decide whether the processing of a message is observed.
+   *
+   * <p>With chunk-level observation, the sampler decides with the first message of each chunk.
+   *
+   * <p>Default is {@link ObservationSampler#always()}.
+   *
+   * @param processSampler the sampler
+   * @return this builder instance
+   * @see ObservationSampler
+   * @see #chunkLevelProcessObservation(boolean)
+   * @since 1.10.0
+   */
+  public MicrometerObservationCollectorBuilder processSampler(ObservationSampler processSampler) {
+    if (processSampler == null) {
+      throw new IllegalArgumentException("The process sampler cannot be null");
+    }
+    this.processSampler = processSampler;
+    return this;
+  }
+
+  /**
+   * Whether to create one process observation per chunk instead of one per message.
+   *
+   * <p>The observation starts before the first message of a chunk is dispatched and stops once all
+   * the messages of the chunk are dispatched, each message is handled in the scope of the
+   * observation. This reduces the cost of observation significantly for high-throughput consumers.
+   * The observation uses the trace context propagated in the first message of the chunk, its {@link
+   * ProcessContext#getMessageCount()} returns the number of messages in the chunk.
+   *
+   * <p>Default is <code>false</code> (one observation per message).
+   *
+   * @param chunkLevelProcessObservation whether to observe processing at the chunk level
+   * @return this builder instance
+   * @since 1.10.0
+   */
+  public MicrometerObservationCollectorBuilder chunkLevelProcessObservation(
+      boolean chunkLevelProcessObservation) {
+    this.chunkLevelProcessObservation = chunkLevelProcessObservation;
+    return this;
+  }
+
   /**
    * Create the Micrometer {@link ObservationCollector}.
    *
@@ -137,6 +202,9 @@ public class MicrometerObservationCollectorBuilder {
         this.customPublishObservationConvention,
         this.defaultPublishObservationConvention,
         this.customProcessObservationConvention,
-        this.defaultProcessObservationConvention);
+        this.defaultProcessObservationConvention,
+        this.publishSampler,
+        this.processSampler,
+        this.chunkLevelProcessObservation);
   }
 }
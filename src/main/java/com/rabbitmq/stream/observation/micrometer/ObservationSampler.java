@@ -0,0 +1,220 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.observation.micrometer;
+
+import com.rabbitmq.stream.Message;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a publishing or a processing operation is observed.
+ *
+ * <p>Observing every message can be costly when the message rate is high. A sampler reduces this
+ * cost by observing only some of the operations, the other operations are not instrumented at all.
+ *
+ * <p>Implementations are called for each message, so they must be fast and thread-safe.
+ *
+ * @since 1.10.0
+ * @see MicrometerObservationCollectorBuilder#publishSampler(ObservationSampler)
+ * @see MicrometerObservationCollectorBuilder#processSampler(ObservationSampler)
+ */
+@FunctionalInterface
+public interface ObservationSampler {
+
+  /**
+   * Whether the operation on the message should be observed.
+   *
+   * @param registry the observation registry
+   * @param stream the stream the message is published to or consumed from
+   * @param message the message
+   * @return true to observe the operation, false otherwise
+   */
+  boolean sample(ObservationRegistry registry, String stream, Message message);
+
+  /**
+   * Sampler that observes all the operations (the default).
+   *
+   * @return the sampler
+   */
+  static ObservationSampler always() {
+    return AlwaysSampler.INSTANCE;
+  }
+
+  /**
+   * Sampler that observes 1 operation every <code>n</code> operations.
+   *
+   * @param n the sampling interval, must be strictly positive
+   * @return the sampler
+   */
+  static ObservationSampler oneIn(int n) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("The sampling interval must be strictly positive");
+    }
+    return n == 1 ? always() : new OneInSampler(n);
+  }
+
+  /**
+   * Sampler that observes at most <code>permitsPerSecond</code> operations every second.
+   *
+   * @param permitsPerSecond the maximum number of observed operations per second, must be strictly
+   *     positive
+   * @return the sampler
+   */
+  static ObservationSampler rateLimited(int permitsPerSecond) {
+    return new RateLimitedSampler(permitsPerSecond, System::nanoTime);
+  }
+
+  /**
+   * Sampler that follows the sampling decision of the parent trace if any.
+   *
+   * <p>The operation is observed if it happens in the scope of an observation (e.g. when publishing
+   * in a traced HTTP request). Otherwise, the sampler looks up the sampled flag of the trace
+   * context propagated in the message annotations or application properties (W3C <code>
+   * traceparent</code>, B3 single header, or <code>X-B3-Sampled</code>). The root sampler decides
+   * when there is no parent trace.
+   *
+   * @param root the sampler to use when there is no parent trace
+   * @return the sampler
+   */
+  static ObservationSampler parentBased(ObservationSampler root) {
+    if (root == null) {
+      throw new IllegalArgumentException("The root sampler cannot be null");
+    }
+    return new ParentBasedSampler(root);
+  }
+
+  final class AlwaysSampler implements ObservationSampler {
+
+    private static final ObservationSampler INSTANCE = new AlwaysSampler();
+
+    private AlwaysSampler() {}
+
+    @Override
+    public boolean sample(ObservationRegistry registry, String stream, Message message) {
+      return true;
+    }
+  }
+
+  final class OneInSampler implements ObservationSampler {
+
+    private final int n;
+    private final AtomicLong count = new AtomicLong(0);
+
+    private OneInSampler(int n) {
+      this.n = n;
+    }
+
+    @Override
+    public boolean sample(ObservationRegistry registry, String stream, Message message) {
+      return this.count.getAndIncrement() % this.n == 0;
+    }
+  }
+
+  final class RateLimitedSampler implements ObservationSampler {
+
+    private static final long WINDOW_IN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int permitsPerSecond;
+    private final LongSupplier clock;
+    private final AtomicLong windowStart;
+    private final AtomicInteger permits = new AtomicInteger(0);
+
+    RateLimitedSampler(int permitsPerSecond, LongSupplier clock) {
+      if (permitsPerSecond <= 0) {
+        throw new IllegalArgumentException("The number of permits must be strictly positive");
+      }
+      this.permitsPerSecond = permitsPerSecond;
+      this.clock = clock;
+      this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public boolean sample(ObservationRegistry registry, String stream, Message message) {
+      long now = this.clock.getAsLong();
+      long start = this.windowStart.get();
+      if (now - start >= WINDOW_IN_NANOS && this.windowStart.compareAndSet(start, now)) {
+        this.permits.set(0);
+      }
+      return this.permits.getAndIncrement() < this.permitsPerSecond;
+    }
+  }
+
+  final class ParentBasedSampler implements ObservationSampler {
+
+    private static final String TRACEPARENT = "traceparent";
+    private static final String B3 = "b3";
+    private static final String X_B3_SAMPLED = "X-B3-Sampled";
+
+    private final ObservationSampler root;
+
+    private ParentBasedSampler(ObservationSampler root) {
+      this.root = root;
+    }
+
+    @Override
+    public boolean sample(ObservationRegistry registry, String stream, Message message) {
+      Observation current = registry.getCurrentObservation();
+      if (current != null && !current.isNoop()) {
+        return true;
+      }
+      Boolean sampled = propagatedSampledFlag(message);
+      return sampled == null ? this.root.sample(registry, stream, message) : sampled;
+    }
+
+    // null if the message does not carry a trace context
+    static Boolean propagatedSampledFlag(Message message) {
+      String traceparent = header(message, TRACEPARENT);
+      if (traceparent != null) {
+        // version-traceid-parentid-flags, the sampled flag is the lowest bit of the flags
+        int flagsIndex = traceparent.lastIndexOf('-');
+        if (flagsIndex > 0 && flagsIndex == traceparent.length() - 3) {
+          int flags = Character.digit(traceparent.charAt(traceparent.length() - 1), 16);
+          if (flags >= 0) {
+            return (flags & 1) == 1;
+          }
+        }
+      }
+      String b3 = header(message, B3);
+      if (b3 != null) {
+        // traceid-spanid-sampled-parentspanid or sampling state only
+        String[] parts = b3.split("-");
+        String state = parts.length == 1 ? parts[0] : parts.length >= 3 ? parts[2] : null;
+        if (state != null) {
+          return "1".equals(state) || "d".equals(state);
+        }
+      }
+      String b3Sampled = header(message, X_B3_SAMPLED);
+      if (b3Sampled != null) {
+        return "1".equals(b3Sampled) || "true".equalsIgnoreCase(b3Sampled);
+      }
+      return null;
+    }
+
+    private static String header(Message message, String key) {
+      Map<String, Object> map = message.getMessageAnnotations();
+      Object value = map == null ? null : map.get(key);
+      if (value == null) {
+        map = message.getApplicationProperties();
+        value = map == null ? null : map.get(key);
+      }
+      return value == null ? null : String.valueOf(value);
+    }
+  }
+}
@@ -27,8 +27,13 @@ public class ProcessContext extends ReceiverContext<Message> {
 
   private final String stream;
   private final int payloadSizeBytes;
+  private final long messageCount;
 
   ProcessContext(String stream, Message message) {
+    this(stream, message, -1);
+  }
+
+  ProcessContext(String stream, Message message, long messageCount) {
     super(
         (carrier, key) -> {
           Map<String, Object> map = carrier.getMessageAnnotations();
@@ -51,6 +56,7 @@ public class ProcessContext extends ReceiverContext<Message> {
       payloadSize = 0;
     }
     this.payloadSizeBytes = payloadSize;
+    this.messageCount = messageCount;
     setCarrier(message);
   }
 
@@ -61,4 +67,28 @@ public class ProcessContext extends ReceiverContext<Message> {
   public int getPayloadSizeBytes() {
     return payloadSizeBytes;
   }
+
+  /**
+   * Whether the context is for the processing of a whole chunk.
+   *
+   * @return true for a chunk, false for a single message
+   * @see MicrometerObservationCollectorBuilder#chunkLevelProcessObservation(boolean)
+   * @since 1.10.0
+   */
+  public boolean isChunk() {
+    return messageCount >= 0;
+  }
+
+  /**
+   * The number of messages in the chunk, -1 for a single message.
+   *
+   * <p>The payload size and the propagated trace context are the ones of the first message of the
+   * chunk.
+   *
+   * @return the number of messages in the chunk
+   * @since 1.10.0
+   */
+  public long getMessageCount() {
+    return messageCount;
+  }
 }
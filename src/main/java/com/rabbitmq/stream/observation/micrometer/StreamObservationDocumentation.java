@@ -125,6 +125,15 @@ public enum StreamObservationDocumentation implements ObservationDocumentation {
       }
     },
 
+    /** The number of messages in a chunk (chunk-level process observation only). */
+    MESSAGING_BATCH_MESSAGE_COUNT {
+
+      @Override
+      public String asString() {
+        return "messaging.batch.message_count";
+      }
+    },
+
     NET_SOCK_PEER_PORT {
       @Override
       public String asString() {
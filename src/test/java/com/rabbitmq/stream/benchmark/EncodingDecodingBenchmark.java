@@ -17,7 +17,9 @@ package com.rabbitmq.stream.benchmark;
 import static com.rabbitmq.stream.impl.TestUtils.encodedMessageByteBuf;
 
 import com.rabbitmq.stream.Codec;
+import com.rabbitmq.stream.Message;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -61,6 +63,9 @@ public class EncodingDecodingBenchmark {
 
   ByteBuf messageToDecode;
 
+  Message messageWithHeaders;
+  ByteBuf outputBuffer;
+
   @Setup
   public void setUp() throws Exception {
     codec = (Codec) Class.forName(codecClass).getConstructor().newInstance();
@@ -78,6 +83,31 @@ public class EncodingDecodingBenchmark {
                 .build());
 
     messageToDecode = encodedMessageByteBuf(encoded);
+
+    messageWithHeaders =
+        codec
+            .messageBuilder()
+            .messageAnnotations()
+            .entry("x-stream-filter-value", "europe")
+            .entry("x-routing-key", "orders.europe.created")
+            .messageBuilder()
+            .properties()
+            .messageId("order-created-1")
+            .correlationId("8c2c4a5e-6f1d-4b0e-9a6b-2f4f3f0d6a77")
+            .contentType("application/json")
+            .subject("order-created")
+            .replyTo("orders-replies")
+            .messageBuilder()
+            .applicationProperties()
+            .entry("tenant", "acme")
+            .entry("region", "eu-west-1")
+            .entry("application", "order-service")
+            .entry("version", "2.4.1")
+            .entry("trace-id", "4bf92f3577b34da6a3ce929d0e0e4736")
+            .messageBuilder()
+            .addData(payload)
+            .build();
+    outputBuffer = Unpooled.buffer(1024);
   }
 
   @Benchmark
@@ -92,6 +122,12 @@ public class EncodingDecodingBenchmark {
             .build());
   }
 
+  @Benchmark
+  public void encodeAndWriteWithHeaders() {
+    outputBuffer.clear();
+    codec.encode(messageWithHeaders).writeTo(outputBuffer);
+  }
+
   @Benchmark
   public void decode() {
     messageToDecode.markReaderIndex();
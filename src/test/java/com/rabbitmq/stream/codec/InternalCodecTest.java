@@ -15,13 +15,16 @@
 package com.rabbitmq.stream.codec;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.rabbitmq.stream.Codec;
 import com.rabbitmq.stream.Message;
 import com.rabbitmq.stream.MessageBuilder;
 import com.rabbitmq.stream.Properties;
+import com.rabbitmq.stream.StreamException;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -134,6 +137,30 @@ public class InternalCodecTest {
         .isEqualTo("value-with-long-content-49");
   }
 
+  @Test
+  void repeatedKeysAndSymbolsShouldBeDecodedToSameInstances() {
+    Message message =
+        CODEC
+            .messageBuilder()
+            .applicationProperties()
+            .entry("region", "emea")
+            .messageBuilder()
+            .messageAnnotations()
+            .entry("x-stream-filter-value", "emea")
+            .messageBuilder()
+            .build();
+    Message first = encodeDecode(message);
+    Message second = encodeDecode(message);
+    assertThat(keyOf(second.getApplicationProperties()))
+        .isEqualTo("region")
+        .isSameAs(keyOf(first.getApplicationProperties()));
+    assertThat(keyOf(second.getMessageAnnotations()))
+        .isEqualTo("x-stream-filter-value")
+        .isSameAs(keyOf(first.getMessageAnnotations()));
+    // values are not interned
+    assertThat(second.getApplicationProperties().get("region")).isEqualTo("emea");
+  }
+
   @Test
   void smallMessageAnnotationsRoundTrip() {
     Message msg =
@@ -408,6 +435,117 @@ public class InternalCodecTest {
     assertThat(decoded.getProperties().getReplyToGroupId()).isEqualTo(longString);
   }
 
+  @Test
+  void dataBodyMessageSectionsAreDecodedOnAccess() {
+    Message msg =
+        CODEC
+            .messageBuilder()
+            .messageAnnotations()
+            .entry("x-annotation", "a")
+            .messageBuilder()
+            .properties()
+            .messageId(42L)
+            .messageBuilder()
+            .applicationProperties()
+            .entry("k", "v")
+            .messageBuilder()
+            .addData("hello".getBytes())
+            .build();
+
+    Codec.EncodedMessage encoded = CODEC.encode(msg);
+    ByteBuf buf = Unpooled.buffer(encoded.getSize() + 4);
+    encoded.writeTo(buf);
+    buf.readInt();
+    Message decoded = CODEC.decode(buf, encoded.getSize());
+    assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+
+    assertThat(decoded.getBodyAsBinary()).isEqualTo("hello".getBytes());
+    assertThat(decoded.getBody()).isEqualTo("hello".getBytes());
+    assertThat(decoded.getBodyAsByteBuffer().isReadOnly()).isTrue();
+    assertThat(decoded.getBodyAsByteBuffer()).isEqualTo(ByteBuffer.wrap("hello".getBytes()));
+    assertThat(decoded.getProperties().getMessageIdAsLong()).isEqualTo(42L);
+    assertThat(decoded.getApplicationProperties()).containsExactly(Map.entry("k", "v"));
+    assertThat(decoded.getMessageAnnotations()).containsExactly(Map.entry("x-annotation", "a"));
+    // decoded only once
+    assertThat(decoded.getApplicationProperties()).isSameAs(decoded.getApplicationProperties());
+
+    Message copy = decoded.copy().annotate("x-other", "b");
+    assertThat(copy.getMessageAnnotations()).containsOnlyKeys("x-annotation", "x-other");
+    assertThat(decoded.getMessageAnnotations()).containsOnlyKeys("x-annotation");
+  }
+
+  @Test
+  void dataBodyMessageWithoutOptionalSections() {
+    Message decoded = encodeDecode(CODEC.messageBuilder().addData("x".getBytes()).build());
+    assertThat(decoded.getBodyAsBinary()).isEqualTo("x".getBytes());
+    assertThat(decoded.getProperties()).isNull();
+    assertThat(decoded.getApplicationProperties()).isNull();
+    assertThat(decoded.getMessageAnnotations()).isEmpty();
+    decoded.annotate("k", "v");
+    assertThat(decoded.getMessageAnnotations()).containsEntry("k", "v");
+  }
+
+  @Test
+  void malformedSectionIsReportedOnAccess() {
+    // application properties with a null key, then a data body
+    ByteBuf buf =
+        Unpooled.wrappedBuffer(
+            new byte[] {
+              0x00,
+              0x53,
+              0x74,
+              (byte) 0xc1,
+              0x03,
+              0x02,
+              0x40,
+              0x40, // application properties
+              0x00,
+              0x53,
+              0x75,
+              (byte) 0xa0,
+              0x01,
+              0x61 // data
+            });
+    Message decoded = CODEC.decode(buf, buf.readableBytes());
+    assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+    assertThat(decoded.getBodyAsBinary()).isEqualTo("a".getBytes());
+    assertThatThrownBy(decoded::getApplicationProperties).isInstanceOf(StreamException.class);
+  }
+
+  @Test
+  void amqpValueBodyIsDecodedEagerly() {
+    // application properties after an amqp-value body
+    ByteBuf buf =
+        Unpooled.wrappedBuffer(
+            new byte[] {
+              0x00,
+              0x53,
+              0x77,
+              (byte) 0xa1,
+              0x02,
+              0x68,
+              0x69, // amqp-value "hi"
+              0x00,
+              0x53,
+              0x74,
+              (byte) 0xc1,
+              0x05,
+              0x02,
+              (byte) 0xa1,
+              0x01,
+              0x6b,
+              0x41
+            });
+    Message decoded = CODEC.decode(buf, buf.readableBytes());
+    assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
+    assertThat(decoded.getBody()).isEqualTo("hi");
+    assertThat(decoded.getApplicationProperties()).containsEntry("k", true);
+  }
+
+  private static String keyOf(Map<String, Object> map) {
+    return map.keySet().iterator().next();
+  }
+
   private Message encodeDecode(Message msg) {
     Codec.EncodedMessage encoded = CODEC.encode(msg);
     ByteBuf buf = Unpooled.buffer(encoded.getSize() + 4);
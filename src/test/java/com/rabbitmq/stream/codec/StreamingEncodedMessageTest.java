@@ -19,8 +19,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.rabbitmq.stream.Codec;
 import com.rabbitmq.stream.Message;
 import com.rabbitmq.stream.MessageBuilder;
+import com.rabbitmq.stream.MessageTemplate;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -482,6 +484,156 @@ public class StreamingEncodedMessageTest {
     assertSizeMatchesEncoding(message);
   }
 
+  @Test
+  void encodingShouldMatchSizeAroundCompactEncodingLimits() throws IOException {
+    // the encoding decides the width of sizes before knowing the UTF-8 length of strings
+    String[] characters = {"a", "\u00E9", "\u4E00", new String(Character.toChars(0x1F600))};
+    for (String character : characters) {
+      for (int length = 40; length <= 140; length++) {
+        String value = character.repeat(length);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("key", value);
+        Message message =
+            CODEC
+                .messageBuilder()
+                .messageAnnotations()
+                .entry("x-value", value)
+                .entry("x-list", List.of(value, "a"))
+                .entry("x-map", map)
+                .messageBuilder()
+                .properties()
+                .messageId(value)
+                .to(value)
+                .messageBuilder()
+                .applicationProperties()
+                .entry("value", value)
+                .messageBuilder()
+                .addData("x".getBytes())
+                .build();
+
+        byte[] encoded = encode(message);
+        assertThat(encodeToStream(message)).isEqualTo(encoded);
+        Message decoded =
+            CODEC.decode(
+                Unpooled.wrappedBuffer(encoded, 4, encoded.length - 4), encoded.length - 4);
+        assertThat(decoded.getMessageAnnotations())
+            .containsEntry("x-value", value)
+            .containsEntry("x-list", List.of(value, "a"))
+            .containsEntry("x-map", map);
+        assertThat(decoded.getProperties().getMessageIdAsString()).isEqualTo(value);
+        assertThat(decoded.getProperties().getTo()).isEqualTo(value);
+        assertThat(decoded.getApplicationProperties()).containsEntry("value", value);
+      }
+    }
+  }
+
+  @Test
+  void templateMessagesShouldBeEncodedLikeRegularMessages() throws IOException {
+    String longString = "x".repeat(300);
+    UUID uuid = UUID.randomUUID();
+    MessageTemplate template = headers(CODEC.messageBuilder()).template();
+    MessageTemplate emptyTemplate = CODEC.messageBuilder().template();
+    byte[] body = "hello".getBytes();
+
+    assertSameEncoding(template.newMessage(body), headers(CODEC.messageBuilder()).addData(body));
+    assertSameEncoding(
+        template.newMessage("id", body),
+        headers(CODEC.messageBuilder())
+            .properties()
+            .messageId("id")
+            .messageBuilder()
+            .addData(body));
+    assertSameEncoding(
+        template.newMessage(longString, body),
+        headers(CODEC.messageBuilder())
+            .properties()
+            .messageId(longString)
+            .messageBuilder()
+            .addData(body));
+    assertSameEncoding(
+        template.newMessage(42L, body),
+        headers(CODEC.messageBuilder()).properties().messageId(42L).messageBuilder().addData(body));
+    assertSameEncoding(
+        template.newMessage(uuid, body),
+        headers(CODEC.messageBuilder())
+            .properties()
+            .messageId(uuid)
+            .messageBuilder()
+            .addData(body));
+    assertSameEncoding(emptyTemplate.newMessage(body), CODEC.messageBuilder().addData(body));
+    assertSameEncoding(
+        emptyTemplate.newMessage(42L, body),
+        CODEC.messageBuilder().properties().messageId(42L).messageBuilder().addData(body));
+    assertSameEncoding(emptyTemplate.newMessage(null), CODEC.messageBuilder());
+
+    Message message = template.newMessage(42L, body);
+    assertThat(message.getProperties().getMessageIdAsLong()).isEqualTo(42L);
+    assertThat(message.getProperties().getContentType()).isEqualTo("text/plain");
+    assertThat(message.getApplicationProperties()).containsEntry("app", "my-app");
+  }
+
+  @Test
+  void annotatedTemplateMessageShouldBeEncodedWithItsAnnotations() throws IOException {
+    MessageTemplate template = headers(CODEC.messageBuilder()).template();
+    byte[] body = "hello".getBytes();
+    Message message = template.newMessage("id", body).annotate("x-extra", "value");
+
+    assertSameEncoding(
+        message,
+        headers(CODEC.messageBuilder())
+            .messageAnnotations()
+            .entry("x-extra", "value")
+            .messageBuilder()
+            .properties()
+            .messageId("id")
+            .messageBuilder()
+            .addData(body));
+    assertThat(template.newMessage(body).getMessageAnnotations())
+        .containsOnlyKeys("x-route")
+        .isNotSameAs(message.getMessageAnnotations());
+  }
+
+  private static MessageBuilder headers(MessageBuilder builder) {
+    return builder
+        .messageAnnotations()
+        .entry("x-route", "eu")
+        .messageBuilder()
+        .properties()
+        .contentType("text/plain")
+        .to("orders")
+        .groupSequence(10)
+        .messageBuilder()
+        .applicationProperties()
+        .entry("app", "my-app")
+        .entry("version", 2)
+        .messageBuilder();
+  }
+
+  private static void assertSameEncoding(Message templateMessage, MessageBuilder builder)
+      throws IOException {
+    Message message = builder.build();
+    assertThat(encode(templateMessage)).isEqualTo(encode(message));
+    assertThat(encodeToStream(templateMessage)).isEqualTo(encodeToStream(message));
+  }
+
+  private static byte[] encode(Message message) {
+    Codec.EncodedMessage encoded = CODEC.encode(message);
+    ByteBuf buffer = Unpooled.buffer(encoded.getSize() + 4);
+    try {
+      encoded.writeTo(buffer);
+      assertThat(buffer.readableBytes()).isEqualTo(encoded.getSize() + 4);
+      return ByteBufUtil.getBytes(buffer);
+    } finally {
+      buffer.release();
+    }
+  }
+
+  private static byte[] encodeToStream(Message message) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CODEC.encode(message).writeTo(out);
+    return out.toByteArray();
+  }
+
   private void assertSizeMatchesEncoding(Message message) {
     Codec.EncodedMessage encoded = CODEC.encode(message);
     encoded.writeTo(buf);
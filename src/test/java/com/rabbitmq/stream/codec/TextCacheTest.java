@@ -0,0 +1,64 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class TextCacheTest {
+
+  TextCache cache = new TextCache(16);
+
+  @Test
+  void sameBytesShouldReturnSameInstance() {
+    String first = cache.get(buffer("x-stream-filter-value"), 0, 21);
+    String second = cache.get(buffer("x-stream-filter-value"), 0, 21);
+    assertThat(first).isEqualTo("x-stream-filter-value").isSameAs(second);
+    assertThat(cache.get(buffer("x-stream-offset"), 0, 15)).isEqualTo("x-stream-offset");
+  }
+
+  @Test
+  void indexAndLengthShouldBeHonored() {
+    ByteBuf buf = buffer("abcdef");
+    assertThat(cache.get(buf, 1, 3)).isEqualTo("bcd");
+    assertThat(cache.get(buf, 0, 3)).isEqualTo("abc");
+    assertThat(cache.get(buf, 0, 0)).isEmpty();
+    assertThat(buf.readerIndex()).isZero();
+  }
+
+  @Test
+  void longAndNonAsciiTextsShouldNotBeCached() {
+    String longText = new String(new char[TextCache.MAX_LENGTH + 1]).replace('\0', 'a');
+    assertThat(cache.get(buffer(longText), 0, longText.length())).isNull();
+    ByteBuf nonAscii = buffer("été");
+    assertThat(cache.get(nonAscii, 0, nonAscii.writerIndex())).isNull();
+  }
+
+  @Test
+  void collidingEntriesShouldReplaceEachOther() {
+    TextCache singleSlot = new TextCache(1);
+    assertThat(singleSlot.get(buffer("key1"), 0, 4)).isEqualTo("key1");
+    assertThat(singleSlot.get(buffer("key2"), 0, 4)).isEqualTo("key2");
+    assertThat(singleSlot.get(buffer("key1"), 0, 4)).isEqualTo("key1");
+  }
+
+  private static ByteBuf buffer(String text) {
+    return Unpooled.wrappedBuffer(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
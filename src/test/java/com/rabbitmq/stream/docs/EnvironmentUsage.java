@@ -26,6 +26,7 @@ import com.rabbitmq.stream.Address;
 import com.rabbitmq.stream.ByteCapacity;
 import com.rabbitmq.stream.Environment;
 import com.rabbitmq.stream.observation.micrometer.MicrometerObservationCollectorBuilder;
+import com.rabbitmq.stream.observation.micrometer.ObservationSampler;
 
 import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.EventLoopGroup;
@@ -184,4 +185,20 @@ public class EnvironmentUsage {
         // end::micrometer-observation[]
     }
 
+    void micrometerObservationSampling() {
+        ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+        // tag::micrometer-observation-sampling[]
+        Environment environment = Environment.builder()
+            .observationCollector(new MicrometerObservationCollectorBuilder()
+                .registry(observationRegistry)
+                .publishSampler(ObservationSampler.parentBased(  // <1>
+                    ObservationSampler.rateLimited(100)
+                ))
+                .processSampler(ObservationSampler.oneIn(10))  // <2>
+                .chunkLevelProcessObservation(true)  // <3>
+                .build())
+            .build();
+        // end::micrometer-observation-sampling[]
+    }
+
 }
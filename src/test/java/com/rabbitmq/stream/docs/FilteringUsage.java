@@ -66,4 +66,19 @@ public class FilteringUsage {
     // end::consumer-match-unfiltered[]
   }
 
+  void consumerApplicationProperty() {
+    Environment environment = Environment.builder().build();
+    // tag::consumer-application-property[]
+    String filterValue = "california";
+    Consumer consumer = environment.consumerBuilder()
+      .stream("invoices")
+      .filter()
+        .values(filterValue)  // <1>
+        .applicationProperty("state", filterValue)  // <2>
+      .builder()
+      .messageHandler((ctx, msg) -> { })
+      .build();
+    // end::consumer-application-property[]
+  }
+
 }
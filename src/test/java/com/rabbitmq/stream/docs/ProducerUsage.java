@@ -20,6 +20,7 @@ import java.util.UUID;
 
 import com.rabbitmq.stream.Environment;
 import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageTemplate;
 import com.rabbitmq.stream.Producer;
 import com.rabbitmq.stream.compression.Compression;
 
@@ -73,6 +74,29 @@ public class ProducerUsage {
         // end::producer-publish-complex-message[]
     }
 
+    void producerMessageTemplate() {
+        Environment environment = Environment.builder().build();
+        Producer producer = environment.producerBuilder()
+                .stream("my-stream")
+                .build();
+        // tag::producer-message-template[]
+        MessageTemplate template = producer.messageBuilder()
+                .properties()
+                    .contentType("text/plain")
+                .messageBuilder()
+                .applicationProperties()
+                    .entry("app", "my-app")
+                .messageBuilder()
+                .template();  // <1>
+        for (int i = 0; i < 1000; i++) {
+            Message message = template.newMessage(  // <2>
+                UUID.randomUUID(), ("hello " + i).getBytes(StandardCharsets.UTF_8)
+            );
+            producer.send(message, confirmationStatus -> { });
+        }
+        // end::producer-message-template[]
+    }
+
     void producerWithName() {
         Environment environment = Environment.builder().build();
         // tag::producer-with-name[]
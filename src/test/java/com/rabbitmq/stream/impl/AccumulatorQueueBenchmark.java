@@ -0,0 +1,183 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Accumulator queues with many threads sending to the same producer.
+ *
+ * <p>The benchmark threads are the application threads calling <code>send()</code>, a background
+ * thread drains the queue in batches, like the accumulator publishing thread. In the impl package
+ * because the MPSC queue is package-private.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class AccumulatorQueueBenchmark {
+
+  @Param({"LinkedBlockingQueue", "ArrayBlockingQueue", "MpscArrayQueue"})
+  String queueType;
+
+  @Param({"10000"})
+  int capacity;
+
+  @Param({"100"})
+  int batchSize;
+
+  AccumulatorQueue queue;
+  Thread consumer;
+  volatile boolean running;
+
+  final Object message = new Object();
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder()
+            .include(AccumulatorQueueBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    if ("LinkedBlockingQueue".equals(queueType)) {
+      queue = new BlockingAccumulatorQueue(new LinkedBlockingQueue<>(capacity));
+    } else if ("ArrayBlockingQueue".equals(queueType)) {
+      queue = new BlockingAccumulatorQueue(new ArrayBlockingQueue<>(capacity));
+    } else if ("MpscArrayQueue".equals(queueType)) {
+      queue = new MpscAccumulatorQueue(new MpscArrayQueue<>(capacity));
+    } else {
+      throw new IllegalArgumentException("Unknown queue type: " + queueType);
+    }
+    running = true;
+    consumer =
+        new Thread(
+            () -> {
+              List<Object> batch = new ArrayList<>(batchSize);
+              while (running) {
+                try {
+                  Object item = queue.poll(100, TimeUnit.MILLISECONDS);
+                  if (item != null) {
+                    batch.add(item);
+                    queue.drainTo(batch, batchSize - 1);
+                    batch.clear();
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+              }
+            });
+    consumer.start();
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    running = false;
+    consumer.interrupt();
+    consumer.join();
+  }
+
+  @Benchmark
+  public boolean send() throws InterruptedException {
+    return queue.offer(message, 60, TimeUnit.SECONDS);
+  }
+
+  private interface AccumulatorQueue {
+
+    boolean offer(Object item, long timeout, TimeUnit unit) throws InterruptedException;
+
+    Object poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    int drainTo(List<Object> items, int maxElements);
+  }
+
+  private static final class BlockingAccumulatorQueue implements AccumulatorQueue {
+
+    private final BlockingQueue<Object> delegate;
+
+    private BlockingAccumulatorQueue(BlockingQueue<Object> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean offer(Object item, long timeout, TimeUnit unit) throws InterruptedException {
+      return this.delegate.offer(item, timeout, unit);
+    }
+
+    @Override
+    public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+      return this.delegate.poll(timeout, unit);
+    }
+
+    @Override
+    public int drainTo(List<Object> items, int maxElements) {
+      return this.delegate.drainTo(items, maxElements);
+    }
+  }
+
+  private static final class MpscAccumulatorQueue implements AccumulatorQueue {
+
+    private final MpscArrayQueue<Object> delegate;
+
+    private MpscAccumulatorQueue(MpscArrayQueue<Object> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean offer(Object item, long timeout, TimeUnit unit) throws InterruptedException {
+      return this.delegate.offer(item, timeout, unit);
+    }
+
+    @Override
+    public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+      return this.delegate.poll(timeout, unit);
+    }
+
+    @Override
+    public int drainTo(List<Object> items, int maxElements) {
+      return this.delegate.drainTo(items, maxElements);
+    }
+  }
+}
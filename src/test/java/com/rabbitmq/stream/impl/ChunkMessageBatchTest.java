@@ -0,0 +1,122 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rabbitmq.stream.Consumer;
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageHandler;
+import com.rabbitmq.stream.codec.WrapperMessageBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class ChunkMessageBatchTest {
+
+  static MessageHandler.Context context(long offset, Consumer consumer) {
+    MessageHandler.Context context = mock(MessageHandler.Context.class);
+    when(context.offset()).thenReturn(offset);
+    when(context.timestamp()).thenReturn(42L);
+    when(context.stream()).thenReturn("stream");
+    when(context.consumer()).thenReturn(consumer);
+    return context;
+  }
+
+  @Test
+  void dispatchShouldHandOverAllMessagesOfChunk() {
+    Consumer consumer = mock(Consumer.class);
+    List<Long> offsets = new ArrayList<>();
+    List<Message> messages = new ArrayList<>();
+    AtomicInteger calls = new AtomicInteger();
+    ChunkMessageBatch batch =
+        new ChunkMessageBatch(
+            b -> {
+              calls.incrementAndGet();
+              assertThat(b.timestamp()).isEqualTo(42L);
+              assertThat(b.stream()).isEqualTo("stream");
+              assertThat(b.consumer()).isSameAs(consumer);
+              for (int i = 0; i < b.size(); i++) {
+                offsets.add(b.offset(i));
+                messages.add(b.message(i));
+              }
+              assertThatThrownBy(() -> b.message(b.size()))
+                  .isInstanceOf(IndexOutOfBoundsException.class);
+              b.storeOffset();
+            });
+    batch.dispatch();
+    assertThat(calls).hasValue(0);
+
+    // more than the initial capacity
+    int count = 100;
+    for (int i = 0; i < count; i++) {
+      batch.handle(context(i, consumer), new WrapperMessageBuilder().build());
+    }
+    batch.dispatch();
+    assertThat(calls).hasValue(1);
+    assertThat(offsets).hasSize(count).startsWith(0L, 1L).endsWith(98L, 99L);
+    assertThat(messages).hasSize(count).doesNotContainNull();
+    verify(consumer, times(1)).store(99L);
+    assertThat(batch.size()).isZero();
+
+    batch.dispatch();
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void processedShouldBeCalledForEachMessage() {
+    ChunkMessageBatch batch = new ChunkMessageBatch(b -> b.processed());
+    MessageHandler.Context context = context(0, mock(Consumer.class));
+    for (int i = 0; i < 3; i++) {
+      batch.handle(context, new WrapperMessageBuilder().build());
+    }
+    batch.dispatch();
+    verify(context, times(3)).processed();
+  }
+
+  @Test
+  void postProcessingCallbackShouldBeCalledAfterHandler() {
+    List<String> events = new ArrayList<>();
+    ChunkMessageBatch batch = new ChunkMessageBatch(b -> events.add("batch"));
+    batch.postProcessingCallback(ctx -> events.add("post-" + ctx.offset()));
+    batch.handle(context(0, mock(Consumer.class)), new WrapperMessageBuilder().build());
+    batch.handle(context(1, mock(Consumer.class)), new WrapperMessageBuilder().build());
+    batch.dispatch();
+    assertThat(events).containsExactly("batch", "post-1", "post-1");
+  }
+
+  @Test
+  void failingHandlerShouldNotKeepMessages() {
+    AtomicInteger size = new AtomicInteger();
+    ChunkMessageBatch batch =
+        new ChunkMessageBatch(
+            b -> {
+              size.set(b.size());
+              throw new IllegalStateException();
+            });
+    batch.handle(context(0, mock(Consumer.class)), new WrapperMessageBuilder().build());
+    assertThatThrownBy(batch::dispatch).isInstanceOf(IllegalStateException.class);
+    assertThat(size).hasValue(1);
+    batch.handle(context(1, mock(Consumer.class)), new WrapperMessageBuilder().build());
+    assertThatThrownBy(batch::dispatch).isInstanceOf(IllegalStateException.class);
+    assertThat(size).hasValue(1);
+  }
+}
@@ -72,8 +72,10 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -1328,6 +1330,45 @@ public class ClientTest {
         .hasMessageContaining("less than 256 bytes when encoded as UTF-8");
   }
 
+  @Test
+  void asyncRequestsShouldBePipelinedOnTheSameConnection() throws Exception {
+    Client client = cf.get();
+    int publisherCount = 10;
+    List<CompletableFuture<Response>> declarations = new ArrayList<>();
+    for (int i = 0; i < publisherCount; i++) {
+      declarations.add(client.declarePublisherAsync(b(i), "publisher-" + i, stream));
+    }
+    for (CompletableFuture<Response> declaration : declarations) {
+      assertThat(declaration.get(10, SECONDS)).is(ok());
+    }
+
+    List<CompletableFuture<Long>> sequences = new ArrayList<>();
+    for (int i = 0; i < publisherCount; i++) {
+      sequences.add(client.queryPublisherSequenceAsync("publisher-" + i, stream));
+    }
+    CompletableFuture<Map<String, Client.StreamMetadata>> metadata = client.metadataAsync(stream);
+    CompletableFuture<Client.QueryOffsetResponse> offset =
+        client.queryOffsetAsync("does-not-exist", stream);
+    for (CompletableFuture<Long> sequence : sequences) {
+      assertThat(sequence.get(10, SECONDS)).isZero();
+    }
+    assertThat(metadata.get(10, SECONDS).get(stream).isResponseOk()).isTrue();
+    assertThat(offset.get(10, SECONDS)).is(responseCode(Constants.RESPONSE_CODE_NO_OFFSET));
+
+    List<CompletableFuture<Response>> deletions = new ArrayList<>();
+    for (int i = 0; i < publisherCount; i++) {
+      deletions.add(client.deletePublisherAsync(b(i)));
+    }
+    for (CompletableFuture<Response> deletion : deletions) {
+      assertThat(deletion.get(10, SECONDS)).is(ok());
+    }
+
+    client.close();
+    assertThatThrownBy(() -> client.metadataAsync(stream).get(10, SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(StreamException.class);
+  }
+
   @Test
   void testSubscriptionTrackerState() {
     SubscriptionTracker tracker = new SubscriptionTracker();
@@ -14,11 +14,14 @@
 // info@rabbitmq.com.
 package com.rabbitmq.stream.impl;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.rabbitmq.stream.Codec.EncodedMessage;
 import com.rabbitmq.stream.codec.ByteArrayEncodedMessage;
 import com.rabbitmq.stream.compression.CompressionCodec;
+import com.rabbitmq.stream.compression.CompressionException;
 import com.rabbitmq.stream.compression.CompressionUtils.CommonsCompressGzipCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.CommonsCompressLz4CompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.CommonsCompressSnappyCompressionCodec;
@@ -27,21 +30,29 @@ import com.rabbitmq.stream.compression.CompressionUtils.GzipCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.Lz4JavaCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.XerialSnappyCompressionCodec;
 import com.rabbitmq.stream.compression.CompressionUtils.ZstdJniCompressionCodec;
+import com.rabbitmq.stream.compression.CompressionUtils.ZstdJniDictionaryCompressionCodec;
+import com.rabbitmq.stream.compression.ZstdDictionary;
 import com.rabbitmq.stream.impl.Client.CompressedEncodedMessageBatch;
 import com.rabbitmq.stream.impl.Client.EncodedMessageBatch;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class CompressionCodecsTest {
 
@@ -128,4 +139,148 @@ public class CompressionCodecsTest {
     destinationBb.release();
     outBb.release();
   }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void zstdBlockDecompressionShouldReadStreamCompressedData(boolean direct) throws IOException {
+    CompressionCodec codec = new ZstdJniCompressionCodec();
+    assertThat(codec.supportsBlocks()).isTrue();
+    byte[] plain = new byte[100_000];
+    for (int i = 0; i < plain.length; i++) {
+      plain[i] = (byte) (i % 100);
+    }
+    ByteBuf compressed = Unpooled.buffer();
+    try (OutputStream outputStream = codec.compress(new ByteBufOutputStream(compressed))) {
+      outputStream.write(plain);
+    }
+    ByteBuffer source = buffer(compressed.readableBytes(), direct);
+    source.put(compressed.nioBuffer()).flip();
+    compressed.release();
+    ByteBuffer target = buffer(plain.length, direct);
+    int n = codec.decompress(source, target);
+    assertThat(n).isEqualTo(plain.length);
+    assertThat(source.position()).isZero();
+    assertThat(target.position()).isZero();
+    byte[] decompressed = new byte[n];
+    target.get(decompressed);
+    assertThat(decompressed).isEqualTo(plain);
+
+    // target too small
+    assertThatThrownBy(() -> codec.decompress(source, buffer(plain.length / 2, direct)))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  void zstdBlockCompressionShouldRejectMixedBuffers() {
+    CompressionCodec codec = new ZstdJniCompressionCodec();
+    assertThatThrownBy(
+            () -> codec.compress(ByteBuffer.allocateDirect(10), ByteBuffer.allocate(100)))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  void blockMethodsAreNotSupportedByDefault() {
+    CompressionCodec codec = new GzipCompressionCodec();
+    assertThat(codec.supportsBlocks()).isFalse();
+    assertThatThrownBy(() -> codec.compress(ByteBuffer.allocate(10), ByteBuffer.allocate(100)))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void zstdDictionaryShouldImproveCompressionOfSmallMessages(boolean direct) throws IOException {
+    ZstdDictionary dictionary =
+        ZstdDictionary.train(
+            IntStream.range(0, 5_000).mapToObj(i -> jsonMessage(i)).collect(toList()), 4096);
+    assertThat(ZstdDictionary.of(dictionary.content()).id()).isEqualTo(dictionary.id());
+    CompressionCodec plainCodec = new ZstdJniCompressionCodec();
+    CompressionCodec dictionaryCodec = new ZstdJniDictionaryCompressionCodec(dictionary, List.of());
+
+    ByteBuffer plain = buffer(10 * 200, direct);
+    IntStream.range(10_000, 10_010).forEach(i -> plain.put(jsonMessage(i)));
+    plain.flip();
+    int maxCompressedLength = dictionaryCodec.maxCompressedLength(plain.remaining());
+    ByteBuffer compressed = buffer(maxCompressedLength, direct);
+    compressed.limit(dictionaryCodec.compress(plain, compressed));
+    ByteBuffer compressedWithoutDictionary = buffer(maxCompressedLength, direct);
+    compressedWithoutDictionary.limit(plainCodec.compress(plain, compressedWithoutDictionary));
+    assertThat(compressed.remaining()).isLessThan(compressedWithoutDictionary.remaining());
+
+    ByteBuffer decompressed = buffer(plain.remaining(), direct);
+    assertThat(dictionaryCodec.decompress(compressed, decompressed)).isEqualTo(plain.remaining());
+    assertThat(decompressed).isEqualTo(plain);
+    // data compressed without dictionary can be decompressed as well
+    decompressed.clear();
+    assertThat(dictionaryCodec.decompress(compressedWithoutDictionary, decompressed))
+        .isEqualTo(plain.remaining());
+    assertThat(decompressed).isEqualTo(plain);
+
+    // stream-based decompression
+    byte[] compressedBytes = new byte[compressed.remaining()];
+    compressed.duplicate().get(compressedBytes);
+    ByteBuf decompressedBb = Unpooled.buffer();
+    try (InputStream inputStream =
+        new ZstdJniDictionaryCompressionCodec(null, List.of(dictionary))
+            .decompress(new ByteBufInputStream(Unpooled.wrappedBuffer(compressedBytes)))) {
+      decompressedBb.writeBytes(inputStream, plain.remaining());
+    }
+    assertThat(decompressedBb.nioBuffer()).isEqualTo(plain);
+
+    // the dictionary is required to decompress
+    assertThatThrownBy(
+            () ->
+                new ZstdJniDictionaryCompressionCodec(null, List.of())
+                    .decompress(compressed, buffer(plain.remaining(), direct)))
+        .isInstanceOf(CompressionException.class)
+        .hasMessageContaining(String.valueOf(dictionary.id()));
+  }
+
+  @Test
+  void zstdDictionaryCodecShouldReleaseNativeResourcesOnClose() {
+    ZstdDictionary dictionary =
+        ZstdDictionary.train(
+            IntStream.range(0, 5_000).mapToObj(i -> jsonMessage(i)).collect(toList()), 4096);
+    ZstdJniDictionaryCompressionCodec codec =
+        new ZstdJniDictionaryCompressionCodec(dictionary, List.of());
+    byte[] message = jsonMessage(10_000);
+    ByteBuffer compressed = ByteBuffer.allocate(codec.maxCompressedLength(message.length));
+    ByteBuffer decompressed = ByteBuffer.allocate(message.length);
+    // the same contexts are used several times
+    for (int i = 0; i < 3; i++) {
+      compressed.clear();
+      compressed.limit(codec.compress(ByteBuffer.wrap(message), compressed));
+      decompressed.clear();
+      assertThat(codec.decompress(compressed, decompressed)).isEqualTo(message.length);
+      assertThat(decompressed).isEqualTo(ByteBuffer.wrap(message));
+    }
+
+    codec.close();
+    codec.close();
+    assertThatThrownBy(() -> codec.compress(ByteBuffer.wrap(message), compressed))
+        .isInstanceOf(CompressionException.class);
+    assertThatThrownBy(() -> codec.decompress(compressed, decompressed))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  void zstdDictionaryShouldBeTrained() {
+    assertThatThrownBy(() -> ZstdDictionary.of(new byte[100]))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  private static byte[] jsonMessage(int i) {
+    return String.format(
+            "{\"id\":%d,\"type\":\"order\",\"region\":\"%s\",\"amount\":%d,"
+                + "\"currency\":\"EUR\",\"status\":\"%s\",\"customer\":\"customer-%d\"}",
+            i,
+            i % 3 == 0 ? "eu-west" : "us-east",
+            i * 7 % 1000,
+            i % 2 == 0 ? "created" : "shipped",
+            i % 97)
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static ByteBuffer buffer(int capacity, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
 }
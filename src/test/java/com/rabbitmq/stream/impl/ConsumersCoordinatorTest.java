@@ -24,6 +24,7 @@ import static com.rabbitmq.stream.impl.TestUtils.metadata;
 import static com.rabbitmq.stream.impl.TestUtils.namedConsumer;
 import static com.rabbitmq.stream.impl.TestUtils.waitAtMost;
 import static com.rabbitmq.stream.impl.Utils.brokerPicker;
+import static com.rabbitmq.stream.impl.Utils.keyForNode;
 import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -37,6 +38,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -48,6 +50,7 @@ import com.rabbitmq.stream.BackOffDelayPolicy;
 import com.rabbitmq.stream.Constants;
 import com.rabbitmq.stream.ConsumerFlowStrategy;
 import com.rabbitmq.stream.MessageHandler;
+import com.rabbitmq.stream.ObservationCollector;
 import com.rabbitmq.stream.OffsetSpecification;
 import com.rabbitmq.stream.StreamDoesNotExistException;
 import com.rabbitmq.stream.StreamException;
@@ -58,6 +61,7 @@ import com.rabbitmq.stream.impl.Client.QueryOffsetResponse;
 import com.rabbitmq.stream.impl.Client.Response;
 import com.rabbitmq.stream.impl.MonitoringTestUtils.ConsumerCoordinatorInfo;
 import com.rabbitmq.stream.impl.Utils.ClientFactory;
+import com.rabbitmq.stream.impl.Utils.ClientFactoryContext;
 import io.netty.channel.ConnectTimeoutException;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -109,6 +113,7 @@ public class ConsumersCoordinatorTest {
   volatile Client.MetadataListener metadataListener;
   volatile Client.MessageListener messageListener;
   volatile Client.MessageIgnoredListener messageIgnoredListener;
+  volatile Client.ChunkListener chunkListener;
   List<Client.MessageListener> messageListeners = new CopyOnWriteArrayList<>();
   volatile Client.ShutdownListener shutdownListener;
   List<Client.ShutdownListener> shutdownListeners =
@@ -154,6 +159,12 @@ public class ConsumersCoordinatorTest {
             return super.messageListener(messageListener);
           }
 
+          @Override
+          public Client.ClientParameters chunkListener(Client.ChunkListener chunkListener) {
+            ConsumersCoordinatorTest.this.chunkListener = chunkListener;
+            return super.chunkListener(chunkListener);
+          }
+
           @Override
           public Client.ClientParameters messageIgnoredListener(
               Client.MessageIgnoredListener messageIgnoredListener) {
@@ -174,6 +185,12 @@ public class ConsumersCoordinatorTest {
     l.client(locator);
     when(environment.locator()).thenReturn(l);
     when(environment.locatorOperation(any())).thenCallRealMethod();
+    when(environment.streamMetadata(anyString()))
+        .thenAnswer(
+            invocation -> {
+              String stream = invocation.getArgument(0);
+              return environment.locatorOperation(c -> c.metadata(stream)).get(stream);
+            });
     when(environment.clientParametersCopy()).thenReturn(clientParameters);
     when(environment.addressResolver()).thenReturn(address -> address);
     when(client.brokerVersion()).thenReturn("3.11.0");
@@ -550,6 +567,102 @@ public class ConsumersCoordinatorTest {
     assertThat(pickBroker(picker, singletonList(leaderWrapper()))).isEqualTo(leader);
   }
 
+  @Test
+  void batchModeShouldReuseContextAndNotifyConsumerAtEndOfChunk() {
+    when(locator.metadata("stream")).thenReturn(metadata(null, replicas()));
+    when(clientFactory.client(any())).thenReturn(client);
+    when(client.subscribe(
+            subscriptionIdCaptor.capture(),
+            anyString(),
+            any(OffsetSpecification.class),
+            anyInt(),
+            anyMap()))
+        .thenReturn(new Client.Response(Constants.RESPONSE_CODE_OK));
+    when(consumer.batchMode()).thenReturn(true);
+    when(consumer.isOpen()).thenReturn(true);
+
+    List<MessageHandler.Context> contexts = new ArrayList<>();
+    List<Long> offsets = new ArrayList<>();
+    coordinator.subscribe(
+        consumer,
+        "stream",
+        OffsetSpecification.first(),
+        null,
+        NO_OP_SUBSCRIPTION_LISTENER,
+        () -> {},
+        (context, message) -> {
+          contexts.add(context);
+          offsets.add(context.offset());
+        },
+        Collections.emptyMap(),
+        flowStrategy());
+
+    byte subscriptionId = subscriptionIdCaptor.getValue();
+    Object chunkContext = chunkListener.handle(client, subscriptionId, 10, 3, 100);
+    messageIgnoredListener.ignored(subscriptionId, 10, 0, 0, chunkContext);
+    messageListener.handle(
+        subscriptionId, 11, 0, 0, chunkContext, new WrapperMessageBuilder().build());
+    verify(consumer, never()).chunkHandled();
+    messageListener.handle(
+        subscriptionId, 12, 0, 0, chunkContext, new WrapperMessageBuilder().build());
+    verify(consumer, times(1)).chunkHandled();
+    assertThat(offsets).containsExactly(11L, 12L);
+    assertThat(contexts.get(0)).isSameAs(contexts.get(1));
+
+    chunkContext = chunkListener.handle(client, subscriptionId, 13, 1, 100);
+    messageListener.handle(
+        subscriptionId, 13, 0, 0, chunkContext, new WrapperMessageBuilder().build());
+    verify(consumer, times(2)).chunkHandled();
+  }
+
+  @Test
+  void chunkMessageHandlerShouldBeNotifiedOfChunkBoundaries() {
+    when(locator.metadata("stream")).thenReturn(metadata(null, replicas()));
+    when(clientFactory.client(any())).thenReturn(client);
+    when(client.subscribe(
+            subscriptionIdCaptor.capture(),
+            anyString(),
+            any(OffsetSpecification.class),
+            anyInt(),
+            anyMap()))
+        .thenReturn(new Client.Response(Constants.RESPONSE_CODE_OK));
+    ObservationCollector.ChunkMessageHandler chunkMessageHandler =
+        mock(ObservationCollector.ChunkMessageHandler.class);
+    when(consumer.chunkMessageHandler()).thenReturn(chunkMessageHandler);
+    when(consumer.isOpen()).thenReturn(true);
+
+    List<Long> offsets = new ArrayList<>();
+    coordinator.subscribe(
+        consumer,
+        "stream",
+        OffsetSpecification.first(),
+        null,
+        NO_OP_SUBSCRIPTION_LISTENER,
+        () -> {},
+        (context, message) -> offsets.add(context.offset()),
+        Collections.emptyMap(),
+        flowStrategy());
+
+    byte subscriptionId = subscriptionIdCaptor.getValue();
+    Object chunkContext = chunkListener.handle(client, subscriptionId, 10, 3, 100);
+    verify(chunkMessageHandler, times(1)).chunkStarted(3);
+    messageIgnoredListener.ignored(subscriptionId, 10, 0, 0, chunkContext);
+    messageListener.handle(
+        subscriptionId, 11, 0, 0, chunkContext, new WrapperMessageBuilder().build());
+    verify(chunkMessageHandler, never()).chunkCompleted();
+    messageListener.handle(
+        subscriptionId, 12, 0, 0, chunkContext, new WrapperMessageBuilder().build());
+    verify(chunkMessageHandler, times(1)).chunkCompleted();
+    assertThat(offsets).containsExactly(11L, 12L);
+
+    chunkContext = chunkListener.handle(client, subscriptionId, 13, 1, 100);
+    verify(chunkMessageHandler, times(1)).chunkStarted(1);
+    messageListener.handle(
+        subscriptionId, 13, 0, 0, chunkContext, new WrapperMessageBuilder().build());
+    verify(chunkMessageHandler, times(2)).chunkCompleted();
+    verify(consumer, never()).chunkHandled();
+  }
+
   @Test
   void subscribeShouldSubscribeToStreamAndDispatchMessage_UnsubscribeShouldUnsubscribe() {
     when(locator.metadata("stream")).thenReturn(metadata(null, replicas()));
@@ -1908,6 +2021,82 @@ public class ConsumersCoordinatorTest {
     verify(locator, times(3)).metadata("stream");
   }
 
+  @Test
+  void shouldRefreshCachedMetadataWhenRecoveryTimesOut() throws Exception {
+    scheduledExecutorService = createScheduledExecutorService(2);
+    when(environment.scheduledExecutorService()).thenReturn(scheduledExecutorService);
+    Duration retryDelay = Duration.ofMillis(100);
+    when(environment.recoveryBackOffDelayPolicy()).thenReturn(BackOffDelayPolicy.fixed(retryDelay));
+    when(environment.topologyUpdateBackOffDelayPolicy())
+        .thenReturn(BackOffDelayPolicy.fixed(retryDelay));
+    when(consumer.isOpen()).thenReturn(true);
+    // the environment keeps the metadata until they are invalidated
+    Map<String, Client.StreamMetadata> metadataCache = new ConcurrentHashMap<>();
+    doAnswer(
+            invocation ->
+                metadataCache.computeIfAbsent(
+                    invocation.getArgument(0), s -> locator.metadata(s).get(s)))
+        .when(environment)
+        .streamMetadata(anyString());
+    doAnswer(
+            invocation -> {
+              metadataCache.remove(invocation.<String>getArgument(0));
+              return null;
+            })
+        .when(environment)
+        .invalidateStreamMetadata(anyString());
+    Client.Broker oldReplica = replicas().get(0);
+    Client.Broker newReplica = replicas().get(1);
+    when(locator.metadata("stream"))
+        .thenReturn(metadata("stream", null, singletonList(oldReplica)))
+        .thenReturn(metadata("stream", null, singletonList(oldReplica)))
+        .thenReturn(metadata("stream", null, singletonList(newReplica)));
+
+    List<String> targetKeys = new CopyOnWriteArrayList<>();
+    AtomicInteger clientCreationCount = new AtomicInteger();
+    when(clientFactory.client(any()))
+        .thenAnswer(
+            invocation -> {
+              targetKeys.add(invocation.<ClientFactoryContext>getArgument(0).targetKey());
+              if (clientCreationCount.incrementAndGet() == 2) {
+                // the old replica is gone, the connection attempt times out
+                throw new TimeoutStreamException("", new ConnectTimeoutException());
+              }
+              return client;
+            });
+
+    AtomicInteger subscriptionCount = new AtomicInteger(0);
+    when(client.subscribe(
+            subscriptionIdCaptor.capture(),
+            anyString(),
+            any(OffsetSpecification.class),
+            anyInt(),
+            anyMap()))
+        .thenAnswer(
+            invocation -> {
+              subscriptionCount.incrementAndGet();
+              return responseOk();
+            });
+
+    coordinator.subscribe(
+        consumer,
+        "stream",
+        null,
+        null,
+        NO_OP_SUBSCRIPTION_LISTENER,
+        NO_OP_TRACKING_CLOSING_CALLBACK,
+        (offset, message) -> {},
+        Collections.emptyMap(),
+        flowStrategy());
+
+    this.shutdownListener.handle(
+        new Client.ShutdownContext(Client.ShutdownContext.ShutdownReason.UNKNOWN));
+
+    waitAtMost(() -> subscriptionCount.get() == 1 + 1);
+    assertThat(targetKeys)
+        .containsExactly(keyForNode(oldReplica), keyForNode(oldReplica), keyForNode(newReplica));
+  }
+
   @Test
   void subscribeUnsubscribeInDifferentThreadsShouldNotDeadlock() {
     when(locator.metadata("stream")).thenReturn(metadata(null, replicas()));
@@ -0,0 +1,190 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DeliveryDispatcherTest {
+
+  ExecutorService executorService;
+
+  @BeforeEach
+  void init() {
+    executorService = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void tasksOfSubscriptionShouldRunInOrderAndOneAtATime() throws Exception {
+    DeliveryDispatcher dispatcher = new DeliveryDispatcher(executorService);
+    int subscriptionCount = 10;
+    int taskCount = 1000;
+    List<List<Integer>> results =
+        IntStream.range(0, subscriptionCount)
+            .mapToObj(ignored -> new CopyOnWriteArrayList<Integer>())
+            .collect(Collectors.toList());
+    AtomicInteger[] concurrentRuns =
+        IntStream.range(0, subscriptionCount)
+            .mapToObj(ignored -> new AtomicInteger())
+            .toArray(AtomicInteger[]::new);
+    AtomicInteger maxConcurrentRuns = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(subscriptionCount * taskCount);
+    for (int i = 0; i < taskCount; i++) {
+      for (int subscriptionId = 0; subscriptionId < subscriptionCount; subscriptionId++) {
+        int s = subscriptionId;
+        int value = i;
+        dispatcher.dispatch(
+            (byte) s,
+            () -> {
+              maxConcurrentRuns.accumulateAndGet(concurrentRuns[s].incrementAndGet(), Math::max);
+              results.get(s).add(value);
+              concurrentRuns[s].decrementAndGet();
+              latch.countDown();
+            });
+      }
+    }
+    assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxConcurrentRuns).hasValue(1);
+    List<Integer> expected = IntStream.range(0, taskCount).boxed().collect(Collectors.toList());
+    results.forEach(r -> assertThat(r).isEqualTo(expected));
+  }
+
+  @Test
+  void slowSubscriptionShouldNotBlockOtherSubscriptions() throws Exception {
+    DeliveryDispatcher dispatcher = new DeliveryDispatcher(executorService);
+    CountDownLatch blockingLatch = new CountDownLatch(1);
+    CountDownLatch otherLatch = new CountDownLatch(1);
+    CountDownLatch afterBlockingLatch = new CountDownLatch(1);
+    dispatcher.dispatch(
+        (byte) 0,
+        () -> {
+          try {
+            blockingLatch.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    dispatcher.dispatch((byte) 0, afterBlockingLatch::countDown);
+    // subscription IDs are unsigned bytes
+    dispatcher.dispatch((byte) 200, otherLatch::countDown);
+    assertThat(otherLatch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(afterBlockingLatch.getCount()).isEqualTo(1);
+    blockingLatch.countDown();
+    assertThat(afterBlockingLatch.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void failingTaskShouldNotStopDispatching() throws Exception {
+    DeliveryDispatcher dispatcher = new DeliveryDispatcher(executorService);
+    CountDownLatch latch = new CountDownLatch(1);
+    dispatcher.dispatch(
+        (byte) 0,
+        () -> {
+          throw new IllegalStateException();
+        });
+    dispatcher.dispatch((byte) 0, latch::countDown);
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void closeShouldRunPendingTasksInCallingThread() throws Exception {
+    DeliveryDispatcher dispatcher = new DeliveryDispatcher(executorService);
+    CountDownLatch blockingLatch = new CountDownLatch(1);
+    CountDownLatch blockingStartedLatch = new CountDownLatch(1);
+    dispatcher.dispatch(
+        (byte) 0,
+        () -> {
+          blockingStartedLatch.countDown();
+          try {
+            blockingLatch.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    assertThat(blockingStartedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread closingThread = Thread.currentThread();
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    int taskCount = 3;
+    IntStream.range(0, taskCount)
+        .forEach(
+            ignored -> dispatcher.dispatch((byte) 0, () -> threads.add(Thread.currentThread())));
+
+    dispatcher.close();
+    assertThat(threads).hasSize(taskCount).containsOnly(closingThread);
+    // tasks dispatched after closing run immediately
+    dispatcher.dispatch((byte) 1, () -> threads.add(Thread.currentThread()));
+    assertThat(threads).hasSize(taskCount + 1).containsOnly(closingThread);
+    blockingLatch.countDown();
+  }
+
+  @Test
+  void pendingTasksShouldRunWhenRescheduleIsRejected() throws Exception {
+    ExecutorService singleThreadExecutorService = Executors.newSingleThreadExecutor();
+    try {
+      DeliveryDispatcher dispatcher = new DeliveryDispatcher(singleThreadExecutorService);
+      CountDownLatch blockingLatch = new CountDownLatch(1);
+      dispatcher.dispatch(
+          (byte) 0,
+          () -> {
+            try {
+              blockingLatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      int taskCount = DeliveryDispatcher.MAX_TASKS_PER_RUN * 2;
+      CountDownLatch latch = new CountDownLatch(taskCount);
+      IntStream.range(0, taskCount)
+          .forEach(ignored -> dispatcher.dispatch((byte) 0, latch::countDown));
+      // the running task can complete, but the queue cannot be submitted again
+      singleThreadExecutorService.shutdown();
+      blockingLatch.countDown();
+      assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      singleThreadExecutorService.shutdownNow();
+    }
+  }
+
+  @Test
+  void rejectedTaskShouldNotBeKept() {
+    DeliveryDispatcher dispatcher = new DeliveryDispatcher(executorService);
+    executorService.shutdownNow();
+    AtomicInteger runs = new AtomicInteger();
+    assertThatThrownBy(() -> dispatcher.dispatch((byte) 0, runs::incrementAndGet))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThatThrownBy(() -> dispatcher.dispatch((byte) 0, runs::incrementAndGet))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(runs).hasValue(0);
+  }
+}
@@ -36,6 +36,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
@@ -377,6 +378,132 @@ public class DynamicBatchTest {
     assertThat(processCallCount.get()).isZero();
   }
 
+  @Test
+  void batchesSharingEngineProcessAllItems(TestInfo info) {
+    int batchCount = 50;
+    int itemCount = 2_000;
+    Sync sync = sync(batchCount * itemCount);
+    List<List<Integer>> processedItems = new ArrayList<>();
+    List<DynamicBatch<Integer>> batches = new ArrayList<>();
+    try (DynamicBatchEngine engine = new DynamicBatchEngine(2, batchId(info))) {
+      for (int i = 0; i < batchCount; i++) {
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        processedItems.add(processed);
+        DynamicBatch.BatchConsumer<Integer> action =
+            items -> {
+              processed.addAll(items);
+              sync.down(items.size());
+              return true;
+            };
+        batches.add(new DynamicBatch<>(action, 100, 10_000, batchId(info) + i, engine));
+      }
+      IntStream.range(0, itemCount).parallel().forEach(i -> batches.forEach(b -> b.add(i)));
+      assertThat(sync).completes();
+      batches.forEach(DynamicBatch::close);
+    }
+    processedItems.forEach(
+        processed -> {
+          assertThat(processed)
+              .hasSize(itemCount)
+              .containsExactlyInAnyOrderElementsOf(range(itemCount));
+        });
+  }
+
+  @Test
+  void batchesSharingEngineKeepOrderOfSingleProducer(TestInfo info) {
+    int itemCount = 10_000;
+    Sync sync = sync(itemCount * 2);
+    List<Integer> processed1 = Collections.synchronizedList(new ArrayList<>());
+    List<Integer> processed2 = Collections.synchronizedList(new ArrayList<>());
+    try (DynamicBatchEngine engine = new DynamicBatchEngine(1, batchId(info));
+        DynamicBatch<Integer> batch1 =
+            new DynamicBatch<>(
+                items -> {
+                  processed1.addAll(items);
+                  sync.down(items.size());
+                  return true;
+                },
+                100,
+                10_000,
+                batchId(info) + "1",
+                engine);
+        DynamicBatch<Integer> batch2 =
+            new DynamicBatch<>(
+                items -> {
+                  processed2.addAll(items);
+                  sync.down(items.size());
+                  return true;
+                },
+                100,
+                10_000,
+                batchId(info) + "2",
+                engine)) {
+      for (int i = 0; i < itemCount; i++) {
+        batch1.add(i);
+        batch2.add(i);
+      }
+      assertThat(sync).completes();
+    }
+    assertThat(processed1).containsExactlyElementsOf(range(itemCount));
+    assertThat(processed2).containsExactlyElementsOf(range(itemCount));
+  }
+
+  @Test
+  void failedProcessingIsReplayedWithEngine(TestInfo info) throws Exception {
+    int itemCount = 10_000;
+    AtomicInteger processed = new AtomicInteger(0);
+    AtomicBoolean canProcess = new AtomicBoolean(true);
+    DynamicBatch.BatchConsumer<String> action =
+        items -> {
+          if (canProcess.get()) {
+            processed.addAndGet(items.size());
+            return true;
+          } else {
+            return false;
+          }
+        };
+    try (DynamicBatchEngine engine = new DynamicBatchEngine(1, batchId(info));
+        DynamicBatch<String> batch =
+            new DynamicBatch<>(action, 100, 10_000, batchId(info), engine)) {
+      int firstRoundCount = itemCount / 5;
+      IntStream.range(0, firstRoundCount).forEach(i -> batch.add(String.valueOf(i)));
+      waitAtMost(() -> processed.get() == firstRoundCount);
+      canProcess.set(false);
+      IntStream.range(firstRoundCount, itemCount).forEach(i -> batch.add(String.valueOf(i)));
+      simulateActivity(200);
+      canProcess.set(true);
+      waitAtMost(() -> processed.get() == itemCount);
+    }
+  }
+
+  @Test
+  void closeWithEngineProcessesRemainingItems(TestInfo info) {
+    int itemCount = 1_000;
+    AtomicInteger processed = new AtomicInteger(0);
+    AtomicBoolean canProcess = new AtomicBoolean(false);
+    DynamicBatch.BatchConsumer<String> action =
+        items -> {
+          if (canProcess.get()) {
+            processed.addAndGet(items.size());
+            return true;
+          } else {
+            return false;
+          }
+        };
+    try (DynamicBatchEngine engine = new DynamicBatchEngine(1, batchId(info))) {
+      DynamicBatch<String> batch = new DynamicBatch<>(action, 100, 10_000, batchId(info), engine);
+      IntStream.range(0, itemCount).forEach(i -> batch.add(String.valueOf(i)));
+      simulateActivity(100);
+      canProcess.set(true);
+      batch.close();
+      assertThat(processed.get()).isPositive();
+    }
+  }
+
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(Collectors.toList());
+  }
+
   private static String batchId(TestInfo info) {
     return info.getTestMethod().get().getName();
   }
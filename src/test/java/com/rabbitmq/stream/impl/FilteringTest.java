@@ -151,6 +151,57 @@ public class FilteringTest {
         });
   }
 
+  @Test
+  void applicationPropertyFilterShouldSkipNonMatchingMessages() throws Exception {
+    repeatIfFailure(
+        () -> {
+          List<String> states = Arrays.asList("california", "texas", "oregon");
+          Map<String, AtomicInteger> stateCount = new HashMap<>();
+          Random random = new Random();
+          Producer producer =
+              producerBuilder()
+                  .filterValue(m -> m.getApplicationProperties().get("state").toString())
+                  .build();
+          CountDownLatch publishLatch = new CountDownLatch(messageCount);
+          IntStream.range(0, messageCount)
+              .forEach(
+                  ignored -> {
+                    String state = states.get(random.nextInt(states.size()));
+                    stateCount.computeIfAbsent(state, k -> new AtomicInteger()).incrementAndGet();
+                    producer.send(
+                        producer
+                            .messageBuilder()
+                            .applicationProperties()
+                            .entry("state", state)
+                            .messageBuilder()
+                            .build(),
+                        ctx -> publishLatch.countDown());
+                  });
+          latchAssert(publishLatch).completes(CONDITION_TIMEOUT);
+          producer.close();
+
+          String state = "california";
+          AtomicInteger consumedMessageCount = new AtomicInteger(0);
+          Set<Object> consumedStates = ConcurrentHashMap.newKeySet();
+          try (Consumer ignored =
+              consumerBuilder()
+                  .filter()
+                  .values(state)
+                  .applicationProperty("state", state)
+                  .builder()
+                  .messageHandler(
+                      (context, message) -> {
+                        consumedStates.add(message.getApplicationProperties().get("state"));
+                        consumedMessageCount.incrementAndGet();
+                      })
+                  .build()) {
+            int expectedCount = stateCount.get(state).get();
+            waitAtMost(CONDITION_TIMEOUT, () -> consumedMessageCount.get() == expectedCount);
+            assertThat(consumedStates).containsOnly(state);
+          }
+        });
+  }
+
   @ParameterizedTest
   @ValueSource(strings = "foo")
   @NullSource
@@ -22,9 +22,14 @@ import com.rabbitmq.stream.RoutingStrategy.Metadata;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
@@ -91,6 +96,56 @@ public class HashRoutingStrategyTest {
     assertThat(routingStrategy.route(null, metadata)).isEmpty();
   }
 
+  @Test
+  void routesShouldBeReusedUntilPartitionsChange() {
+    RoutingStrategy routingStrategy = new HashRoutingStrategy(m -> "rk", HashUtils.MURMUR3);
+    AtomicReference<List<String>> partitions =
+        new AtomicReference<>(Arrays.asList("invoices-01", "invoices-02"));
+    Metadata metadata =
+        new MetadataAdapter() {
+          @Override
+          public List<String> partitions() {
+            return partitions.get();
+          }
+        };
+    List<String> route = routingStrategy.route(null, metadata);
+    assertThat(route).hasSize(1);
+    assertThat(routingStrategy.route(null, metadata)).isSameAs(route);
+
+    partitions.set(Arrays.asList("invoices-01", "invoices-02", "invoices-03"));
+    int index = Integer.remainderUnsigned(HashUtils.MURMUR3.applyAsInt("rk"), 3);
+    assertThat(routingStrategy.route(null, metadata))
+        .containsExactly(partitions.get().get(index))
+        .isSameAs(routingStrategy.route(null, metadata));
+  }
+
+  @Test
+  void hashCacheShouldAvoidHashingCachedKeys() {
+    Map<String, AtomicInteger> hashCounts = new ConcurrentHashMap<>();
+    ToIntFunction<String> hash =
+        key -> {
+          hashCounts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+          return HashUtils.MURMUR3.applyAsInt(key);
+        };
+    Iterator<String> keys = Arrays.asList("a", "a", "b", "b", "c", "c").iterator();
+    RoutingStrategy routingStrategy = new HashRoutingStrategy(m -> keys.next(), hash, 2);
+    List<String> partitions = Arrays.asList("invoices-01", "invoices-02", "invoices-03");
+    Metadata metadata =
+        new MetadataAdapter() {
+          @Override
+          public List<String> partitions() {
+            return partitions;
+          }
+        };
+    while (keys.hasNext()) {
+      routingStrategy.route(null, metadata);
+    }
+    assertThat(hashCounts.get("a")).hasValue(1);
+    assertThat(hashCounts.get("b")).hasValue(1);
+    // the cache is full
+    assertThat(hashCounts.get("c")).hasValue(2);
+  }
+
   private static class MetadataAdapter implements Metadata {
 
     @Override
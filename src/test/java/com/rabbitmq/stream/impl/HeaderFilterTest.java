@@ -0,0 +1,173 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static com.rabbitmq.stream.impl.HeaderFilter.APPLICATION_PROPERTIES;
+import static com.rabbitmq.stream.impl.HeaderFilter.MESSAGE_ANNOTATIONS;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rabbitmq.stream.Codec;
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageBuilder;
+import com.rabbitmq.stream.codec.InternalCodec;
+import com.rabbitmq.stream.codec.QpidProtonCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class HeaderFilterTest {
+
+  static Stream<Codec> codecs() {
+    return Stream.of(new InternalCodec(), new QpidProtonCodec());
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void applicationPropertyConditionShouldMatchOnStringValue(Codec codec) {
+    HeaderFilter filter =
+        filter(new HeaderFilter.Condition(APPLICATION_PROPERTIES, "region", "eu"));
+    assertThat(test(filter, codec, b -> b.applicationProperties().entry("region", "eu"))).isTrue();
+    assertThat(test(filter, codec, b -> b.applicationProperties().entry("region", "us"))).isFalse();
+    assertThat(test(filter, codec, b -> b.applicationProperties().entry("regio", "eu"))).isFalse();
+    assertThat(test(filter, codec, b -> b.applicationProperties().entry("region", 42))).isFalse();
+    assertThat(test(filter, codec, b -> b)).isFalse();
+    assertThat(
+            test(
+                filter,
+                codec,
+                b ->
+                    b.messageAnnotations()
+                        .entry("region", "eu")
+                        .messageBuilder()
+                        .properties()
+                        .messageId(UUID.randomUUID())
+                        .subject("subject")
+                        .messageBuilder()
+                        .applicationProperties()
+                        .entry("id", 1L)
+                        .entry("uuid", UUID.randomUUID())
+                        .entry("binary", new byte[] {1, 2, 3})
+                        .entry("region", "eu")))
+        .isTrue();
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void messageAnnotationConditionShouldMatchOnStringValue(Codec codec) {
+    HeaderFilter filter = filter(new HeaderFilter.Condition(MESSAGE_ANNOTATIONS, "x-region", "eu"));
+    assertThat(test(filter, codec, b -> b.messageAnnotations().entry("x-region", "eu"))).isTrue();
+    assertThat(test(filter, codec, b -> b.messageAnnotations().entry("x-region", "us"))).isFalse();
+    assertThat(test(filter, codec, b -> b.applicationProperties().entry("x-region", "eu")))
+        .isFalse();
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void allConditionsShouldMatch(Codec codec) {
+    HeaderFilter filter =
+        new HeaderFilter(
+            asList(
+                new HeaderFilter.Condition(APPLICATION_PROPERTIES, "region", "eu"),
+                new HeaderFilter.Condition(APPLICATION_PROPERTIES, "type", "order"),
+                new HeaderFilter.Condition(MESSAGE_ANNOTATIONS, "x-priority", "high"),
+                new HeaderFilter.Condition(APPLICATION_PROPERTIES, "region", "eu")));
+    assertThat(
+            test(
+                filter,
+                codec,
+                b ->
+                    b.messageAnnotations()
+                        .entry("x-priority", "high")
+                        .messageBuilder()
+                        .applicationProperties()
+                        .entry("type", "order")
+                        .entry("region", "eu")))
+        .isTrue();
+    assertThat(
+            test(
+                filter,
+                codec,
+                b -> b.applicationProperties().entry("type", "order").entry("region", "eu")))
+        .isFalse();
+  }
+
+  @Test
+  void malformedMessagesShouldPass() {
+    HeaderFilter filter =
+        filter(new HeaderFilter.Condition(APPLICATION_PROPERTIES, "region", "eu"));
+    assertThat(test(filter, new byte[] {1, 2, 3})).isTrue();
+    // application properties section with a truncated map
+    assertThat(test(filter, new byte[] {0x00, 0x53, 0x74, (byte) 0xc1, 10, 2})).isTrue();
+    // data section, no application properties
+    assertThat(test(filter, new byte[] {0x00, 0x53, 0x75, (byte) 0xa0, 1, 42})).isFalse();
+    assertThat(test(filter, new byte[0])).isFalse();
+  }
+
+  @Test
+  void conditionShouldHaveKeyAndValue() {
+    assertThatThrownBy(() -> new HeaderFilter.Condition(APPLICATION_PROPERTIES, null, "eu"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new HeaderFilter.Condition(APPLICATION_PROPERTIES, "region", null))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new HeaderFilter(Collections.emptyList()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  static HeaderFilter filter(HeaderFilter.Condition condition) {
+    return new HeaderFilter(singletonList(condition));
+  }
+
+  static boolean test(
+      HeaderFilter filter, Codec codec, Function<MessageBuilder, Object> configuration) {
+    MessageBuilder builder = codec.messageBuilder();
+    Object result = configuration.apply(builder);
+    Message message =
+        (result instanceof MessageBuilder.ApplicationPropertiesBuilder
+                ? ((MessageBuilder.ApplicationPropertiesBuilder) result).messageBuilder()
+                : result instanceof MessageBuilder.MessageAnnotationsBuilder
+                    ? ((MessageBuilder.MessageAnnotationsBuilder) result).messageBuilder()
+                    : builder)
+            .addData("hello".getBytes(StandardCharsets.UTF_8))
+            .build();
+    Codec.EncodedMessage encoded = codec.encode(message);
+    ByteBuf bb = Unpooled.buffer(encoded.getSize() + 4);
+    encoded.writeTo(bb);
+    // skips the size
+    bb.readInt();
+    byte[] bytes = new byte[bb.readableBytes()];
+    bb.readBytes(bytes);
+    return test(filter, bytes);
+  }
+
+  static boolean test(HeaderFilter filter, byte[] message) {
+    // the message is in the middle of a buffer, like in a chunk
+    ByteBuf bb = Unpooled.buffer(message.length + 20);
+    bb.writeZero(10).writeBytes(message).writeZero(10);
+    bb.readerIndex(10);
+    boolean result = filter.test(bb, message.length);
+    assertThat(bb.readerIndex()).isEqualTo(10);
+    return result;
+  }
+}
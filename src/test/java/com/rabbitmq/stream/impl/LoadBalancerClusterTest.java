@@ -21,6 +21,7 @@ import static java.util.stream.Collectors.toSet;
 import static java.util.stream.IntStream.range;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 import com.rabbitmq.stream.Address;
@@ -81,6 +82,12 @@ public class LoadBalancerClusterTest {
         .thenReturn(new Client.ClientParameters().eventLoopGroup(eventLoopGroup).port(LB_PORT));
     when(environment.addressResolver()).thenReturn(address -> LOAD_BALANCER_ADDRESS);
     when(environment.locatorOperation(any())).thenCallRealMethod();
+    when(environment.streamMetadata(anyString()))
+        .thenAnswer(
+            invocation -> {
+              String stream = invocation.getArgument(0);
+              return environment.locatorOperation(c -> c.metadata(stream)).get(stream);
+            });
   }
 
   @AfterEach
@@ -0,0 +1,151 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class MpscArrayQueueTest {
+
+  @Test
+  void offerPollIsFifoAndBounded() {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+    assertThat(queue.isEmpty()).isTrue();
+    assertThat(queue.poll()).isNull();
+    for (int round = 0; round < 5; round++) {
+      assertThat(queue.offer(1)).isTrue();
+      assertThat(queue.offer(2)).isTrue();
+      assertThat(queue.offer(3)).isTrue();
+      // capacity is not rounded up to the power of 2
+      assertThat(queue.offer(4)).isFalse();
+      assertThat(queue.size()).isEqualTo(3);
+      assertThat(queue.poll()).isEqualTo(1);
+      assertThat(queue.offer(4)).isTrue();
+      assertThat(queue.poll()).isEqualTo(2);
+      assertThat(queue.poll()).isEqualTo(3);
+      assertThat(queue.poll()).isEqualTo(4);
+      assertThat(queue.poll()).isNull();
+      assertThat(queue.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  void nullElementsAreRejected() {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(1);
+    assertThatThrownBy(() -> queue.offer(null)).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void drainToTransfersUpToMaxElements() {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(10);
+    IntStream.range(0, 10).forEach(queue::offer);
+    List<Integer> items = new ArrayList<>();
+    assertThat(queue.drainTo(items, 4)).isEqualTo(4);
+    assertThat(items).containsExactly(0, 1, 2, 3);
+    assertThat(queue.drainTo(items)).isEqualTo(6);
+    assertThat(items).hasSize(10);
+    assertThat(queue.drainTo(items)).isZero();
+  }
+
+  @Test
+  void offerWithTimeoutReturnsFalseWhenQueueStaysFull() throws Exception {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(1);
+    queue.offer(0);
+    assertThat(queue.offer(1, 10, TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  void pollWithTimeoutIsWokenUpByProducer() throws Exception {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(1);
+    assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+    AtomicReference<Integer> polled = new AtomicReference<>();
+    CountDownLatch pollLatch = new CountDownLatch(1);
+    Thread consumer =
+        new Thread(
+            () -> {
+              try {
+                polled.set(queue.poll(10, TimeUnit.SECONDS));
+                pollLatch.countDown();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    consumer.start();
+    Thread.sleep(50);
+    queue.offer(42);
+    assertThat(pollLatch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(polled.get()).isEqualTo(42);
+  }
+
+  @Test
+  void concurrentProducersKeepTheirOrder() throws Exception {
+    int producerCount = 8;
+    int itemCount = 50_000;
+    MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(100);
+    ExecutorService executorService = Executors.newFixedThreadPool(producerCount);
+    try {
+      IntStream.range(0, producerCount)
+          .forEach(
+              producer ->
+                  executorService.submit(
+                      () -> {
+                        for (int i = 0; i < itemCount; i++) {
+                          queue.put(new long[] {producer, i});
+                        }
+                        return null;
+                      }));
+      long[] lastItems = new long[producerCount];
+      Arrays.fill(lastItems, -1);
+      List<long[]> batch = new ArrayList<>();
+      long received = 0;
+      long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+      while (received < (long) producerCount * itemCount && System.nanoTime() < deadline) {
+        long[] item = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (item != null) {
+          batch.add(item);
+          queue.drainTo(batch, 10);
+          for (long[] i : batch) {
+            assertThat(i[1]).isEqualTo(lastItems[(int) i[0]] + 1);
+            lastItems[(int) i[0]] = i[1];
+          }
+          received += batch.size();
+          batch.clear();
+        }
+      }
+      assertThat(received).isEqualTo((long) producerCount * itemCount);
+      assertThat(
+              IntStream.range(0, producerCount)
+                  .mapToObj(i -> lastItems[i])
+                  .collect(Collectors.toSet()))
+          .containsOnly((long) itemCount - 1);
+      assertThat(queue.isEmpty()).isTrue();
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+}
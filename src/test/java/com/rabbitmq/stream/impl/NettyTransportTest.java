@@ -0,0 +1,78 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rabbitmq.stream.EnvironmentBuilder.NettyConfiguration.Transport;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.uring.IoUring;
+import io.netty.channel.uring.IoUringSocketChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+public class NettyTransportTest {
+
+  @Test
+  void nioShouldBeUsedByDefault() {
+    assertThat(new Client.ClientParameters().nettyTransport).isSameAs(NettyTransport.NIO);
+    assertThat(NettyTransport.of(Transport.NIO).channelClass()).isEqualTo(NioSocketChannel.class);
+  }
+
+  @Test
+  void autoShouldPickBestAvailableTransport() throws Exception {
+    NettyTransport transport = NettyTransport.of(Transport.AUTO);
+    if (IoUring.isAvailable()) {
+      assertThat(transport.transport()).isEqualTo(Transport.IO_URING);
+      assertThat(transport.channelClass()).isEqualTo(IoUringSocketChannel.class);
+    } else if (Epoll.isAvailable()) {
+      assertThat(transport.transport()).isEqualTo(Transport.EPOLL);
+      assertThat(transport.channelClass()).isEqualTo(EpollSocketChannel.class);
+    } else {
+      assertThat(transport).isSameAs(NettyTransport.NIO);
+    }
+    EventLoopGroup eventLoopGroup = transport.eventLoopGroup();
+    try {
+      assertThat(eventLoopGroup.isShuttingDown()).isFalse();
+    } finally {
+      eventLoopGroup.shutdownGracefully(0, 0, SECONDS).get(10, SECONDS);
+    }
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void explicitNativeTransportShouldFailIfNotAvailable() {
+    if (Epoll.isAvailable()) {
+      assertThat(NettyTransport.of(Transport.EPOLL).channelClass())
+          .isEqualTo(EpollSocketChannel.class);
+    } else {
+      assertThatThrownBy(() -> NettyTransport.of(Transport.EPOLL))
+          .isInstanceOf(IllegalStateException.class);
+    }
+    if (IoUring.isAvailable()) {
+      assertThat(NettyTransport.of(Transport.IO_URING).channelClass())
+          .isEqualTo(IoUringSocketChannel.class);
+    } else {
+      assertThatThrownBy(() -> NettyTransport.of(Transport.IO_URING))
+          .isInstanceOf(IllegalStateException.class);
+    }
+  }
+}
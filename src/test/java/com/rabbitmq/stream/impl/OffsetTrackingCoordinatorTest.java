@@ -17,9 +17,13 @@ package com.rabbitmq.stream.impl;
 import static com.rabbitmq.stream.impl.TestUtils.answer;
 import static com.rabbitmq.stream.impl.TestUtils.latchAssert;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -28,9 +32,11 @@ import com.rabbitmq.stream.MessageHandler.Context;
 import com.rabbitmq.stream.impl.OffsetTrackingCoordinator.Registration;
 import com.rabbitmq.stream.impl.StreamConsumerBuilder.TrackingConfiguration;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.LongConsumer;
@@ -49,6 +55,8 @@ public class OffsetTrackingCoordinatorTest {
 
   ScheduledExecutorService executorService;
 
+  TimerWheel timerWheel;
+
   AutoCloseable mocks;
 
   OffsetTrackingCoordinator coordinator;
@@ -58,6 +66,9 @@ public class OffsetTrackingCoordinatorTest {
     mocks = MockitoAnnotations.openMocks(this);
     executorService = new ScheduledExecutorServiceWrapper(Executors.newScheduledThreadPool(2));
     when(env.scheduledExecutorService()).thenReturn(executorService);
+    timerWheel = new TimerWheel(Duration.ofMillis(10), 64);
+    timerWheel.start(executorService);
+    when(env.timerWheel()).thenReturn(timerWheel);
     when(consumer.isOpen()).thenReturn(true);
   }
 
@@ -68,6 +79,9 @@ public class OffsetTrackingCoordinatorTest {
       MonitoringTestUtils.extract(coordinator);
       coordinator.close();
     }
+    if (timerWheel != null) {
+      timerWheel.close();
+    }
     if (executorService != null) {
       executorService.shutdownNow();
     }
@@ -102,7 +116,7 @@ public class OffsetTrackingCoordinatorTest {
   @Test
   void autoShouldNotStoreIfNoMessagesArrive() throws Exception {
     Duration checkInterval = Duration.ofMillis(10);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     coordinator.registerTrackingConsumer(
         consumer,
@@ -110,15 +124,16 @@ public class OffsetTrackingCoordinatorTest {
 
     Thread.sleep(3 * checkInterval.toMillis());
     verify(consumer, never()).store(anyLong());
+    verify(consumer, never()).store(anyLong(), anyBoolean());
   }
 
   @Test
   void autoShouldStoreAfterSomeInactivity() {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     CountDownLatch flushLatch = new CountDownLatch(1);
-    doAnswer(answer(inv -> flushLatch.countDown())).when(consumer).store(anyLong());
+    doAnswer(answer(inv -> flushLatch.countDown())).when(consumer).store(anyLong(), eq(false));
 
     Consumer<Context> postProcessedMessageCallback =
         coordinator
@@ -135,8 +150,8 @@ public class OffsetTrackingCoordinatorTest {
   @Test
   void autoShouldStoreLastProcessedOffsetOnClosing() {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
-    when(consumer.storedOffset()).thenReturn(5L);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
+    when(consumer.cachedStoredOffset()).thenReturn(5L);
 
     Registration registration =
         coordinator.registerTrackingConsumer(
@@ -153,8 +168,8 @@ public class OffsetTrackingCoordinatorTest {
   @Test
   void autoShouldNotStoreLastProcessedOffsetOnClosingIfBehindStoredOffset() {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
-    when(consumer.storedOffset()).thenReturn(15L);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
+    when(consumer.cachedStoredOffset()).thenReturn(15L);
 
     Registration registration =
         coordinator.registerTrackingConsumer(
@@ -171,10 +186,10 @@ public class OffsetTrackingCoordinatorTest {
   @Test
   void autoShouldStoreFixedMessageCountAndAutoTrackingAfterInactivity() {
     Duration checkInterval = Duration.ofMillis(100);
-    coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    coordinator = new OffsetTrackingCoordinator(env);
 
     CountDownLatch flushLatch = new CountDownLatch(1);
-    doAnswer(answer(inv -> flushLatch.countDown())).when(consumer).store(anyLong());
+    doAnswer(answer(inv -> flushLatch.countDown())).when(consumer).store(anyLong(), eq(false));
 
     int messageInterval = 100;
     int messageCount = 5 * messageInterval + messageInterval / 5;
@@ -202,11 +217,11 @@ public class OffsetTrackingCoordinatorTest {
   @Test
   void autoShouldNotStoreIfOffsetAlreadyStored() throws Exception {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     long storedOffset = 10;
 
-    when(consumer.storedOffset()).thenReturn(storedOffset);
+    when(consumer.cachedStoredOffset()).thenReturn(storedOffset);
 
     Duration autoFlushInterval = Duration.ofMillis(checkInterval.toMillis() * 2);
     Consumer<Context> postProcessedMessageCallback =
@@ -220,16 +235,17 @@ public class OffsetTrackingCoordinatorTest {
 
     Thread.sleep(autoFlushInterval.multipliedBy(4).toMillis());
     verify(consumer, never()).store(anyLong());
+    verify(consumer, never()).store(anyLong(), anyBoolean());
   }
 
   @Test
   void autoShouldNotFlushAfterInactivityIfLastStoreIsOnModulo() throws Exception {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     int storeEvery = 10;
 
-    when(consumer.storedOffset()).thenReturn((long) storeEvery - 1);
+    when(consumer.cachedStoredOffset()).thenReturn((long) storeEvery - 1);
 
     Duration autoFlushInterval = Duration.ofMillis(checkInterval.toMillis() * 2);
     Consumer<Context> postProcessedMessageCallback =
@@ -247,24 +263,25 @@ public class OffsetTrackingCoordinatorTest {
 
     Thread.sleep(autoFlushInterval.multipliedBy(4).toMillis());
     verify(consumer, never()).store(anyLong());
+    verify(consumer, never()).store(anyLong(), anyBoolean());
   }
 
   @Test
   void autoShouldStoreLastProcessedAfterInactivity() {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     int storeEvery = 10;
     int extraMessages = 3;
 
     long expectedLastStoredOffset = storeEvery + extraMessages - 1;
-    when(consumer.storedOffset()).thenReturn((long) (storeEvery - 1));
+    when(consumer.cachedStoredOffset()).thenReturn((long) (storeEvery - 1));
 
     ArgumentCaptor<Long> lastStoredOffsetCaptor = ArgumentCaptor.forClass(Long.class);
     CountDownLatch flushLatch = new CountDownLatch(1);
     doAnswer(answer(inv -> flushLatch.countDown()))
         .when(consumer)
-        .store(lastStoredOffsetCaptor.capture());
+        .store(lastStoredOffsetCaptor.capture(), eq(false));
 
     Duration autoFlushInterval = Duration.ofMillis(checkInterval.toMillis() * 2);
     Consumer<Context> postProcessedMessageCallback =
@@ -281,17 +298,17 @@ public class OffsetTrackingCoordinatorTest {
             });
 
     assertThat(latchAssert(flushLatch)).completes(5);
-    verify(consumer, times(1)).store(anyLong());
+    verify(consumer, times(1)).store(anyLong(), anyBoolean());
     assertThat(lastStoredOffsetCaptor.getValue()).isEqualTo(expectedLastStoredOffset);
   }
 
   @Test
   void manualShouldNotStoreIfAlreadyUpToDate() throws Exception {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     long lastStoredOffset = 50;
-    when(consumer.storedOffset()).thenReturn(lastStoredOffset);
+    when(consumer.cachedStoredOffset()).thenReturn(lastStoredOffset);
 
     LongConsumer storeCallback =
         coordinator
@@ -306,22 +323,23 @@ public class OffsetTrackingCoordinatorTest {
     Thread.sleep(3 * checkInterval.toMillis());
 
     verify(consumer, never()).store(anyLong());
+    verify(consumer, never()).store(anyLong(), anyBoolean());
   }
 
   @Test
   void manualShouldStoreIfRequestedStoredOffsetIsBehind() {
     Duration checkInterval = Duration.ofMillis(100);
-    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env, checkInterval);
+    OffsetTrackingCoordinator coordinator = new OffsetTrackingCoordinator(env);
 
     long lastRequestedOffset = 50;
     long lastStoredOffset = 40;
-    when(consumer.storedOffset()).thenReturn(lastStoredOffset);
+    when(consumer.cachedStoredOffset()).thenReturn(lastStoredOffset);
 
     ArgumentCaptor<Long> lastStoredOffsetCaptor = ArgumentCaptor.forClass(Long.class);
     CountDownLatch storeLatch = new CountDownLatch(1);
     doAnswer(answer(inv -> storeLatch.countDown()))
         .when(consumer)
-        .store(lastStoredOffsetCaptor.capture());
+        .store(lastStoredOffsetCaptor.capture(), eq(false));
 
     LongConsumer storeCallback =
         coordinator
@@ -335,7 +353,90 @@ public class OffsetTrackingCoordinatorTest {
 
     assertThat(latchAssert(storeLatch)).completes(5);
 
-    verify(consumer, times(1)).store(anyLong());
+    verify(consumer, times(1)).store(anyLong(), anyBoolean());
+  }
+
+  @Test
+  void backgroundStorageShouldFlushConnectionOnce() throws Exception {
+    Duration checkInterval = Duration.ofMillis(100);
+    // the wheel is advanced manually
+    TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 64);
+    when(env.timerWheel()).thenReturn(wheel);
+    coordinator = new OffsetTrackingCoordinator(env);
+
+    Client client = mock(Client.class);
+    StreamConsumer otherConsumer = mock(StreamConsumer.class);
+    when(otherConsumer.isOpen()).thenReturn(true);
+    TrackingConfiguration configuration =
+        new TrackingConfiguration(true, false, -1, Duration.ZERO, checkInterval);
+    for (StreamConsumer c : Arrays.asList(consumer, otherConsumer)) {
+      when(c.cachedStoredOffset()).thenReturn(40L, 50L);
+      when(c.store(anyLong(), eq(false))).thenReturn(client);
+      coordinator.registerTrackingConsumer(c, configuration).trackingCallback().accept(50);
+    }
+
+    Thread.sleep(checkInterval.multipliedBy(2).toMillis());
+    wheel.advance(System.nanoTime());
+    // checks run in the scheduled executor
+    verify(consumer, timeout(5000).times(1)).store(50, false);
+    verify(otherConsumer, timeout(5000).times(1)).store(50, false);
+    verify(client, timeout(5000).times(1)).flush();
+    verify(consumer, never()).storedOffset();
+  }
+
+  @Test
+  void blockingStoredOffsetLookupShouldNotBlockTimerWheel() throws Exception {
+    Duration checkInterval = Duration.ofMillis(100);
+    TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 64);
+    when(env.timerWheel()).thenReturn(wheel);
+    coordinator = new OffsetTrackingCoordinator(env);
+
+    CountDownLatch lookupStarted = new CountDownLatch(1);
+    CountDownLatch lookupDone = new CountDownLatch(1);
+    // e.g. stored offset cache invalidated after recovery, the lookup is a broker round trip
+    when(consumer.cachedStoredOffset())
+        .thenAnswer(
+            invocation -> {
+              lookupStarted.countDown();
+              lookupDone.await(10, TimeUnit.SECONDS);
+              return 40L;
+            });
+    coordinator
+        .registerTrackingConsumer(
+            consumer, new TrackingConfiguration(true, false, -1, Duration.ZERO, checkInterval))
+        .trackingCallback()
+        .accept(50);
+
+    Thread.sleep(checkInterval.multipliedBy(2).toMillis());
+    long start = System.nanoTime();
+    wheel.advance(System.nanoTime());
+    assertThat(latchAssert(lookupStarted)).completes();
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    lookupDone.countDown();
+    verify(consumer, timeout(5000).times(1)).store(50, false);
+  }
+
+  @Test
+  void trackerShouldBeCheckedOnlyWhenDue() {
+    TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 64);
+    when(env.timerWheel()).thenReturn(wheel);
+    coordinator = new OffsetTrackingCoordinator(env);
+
+    coordinator
+        .registerTrackingConsumer(
+            consumer,
+            new TrackingConfiguration(true, false, -1, Duration.ZERO, Duration.ofHours(1)))
+        .trackingCallback()
+        .accept(50);
+    assertThat(wheel.size()).isEqualTo(1);
+
+    wheel.advance(System.nanoTime() + Duration.ofMinutes(1).toNanos());
+    verify(consumer, never()).cachedStoredOffset();
+    verify(consumer, never()).isOpen();
+    assertThat(wheel.size()).isEqualTo(1);
+
+    coordinator.close();
+    assertThat(wheel.size()).isZero();
   }
 
   Context context(long offset, Runnable action) {
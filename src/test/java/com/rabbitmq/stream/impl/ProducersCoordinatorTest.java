@@ -19,6 +19,7 @@ import static com.rabbitmq.stream.impl.ProducersCoordinator.pickSlot;
 import static com.rabbitmq.stream.impl.TestUtils.CountDownLatchConditions.completed;
 import static com.rabbitmq.stream.impl.TestUtils.answer;
 import static com.rabbitmq.stream.impl.TestUtils.metadata;
+import static com.rabbitmq.stream.impl.Utils.keyForNode;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -39,6 +40,7 @@ import com.rabbitmq.stream.Constants;
 import com.rabbitmq.stream.StreamDoesNotExistException;
 import com.rabbitmq.stream.impl.Client.Response;
 import com.rabbitmq.stream.impl.Utils.ClientFactory;
+import com.rabbitmq.stream.impl.Utils.ClientFactoryContext;
 import io.netty.channel.ConnectTimeoutException;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -47,6 +49,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -129,6 +132,12 @@ public class ProducersCoordinatorTest {
     l.client(locator);
     when(environment.locator()).thenReturn(l);
     when(environment.locatorOperation(any())).thenCallRealMethod();
+    when(environment.streamMetadata(anyString()))
+        .thenAnswer(
+            invocation -> {
+              String stream = invocation.getArgument(0);
+              return environment.locatorOperation(c -> c.metadata(stream)).get(stream);
+            });
     when(environment.clientParametersCopy()).thenReturn(clientParameters);
     when(environment.addressResolver()).thenReturn(address -> address);
     when(trackingConsumer.stream()).thenReturn("stream");
@@ -355,6 +364,59 @@ public class ProducersCoordinatorTest {
     verify(this.producer, times(2)).setClient(client);
   }
 
+  @Test
+  void shouldRefreshCachedMetadataWhenRecoveryTimesOut() throws Exception {
+    scheduledExecutorService = createScheduledExecutorService();
+    when(environment.scheduledExecutorService()).thenReturn(scheduledExecutorService);
+    when(environment.recoveryBackOffDelayPolicy()).thenReturn(BackOffDelayPolicy.fixed(ms(50)));
+    // the environment keeps the metadata until they are invalidated
+    ConcurrentMap<String, Client.StreamMetadata> metadataCache = new ConcurrentHashMap<>();
+    doAnswer(
+            invocation ->
+                metadataCache.computeIfAbsent(
+                    invocation.getArgument(0), s -> locator.metadata(s).get(s)))
+        .when(environment)
+        .streamMetadata(anyString());
+    doAnswer(
+            invocation -> {
+              metadataCache.remove(invocation.<String>getArgument(0));
+              return null;
+            })
+        .when(environment)
+        .invalidateStreamMetadata(anyString());
+    when(locator.metadata("stream"))
+        .thenReturn(metadata(leader1(), replicas()))
+        .thenReturn(metadata(leader1(), replicas()))
+        .thenReturn(metadata(leader2(), replicas()));
+
+    List<String> targetKeys = new CopyOnWriteArrayList<>();
+    AtomicInteger clientCreationCount = new AtomicInteger();
+    when(clientFactory.client(any()))
+        .thenAnswer(
+            invocation -> {
+              targetKeys.add(invocation.<ClientFactoryContext>getArgument(0).targetKey());
+              if (clientCreationCount.incrementAndGet() == 2) {
+                // leader-1 is gone, the connection attempt times out
+                throw new TimeoutStreamException("", new ConnectTimeoutException());
+              }
+              return client;
+            });
+
+    when(producer.isOpen()).thenReturn(true);
+    CountDownLatch runningLatch = new CountDownLatch(1);
+    doAnswer(answer(runningLatch::countDown)).when(producer).running();
+
+    coordinator.registerProducer(producer, null, "stream");
+
+    shutdownListener.handle(
+        new Client.ShutdownContext(Client.ShutdownContext.ShutdownReason.UNKNOWN));
+
+    assertThat(runningLatch.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(producer, times(2)).setClient(client);
+    assertThat(targetKeys)
+        .containsExactly(keyForNode(leader1()), keyForNode(leader1()), keyForNode(leader2()));
+  }
+
   @Test
   void shouldDisposeProducerAndNotTrackingConsumerIfRecoveryTimesOut() throws Exception {
     scheduledExecutorService = createScheduledExecutorService();
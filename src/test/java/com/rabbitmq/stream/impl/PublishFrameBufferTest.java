@@ -0,0 +1,122 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class PublishFrameBufferTest {
+
+  ByteBufAllocator allocator = new UnpooledByteBufAllocator(true);
+  Random random = new Random();
+
+  @Test
+  void largeDirectBuffersShouldBeRetainedAndNotCopied() {
+    int batchCount = 3;
+    int batchSize = PublishFrameBuffer.ZERO_COPY_THRESHOLD * 4;
+    List<ByteBuf> batches = new ArrayList<>();
+    for (int i = 0; i < batchCount; i++) {
+      batches.add(randomBuffer(allocator.directBuffer(batchSize), batchSize));
+    }
+    int frameSize = 4 + 9 + batchCount * (19 + batchSize);
+    ByteBuf expected = allocator.heapBuffer(frameSize);
+    PublishFrameBuffer frame = new PublishFrameBuffer(allocator, frameSize);
+    writeHeader(expected, frameSize, batchCount);
+    writeHeader(frame, frameSize, batchCount);
+    for (int i = 0; i < batchCount; i++) {
+      ByteBuf batch = batches.get(i);
+      writeBatchHeader(expected, i, batchSize);
+      writeBatchHeader(frame, i, batchSize);
+      expected.writeBytes(batch, 0, batch.writerIndex());
+      frame.writeBytes(batch, 0, batch.writerIndex());
+      // the compressed batch releases its buffer after writing it
+      batch.release();
+    }
+
+    assertThat(frame.writerIndex()).isEqualTo(frameSize);
+    // only small increments are allocated for the bytes that are not retained
+    assertThat(frame.capacity() - frameSize).isLessThan(PublishFrameBuffer.ZERO_COPY_THRESHOLD);
+    assertThat(frame.isDirect()).isTrue();
+    assertThat(ByteBufUtil.equals(frame, expected)).isTrue();
+    batches.forEach(b -> assertThat(b.refCnt()).isEqualTo(1));
+
+    frame.release();
+    expected.release();
+    batches.forEach(b -> assertThat(b.refCnt()).isZero());
+  }
+
+  @Test
+  void smallAndHeapBuffersShouldBeCopied() {
+    int smallSize = PublishFrameBuffer.ZERO_COPY_THRESHOLD - 1;
+    int heapSize = PublishFrameBuffer.ZERO_COPY_THRESHOLD * 2;
+    ByteBuf small = randomBuffer(allocator.directBuffer(smallSize), smallSize);
+    ByteBuf heap = randomBuffer(allocator.heapBuffer(heapSize), heapSize);
+    int frameSize = 4 + 9 + 19 + smallSize + 19 + heapSize;
+    ByteBuf expected = allocator.heapBuffer(frameSize);
+    PublishFrameBuffer frame = new PublishFrameBuffer(allocator, frameSize);
+    writeHeader(expected, frameSize, 2);
+    writeHeader(frame, frameSize, 2);
+    writeBatchHeader(expected, 0, smallSize);
+    writeBatchHeader(frame, 0, smallSize);
+    expected.writeBytes(small, 0, smallSize);
+    frame.writeBytes(small, 0, smallSize);
+    writeBatchHeader(expected, 1, heapSize);
+    writeBatchHeader(frame, 1, heapSize);
+    expected.writeBytes(heap, 0, heapSize);
+    frame.writeBytes(heap, 0, heapSize);
+
+    assertThat(ByteBufUtil.equals(frame, expected)).isTrue();
+    assertThat(frame.capacity()).isLessThanOrEqualTo(frameSize);
+    assertThat(frame.maxFastWritableBytes()).isLessThanOrEqualTo(frame.writableBytes());
+    assertThat(small.refCnt()).isEqualTo(1);
+    assertThat(heap.refCnt()).isEqualTo(1);
+    assertThat(frame.isDirect()).isTrue();
+
+    frame.release();
+    expected.release();
+    small.release();
+    heap.release();
+  }
+
+  ByteBuf randomBuffer(ByteBuf buffer, int size) {
+    byte[] data = new byte[size];
+    random.nextBytes(data);
+    return buffer.writeBytes(data);
+  }
+
+  static void writeHeader(ByteBuf bb, int frameSize, int entityCount) {
+    bb.writeInt(frameSize - 4);
+    bb.writeShort(2);
+    bb.writeShort(1);
+    bb.writeByte(1);
+    bb.writeInt(entityCount);
+  }
+
+  static void writeBatchHeader(ByteBuf bb, long publishingId, int size) {
+    bb.writeLong(publishingId);
+    bb.writeByte(0x80 | 2 << 4);
+    bb.writeShort(10);
+    bb.writeInt(size * 2);
+    bb.writeInt(size);
+  }
+}
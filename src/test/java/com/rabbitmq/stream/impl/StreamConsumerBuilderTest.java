@@ -33,7 +33,7 @@ public class StreamConsumerBuilderTest {
     }
 
     assertEquals(
-        16,
+        17,
         nonStaticFields,
         "If this fails, update the copy constructor method to handle the new field(s)");
   }
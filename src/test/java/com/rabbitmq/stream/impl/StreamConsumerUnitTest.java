@@ -207,6 +207,31 @@ public class StreamConsumerUnitTest {
         .containsExactly(OPENING, OPEN, RECOVERING, OPEN, RECOVERING, OPEN, CLOSING, CLOSED);
   }
 
+  @Test
+  void cachedStoredOffsetShouldQueryBrokerOnlyAfterRecovery() {
+    when(client.queryOffset("app", "s"))
+        .thenReturn(new Client.QueryOffsetResponse(Constants.RESPONSE_CODE_OK, 42L));
+    StreamConsumer c = csrLst(context -> {});
+    c.setTrackingClient(client);
+
+    assertThat(c.cachedStoredOffset()).isEqualTo(42);
+    assertThat(c.cachedStoredOffset()).isEqualTo(42);
+    verify(client, times(1)).queryOffset("app", "s");
+
+    c.store(50);
+    verify(client, times(1)).storeOffset("app", "s", 50, true);
+    assertThat(c.cachedStoredOffset()).isEqualTo(50);
+    verify(client, times(1)).queryOffset("app", "s");
+
+    // tracking connection goes down and comes back
+    c.unavailable();
+    c.setTrackingClient(client);
+    c.running();
+    assertThat(c.cachedStoredOffset()).isEqualTo(42);
+    verify(client, times(2)).queryOffset("app", "s");
+    c.close();
+  }
+
   private StreamConsumer csrLst(Resource.StateListener lst) {
     when(environment.registerConsumer(
             any(StreamConsumer.class),
@@ -223,6 +248,8 @@ public class StreamConsumerUnitTest {
         "s",
         OffsetSpecification.first(),
         (ctx, msg) -> {},
+        null,
+        null,
         "app",
         environment,
         new StreamConsumerBuilder.TrackingConfiguration(
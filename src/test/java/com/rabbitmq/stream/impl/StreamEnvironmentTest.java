@@ -42,6 +42,7 @@ import com.rabbitmq.stream.Consumer;
 import com.rabbitmq.stream.ConsumerBuilder;
 import com.rabbitmq.stream.Environment;
 import com.rabbitmq.stream.EnvironmentBuilder;
+import com.rabbitmq.stream.EnvironmentBuilder.NettyConfiguration.Transport;
 import com.rabbitmq.stream.Message;
 import com.rabbitmq.stream.NoOffsetException;
 import com.rabbitmq.stream.OffsetSpecification;
@@ -778,6 +779,30 @@ public class StreamEnvironmentTest {
     nativeIo(IoUringIoHandler.newFactory(), IoUringSocketChannel.class);
   }
 
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  @EnabledIfSystemProperty(named = "os.arch", matches = "amd64")
+  void autoTransportShouldUseNativeTransportOnLinux() {
+    Set<Channel> channels = ConcurrentHashMap.newKeySet();
+    try (Environment env =
+        environmentBuilder
+            .netty()
+            .transport(Transport.AUTO)
+            .channelCustomizer(channels::add)
+            .environmentBuilder()
+            .build()) {
+      Producer producer = env.producerBuilder().stream(this.stream).build();
+      CountDownLatch confirmLatch = new CountDownLatch(1);
+      producer.send(
+          producer.messageBuilder().addData("hello".getBytes(StandardCharsets.UTF_8)).build(),
+          confirmationStatus -> confirmLatch.countDown());
+      assertThat(latchAssert(confirmLatch)).completes();
+    }
+    assertThat(channels)
+        .isNotEmpty()
+        .allMatch(ch -> ch instanceof IoUringSocketChannel || ch instanceof EpollSocketChannel);
+  }
+
   @Test
   @EnabledOnOs(OS.MAC)
   @EnabledIfSystemProperty(named = "os.arch", matches = "aarch64")
@@ -108,7 +108,10 @@ public class StreamEnvironmentUnitTest {
             true,
             Duration.ofMillis(100),
             Duration.ofMillis(100),
-            -1);
+            -1,
+            0,
+            0,
+            Duration.ZERO);
   }
 
   @AfterEach
@@ -178,7 +181,10 @@ public class StreamEnvironmentUnitTest {
             true,
             Duration.ofMillis(100),
             Duration.ofMillis(100),
-            -1);
+            -1,
+            0,
+            0,
+            Duration.ZERO);
     verify(cf, times(3)).apply(any(Client.ClientParameters.class));
   }
 
@@ -211,7 +217,10 @@ public class StreamEnvironmentUnitTest {
             true,
             Duration.ofMillis(100),
             Duration.ofMillis(100),
-            -1);
+            -1,
+            0,
+            0,
+            Duration.ZERO);
     verify(cf, times(expectedConnectionCreation)).apply(any(Client.ClientParameters.class));
   }
 
@@ -0,0 +1,170 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rabbitmq.stream.Constants;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+public class StreamMetadataCacheTest {
+
+  AtomicLong clock = new AtomicLong(0);
+  AtomicInteger calls = new AtomicInteger(0);
+
+  static Client.StreamMetadata metadata(String stream, short code) {
+    return new Client.StreamMetadata(
+        stream, code, new Client.Broker("localhost", 5552), Collections.emptyList());
+  }
+
+  Function<String, Client.StreamMetadata> loader(short code) {
+    return stream -> {
+      calls.incrementAndGet();
+      return metadata(stream, code);
+    };
+  }
+
+  StreamMetadataCache cache(Function<String, Client.StreamMetadata> loader, Duration ttl) {
+    return new StreamMetadataCache(loader, ttl, clock::get);
+  }
+
+  @Test
+  void metadataShouldBeCachedUntilExpiration() {
+    StreamMetadataCache cache = cache(loader(Constants.RESPONSE_CODE_OK), Duration.ofSeconds(5));
+    Client.StreamMetadata metadata = cache.get("s1");
+    assertThat(metadata.isResponseOk()).isTrue();
+    assertThat(cache.get("s1")).isSameAs(metadata);
+    assertThat(calls).hasValue(1);
+    cache.get("s2");
+    assertThat(calls).hasValue(2);
+    clock.addAndGet(Duration.ofSeconds(4).toNanos());
+    assertThat(cache.get("s1")).isSameAs(metadata);
+    assertThat(calls).hasValue(2);
+    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(cache.get("s1")).isNotSameAs(metadata);
+    assertThat(calls).hasValue(3);
+  }
+
+  @Test
+  void invalidatedMetadataShouldBeReloaded() {
+    StreamMetadataCache cache = cache(loader(Constants.RESPONSE_CODE_OK), Duration.ofSeconds(5));
+    cache.get("s1");
+    cache.get("s2");
+    cache.invalidate("s1");
+    cache.get("s1");
+    cache.get("s2");
+    assertThat(calls).hasValue(3);
+    cache.clear();
+    assertThat(cache.size()).isZero();
+    cache.get("s2");
+    assertThat(calls).hasValue(4);
+  }
+
+  @Test
+  void unsuccessfulResponsesAndErrorsShouldNotBeCached() {
+    StreamMetadataCache cache =
+        cache(loader(Constants.RESPONSE_CODE_STREAM_NOT_AVAILABLE), Duration.ofSeconds(5));
+    assertThat(cache.get("s1").getResponseCode())
+        .isEqualTo(Constants.RESPONSE_CODE_STREAM_NOT_AVAILABLE);
+    cache.get("s1");
+    assertThat(calls).hasValue(2);
+    assertThat(cache.size()).isZero();
+
+    StreamMetadataCache failingCache =
+        cache(
+            stream -> {
+              calls.incrementAndGet();
+              throw new IllegalStateException();
+            },
+            Duration.ofSeconds(5));
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> failingCache.get("s1")).isInstanceOf(IllegalStateException.class);
+    }
+    assertThat(calls).hasValue(4);
+    assertThat(failingCache.size()).isZero();
+
+    StreamMetadataCache nullCache =
+        cache(
+            stream -> {
+              calls.incrementAndGet();
+              return null;
+            },
+            Duration.ofSeconds(5));
+    assertThat(nullCache.get("s1")).isNull();
+    assertThat(nullCache.size()).isZero();
+  }
+
+  @Test
+  void zeroTtlShouldNotCache() {
+    StreamMetadataCache cache = cache(loader(Constants.RESPONSE_CODE_OK), Duration.ZERO);
+    cache.get("s1");
+    cache.get("s1");
+    assertThat(calls).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void concurrentLookupsShouldShareTheSameRequest() throws Exception {
+    CountDownLatch requestLatch = new CountDownLatch(1);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    StreamMetadataCache cache =
+        cache(
+            stream -> {
+              calls.incrementAndGet();
+              requestLatch.countDown();
+              try {
+                releaseLatch.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return metadata(stream, Constants.RESPONSE_CODE_OK);
+            },
+            // in-flight requests must be shared even without caching
+            Duration.ZERO);
+    int lookupCount = 10;
+    ExecutorService executorService = Executors.newFixedThreadPool(lookupCount);
+    try {
+      List<Future<Client.StreamMetadata>> results = new ArrayList<>();
+      results.add(executorService.submit(() -> cache.get("s1")));
+      assertThat(requestLatch.await(10, TimeUnit.SECONDS)).isTrue();
+      for (int i = 1; i < lookupCount; i++) {
+        results.add(executorService.submit(() -> cache.get("s1")));
+      }
+      // gives some time for the lookups to wait for the in-flight request
+      Thread.sleep(100);
+      releaseLatch.countDown();
+      Client.StreamMetadata metadata = results.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<Client.StreamMetadata> result : results) {
+        assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(metadata);
+      }
+      assertThat(calls).hasValue(1);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+}
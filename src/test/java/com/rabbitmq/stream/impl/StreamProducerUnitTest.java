@@ -23,41 +23,59 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyShort;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.rabbitmq.stream.ConfirmationHandler;
+import com.rabbitmq.stream.ConfirmationListener;
+import com.rabbitmq.stream.ConfirmationStatus;
 import com.rabbitmq.stream.Constants;
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageHandler;
 import com.rabbitmq.stream.ObservationCollector;
 import com.rabbitmq.stream.StreamException;
 import com.rabbitmq.stream.codec.SimpleCodec;
 import com.rabbitmq.stream.compression.Compression;
 import com.rabbitmq.stream.compression.DefaultCompressionCodecFactory;
 import com.rabbitmq.stream.impl.Client.OutboundEntityWriteCallback;
+import com.rabbitmq.stream.impl.ProducerUtils.AccumulatedEntity;
+import com.rabbitmq.stream.metrics.MetricsCollector;
+import com.rabbitmq.stream.metrics.NoOpMetricsCollector;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.ToLongFunction;
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -76,6 +94,7 @@ public class StreamProducerUnitTest {
   Queue<ByteBuf> buffers = new ConcurrentLinkedQueue<>();
 
   ScheduledExecutorService executorService;
+  TimerWheel timerWheel;
   Clock clock = new Clock();
 
   AutoCloseable mocks;
@@ -124,10 +143,14 @@ public class StreamProducerUnitTest {
             any(ToLongFunction.class)))
         .thenCallRealMethod();
     when(env.scheduledExecutorService()).thenReturn(executorService);
+    timerWheel = new TimerWheel(Duration.ofMillis(10), 64);
+    timerWheel.start(executorService);
+    when(env.timerWheel()).thenReturn(timerWheel);
     when(env.locatorOperation(any())).thenCallRealMethod();
     when(env.clock()).thenReturn(clock);
     when(env.codec()).thenReturn(new SimpleCodec());
     when(env.observationCollector()).thenAnswer(invocation -> ObservationCollector.NO_OP);
+    when(env.metricsCollector()).thenReturn(NoOpMetricsCollector.SINGLETON);
     DefaultCompressionCodecFactory ccf = new DefaultCompressionCodecFactory();
     when(env.compressionCodecFactory()).thenReturn(ccf);
     doAnswer(
@@ -145,6 +168,9 @@ public class StreamProducerUnitTest {
   @AfterEach
   void tearDown() throws Exception {
     buffers.forEach(ByteBuf::release);
+    if (timerWheel != null) {
+      timerWheel.close();
+    }
     if (executorService != null) {
       executorService.shutdownNow();
     }
@@ -195,6 +221,9 @@ public class StreamProducerUnitTest {
             Duration.ofSeconds(10),
             true,
             null,
+            null,
+            1,
+            false,
             emptyList(),
             env);
 
@@ -247,6 +276,9 @@ public class StreamProducerUnitTest {
             enqueueTimeout,
             true,
             null,
+            null,
+            1,
+            false,
             emptyList(),
             env);
 
@@ -289,6 +321,9 @@ public class StreamProducerUnitTest {
             enqueueTimeout,
             true,
             null,
+            null,
+            1,
+            false,
             emptyList(),
             env);
 
@@ -323,6 +358,355 @@ public class StreamProducerUnitTest {
     assertThat(confirmCalled).isFalse();
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void bulkConfirmShouldReleaseAllPermits(boolean useListener) throws Exception {
+    int messageCount = 10;
+    AtomicInteger handlerConfirmedCount = new AtomicInteger();
+    AtomicInteger failedCount = new AtomicInteger();
+    AtomicInteger listenerCalls = new AtomicInteger();
+    List<Long> listenerConfirmed = new CopyOnWriteArrayList<>();
+    ConfirmationListener listener =
+        useListener
+            ? (publishingIds, count) -> {
+              listenerCalls.incrementAndGet();
+              for (int i = 0; i < count; i++) {
+                listenerConfirmed.add(publishingIds[i]);
+              }
+            }
+            : null;
+    ConfirmationHandler confirmationHandler =
+        status -> {
+          if (status.isConfirmed()) {
+            handlerConfirmedCount.incrementAndGet();
+          } else {
+            failedCount.incrementAndGet();
+          }
+        };
+    StreamProducer producer =
+        new StreamProducer(
+            null,
+            "stream",
+            1,
+            10,
+            true,
+            Compression.NONE,
+            Duration.ZERO,
+            messageCount,
+            Duration.ofMinutes(1),
+            Duration.ofMillis(10),
+            true,
+            null,
+            listener,
+            1,
+            false,
+            emptyList(),
+            env);
+
+    range(0, messageCount)
+        .forEach(
+            i ->
+                producer.send(
+                    producer.messageBuilder().addData("".getBytes()).build(), confirmationHandler));
+    waitAtMost(() -> producer.unconfirmedCount() == messageCount);
+
+    // publishing ID 0 is already failed and removed, its permit has been released
+    producer.error(0, Constants.CODE_PUBLISH_CONFIRM_TIMEOUT);
+    long[] publishingIds = range(1, messageCount).mapToLong(i -> i).toArray();
+    producer.confirm(publishingIds, publishingIds.length);
+
+    assertThat(producer.unconfirmedCount()).isZero();
+    assertThat(failedCount).hasValue(1);
+    if (useListener) {
+      assertThat(listenerCalls).hasValue(1);
+      assertThat(listenerConfirmed).hasSize(messageCount - 1).doesNotContain(0L);
+      assertThat(handlerConfirmedCount).hasValue(0);
+    } else {
+      assertThat(handlerConfirmedCount).hasValue(messageCount - 1);
+    }
+
+    // all the permits are available again, so no message fails to be enqueued
+    range(0, messageCount)
+        .forEach(
+            i ->
+                producer.send(
+                    producer.messageBuilder().addData("".getBytes()).build(), confirmationHandler));
+    assertThat(failedCount).hasValue(1);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 5})
+  void publishLatenciesShouldBeRecordedWhenMetricsAreEnabled(int subEntrySize) throws Exception {
+    int messageCount = 10;
+    int entityCount = messageCount / subEntrySize;
+    List<Long> queueingTimes = new CopyOnWriteArrayList<>();
+    List<Long> confirmLatencies = new CopyOnWriteArrayList<>();
+    Set<String> streams = ConcurrentHashMap.newKeySet();
+    MetricsCollector metricsCollector = mock(MetricsCollector.class);
+    doAnswer(
+            invocation -> {
+              streams.add(invocation.getArgument(0));
+              queueingTimes.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(metricsCollector)
+        .publishQueueingTime(anyString(), anyLong());
+    doAnswer(
+            invocation -> {
+              streams.add(invocation.getArgument(0));
+              confirmLatencies.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(metricsCollector)
+        .publishConfirmLatency(anyString(), anyLong());
+    when(metricsCollector.publishLatencyEnabled()).thenReturn(true);
+    when(env.metricsCollector()).thenReturn(metricsCollector);
+    StreamProducer producer =
+        new StreamProducer(
+            null,
+            "stream",
+            subEntrySize,
+            10,
+            true,
+            Compression.NONE,
+            Duration.ZERO,
+            messageCount,
+            Duration.ofMinutes(1),
+            Duration.ofMillis(10),
+            true,
+            null,
+            null,
+            1,
+            false,
+            emptyList(),
+            env);
+
+    AtomicInteger confirmedCount = new AtomicInteger();
+    long start = System.nanoTime();
+    range(0, messageCount)
+        .forEach(
+            i ->
+                producer.send(
+                    producer.messageBuilder().addData("".getBytes()).build(),
+                    s -> confirmedCount.incrementAndGet()));
+    // dynamic batching can close a sub-entry before it is full, so confirming all the IDs
+    long[] publishingIds = range(0, messageCount - 1).mapToLong(i -> i).toArray();
+    waitAtMost(
+        () -> {
+          producer.confirm(publishingIds, publishingIds.length);
+          // the last message always ends an entity
+          producer.confirm(messageCount - 1);
+          return confirmedCount.get() == messageCount;
+        });
+    long elapsed = System.nanoTime() - start;
+    assertThat(producer.unconfirmedCount()).isZero();
+    assertThat(queueingTimes).hasSizeGreaterThanOrEqualTo(entityCount).allMatch(t -> t >= 0);
+    assertThat(confirmLatencies).hasSameSizeAs(queueingTimes).allMatch(t -> t >= 0 && t <= elapsed);
+    assertThat(streams).containsExactly("stream");
+  }
+
+  @Test
+  void objectPoolingShouldReuseEntitiesAndConfirmationStatuses() throws Exception {
+    int messageCount = 10;
+    Set<ConfirmationStatus> firstStatuses = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<ConfirmationStatus> secondStatuses = Collections.newSetFromMap(new IdentityHashMap<>());
+    AtomicReference<Set<ConfirmationStatus>> statuses = new AtomicReference<>(firstStatuses);
+    List<Message> confirmedMessages = new CopyOnWriteArrayList<>();
+    ConfirmationHandler confirmationHandler =
+        status -> {
+          assertThat(status.isConfirmed()).isTrue();
+          assertThat(status.getCode()).isEqualTo(Constants.RESPONSE_CODE_OK);
+          confirmedMessages.add(status.getMessage());
+          statuses.get().add(status);
+        };
+    StreamProducer producer =
+        new StreamProducer(
+            null,
+            "stream",
+            1,
+            10,
+            true,
+            Compression.NONE,
+            Duration.ZERO,
+            messageCount,
+            Duration.ofMinutes(1),
+            Duration.ofMillis(10),
+            true,
+            null,
+            null,
+            1,
+            true,
+            emptyList(),
+            env);
+
+    List<Message> messages = new ArrayList<>();
+    for (int round = 0; round < 2; round++) {
+      range(0, messageCount)
+          .forEach(
+              i -> {
+                Message message = producer.messageBuilder().addData("".getBytes()).build();
+                messages.add(message);
+                producer.send(message, confirmationHandler);
+              });
+      waitAtMost(() -> producer.unconfirmedCount() == messageCount);
+      long firstPublishingId = (long) round * messageCount;
+      long[] publishingIds = range(0, messageCount).mapToLong(i -> firstPublishingId + i).toArray();
+      producer.confirm(publishingIds, publishingIds.length);
+      assertThat(producer.unconfirmedCount()).isZero();
+      statuses.set(secondStatuses);
+    }
+
+    assertThat(confirmedMessages).containsExactlyElementsOf(messages);
+    assertThat(firstStatuses).hasSize(messageCount);
+    // entities and their statuses are recycled after confirmation
+    assertThat(secondStatuses).hasSize(messageCount);
+    assertThat(firstStatuses).containsAll(secondStatuses);
+    // recycled statuses do not retain the message
+    firstStatuses.forEach(status -> assertThat(status.getMessage()).isNull());
+  }
+
+  @Test
+  void parallelCompressionShouldNotBeUsedWithoutCompression() {
+    new StreamProducer(
+        null,
+        "stream",
+        10,
+        10,
+        true,
+        null,
+        Duration.ZERO,
+        10,
+        Duration.ofMinutes(1),
+        Duration.ofMillis(10),
+        true,
+        null,
+        null,
+        4,
+        false,
+        emptyList(),
+        env);
+    verify(env, never()).compressionExecutorService();
+  }
+
+  @Test
+  void publishLatenciesShouldNotBeRecordedIfNotEnabled() throws Exception {
+    MetricsCollector metricsCollector = mock(MetricsCollector.class);
+    when(env.metricsCollector()).thenReturn(metricsCollector);
+    StreamProducer producer =
+        new StreamProducer(
+            null,
+            "stream",
+            1,
+            10,
+            true,
+            Compression.NONE,
+            Duration.ZERO,
+            10,
+            Duration.ofMinutes(1),
+            Duration.ofMillis(10),
+            true,
+            null,
+            null,
+            1,
+            false,
+            emptyList(),
+            env);
+
+    producer.send(producer.messageBuilder().addData("".getBytes()).build(), s -> {});
+    waitAtMost(() -> producer.unconfirmedCount() == 1);
+    producer.confirm(0);
+    assertThat(producer.unconfirmedCount()).isZero();
+    verify(metricsCollector, never()).publishQueueingTime(anyString(), anyLong());
+    verify(metricsCollector, never()).publishConfirmLatency(anyString(), anyLong());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void observationShouldNotUseEntitiesRecycledByConfirmation() throws Exception {
+    int messageCount = 10;
+    List<Object> observedContexts = new CopyOnWriteArrayList<>();
+    List<Message> observedMessages = new CopyOnWriteArrayList<>();
+    ObservationCollector<Object> observationCollector =
+        new ObservationCollector<Object>() {
+          @Override
+          public Object prePublish(String stream, Message message) {
+            return message;
+          }
+
+          @Override
+          public void published(Object context, Message message) {
+            observedContexts.add(context);
+            observedMessages.add(message);
+          }
+
+          @Override
+          public MessageHandler subscribe(MessageHandler handler) {
+            return handler;
+          }
+        };
+    when(env.observationCollector()).thenAnswer(invocation -> observationCollector);
+    AtomicReference<StreamProducer> producerReference = new AtomicReference<>();
+    // the broker confirms the messages before the accumulator observes them
+    doAnswer(
+            invocation -> {
+              List<Object> entities = invocation.getArgument(2);
+              long[] publishingIds =
+                  entities.stream()
+                      .mapToLong(e -> ((AccumulatedEntity) e).publishingId())
+                      .toArray();
+              List<Long> sequences =
+                  client.publishInternal(
+                      Constants.VERSION_1,
+                      channel,
+                      invocation.getArgument(1),
+                      entities,
+                      invocation.getArgument(3),
+                      invocation.getArgument(4));
+              producerReference.get().confirm(publishingIds, publishingIds.length);
+              return sequences;
+            })
+        .when(client)
+        .publishInternal(
+            anyShort(),
+            anyByte(),
+            anyList(),
+            any(OutboundEntityWriteCallback.class),
+            any(ToLongFunction.class));
+    StreamProducer producer =
+        new StreamProducer(
+            null,
+            "stream",
+            1,
+            10,
+            true,
+            Compression.NONE,
+            Duration.ZERO,
+            messageCount,
+            Duration.ofMinutes(1),
+            Duration.ofMillis(10),
+            true,
+            null,
+            null,
+            1,
+            true,
+            emptyList(),
+            env);
+    producerReference.set(producer);
+
+    List<Message> messages = new ArrayList<>();
+    range(0, messageCount)
+        .forEach(
+            i -> {
+              Message message = producer.messageBuilder().addData("".getBytes()).build();
+              messages.add(message);
+              producer.send(message, status -> {});
+            });
+    waitAtMost(() -> observedMessages.size() == messageCount);
+    assertThat(producer.unconfirmedCount()).isZero();
+    assertThat(observedMessages).containsExactlyElementsOf(messages);
+    assertThat(observedContexts).containsExactlyElementsOf(messages);
+  }
+
   @ParameterizedTest
   @CsvSource({"-1,false", "0,true", "500,false", "1000,true", "5000,true"})
   void confirmTimeoutCanZeroAndLongerThanOneSecond(int timeoutInMs, boolean ok) throws Throwable {
@@ -335,4 +719,23 @@ public class StreamProducerUnitTest {
       assertThatThrownBy(call).isInstanceOf(IllegalArgumentException.class);
     }
   }
+
+  @Test
+  void confirmationListenerIsNotSupportedWithSubEntryBatchingAndSuperStreams() {
+    ConfirmationListener listener = (publishingIds, count) -> {};
+    assertThatThrownBy(
+            () ->
+                new StreamProducerBuilder(env)
+                    .stream("stream").subEntrySize(10).confirmationListener(listener).build())
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                new StreamProducerBuilder(env)
+                    .superStream("stream")
+                    .confirmationListener(listener)
+                    .routing(m -> "")
+                    .producerBuilder()
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
 }
@@ -0,0 +1,183 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rabbitmq.stream.Codec;
+import com.rabbitmq.stream.StreamException;
+import com.rabbitmq.stream.codec.SimpleCodec;
+import com.rabbitmq.stream.compression.Compression;
+import com.rabbitmq.stream.compression.CompressionCodec;
+import com.rabbitmq.stream.compression.DefaultCompressionCodecFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SubEntryCompressorTest {
+
+  ByteBufAllocator allocator = new UnpooledByteBufAllocator(true);
+  CompressionCodec compressionCodec = new DefaultCompressionCodecFactory().get(Compression.GZIP);
+  Codec codec = new SimpleCodec();
+  Random random = new Random();
+  ExecutorService executorService;
+
+  @BeforeEach
+  void init() {
+    executorService = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void parallelCompressionShouldProduceSameBatchesAsInlineCompression() {
+    int batchCount = 20;
+    List<List<Codec.EncodedMessage>> messages = new ArrayList<>();
+    for (int i = 0; i < batchCount; i++) {
+      List<Codec.EncodedMessage> batchMessages = new ArrayList<>();
+      for (int j = 0; j < 50; j++) {
+        byte[] body = new byte[random.nextInt(1000) + 1];
+        random.nextBytes(body);
+        batchMessages.add(codec.encode(codec.messageBuilder().addData(body).build()));
+      }
+      messages.add(batchMessages);
+    }
+    List<Object> inlineBatches = batches(messages);
+    List<Object> parallelBatches = batches(messages);
+    SubEntryCompressor.INLINE.compress(inlineBatches);
+    new SubEntryCompressor(executorService, 4).compress(parallelBatches);
+
+    for (int i = 0; i < batchCount; i++) {
+      assertThat(ByteBufUtil.equals(written(inlineBatches.get(i)), written(parallelBatches.get(i))))
+          .isTrue();
+    }
+  }
+
+  @Test
+  void batchesShouldBeCompressedByCallingThreadAndPoolThreads() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    List<Object> batches = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      batches.add(
+          batch(
+              () -> {
+                threads.add(Thread.currentThread());
+                try {
+                  Thread.sleep(10);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }));
+    }
+    new SubEntryCompressor(executorService, 3).compress(batches);
+    assertThat(threads).contains(Thread.currentThread()).hasSizeBetween(2, 3);
+  }
+
+  @Test
+  void compressionErrorShouldBePropagatedOnceAllBatchesAreProcessed() {
+    List<Object> batches = new ArrayList<>();
+    int[] closed = new int[1];
+    for (int i = 0; i < 10; i++) {
+      int index = i;
+      batches.add(
+          batch(
+              () -> {
+                if (index == 5) {
+                  throw new IllegalStateException();
+                }
+                synchronized (closed) {
+                  closed[0]++;
+                }
+              }));
+    }
+    assertThatThrownBy(() -> new SubEntryCompressor(executorService, 4).compress(batches))
+        .isInstanceOf(StreamException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(closed[0]).isEqualTo(9);
+  }
+
+  List<Object> batches(List<List<Codec.EncodedMessage>> messages) {
+    List<Object> batches = new ArrayList<>();
+    for (List<Codec.EncodedMessage> batchMessages : messages) {
+      ProducerUtils.Batch batch =
+          new ProducerUtils.Batch(
+              new Client.CompressedEncodedMessageBatch(allocator, compressionCodec, 50),
+              new ProducerUtils.CompositeConfirmationCallback(new ArrayList<>()));
+      batchMessages.forEach(m -> batch.add(m, null));
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  ByteBuf written(Object batch) {
+    Client.EncodedMessageBatch encodedMessageBatch =
+        ((ProducerUtils.Batch) batch).encodedMessageBatch;
+    ByteBuf bb = allocator.heapBuffer(encodedMessageBatch.sizeInBytes());
+    encodedMessageBatch.write(bb);
+    return bb;
+  }
+
+  static ProducerUtils.Batch batch(Runnable closeCallback) {
+    return new ProducerUtils.Batch(
+        new Client.EncodedMessageBatch() {
+          @Override
+          public void add(Codec.EncodedMessage encodedMessage) {}
+
+          @Override
+          public void close() {
+            closeCallback.run();
+          }
+
+          @Override
+          public void write(ByteBuf bb) {}
+
+          @Override
+          public int batchSize() {
+            return 0;
+          }
+
+          @Override
+          public int sizeInBytes() {
+            return 0;
+          }
+
+          @Override
+          public int uncompressedSizeInBytes() {
+            return 0;
+          }
+
+          @Override
+          public byte compression() {
+            return Compression.NONE.code();
+          }
+        },
+        new ProducerUtils.CompositeConfirmationCallback(new ArrayList<>()));
+  }
+}
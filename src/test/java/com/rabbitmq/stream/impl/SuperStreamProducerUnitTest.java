@@ -0,0 +1,119 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rabbitmq.stream.ObservationCollector;
+import com.rabbitmq.stream.RoutingStrategy;
+import com.rabbitmq.stream.RoutingStrategy.Metadata;
+import com.rabbitmq.stream.codec.SimpleCodec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class SuperStreamProducerUnitTest {
+
+  @Mock StreamEnvironment env;
+
+  AutoCloseable mocks;
+
+  // the wheel is advanced manually
+  TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 64);
+
+  @BeforeEach
+  void init() {
+    mocks = MockitoAnnotations.openMocks(this);
+    when(env.codec()).thenReturn(new SimpleCodec());
+    when(env.observationCollector()).thenAnswer(invocation -> ObservationCollector.NO_OP);
+    when(env.timerWheel()).thenReturn(wheel);
+    doAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return null;
+            })
+        .when(env)
+        .execute(any(Runnable.class), anyString(), any());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mocks.close();
+  }
+
+  @Test
+  void partitionsShouldBeRefreshedPeriodically() {
+    List<String> initialPartitions = Arrays.asList("invoices-0", "invoices-1");
+    List<String> newPartitions = Arrays.asList("invoices-0", "invoices-1", "invoices-2");
+    when(env.locatorOperation(any()))
+        .thenReturn(initialPartitions, initialPartitions, newPartitions);
+    AtomicReference<Metadata> metadata = new AtomicReference<>();
+    RoutingStrategy routingStrategy =
+        (message, md) -> {
+          metadata.set(md);
+          return Collections.emptyList();
+        };
+    Duration refreshInterval = Duration.ofSeconds(1);
+    SuperStreamProducer producer =
+        new SuperStreamProducer(
+            new StreamProducerBuilder(env),
+            null,
+            "invoices",
+            routingStrategy,
+            refreshInterval,
+            env);
+    producer.send(producer.messageBuilder().build(), status -> {});
+    assertThat(metadata.get().partitions()).isEqualTo(initialPartitions);
+
+    // same partitions
+    wheel.advance(System.nanoTime() + refreshInterval.multipliedBy(2).toNanos());
+    assertThat(metadata.get().partitions()).isEqualTo(initialPartitions);
+    // a partition has been added
+    wheel.advance(System.nanoTime() + refreshInterval.multipliedBy(4).toNanos());
+    assertThat(metadata.get().partitions()).isEqualTo(newPartitions);
+    verify(env, times(3)).locatorOperation(any());
+
+    producer.close();
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void partitionsShouldNotBeRefreshedIfIntervalIsZero() {
+    when(env.locatorOperation(any())).thenReturn(Arrays.asList("invoices-0", "invoices-1"));
+    SuperStreamProducer producer =
+        new SuperStreamProducer(
+            new StreamProducerBuilder(env),
+            null,
+            "invoices",
+            (message, md) -> Collections.emptyList(),
+            Duration.ZERO,
+            env);
+    assertThat(wheel.size()).isZero();
+    producer.close();
+  }
+}
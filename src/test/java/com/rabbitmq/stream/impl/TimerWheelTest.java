@@ -0,0 +1,95 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTest {
+
+  static final long TICK = Duration.ofMillis(10).toNanos();
+
+  TimerWheel wheel = new TimerWheel(Duration.ofNanos(TICK), 8, 0);
+
+  @Test
+  void taskShouldRunOnceWhenDue() {
+    AtomicInteger count = new AtomicInteger();
+    wheel.schedule(count::incrementAndGet, TICK * 2 + TICK / 2, 0);
+    assertThat(wheel.size()).isEqualTo(1);
+    wheel.advance(TICK * 2);
+    assertThat(count).hasValue(0);
+    wheel.advance(TICK * 3);
+    assertThat(count).hasValue(1);
+    assertThat(wheel.size()).isZero();
+    wheel.advance(TICK * 20);
+    assertThat(count).hasValue(1);
+  }
+
+  @Test
+  void taskBeyondRevolutionShouldRunOnlyInItsRound() {
+    AtomicInteger count = new AtomicInteger();
+    // same bucket as tick 2 with a wheel of 8 buckets
+    wheel.schedule(count::incrementAndGet, TICK * 10, 0);
+    wheel.advance(TICK * 5);
+    assertThat(count).hasValue(0);
+    wheel.advance(TICK * 9);
+    assertThat(count).hasValue(0);
+    wheel.advance(TICK * 10);
+    assertThat(count).hasValue(1);
+  }
+
+  @Test
+  void cancelledTaskShouldNotRun() {
+    AtomicInteger count = new AtomicInteger();
+    TimerWheel.Timeout timeout = wheel.schedule(count::incrementAndGet, TICK, 0);
+    wheel.schedule(count::incrementAndGet, TICK, 0);
+    timeout.cancel();
+    timeout.cancel();
+    assertThat(wheel.size()).isEqualTo(1);
+    wheel.advance(TICK * 2);
+    assertThat(count).hasValue(1);
+  }
+
+  @Test
+  void taskWithPastDeadlineShouldRunOnNextTick() {
+    wheel.advance(TICK * 5);
+    AtomicInteger count = new AtomicInteger();
+    wheel.schedule(count::incrementAndGet, 0, TICK * 5);
+    wheel.advance(TICK * 5 + TICK / 2);
+    assertThat(count).hasValue(0);
+    wheel.advance(TICK * 6);
+    assertThat(count).hasValue(1);
+  }
+
+  @Test
+  void tickListenersShouldRunAfterTasksEvenIfTaskFails() {
+    List<String> events = new CopyOnWriteArrayList<>();
+    wheel.addTickListener(() -> events.add("listener"));
+    wheel.schedule(
+        () -> {
+          throw new IllegalStateException();
+        },
+        TICK,
+        0);
+    wheel.schedule(() -> events.add("task"), TICK, 0);
+    wheel.advance(TICK);
+    assertThat(events).containsExactly("task", "listener");
+  }
+}
@@ -0,0 +1,166 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rabbitmq.stream.impl.ProducerUtils.AccumulatedEntity;
+import com.rabbitmq.stream.impl.ProducerUtils.SimpleAccumulatedEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class UnconfirmedMessagesTest {
+
+  static AccumulatedEntity entity(long publishingId) {
+    return entity(publishingId, 0);
+  }
+
+  static AccumulatedEntity entity(long publishingId, long time) {
+    return new SimpleAccumulatedEntity(time, publishingId, null, null, null, null);
+  }
+
+  static List<Long> expire(UnconfirmedMessages messages, long limit) {
+    List<Long> expired = new ArrayList<>();
+    int count = messages.expire(limit, e -> expired.add(e.publishingId()));
+    assertThat(count).isEqualTo(expired.size());
+    return expired;
+  }
+
+  @ParameterizedTest
+  @CsvSource({"0,1", "1,1", "2,2", "3,4", "10000,16384", "16384,16384", "2000000,1048576"})
+  void capacity(int maxUnconfirmedMessages, int expected) {
+    assertThat(UnconfirmedMessages.capacity(maxUnconfirmedMessages)).isEqualTo(expected);
+  }
+
+  @Test
+  void putRemove() {
+    UnconfirmedMessages messages = new UnconfirmedMessages(8);
+    LongStream.range(0, 8).forEach(id -> messages.put(entity(id)));
+    assertThat(messages.size()).isEqualTo(8);
+    assertThat(messages.remove(3).publishingId()).isEqualTo(3);
+    assertThat(messages.remove(3)).isNull();
+    assertThat(messages.remove(42)).isNull();
+    assertThat(messages.size()).isEqualTo(7);
+    LongStream.range(0, 8).filter(id -> id != 3).forEach(messages::remove);
+    assertThat(messages.isEmpty()).isTrue();
+  }
+
+  @Test
+  void collidingPublishingIdsGoToOverflow() {
+    UnconfirmedMessages messages = new UnconfirmedMessages(4);
+    // 0, 4, 8 use the same slot
+    LongStream.of(0, 4, 8, 1).forEach(id -> messages.put(entity(id)));
+    assertThat(messages.size()).isEqualTo(4);
+    assertThat(messages.remove(4).publishingId()).isEqualTo(4);
+    assertThat(messages.remove(0).publishingId()).isEqualTo(0);
+    messages.put(entity(12));
+    assertThat(messages.remove(8).publishingId()).isEqualTo(8);
+    assertThat(messages.remove(12).publishingId()).isEqualTo(12);
+    assertThat(messages.remove(1).publishingId()).isEqualTo(1);
+    assertThat(messages.isEmpty()).isTrue();
+  }
+
+  @Test
+  void sizeShouldBeTrackedWithConcurrentPutAndRemove() throws Exception {
+    int threads = 4;
+    int entitiesPerThread = 10_000;
+    UnconfirmedMessages messages = new UnconfirmedMessages(1024);
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        long start = (long) i * entitiesPerThread;
+        futures.add(
+            executorService.submit(
+                () ->
+                    LongStream.range(start, start + entitiesPerThread)
+                        .forEach(
+                            id -> {
+                              messages.put(entity(id));
+                              if (id % 2 == 0) {
+                                messages.remove(id);
+                              }
+                            })));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    assertThat(messages.size()).isEqualTo(threads * entitiesPerThread / 2);
+    assertThat(messages.drain()).hasSize(threads * entitiesPerThread / 2);
+    assertThat(messages.size()).isZero();
+    assertThat(messages.isEmpty()).isTrue();
+  }
+
+  @Test
+  void drainReturnsEntitiesInPublishingIdOrder() {
+    UnconfirmedMessages messages = new UnconfirmedMessages(4);
+    LongStream.of(7, 2, 10, 3, 6, 14).forEach(id -> messages.put(entity(id)));
+    assertThat(messages.size()).isEqualTo(6);
+    assertThat(
+            messages.drain().stream()
+                .map(AccumulatedEntity::publishingId)
+                .collect(Collectors.toList()))
+        .containsExactly(2L, 3L, 6L, 7L, 10L, 14L);
+    assertThat(messages.isEmpty()).isTrue();
+  }
+
+  @Test
+  void expireStopsAtFirstEntityWithinLimit() {
+    UnconfirmedMessages messages = new UnconfirmedMessages(16);
+    LongStream.range(0, 10).forEach(id -> messages.put(entity(id, id * 10)));
+    messages.remove(2);
+    assertThat(expire(messages, 45)).containsExactly(0L, 1L, 3L, 4L);
+    assertThat(messages.size()).isEqualTo(5);
+    assertThat(expire(messages, 45)).isEmpty();
+    LongStream.range(10, 20).forEach(id -> messages.put(entity(id, id * 10)));
+    messages.remove(5);
+    messages.remove(6);
+    assertThat(expire(messages, 125)).containsExactly(7L, 8L, 9L, 10L, 11L, 12L);
+    assertThat(expire(messages, 1000)).containsExactly(13L, 14L, 15L, 16L, 17L, 18L, 19L);
+    assertThat(messages.isEmpty()).isTrue();
+  }
+
+  @Test
+  void expireGoesBackForEntitiesStoredBehindCursor() {
+    UnconfirmedMessages messages = new UnconfirmedMessages(16);
+    messages.put(entity(1, 10));
+    assertThat(expire(messages, 100)).containsExactly(1L);
+    // 0 had a lower publishing ID but was written after 1
+    messages.put(entity(0, 5));
+    messages.put(entity(2, 20));
+    assertThat(expire(messages, 100)).containsExactly(0L, 2L);
+  }
+
+  @Test
+  void expireJumpsOverGapsInPublishingIds() {
+    UnconfirmedMessages messages = new UnconfirmedMessages(4);
+    LongStream.of(1_000, 1_000_000, 1_000_000_000).forEach(id -> messages.put(entity(id, 10)));
+    messages.put(entity(1_000_000_001, 200));
+    assertThat(expire(messages, 100)).containsExactly(1_000L, 1_000_000L, 1_000_000_000L);
+    assertThat(expire(messages, 300)).containsExactly(1_000_000_001L);
+    assertThat(messages.isEmpty()).isTrue();
+  }
+}
@@ -14,9 +14,11 @@
 // info@rabbitmq.com.
 package com.rabbitmq.stream.metrics;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.codahale.metrics.MetricRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
@@ -51,6 +53,25 @@ public class MetricsCollectorsTest {
     collector.chunk(100);
     assertThat(registry.get("rabbitmq.stream.chunk").counter().count()).isEqualTo(1);
     assertThat(registry.get("rabbitmq.stream.chunk_size").summary().totalAmount()).isEqualTo(100.0);
+
+    assertThat(collector.publishLatencyEnabled()).isFalse();
+    assertThat(
+            new MicrometerMetricsCollector(registry).publishLatency(true).publishLatencyEnabled())
+        .isTrue();
+    collector.publishConfirmLatency("s1", MILLISECONDS.toNanos(10));
+    collector.publishConfirmLatency("s1", MILLISECONDS.toNanos(20));
+    collector.publishConfirmLatency("s2", MILLISECONDS.toNanos(30));
+    Timer timer =
+        registry.get("rabbitmq.stream.publish_confirm_latency").tag("stream", "s1").timer();
+    assertThat(timer.count()).isEqualTo(2);
+    assertThat(timer.totalTime(MILLISECONDS)).isEqualTo(30.0);
+    assertThat(timer.max(MILLISECONDS)).isEqualTo(20.0);
+    timer = registry.get("rabbitmq.stream.publish_confirm_latency").tag("stream", "s2").timer();
+    assertThat(timer.count()).isEqualTo(1);
+    collector.publishQueueingTime("s1", MILLISECONDS.toNanos(5));
+    timer = registry.get("rabbitmq.stream.publish_queueing_time").tag("stream", "s1").timer();
+    assertThat(timer.count()).isEqualTo(1);
+    assertThat(timer.totalTime(MILLISECONDS)).isEqualTo(5.0);
   }
 
   @Test
@@ -83,5 +104,21 @@ public class MetricsCollectorsTest {
     assertThat(registry.meter("rabbitmq.stream.chunk").getCount()).isEqualTo(1);
     assertThat(registry.histogram("rabbitmq.stream.chunk_size").getSnapshot().getMax())
         .isEqualTo(100);
+
+    assertThat(collector.publishLatencyEnabled()).isFalse();
+    assertThat(new DropwizardMetricsCollector().publishLatency(true).publishLatencyEnabled())
+        .isTrue();
+    collector.publishConfirmLatency("s1", MILLISECONDS.toNanos(10));
+    collector.publishConfirmLatency("s1", MILLISECONDS.toNanos(20));
+    collector.publishConfirmLatency("s2", MILLISECONDS.toNanos(30));
+    com.codahale.metrics.Timer timer = registry.timer("rabbitmq.stream.publish_confirm_latency.s1");
+    assertThat(timer.getCount()).isEqualTo(2);
+    assertThat(timer.getSnapshot().getMax()).isEqualTo(MILLISECONDS.toNanos(20));
+    assertThat(registry.timer("rabbitmq.stream.publish_confirm_latency.s2").getCount())
+        .isEqualTo(1);
+    collector.publishQueueingTime("s1", MILLISECONDS.toNanos(5));
+    timer = registry.timer("rabbitmq.stream.publish_queueing_time.s1");
+    assertThat(timer.getCount()).isEqualTo(1);
+    assertThat(timer.getSnapshot().getMax()).isEqualTo(MILLISECONDS.toNanos(5));
   }
 }
@@ -0,0 +1,195 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.observation.micrometer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageHandler;
+import com.rabbitmq.stream.ObservationCollector;
+import com.rabbitmq.stream.codec.WrapperMessageBuilder;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MicrometerObservationCollectorUnitTest {
+
+  ObservationRegistry registry;
+  List<Observation.Context> started, stopped, errors;
+  MessageHandler.Context context;
+
+  @BeforeEach
+  void init() {
+    started = new CopyOnWriteArrayList<>();
+    stopped = new CopyOnWriteArrayList<>();
+    errors = new CopyOnWriteArrayList<>();
+    registry = ObservationRegistry.create();
+    registry
+        .observationConfig()
+        .observationHandler(
+            new ObservationHandler<Observation.Context>() {
+              @Override
+              public void onStart(Observation.Context ctx) {
+                started.add(ctx);
+              }
+
+              @Override
+              public void onError(Observation.Context ctx) {
+                errors.add(ctx);
+              }
+
+              @Override
+              public void onStop(Observation.Context ctx) {
+                stopped.add(ctx);
+              }
+
+              @Override
+              public boolean supportsContext(Observation.Context ctx) {
+                return true;
+              }
+            });
+    context = mock(MessageHandler.Context.class);
+    when(context.stream()).thenReturn("stream");
+  }
+
+  MicrometerObservationCollectorBuilder builder() {
+    return new MicrometerObservationCollectorBuilder().registry(registry);
+  }
+
+  static Message message() {
+    return new WrapperMessageBuilder().addData("hello".getBytes()).build();
+  }
+
+  @Test
+  void publishShouldBeObservedOnlyWhenSampled() {
+    ObservationCollector<Observation> collector =
+        builder().publishSampler(ObservationSampler.oneIn(2)).build();
+    for (int i = 0; i < 10; i++) {
+      Message message = message();
+      collector.published(collector.prePublish("stream", message), message);
+    }
+    assertThat(started).hasSize(5).allMatch(ctx -> ctx instanceof PublishContext);
+    assertThat(stopped).hasSize(5);
+  }
+
+  @Test
+  void processShouldBeObservedOnlyWhenSampled() throws Exception {
+    List<Message> handled = new CopyOnWriteArrayList<>();
+    MessageHandler handler =
+        builder()
+            .processSampler(ObservationSampler.oneIn(3))
+            .build()
+            .subscribe((ctx, msg) -> handled.add(msg));
+    for (int i = 0; i < 9; i++) {
+      handler.handle(context, message());
+    }
+    assertThat(handled).hasSize(9);
+    assertThat(started).hasSize(3).allMatch(ctx -> ctx instanceof ProcessContext);
+    assertThat(stopped).hasSize(3);
+  }
+
+  @Test
+  void chunkLevelObservationShouldCreateOneObservationPerChunk() {
+    List<Observation> currentObservations = new CopyOnWriteArrayList<>();
+    MessageHandler handler =
+        builder()
+            .chunkLevelProcessObservation(true)
+            .build()
+            .subscribe((ctx, msg) -> currentObservations.add(registry.getCurrentObservation()));
+    assertThat(handler).isInstanceOf(ObservationCollector.ChunkMessageHandler.class);
+    ObservationCollector.ChunkMessageHandler chunkHandler =
+        (ObservationCollector.ChunkMessageHandler) handler;
+
+    chunkHandler.chunkStarted(3);
+    assertThat(started).isEmpty();
+    for (int i = 0; i < 3; i++) {
+      chunkHandler.handle(context, message());
+    }
+    assertThat(started).hasSize(1);
+    assertThat(stopped).isEmpty();
+    chunkHandler.chunkCompleted();
+    assertThat(stopped).hasSize(1);
+    ProcessContext processContext = (ProcessContext) started.get(0);
+    assertThat(processContext.isChunk()).isTrue();
+    assertThat(processContext.getMessageCount()).isEqualTo(3);
+    assertThat(processContext.getHighCardinalityKeyValue("messaging.batch.message_count"))
+        .isNotNull()
+        .satisfies(kv -> assertThat(kv.getValue()).isEqualTo("3"));
+    assertThat(currentObservations).hasSize(3).doesNotContainNull();
+    assertThat(currentObservations.get(0))
+        .isSameAs(currentObservations.get(1))
+        .isSameAs(currentObservations.get(2));
+
+    // chunk not completed, e.g. consumer recovery
+    chunkHandler.chunkStarted(2);
+    chunkHandler.handle(context, message());
+    chunkHandler.chunkStarted(1);
+    assertThat(started).hasSize(2);
+    assertThat(stopped).hasSize(2);
+    chunkHandler.handle(context, message());
+    chunkHandler.chunkCompleted();
+    assertThat(started).hasSize(3);
+    assertThat(stopped).hasSize(3);
+  }
+
+  @Test
+  void chunkLevelObservationShouldUseSamplerOnFirstMessage() {
+    MessageHandler handler =
+        builder()
+            .chunkLevelProcessObservation(true)
+            .processSampler(ObservationSampler.oneIn(2))
+            .build()
+            .subscribe((ctx, msg) -> {});
+    ObservationCollector.ChunkMessageHandler chunkHandler =
+        (ObservationCollector.ChunkMessageHandler) handler;
+    for (int i = 0; i < 4; i++) {
+      chunkHandler.chunkStarted(10);
+      for (int j = 0; j < 10; j++) {
+        chunkHandler.handle(context, message());
+      }
+      chunkHandler.chunkCompleted();
+    }
+    assertThat(started).hasSize(2);
+    assertThat(stopped).hasSize(2);
+  }
+
+  @Test
+  void chunkLevelObservationShouldStopObservationOnError() {
+    MessageHandler handler =
+        builder()
+            .chunkLevelProcessObservation(true)
+            .build()
+            .subscribe(
+                (ctx, msg) -> {
+                  throw new IllegalStateException();
+                });
+    ObservationCollector.ChunkMessageHandler chunkHandler =
+        (ObservationCollector.ChunkMessageHandler) handler;
+    chunkHandler.chunkStarted(2);
+    assertThatThrownBy(() -> chunkHandler.handle(context, message()))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(errors).hasSize(1);
+    assertThat(stopped).hasSize(1);
+    chunkHandler.chunkCompleted();
+    assertThat(stopped).hasSize(1);
+  }
+}
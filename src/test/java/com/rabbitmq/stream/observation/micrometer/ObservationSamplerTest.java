@@ -0,0 +1,135 @@
+// Copyright (c) 2026 Broadcom. All Rights Reserved.
+// The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+//
+// This software, the RabbitMQ Stream Java client library, is dual-licensed under the
+// Mozilla Public License 2.0 ("MPL"), and the Apache License version 2 ("ASL").
+// For the MPL, please see LICENSE-MPL-RabbitMQ. For the ASL,
+// please see LICENSE-APACHE2.
+//
+// This software is distributed on an "AS IS" basis, WITHOUT WARRANTY OF ANY KIND,
+// either express or implied. See the LICENSE file for specific language governing
+// rights and limitations of this software.
+//
+// If you have any questions regarding licensing, please contact us at
+// info@rabbitmq.com.
+package com.rabbitmq.stream.observation.micrometer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.codec.WrapperMessageBuilder;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class ObservationSamplerTest {
+
+  static final ObservationRegistry REGISTRY = ObservationRegistry.create();
+  static final Message MESSAGE = new WrapperMessageBuilder().build();
+
+  static long sampledCount(ObservationSampler sampler, int attempts) {
+    return IntStream.range(0, attempts)
+        .filter(ignored -> sampler.sample(REGISTRY, "stream", MESSAGE))
+        .count();
+  }
+
+  @Test
+  void alwaysShouldSampleEverything() {
+    assertThat(sampledCount(ObservationSampler.always(), 100)).isEqualTo(100);
+  }
+
+  @Test
+  void oneInShouldSampleAccordingToInterval() {
+    assertThat(sampledCount(ObservationSampler.oneIn(10), 100)).isEqualTo(10);
+    assertThat(sampledCount(ObservationSampler.oneIn(1), 100)).isEqualTo(100);
+    ObservationSampler sampler = ObservationSampler.oneIn(3);
+    assertThat(sampler.sample(REGISTRY, "stream", MESSAGE)).isTrue();
+    assertThat(sampler.sample(REGISTRY, "stream", MESSAGE)).isFalse();
+    assertThat(sampler.sample(REGISTRY, "stream", MESSAGE)).isFalse();
+    assertThat(sampler.sample(REGISTRY, "stream", MESSAGE)).isTrue();
+    assertThatThrownBy(() -> ObservationSampler.oneIn(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rateLimitedShouldNotSampleMoreThanPermitsInWindow() {
+    AtomicLong clock = new AtomicLong(0);
+    ObservationSampler sampler = new ObservationSampler.RateLimitedSampler(5, clock::get);
+    assertThat(sampledCount(sampler, 100)).isEqualTo(5);
+    clock.addAndGet(Duration.ofMillis(500).toNanos());
+    assertThat(sampledCount(sampler, 100)).isZero();
+    clock.addAndGet(Duration.ofMillis(500).toNanos());
+    assertThat(sampledCount(sampler, 100)).isEqualTo(5);
+    clock.addAndGet(Duration.ofSeconds(10).toNanos());
+    assertThat(sampledCount(sampler, 3)).isEqualTo(3);
+    assertThatThrownBy(() -> ObservationSampler.rateLimited(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "traceparent,00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01,true",
+    "traceparent,00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00,false",
+    "traceparent,00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-03,true",
+    "b3,80f198ee56343ba864fe8b2a57d3eff7-e457b5a2e4d86bd1-1,true",
+    "b3,80f198ee56343ba864fe8b2a57d3eff7-e457b5a2e4d86bd1-0,false",
+    "b3,80f198ee56343ba864fe8b2a57d3eff7-e457b5a2e4d86bd1-d-05e3ac9a4f6e3b90,true",
+    "b3,0,false",
+    "b3,1,true",
+    "X-B3-Sampled,1,true",
+    "X-B3-Sampled,0,false",
+  })
+  void parentBasedShouldUsePropagatedSampledFlag(String header, String value, boolean expected) {
+    Message annotations =
+        new WrapperMessageBuilder()
+            .messageAnnotations()
+            .entry(header, value)
+            .messageBuilder()
+            .build();
+    Message properties =
+        new WrapperMessageBuilder()
+            .applicationProperties()
+            .entry(header, value)
+            .messageBuilder()
+            .build();
+    // the root sampler would make the opposite decision
+    ObservationSampler sampler =
+        ObservationSampler.parentBased((registry, stream, message) -> !expected);
+    assertThat(sampler.sample(REGISTRY, "stream", annotations)).isEqualTo(expected);
+    assertThat(sampler.sample(REGISTRY, "stream", properties)).isEqualTo(expected);
+  }
+
+  @Test
+  void parentBasedShouldUseRootSamplerWithoutParent() {
+    ObservationSampler sampler = ObservationSampler.parentBased(ObservationSampler.oneIn(2));
+    assertThat(sampledCount(sampler, 10)).isEqualTo(5);
+    Message deferred =
+        new WrapperMessageBuilder()
+            .messageAnnotations()
+            .entry("b3", "80f198ee56343ba864fe8b2a57d3eff7-e457b5a2e4d86bd1")
+            .messageBuilder()
+            .build();
+    assertThat(
+            IntStream.range(0, 10)
+                .filter(ignored -> sampler.sample(REGISTRY, "stream", deferred))
+                .count())
+        .isEqualTo(5);
+  }
+
+  @Test
+  void parentBasedShouldSampleInScopeOfCurrentObservation() {
+    ObservationRegistry registry = ObservationRegistry.create();
+    registry.observationConfig().observationHandler(context -> true);
+    ObservationSampler sampler = ObservationSampler.parentBased((r, stream, message) -> false);
+    assertThat(sampler.sample(registry, "stream", MESSAGE)).isFalse();
+    Observation.createNotStarted("parent", registry)
+        .observe(() -> assertThat(sampler.sample(registry, "stream", MESSAGE)).isTrue());
+    assertThat(sampler.sample(registry, "stream", MESSAGE)).isFalse();
+  }
+}